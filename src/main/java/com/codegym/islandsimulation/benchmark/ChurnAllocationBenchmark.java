@@ -0,0 +1,82 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.engine.IslandEngine;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.animals.Rabbit;
+import com.codegym.islandsimulation.factory.AnimalPool;
+import com.codegym.islandsimulation.metrics.CycleTimeSeries;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mide la memoria reservada por el hilo de simulación con y sin reciclaje de animales,
+ * en una isla grande con muchas muertes y nacimientos por ciclo, y el coste aislado
+ * de obtener una cría del pool frente a construirla.
+ * Usa {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes}, que cuenta
+ * los bytes reservados por el hilo sin depender de cuándo pase el recolector.
+ * Las muertes, nacimientos y alarmas se aplican en el hilo que ejecuta el ciclo, que es
+ * el que se mide. Escribe island.html en el directorio actual, como la simulación normal.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.benchmark.ChurnAllocationBenchmark [lado] [ciclos]}
+ */
+public class ChurnAllocationBenchmark {
+
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 80;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.out.println("🏁 Isla de " + side + "x" + side + ", " + cycles + " ciclos por ejecución");
+
+        for (int round = 1; round <= 2; round++) {
+            for (int capacity : new int[] {0, AnimalPool.DEFAULT_CAPACITY_PER_SPECIES}) {
+                IslandEngine engine = new IslandEngine(side, side);
+                engine.setAnimalPoolCapacity(capacity);
+                try {
+                    long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < cycles; i++) {
+                        engine.updateSimulationCycle();
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+                    CycleTimeSeries series = engine.getTimeSeries();
+                    long deaths = sum(series.copyColumn(CycleTimeSeries.HUNTING_DEATHS))
+                            + sum(series.copyColumn(CycleTimeSeries.STARVATION_DEATHS));
+                    long births = sum(series.copyColumn(CycleTimeSeries.BIRTHS));
+                    double seconds = elapsed / 1e9;
+                    System.out.printf("Ronda %d, %s: %,d muertes, %,d nacimientos, %,.1f MB reservados (%,.1f MB/s), %d reutilizados%n",
+                            round, capacity == 0 ? "sin reciclaje" : "con reciclaje",
+                            deaths, births, allocated / 1e6, allocated / 1e6 / seconds,
+                            engine.getAnimalPool().getReusedCount());
+                } finally {
+                    engine.shutdown();
+                }
+            }
+        }
+
+        // Coste aislado de obtener una cría: construcción por reflexión frente a reutilización
+        int animals = 200_000;
+        for (int capacity : new int[] {0, AnimalPool.DEFAULT_CAPACITY_PER_SPECIES}) {
+            AnimalPool pool = new AnimalPool(capacity);
+            long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < animals; i++) {
+                Animal animal = pool.acquire(Rabbit.class);
+                pool.release(animal);
+            }
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            System.out.printf("Por cría %s: %.1f bytes reservados%n",
+                    capacity == 0 ? "sin reciclaje" : "con reciclaje", (double) allocated / animals);
+        }
+        System.exit(0);
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
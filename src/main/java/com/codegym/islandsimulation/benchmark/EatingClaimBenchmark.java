@@ -0,0 +1,171 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.*;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.threads.CellClaims;
+import com.codegym.islandsimulation.threads.EatingExecutor;
+import com.codegym.islandsimulation.threads.EatingPlantEvent;
+import com.codegym.islandsimulation.threads.HuntingEvent;
+import com.codegym.islandsimulation.threads.SimulationEventRegistry;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Mide la fase de alimentación en paralelo sobre mapas muy poblados, sin reservas
+ * (antes: cada animal decidía solo y una presa o planta podía consumirse varias veces)
+ * y con las reservas por celda de {@link CellClaims} (ahora).
+ *
+ * Todos los animales empiezan hambrientos. Para cada densidad se informa de los eventos
+ * de comida, de los consumos repetidos de una misma celda, de las reservas perdidas
+ * frente a otro animal y del rendimiento en animales por segundo.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.benchmark.EatingClaimBenchmark [lado] [rondas]}
+ */
+public class EatingClaimBenchmark {
+    // Llamadas a eat sobre un mapa vacío necesarias para que un animal tenga hambre
+    private static final int HUNGER_CALLS = 6;
+
+    private static final List<Supplier<Animal>> PREDATORS = List.of(Wolf::new, Fox::new, Eagle::new, Bear::new);
+    private static final List<Supplier<Animal>> HERBIVORES = List.of(Rabbit::new, Mouse::new, Goat::new, Duck::new, Deer::new);
+
+    // Registro de eventos compartido por las dos variantes; se vacía antes de cada medición
+    private static final SimulationEventRegistry EVENTS = new SimulationEventRegistry();
+
+    public static void main(String[] args) throws Exception {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("🏁 Isla de %dx%d, %d hilos, %d rondas por densidad%n", side, side, threads, rounds);
+
+        ExecutorService legacyPool = Executors.newFixedThreadPool(threads);
+        SimulationThreadPool simulationPool = new SimulationThreadPool();
+        try {
+            for (double density : new double[] {0.3, 0.6, 0.9}) {
+                System.out.printf("--- Animales en el %.0f %% de las celdas, plantas en el resto ---%n", density * 100);
+                for (int round = 1; round <= rounds; round++) {
+                    boolean report = round == rounds;
+                    Result before = runLegacy(buildMap(side, density, round), legacyPool);
+                    Result after = runClaims(buildMap(side, density, round), simulationPool, round);
+                    if (report) {
+                        before.print("antes (sin reservas)");
+                        after.print("ahora (con reservas)");
+                    }
+                }
+            }
+        } finally {
+            legacyPool.shutdownNow();
+            simulationPool.shutdown();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Alimentación anterior: cada animal come sin reservar su comida.
+     */
+    private static Result runLegacy(IslandMap map, ExecutorService pool) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int row = 0; row < map.getRows(); row++) {
+            for (int col = 0; col < map.getCols(); col++) {
+                if (map.getOrganismAt(row, col) instanceof Animal animal) {
+                    int finalRow = row;
+                    int finalCol = col;
+                    tasks.add(() -> {
+                        animal.eat(map, finalRow, finalCol, null, EVENTS);
+                        return null;
+                    });
+                }
+            }
+        }
+        clearEvents();
+        long start = System.nanoTime();
+        pool.invokeAll(tasks);
+        long elapsed = System.nanoTime() - start;
+        return collect(map, tasks.size(), elapsed, 0);
+    }
+
+    /**
+     * Alimentación actual con el ejecutor del motor y sus reservas por celda.
+     */
+    private static Result runClaims(IslandMap map, SimulationThreadPool pool, int cycle) {
+        EatingExecutor executor = new EatingExecutor(map, pool, EVENTS);
+        int animals = (int) map.getOrganisms().stream().filter(o -> o instanceof Animal).count();
+        clearEvents();
+        long start = System.nanoTime();
+        executor.processAnimalEating(cycle);
+        long elapsed = System.nanoTime() - start;
+        return collect(map, animals, elapsed, executor.getClaims().getConflicts());
+    }
+
+    private static Result collect(IslandMap map, int animals, long nanos, long conflicts) {
+        BitSet consumed = new BitSet(map.getRows() * map.getCols());
+        int events = 0;
+        int repeated = 0;
+        for (HuntingEvent event : EVENTS.getHuntingEvents()) {
+            events++;
+            repeated += mark(consumed, event.preyRow() * map.getCols() + event.preyCol());
+        }
+        for (EatingPlantEvent event : EVENTS.getEatingPlantEvents()) {
+            events++;
+            repeated += mark(consumed, event.plantRow() * map.getCols() + event.plantCol());
+        }
+        clearEvents();
+        return new Result(animals, events, repeated, conflicts, nanos);
+    }
+
+    private static int mark(BitSet consumed, int cell) {
+        if (consumed.get(cell)) {
+            return 1;
+        }
+        consumed.set(cell);
+        return 0;
+    }
+
+    private static void clearEvents() {
+        EVENTS.clearHuntingEvents();
+        EVENTS.clearEatingPlantEvents();
+    }
+
+    /**
+     * Crea un mapa lleno: animales hambrientos en la fracción indicada de las celdas
+     * (un tercio depredadores) y plantas en el resto.
+     */
+    private static IslandMap buildMap(int side, double density, long seed) {
+        IslandMap map = new IslandMap(side, side);
+        IslandMap empty = new IslandMap(1, 1);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                Organism organism;
+                if (random.nextDouble() < density) {
+                    List<Supplier<Animal>> kinds = random.nextInt(3) == 0 ? PREDATORS : HERBIVORES;
+                    Animal animal = kinds.get(random.nextInt(kinds.size())).get();
+                    for (int i = 0; i < HUNGER_CALLS; i++) {
+                        animal.eat(empty, 0, 0, null, EVENTS);
+                    }
+                    organism = animal;
+                } else {
+                    organism = new Vegetation();
+                }
+                map.setOrganismAt(row, col, organism);
+            }
+        }
+        return map;
+    }
+
+    private record Result(int animals, int events, int repeated, long conflicts, long nanos) {
+        void print(String label) {
+            System.out.printf("%-22s %,9d animales  %,8d eventos  %,7d repetidos  %,7d reservas perdidas  %8.2f ms  %,12.0f animales/s%n",
+                    label, animals, events, repeated, conflicts, nanos / 1e6, animals / (nanos / 1e9));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import com.codegym.islandsimulation.world.TerrainGenerator;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compara el mapa con las celdas en el heap ({@link IslandMap#IslandMap(int, int)}) y fuera de
+ * él ({@link IslandMap#offHeap(int, int)}) en islas de distintos tamaños: tiempo de poblado,
+ * heap ocupado tras una recolección (el plano de especies y el terreno van en la memoria del
+ * mapa, que se informa aparte si está fuera del heap), y tiempo y pausas de GC de varias pasadas que recorren
+ * todas las celdas comiendo y reviviendo plantas, como hace el motor en cada ciclo. Comprueba
+ * también que los dos mapas generados con la misma semilla son idénticos.
+ *
+ * Uso: {@code java -Xmx4g -XX:MaxDirectMemorySize=8g -cp target/classes com.codegym.islandsimulation.benchmark.MapStorageBenchmark [lado...]}
+ */
+public class MapStorageBenchmark {
+    // Pasadas completas sobre el mapa en cada medición
+    private static final int PASSES = 5;
+
+    public static void main(String[] args) {
+        int[] sides = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1000, 2000, 4000};
+        long seed = 42L;
+        Map<Class<? extends Organism>, Double> densities = WorldGenerator.getDefaultDensities();
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        try {
+            TerrainGenerator terrain = new TerrainGenerator(threadPool);
+            WorldGenerator generator = new WorldGenerator(threadPool);
+            for (int side : sides) {
+                System.out.printf("--- Isla de %,d x %,d (%,d celdas) ---%n", side, side, (long) side * side);
+                int heapHash = 0;
+                for (boolean offHeap : new boolean[] {false, true}) {
+                    long baseline = usedHeapAfterGc();
+                    long start = System.nanoTime();
+                    IslandMap map = offHeap ? IslandMap.offHeap(side, side) : new IslandMap(side, side);
+                    map.setTerrain(terrain.generateBand(side, side, seed, 0, map.getCellMemory()));
+                    generator.populate(map, seed, densities, new OrganismIds());
+                    long populateNanos = System.nanoTime() - start;
+                    long heapBytes = usedHeapAfterGc() - baseline;
+
+                    long gcCount = gcCount();
+                    long gcMillis = gcMillis();
+                    start = System.nanoTime();
+                    long[] counts = new long[2];
+                    for (int pass = 0; pass < PASSES; pass++) {
+                        scan(map, pass, counts);
+                    }
+                    long scanNanos = System.nanoTime() - start;
+
+                    int hash = Arrays.hashCode(map.encodeSpeciesCodes(null));
+                    if (!offHeap) {
+                        heapHash = hash;
+                    }
+                    System.out.printf("%-11s población %8.1f ms  heap %,8.1f MB  planos %,8.1f MB  %d pasadas %8.1f ms (%,d animales, %,d plantas comidas)  GC %d (%d ms)%s%n",
+                            offHeap ? "fuera heap" : "heap", populateNanos / 1e6, heapBytes / 1e6,
+                            map.getCellMemory().getOffHeapBytes() / 1e6, PASSES, scanNanos / 1e6,
+                            counts[0] / PASSES, counts[1], gcCount() - gcCount, gcMillis() - gcMillis,
+                            offHeap ? "  idéntico=" + (hash == heapHash) : "");
+                }
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Recorre todas las celdas: cuenta los animales, come las plantas vivas de una fila de
+     * cada dos y revive las comidas en la pasada anterior.
+     */
+    private static void scan(IslandMap map, int pass, long[] counts) {
+        for (int row = 0; row < map.getRows(); row++) {
+            boolean eat = (row + pass) % 2 == 0;
+            for (int col = 0; col < map.getCols(); col++) {
+                Organism organism = map.getOrganismAt(row, col);
+                if (organism instanceof Animal) {
+                    counts[0]++;
+                } else if (organism instanceof Plant plant) {
+                    if (eat && plant.isAlive() && map.eatPlantAt(row, col)) {
+                        counts[1]++;
+                    } else if (!plant.isAlive()) {
+                        map.revivePlantAt(row, col);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
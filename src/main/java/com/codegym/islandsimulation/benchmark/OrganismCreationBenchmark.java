@@ -0,0 +1,80 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.entities.animals.Rabbit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mide la tasa de creación de organismos con identificadores de 64 bits frente al
+ * coste anterior, en el que cada construcción llamaba a {@code UUID.randomUUID()}.
+ * Se ejecuta en un solo hilo y en varios hilos a la vez, como en una ráfaga de nacimientos.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.benchmark.OrganismCreationBenchmark [organismos] [hilos]}
+ */
+public class OrganismCreationBenchmark {
+    // Evita que el JIT elimine el trabajo medido
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("🏁 Creación de " + count + " organismos (" + threads + " hilos en la prueba paralela)");
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("--- Ronda " + round + " ---");
+            report("UUID.randomUUID (antes), 1 hilo", count, run(count, 1, true));
+            report("Ids de 64 bits (ahora), 1 hilo", count, run(count, 1, false));
+            report("UUID.randomUUID (antes), " + threads + " hilos", count, run(count, threads, true));
+            report("Ids de 64 bits (ahora), " + threads + " hilos", count, run(count, threads, false));
+        }
+    }
+
+    /**
+     * Crea {@code count} organismos repartidos entre {@code threads} hilos.
+     * @param withUuid Si además se genera un UUID por organismo, como hacía el constructor antes
+     * @return Tiempo transcurrido en nanosegundos
+     */
+    private static long run(int count, int threads, boolean withUuid) throws Exception {
+        OrganismIds ids = new OrganismIds();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Long>> tasks = new ArrayList<>();
+            int perThread = count / threads;
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> ids.call(() -> {
+                    long checksum = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        Organism organism = new Rabbit();
+                        checksum += organism.getId();
+                        if (withUuid) {
+                            checksum += UUID.randomUUID().getLeastSignificantBits();
+                        }
+                    }
+                    return checksum;
+                }));
+            }
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (Future<Long> future : executor.invokeAll(tasks)) {
+                checksum += future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            sink = checksum;
+            return elapsed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void report(String label, int count, long nanos) {
+        System.out.printf("%-40s %8.1f ms  %,12.0f organismos/s%n", label, nanos / 1_000_000.0, count * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,67 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.util.List;
+
+/**
+ * Mide el coste de arranque del registro de organismos, el de poblar un mapa y la tasa
+ * de creación de organismos con las factorías del registro frente a la creación por
+ * reflexión ({@code getDeclaredConstructor().newInstance()}) que se usaba antes.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.benchmark.OrganismSpawnBenchmark [organismos]}
+ */
+public class OrganismSpawnBenchmark {
+    // Evita que el JIT elimine el trabajo medido
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long start = System.nanoTime();
+        List<Class<? extends Organism>> animals = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL);
+        System.out.printf("🏁 Inicialización del registro (%d tipos): %.2f ms%n",
+                OrganismRegistry.getAllOrganismTypes().size(), (System.nanoTime() - start) / 1e6);
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        WorldGenerator generator = new WorldGenerator(threadPool);
+        try {
+            for (int round = 1; round <= 3; round++) {
+                System.out.println("--- Ronda " + round + " ---");
+
+                IslandMap map = new IslandMap(200, 200);
+                start = System.nanoTime();
+                generator.populate(map, round, WorldGenerator.getDefaultDensities(), new OrganismIds());
+                System.out.printf("Poblar un mapa de 200x200: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+                start = System.nanoTime();
+                long checksum = 0;
+                for (int i = 0; i < count; i++) {
+                    checksum += OrganismFactory.createOrganism(animals.get(i % animals.size())).getId();
+                }
+                report("Factorías del registro (ahora)", count, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    checksum += animals.get(i % animals.size()).getDeclaredConstructor().newInstance().getId();
+                }
+                report("Reflexión (antes)", count, System.nanoTime() - start);
+                sink = checksum;
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void report(String label, int count, long nanos) {
+        System.out.printf("%-32s %8.1f ms  %,12.0f organismos/s%n", label, nanos / 1e6, count * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,125 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.entities.animals.Wolf;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.PerceptionField;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import com.codegym.islandsimulation.world.TerrainGenerator;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mide la percepción de presas a distancia de los lobos en islas grandes: el coste de
+ * reconstruir las tablas de sumas acumuladas de {@link PerceptionField} y el de contar las
+ * presas alrededor de cada lobo con las tablas frente a recorrer las (2r + 1)² celdas del
+ * cuadrado, para varios radios. Comprueba que los dos recuentos coinciden.
+ *
+ * Uso: {@code java -Xmx4g -cp target/classes com.codegym.islandsimulation.benchmark.PerceptionBenchmark [lado...]}
+ */
+public class PerceptionBenchmark {
+    private static final int[] RADII = {1, 2, 4, 8, 16, 32};
+
+    // Repeticiones de calentamiento y medidas de cada variante
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int[] sides = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1000, 2000};
+        long seed = 42L;
+        Set<Class<? extends Organism>> prey = OrganismRegistry.getDiets().get(Wolf.class);
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        try {
+            TerrainGenerator terrain = new TerrainGenerator(threadPool);
+            WorldGenerator generator = new WorldGenerator(threadPool);
+            for (int side : sides) {
+                System.out.printf("--- Isla de %,d x %,d (%,d celdas) ---%n", side, side, (long) side * side);
+                IslandMap map = new IslandMap(side, side);
+                map.setTerrain(terrain.generate(side, side, seed));
+                generator.populate(map, seed, WorldGenerator.getDefaultDensities(), new OrganismIds());
+
+                List<int[]> wolves = new ArrayList<>();
+                boolean[][] isPrey = new boolean[side][side];
+                for (int row = 0; row < side; row++) {
+                    for (int col = 0; col < side; col++) {
+                        Organism organism = map.getOrganismAt(row, col);
+                        if (organism instanceof Wolf) {
+                            wolves.add(new int[]{row, col});
+                        } else if (organism != null && prey.contains(organism.getClass())) {
+                            isPrey[row][col] = true;
+                        }
+                    }
+                }
+                System.out.printf("%,d lobos%n", wolves.size());
+
+                for (int radius : RADII) {
+                    PerceptionField field = new PerceptionField(map, radius, Map.of(Wolf.class, prey));
+                    double rebuildMillis = measure(() -> field.rebuild(threadPool));
+
+                    long[] sums = new long[2];
+                    double tableMillis = measure(() -> {
+                        long sum = 0;
+                        for (int[] wolf : wolves) {
+                            sum += field.count(0, wolf[0] - radius, wolf[1] - radius, wolf[0] + radius, wolf[1] + radius);
+                        }
+                        sums[0] = sum;
+                    });
+                    double scanMillis = measure(() -> {
+                        long sum = 0;
+                        for (int[] wolf : wolves) {
+                            sum += scan(isPrey, wolf[0], wolf[1], radius);
+                        }
+                        sums[1] = sum;
+                    });
+                    System.out.printf("r=%-3d reconstrucción %7.2f ms (%,.1f MB)  tablas %7.3f ms  recorrido %8.2f ms  presas vistas %,d  idéntico=%b%n",
+                            radius, rebuildMillis, field.getTableBytes() / 1e6, tableMillis, scanMillis, sums[0], sums[0] == sums[1]);
+                }
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Cuenta las presas del cuadrado de radio r recorriendo sus celdas.
+     */
+    private static int scan(boolean[][] isPrey, int row, int col, int radius) {
+        int count = 0;
+        for (int r = Math.max(0, row - radius); r <= Math.min(isPrey.length - 1, row + radius); r++) {
+            for (int c = Math.max(0, col - radius); c <= Math.min(isPrey[r].length - 1, col + radius); c++) {
+                if (isPrey[r][c]) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Ejecuta una variante con calentamiento y devuelve la mediana en milisegundos.
+     */
+    private static double measure(Runnable variant) {
+        for (int i = 0; i < WARMUP; i++) {
+            variant.run();
+        }
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            variant.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
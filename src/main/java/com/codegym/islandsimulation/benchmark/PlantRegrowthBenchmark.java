@@ -0,0 +1,119 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.engine.PlantRegrowthWheel;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara el coste por ciclo del rebrote de plantas en un mapa muy pastado:
+ * la lista sincronizada que se recorría dos veces por ciclo y se podaba con
+ * {@code removeAll} (antes) frente a {@link PlantRegrowthWheel} (ahora).
+ *
+ * Cada ciclo se generan tantos eventos de pasto como una fracción de las plantas,
+ * sobre plantas elegidas al azar, así que hay plantas comidas dos veces en el mismo
+ * ciclo y plantas ya comidas. Solo se mide la contabilidad del rebrote.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.benchmark.PlantRegrowthBenchmark [fracción de pasto]}
+ */
+public class PlantRegrowthBenchmark {
+    private static final int REVIVAL_CYCLES = 5;
+    private static final int WARMUP_CYCLES = 20;
+    private static final int MEASURED_CYCLES = 40;
+
+    public static void main(String[] args) {
+        double grazing = args.length > 0 ? Double.parseDouble(args[0]) : 0.25;
+        System.out.printf("🏁 Pasto por ciclo: %.0f %% de las plantas%n", grazing * 100);
+
+        for (int plants : new int[] {10_000, 40_000, 160_000, 1_000_000}) {
+            // La lista con removeAll es cuadrática: solo se mide en los tamaños pequeños
+            String before = plants <= 40_000
+                    ? String.format("%9.3f ms/ciclo", runList(plants, grazing) / 1e6)
+                    : "     (omitido)";
+            long wheelNanos = runWheel(plants, grazing);
+            System.out.printf("%,9d plantas  antes %s  ahora %9.3f ms/ciclo%n", plants, before, wheelNanos / 1e6);
+        }
+    }
+
+    /**
+     * Contabilidad anterior: lista con duplicados, dos recorridos y removeAll.
+     * @return Nanosegundos medios por ciclo
+     */
+    private static long runList(int plants, double grazing) {
+        LegacyPlant[] cells = new LegacyPlant[plants];
+        for (int i = 0; i < plants; i++) {
+            cells[i] = new LegacyPlant();
+        }
+        List<LegacyPlant> revivable = Collections.synchronizedList(new ArrayList<>());
+        SplittableRandom random = new SplittableRandom(7);
+        int events = (int) (plants * grazing);
+        long measured = 0;
+        for (int cycle = 0; cycle < WARMUP_CYCLES + MEASURED_CYCLES; cycle++) {
+            long start = System.nanoTime();
+            for (int e = 0; e < events; e++) {
+                LegacyPlant plant = cells[random.nextInt(plants)];
+                plant.alive = false;
+                revivable.add(plant);
+            }
+            for (LegacyPlant plant : revivable) {
+                if (!plant.alive) {
+                    plant.cyclesDead++;
+                }
+            }
+            List<LegacyPlant> toRevive = new ArrayList<>();
+            for (LegacyPlant plant : revivable) {
+                if (!plant.alive && plant.cyclesDead >= REVIVAL_CYCLES) {
+                    plant.alive = true;
+                    plant.cyclesDead = 0;
+                    toRevive.add(plant);
+                }
+            }
+            revivable.removeAll(toRevive);
+            if (cycle >= WARMUP_CYCLES) {
+                measured += System.nanoTime() - start;
+            }
+        }
+        return measured / MEASURED_CYCLES;
+    }
+
+    /**
+     * Contabilidad actual: rueda de tiempos por celda, sin duplicados.
+     * @return Nanosegundos medios por ciclo
+     */
+    private static long runWheel(int plants, double grazing) {
+        Plant[] cells = new Plant[plants];
+        for (int i = 0; i < plants; i++) {
+            cells[i] = new Vegetation();
+        }
+        PlantRegrowthWheel wheel = new PlantRegrowthWheel(plants);
+        SplittableRandom random = new SplittableRandom(7);
+        int events = (int) (plants * grazing);
+        long measured = 0;
+        for (int cycle = 0; cycle < WARMUP_CYCLES + MEASURED_CYCLES; cycle++) {
+            long start = System.nanoTime();
+            for (int e = 0; e < events; e++) {
+                int cell = random.nextInt(plants);
+                Plant plant = cells[cell];
+                if (plant.isAlive()) {
+                    plant.getEaten();
+                    wheel.schedule(cell, cycle + REVIVAL_CYCLES - 1);
+                }
+            }
+            wheel.advance(cycle, cell -> cells[cell].revive());
+            if (cycle >= WARMUP_CYCLES) {
+                measured += System.nanoTime() - start;
+            }
+        }
+        return measured / MEASURED_CYCLES;
+    }
+
+    // Planta con el contador de ciclos muertos que usaba la contabilidad anterior
+    private static class LegacyPlant {
+        boolean alive = true;
+        int cyclesDead;
+    }
+}
@@ -0,0 +1,132 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Corpse;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.PlaneKernels;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import com.codegym.islandsimulation.world.TerrainGenerator;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compara las formas de contar el mapa que usan el motor y los renderizadores en islas grandes:
+ * el recorrido de los organismos celda a celda, y los núcleos de {@link PlaneKernels} escalar y
+ * vectorial sobre el plano de códigos. Mide el histograma de especies, el recuento de celdas
+ * vacías (ocupación) y el de cadáveres, y comprueba que todos dan el mismo resultado.
+ *
+ * El núcleo vectorial solo se mide si se ha compilado con el perfil {@code vector} y el módulo
+ * está cargado: {@code mvn -Pvector compile} y después
+ * {@code java --add-modules jdk.incubator.vector -Xmx4g -cp target/classes com.codegym.islandsimulation.benchmark.SpeciesPlaneBenchmark [lado...]}
+ */
+public class SpeciesPlaneBenchmark {
+    // Repeticiones de calentamiento y medidas de cada variante
+    private static final int WARMUP = 20;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        int[] sides = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1000, 2000, 4000};
+        long seed = 42L;
+
+        List<PlaneKernels> kernels = new ArrayList<>();
+        kernels.add(PlaneKernels.scalar());
+        if (PlaneKernels.vector() != null) {
+            kernels.add(PlaneKernels.vector());
+        } else {
+            System.out.println("⚠️ Vector API no disponible (compila con -Pvector y ejecuta con --add-modules jdk.incubator.vector): solo se mide el núcleo escalar");
+        }
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        try {
+            TerrainGenerator terrain = new TerrainGenerator(threadPool);
+            WorldGenerator generator = new WorldGenerator(threadPool);
+            for (int side : sides) {
+                System.out.printf("--- Isla de %,d x %,d (%,d celdas) ---%n", side, side, (long) side * side);
+                IslandMap map = new IslandMap(side, side);
+                map.setTerrain(terrain.generate(side, side, seed));
+                generator.populate(map, seed, WorldGenerator.getDefaultDensities(), new OrganismIds());
+                sprinkleCorpses(map);
+                byte[] plane = map.encodeSpeciesCodes(null);
+
+                long[] reference = new long[SpeciesCodes.codeCount()];
+                double objectMillis = measure(() -> {
+                    Arrays.fill(reference, 0L);
+                    walkObjects(map, plane, reference);
+                });
+                System.out.printf("%-22s histograma %8.2f ms%n", "objetos", objectMillis);
+
+                for (PlaneKernels kernel : kernels) {
+                    long[] counts = new long[SpeciesCodes.codeCount()];
+                    double histogramMillis = measure(() -> {
+                        Arrays.fill(counts, 0L);
+                        kernel.histogram(plane, 0, plane.length, counts);
+                    });
+                    long[] cells = new long[2];
+                    double emptyMillis = measure(() -> cells[0] = kernel.countEqual(plane, 0, plane.length, SpeciesCodes.EMPTY));
+                    double corpseMillis = measure(() -> cells[1] = kernel.countEqual(plane, 0, plane.length, SpeciesCodes.CORPSE));
+                    boolean same = Arrays.equals(counts, reference)
+                            && cells[0] == reference[SpeciesCodes.EMPTY] && cells[1] == reference[SpeciesCodes.CORPSE];
+                    System.out.printf("%-22s histograma %8.2f ms (x%.1f)  vacías %6.2f ms  cadáveres %6.2f ms  idéntico=%b%n",
+                            kernel.getName(), histogramMillis, objectMillis / histogramMillis, emptyMillis, corpseMillis, same);
+                }
+                System.out.printf("vacías %,d  cadáveres %,d%n", reference[SpeciesCodes.EMPTY], reference[SpeciesCodes.CORPSE]);
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Histograma recorriendo los organismos, como se hacía antes de tener el plano: el código
+     * del organismo de cada celda y, si está vacía, el del terreno.
+     */
+    private static void walkObjects(IslandMap map, byte[] plane, long[] counts) {
+        int index = 0;
+        for (int row = 0; row < map.getRows(); row++) {
+            for (int col = 0; col < map.getCols(); col++, index++) {
+                Organism organism = map.getOrganismAt(row, col);
+                counts[organism != null ? SpeciesCodes.codeOf(organism) : plane[index] & 0xFF]++;
+            }
+        }
+    }
+
+    /**
+     * Sustituye por cadáveres uno de cada cincuenta animales, para que el recuento no sea trivial.
+     */
+    private static void sprinkleCorpses(IslandMap map) {
+        int seen = 0;
+        for (int row = 0; row < map.getRows(); row++) {
+            for (int col = 0; col < map.getCols(); col++) {
+                if (map.getOrganismAt(row, col) instanceof Animal && ++seen % 50 == 0) {
+                    map.setOrganismAt(row, col, Corpse.INSTANCE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una variante con calentamiento y devuelve la mediana en milisegundos.
+     */
+    private static double measure(Runnable variant) {
+        for (int i = 0; i < WARMUP; i++) {
+            variant.run();
+        }
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            variant.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
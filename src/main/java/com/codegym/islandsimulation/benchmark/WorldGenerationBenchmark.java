@@ -0,0 +1,74 @@
+package com.codegym.islandsimulation.benchmark;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import com.codegym.islandsimulation.world.TerrainGenerator;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Mide el tiempo de generación de mundos de distintos tamaños (terreno con
+ * {@link TerrainGenerator} y el resto con {@link WorldGenerator}) y comprueba que la misma semilla produce exactamente el mismo mapa en ejecuciones
+ * distintas, y que los recuentos por especie coinciden con las densidades pedidas.
+ *
+ * Uso: {@code java -Xmx4g -cp target/classes com.codegym.islandsimulation.benchmark.WorldGenerationBenchmark [lado...]}
+ */
+public class WorldGenerationBenchmark {
+
+    public static void main(String[] args) {
+        int[] sides = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {500, 1000, 2000, 4000};
+        long seed = 42L;
+        Map<Class<? extends Organism>, Double> densities = WorldGenerator.getDefaultDensities();
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        try {
+            TerrainGenerator terrain = new TerrainGenerator(threadPool);
+            WorldGenerator generator = new WorldGenerator(threadPool);
+            for (int side : sides) {
+                long cells = (long) side * side;
+
+                IslandMap first = new IslandMap(side, side);
+                OrganismIds ids = new OrganismIds();
+                long start = System.nanoTime();
+                first.setTerrain(terrain.generate(side, side, seed));
+                long terrainNanos = System.nanoTime() - start;
+                long terrainTotal = first.getTerrain().countTerrainCells();
+                Map<Class<? extends Organism>, Long> placed = generator.populate(first, seed, densities, ids);
+                long nanos = System.nanoTime() - start - terrainNanos;
+                byte[] codes = first.encodeSpeciesCodes(null);
+                int firstHash = Arrays.hashCode(codes);
+                first = null;
+
+                // Celdas ocupadas realmente (terreno y organismos) frente a las pedidas
+                long occupied = 0;
+                for (byte code : codes) {
+                    if (code != SpeciesCodes.EMPTY) {
+                        occupied++;
+                    }
+                }
+                codes = null;
+                long expected = terrainTotal + densities.values().stream().mapToLong(d -> Math.round(d * cells)).sum();
+                long total = terrainTotal + placed.values().stream().mapToLong(Long::longValue).sum();
+
+                IslandMap second = new IslandMap(side, side);
+                second.setTerrain(terrain.generate(side, side, seed));
+                generator.populate(second, seed, densities, new OrganismIds());
+                boolean reproducible = firstHash == Arrays.hashCode(second.encodeSpeciesCodes(null));
+                second = null;
+
+                System.out.printf("%,6d x %,6d  terreno %8.1f ms (%4.1f %%)  población %8.1f ms  %,12d celdas ocupadas (colocadas %,d, esperadas %,d)  reproducible=%s%n",
+                        side, side, terrainNanos / 1e6, 100.0 * terrainTotal / cells, nanos / 1e6,
+                        occupied, total, expected, reproducible);
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+}
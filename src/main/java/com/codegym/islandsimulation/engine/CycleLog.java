@@ -0,0 +1,134 @@
+package com.codegym.islandsimulation.engine;
+
+import com.codegym.islandsimulation.entities.Organism;
+
+import java.util.List;
+
+/**
+ * Resumen de los eventos de un ciclo: los recuentos que el motor anota en el momento
+ * en que ocurre cada evento. El texto del log solo se construye, una vez, cuando algún
+ * consumidor lo pide con {@link #getText()}; un ciclo sin consumidores no paga nada por él.
+ * Es inmutable, así que puede leerse desde otros hilos.
+ */
+public final class CycleLog {
+    private final int cycle;
+    private final List<Class<? extends Organism>> species;
+    private final long[] births;
+    private final long[] alarms;
+    private final long huntingDeaths;
+    private final long starvationDeaths;
+    private final long plantsEaten;
+
+    // Texto construido bajo demanda
+    private volatile String text;
+
+    /**
+     * @param cycle Número del ciclo
+     * @param species Especies animales, en el orden de los arreglos por especie
+     * @param births Nacimientos por especie (el arreglo pasa a ser del log)
+     * @param alarms Alarmas de población activadas por especie (el arreglo pasa a ser del log)
+     * @param huntingDeaths Muertes por caza
+     * @param starvationDeaths Muertes por inanición
+     * @param plantsEaten Plantas consumidas
+     */
+    CycleLog(int cycle, List<Class<? extends Organism>> species, long[] births, long[] alarms,
+             long huntingDeaths, long starvationDeaths, long plantsEaten) {
+        this.cycle = cycle;
+        this.species = species;
+        this.births = births;
+        this.alarms = alarms;
+        this.huntingDeaths = huntingDeaths;
+        this.starvationDeaths = starvationDeaths;
+        this.plantsEaten = plantsEaten;
+    }
+
+    public int getCycle() {
+        return cycle;
+    }
+
+    public long getHuntingDeaths() {
+        return huntingDeaths;
+    }
+
+    public long getStarvationDeaths() {
+        return starvationDeaths;
+    }
+
+    public long getPlantsEaten() {
+        return plantsEaten;
+    }
+
+    /**
+     * Obtiene el texto del log del ciclo, construyéndolo la primera vez que se pide.
+     * @return El log consolidado del ciclo
+     */
+    public String getText() {
+        String result = text;
+        if (result == null) {
+            result = buildText();
+            text = result;
+        }
+        return result;
+    }
+
+    private String buildText() {
+        StringBuilder log = new StringBuilder();
+        log.append("------------- Ciclo ").append(cycle).append(" -------------\n\n");
+
+        // Registra nacimientos
+        if (sum(births) > 0) {
+            log.append("✔ Nacimientos:\n");
+            for (int i = 0; i < births.length; i++) {
+                if (births[i] > 0) {
+                    log.append("  - ").append(births[i]).append(" nuevos ").append(species.get(i).getSimpleName()).append("\n");
+                }
+            }
+            log.append("\n");
+        }
+
+        // Registra muertes
+        if (huntingDeaths > 0 || starvationDeaths > 0) {
+            log.append("✔ Muertes:\n");
+            if (huntingDeaths > 0) {
+                log.append("  - ").append(huntingDeaths).append(" animales murieron por caza.\n");
+            }
+            if (starvationDeaths > 0) {
+                log.append("  - ").append(starvationDeaths).append(" animales murieron de hambre.\n");
+            }
+            log.append("\n");
+        }
+
+        // Registra interacciones con plantas
+        if (plantsEaten > 0) {
+            log.append("✔ Interacciones:\n");
+            log.append("  - ").append(plantsEaten).append(" plantas fueron consumidas.\n");
+            log.append("\n");
+        }
+
+        // Registra alarmas de población
+        if (sum(alarms) > 0) {
+            log.append("✔ Repoblación:\n");
+            for (int i = 0; i < alarms.length; i++) {
+                for (long n = 0; n < alarms[i]; n++) {
+                    log.append("  - Alarma para ").append(species.get(i).getSimpleName()).append(" activada.\n");
+                }
+            }
+            log.append("\n");
+        }
+
+        return log.toString();
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
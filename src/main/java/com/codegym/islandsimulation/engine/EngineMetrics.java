@@ -0,0 +1,218 @@
+package com.codegym.islandsimulation.engine;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.jfr.CycleEvent;
+import com.codegym.islandsimulation.jfr.FlightEvents;
+import com.codegym.islandsimulation.jfr.PhaseEvent;
+import com.codegym.islandsimulation.metrics.Counter;
+import com.codegym.islandsimulation.metrics.Gauge;
+import com.codegym.islandsimulation.metrics.Histogram;
+import com.codegym.islandsimulation.metrics.MetricsRegistry;
+import com.codegym.islandsimulation.output.OutputSink;
+import com.codegym.islandsimulation.threads.CellClaims;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Métricas del motor de simulación registradas en un {@link MetricsRegistry}.
+ * Agrupa los contadores y medidores que el motor actualiza en cada ciclo para que
+ * {@link IslandEngine} solo tenga que llamar a métodos con nombre.
+ * También emite los eventos JFR de ciclo y de las fases propias del motor; las fases
+ * de los ejecutores las emiten ellos mismos con el número de animales procesados.
+ */
+class EngineMetrics {
+
+    /**
+     * Fases de un ciclo de simulación con histograma de duración propio.
+     */
+    enum Phase {
+        ALARMS("alarms", false),
+        DEATHS("deaths", false),
+        SCHEDULED_EVENTS("scheduled_events", false),
+        MOVEMENT("movement", true),
+        EATING("eating", true),
+        REPRODUCTION("reproduction", true),
+        EVENT_PROCESSING("event_processing", false),
+        BOOKKEEPING("bookkeeping", false),
+        POPULATION("population", false),
+        OUTPUT("output", false);
+
+        private final String label;
+        // Fases cuyo evento JFR emite el ejecutor correspondiente
+        private final boolean executorPhase;
+
+        Phase(String label, boolean executorPhase) {
+            this.label = label;
+            this.executorPhase = executorPhase;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    private final MetricsRegistry registry;
+
+    private final Counter cycles;
+    private final Histogram cycleDuration;
+    private final Histogram[] phaseDurations = new Histogram[Phase.values().length];
+
+    private final Counter births;
+    private final Counter huntingDeaths;
+    private final Counter starvationDeaths;
+    private final Counter plantsEaten;
+    private final Counter alarms;
+
+    private final List<Class<? extends Organism>> animalSpecies;
+    private final Gauge[] populations;
+
+    private final Counter htmlFramesWritten;
+    private final Counter htmlFramesSkipped;
+
+    // Eventos JFR en curso (solo se usan desde el hilo de simulación)
+    private CycleEvent cycleEvent = FlightEvents.beginCycle();
+    private PhaseEvent phaseEvent = FlightEvents.beginPhase();
+    private long cycleNumber;
+    private int cycleStartAnimals;
+
+    /**
+     * Registra todas las métricas del motor.
+     * @param registry Registro donde publicar las métricas
+     * @param threadPool Pool de la simulación cuyas estadísticas se exponen
+     * @param animalSpecies Especies con medidor de población, en orden fijo
+     */
+    EngineMetrics(MetricsRegistry registry, SimulationThreadPool threadPool, List<Class<? extends Organism>> animalSpecies) {
+        this.registry = registry;
+        this.cycles = registry.counter("island_cycles_total", "Ciclos de simulación completados.");
+        this.cycleDuration = registry.histogram("island_cycle_duration_seconds", "Duración de cada ciclo de simulación.");
+        for (Phase phase : Phase.values()) {
+            phaseDurations[phase.ordinal()] = registry.histogram("island_phase_duration_seconds",
+                    "Duración de cada fase del ciclo de simulación.", "phase", phase.label());
+        }
+
+        String eventsHelp = "Eventos ecológicos aplicados.";
+        this.births = registry.counter("island_events_total", eventsHelp, "type", "birth");
+        this.huntingDeaths = registry.counter("island_events_total", eventsHelp, "type", "hunting_death");
+        this.starvationDeaths = registry.counter("island_events_total", eventsHelp, "type", "starvation_death");
+        this.plantsEaten = registry.counter("island_events_total", eventsHelp, "type", "plant_eaten");
+        this.alarms = registry.counter("island_events_total", eventsHelp, "type", "population_alarm");
+
+        this.animalSpecies = animalSpecies;
+        this.populations = new Gauge[animalSpecies.size()];
+        for (int i = 0; i < animalSpecies.size(); i++) {
+            populations[i] = registry.gauge("island_population", "Población actual por especie.",
+                    "species", animalSpecies.get(i).getSimpleName());
+        }
+
+        registerPool(threadPool.getSimulationStats(), "simulation");
+
+        String writtenHelp = "Fotogramas de salida escritos.";
+        String skippedHelp = "Fotogramas de salida descartados porque el anterior seguía en curso.";
+        this.htmlFramesWritten = registry.counter("island_render_frames_written_total", writtenHelp, "renderer", "html");
+        this.htmlFramesSkipped = registry.counter("island_render_frames_skipped_total", skippedHelp, "renderer", "html");
+    }
+
+    private void registerPool(SimulationThreadPool.TaskStats stats, String pool) {
+        registry.gauge("island_pool_active_tasks", "Tareas en ejecución por pool.", stats::getActive, "pool", pool);
+        registry.gauge("island_pool_queued_tasks", "Tareas en cola por pool.", stats::getQueued, "pool", pool);
+        registry.counter("island_pool_completed_tasks_total", "Tareas completadas por pool.", stats::getCompleted, "pool", pool);
+        registry.counter("island_pool_failed_tasks_total", "Tareas fallidas por pool.", stats::getFailed, "pool", pool);
+    }
+
+    /**
+     * Registra los contadores de fotogramas de un exportador adicional.
+     * @param renderer Nombre del exportador (etiqueta renderer)
+     * @param written Función que devuelve los fotogramas escritos
+     * @param skipped Función que devuelve los fotogramas descartados
+     */
+    void registerFrameCounters(String renderer, LongSupplier written, LongSupplier skipped) {
+        registry.counter("island_render_frames_written_total", "Fotogramas de salida escritos.", written, "renderer", renderer);
+        registry.counter("island_render_frames_skipped_total",
+                "Fotogramas de salida descartados porque el anterior seguía en curso.", skipped, "renderer", renderer);
+    }
+
+    /**
+     * Registra las métricas de una salida: tareas en cola y tareas escritas, descartadas o fallidas.
+     * @param sink La salida
+     */
+    void registerSink(OutputSink sink) {
+        String name = sink.getName();
+        registry.gauge("island_sink_queued_tasks", "Tareas en cola por salida.", sink::getQueued, "sink", name);
+        String help = "Tareas de cada salida por resultado.";
+        registry.counter("island_sink_tasks_total", help, sink::getWritten, "sink", name, "result", "written");
+        registry.counter("island_sink_tasks_total", help, sink::getDropped, "sink", name, "result", "dropped");
+        registry.counter("island_sink_tasks_total", help, sink::getFailed, "sink", name, "result", "failed");
+    }
+
+    /**
+     * Registra los contadores de contención de las reservas de comida.
+     * @param claims Reservas de celdas de la fase de alimentación
+     */
+    void registerClaimCounters(CellClaims claims) {
+        String help = "Reservas de celdas de comida, conseguidas o perdidas frente a otro animal.";
+        registry.counter("island_food_claims_total", help, claims::getClaimed, "result", "claimed");
+        registry.counter("island_food_claims_total", help, claims::getConflicts, "result", "conflict");
+    }
+
+    /**
+     * Marca el inicio de un ciclo para los eventos JFR.
+     * @param cycle Número del ciclo
+     * @param animals Animales vivos al inicio del ciclo
+     */
+    void beginCycle(long cycle, int animals) {
+        this.cycleNumber = cycle;
+        this.cycleStartAnimals = animals;
+        cycleEvent = FlightEvents.beginCycle();
+        phaseEvent = FlightEvents.beginPhase();
+    }
+
+    /**
+     * Registra la duración de una fase y devuelve el instante actual,
+     * que sirve como inicio de la fase siguiente.
+     * @param phase La fase que termina
+     * @param startNanos Instante de inicio de la fase
+     * @return El instante actual en nanosegundos
+     */
+    long endPhase(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseDurations[phase.ordinal()].observeNanos(now - startNanos);
+        if (!phase.executorPhase) {
+            FlightEvents.endPhase(phaseEvent, phase.label(), cycleStartAnimals);
+        }
+        phaseEvent = FlightEvents.beginPhase();
+        return now;
+    }
+
+    /**
+     * Registra el final de un ciclo con sus recuentos de eventos.
+     */
+    void recordCycle(long cycleNanos, int birthCount, int huntingDeathCount, int starvationDeathCount,
+                     int plantsEatenCount, int alarmCount, Map<Class<? extends Organism>, Long> populationCounts) {
+        cycles.increment();
+        cycleDuration.observeNanos(cycleNanos);
+        births.add(birthCount);
+        huntingDeaths.add(huntingDeathCount);
+        starvationDeaths.add(starvationDeathCount);
+        plantsEaten.add(plantsEatenCount);
+        alarms.add(alarmCount);
+        long animals = 0;
+        for (int i = 0; i < populations.length; i++) {
+            long population = populationCounts.getOrDefault(animalSpecies.get(i), 0L);
+            populations[i].set(population);
+            animals += population;
+        }
+        FlightEvents.endCycle(cycleEvent, cycleNumber, animals, birthCount, huntingDeathCount,
+                starvationDeathCount, plantsEatenCount);
+    }
+
+    void htmlFrameWritten() {
+        htmlFramesWritten.increment();
+    }
+
+    void htmlFrameSkipped() {
+        htmlFramesSkipped.increment();
+    }
+}
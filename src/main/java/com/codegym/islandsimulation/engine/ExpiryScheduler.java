@@ -0,0 +1,145 @@
+package com.codegym.islandsimulation.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Planificador de caducidades por ciclo: cada entrada se archiva en el cubo del ciclo
+ * en que caduca, de modo que cada ciclo solo se recorre el cubo de ese ciclo y el coste
+ * es proporcional a las caducidades, no al número de entradas pendientes.
+ *
+ * Los cubos forman un anillo indexado por {@code ciclo % cubos}; una entrada que caduca
+ * a más de una vuelta del anillo espera en su cubo hasta su vuelta. Programar de nuevo
+ * una clave sustituye su caducidad anterior y {@link #cancel} la retira; en ambos casos
+ * la entrada antigua queda marcada y se descarta al recorrer su cubo.
+ * No es seguro para hilos: se usa desde el hilo que ejecuta el ciclo.
+ *
+ * @param <K> Tipo de las claves (se comparan por identidad si no redefinen equals)
+ * @param <V> Datos asociados a cada entrada
+ */
+final class ExpiryScheduler<K, V> {
+    // Número de cubos por defecto (potencia de dos)
+    static final int DEFAULT_BUCKETS = 64;
+
+    private final int mask;
+    private final List<Entry<K, V>>[] buckets;
+
+    // Cubo vacío que sustituye al que se está recorriendo
+    private List<Entry<K, V>> spare = new ArrayList<>();
+
+    // Entrada vigente de cada clave
+    private final Map<K, Entry<K, V>> live = new HashMap<>();
+
+    ExpiryScheduler() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    // El anillo solo guarda listas creadas aquí, todas de Entry<K, V>
+    @SuppressWarnings("unchecked")
+    ExpiryScheduler(int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("El planificador necesita al menos un cubo");
+        }
+        int size = Integer.highestOneBit(buckets) == buckets ? buckets : Integer.highestOneBit(buckets) << 1;
+        this.mask = size - 1;
+        this.buckets = (List<Entry<K, V>>[]) new List<?>[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Programa la caducidad de una clave, sustituyendo la que tuviera.
+     * @param key La clave
+     * @param value Datos que se entregan al caducar
+     * @param cycle Ciclo en el que caduca
+     */
+    void schedule(K key, V value, int cycle) {
+        Entry<K, V> entry = new Entry<>(key, value, cycle);
+        Entry<K, V> previous = live.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        buckets[cycle & mask].add(entry);
+    }
+
+    /**
+     * Retira la caducidad pendiente de una clave.
+     * @param key La clave
+     * @return true si tenía una caducidad pendiente
+     */
+    boolean cancel(K key) {
+        Entry<K, V> entry = live.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Entrega las entradas que caducan en el ciclo indicado, o antes, y las retira.
+     * Debe llamarse una vez por ciclo. La acción puede programar nuevas entradas.
+     * @param cycle Ciclo actual
+     * @param action Acción que recibe la clave y los datos de cada entrada caducada
+     * @return Número de entradas caducadas
+     */
+    int advance(int cycle, BiConsumer<K, V> action) {
+        int slot = cycle & mask;
+        List<Entry<K, V>> current = buckets[slot];
+        if (current.isEmpty()) {
+            return 0;
+        }
+        // El cubo se cambia por uno vacío antes de entregar, para que la acción pueda
+        // programar en él; el recorrido se reutiliza como cubo vacío del siguiente ciclo
+        List<Entry<K, V>> bucket = spare;
+        buckets[slot] = bucket;
+        int expired = 0;
+        for (Entry<K, V> entry : current) {
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.cycle > cycle) {
+                // Caduca en una vuelta posterior del anillo
+                bucket.add(entry);
+                continue;
+            }
+            live.remove(entry.key);
+            action.accept(entry.key, entry.value);
+            expired++;
+        }
+        current.clear();
+        spare = current;
+        return expired;
+    }
+
+    /**
+     * Indica si una clave tiene una caducidad pendiente.
+     */
+    boolean contains(K key) {
+        return live.containsKey(key);
+    }
+
+    /**
+     * Número de caducidades pendientes.
+     */
+    int size() {
+        return live.size();
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final int cycle;
+        boolean cancelled;
+
+        Entry(K key, V value, int cycle) {
+            this.key = key;
+            this.value = value;
+            this.cycle = cycle;
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package com.codegym.islandsimulation.engine;
 
+import com.codegym.islandsimulation.map.IslandCanvasRenderer;
 import com.codegym.islandsimulation.map.IslandWebRenderer;
+import com.codegym.islandsimulation.map.PerceptionField;
+import com.codegym.islandsimulation.map.PngFrameExporter;
+import com.codegym.islandsimulation.map.RenderMode;
+import com.codegym.islandsimulation.map.SharedGridExporter;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.metrics.ColumnarTimeSeriesWriter;
+import com.codegym.islandsimulation.metrics.CycleTimeSeries;
+import com.codegym.islandsimulation.metrics.MetricsRegistry;
+import com.codegym.islandsimulation.metrics.PrometheusEndpoint;
+import com.codegym.islandsimulation.output.DropPolicy;
+import com.codegym.islandsimulation.output.OutputPipeline;
+import com.codegym.islandsimulation.output.OutputSink;
+import com.codegym.islandsimulation.entities.Corpse;
 import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
 import com.codegym.islandsimulation.entities.animals.*;
 import com.codegym.islandsimulation.entities.plants.Plant;
 import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.AnimalPool;
 import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.jfr.FlightEvents;
+import com.codegym.islandsimulation.jfr.JfrLiveStats;
 import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.MapBand;
 import com.codegym.islandsimulation.threads.*;
-import com.codegym.islandsimulation.entities.terrain.*;
-import com.codegym.islandsimulation.utils.MapUtils;
+import com.codegym.islandsimulation.world.TerrainGenerator;
+import com.codegym.islandsimulation.world.WorldGenerator;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Motor principal de la simulación de la isla.
@@ -29,15 +49,20 @@ public class IslandEngine {
     private final IslandMap islandMap;
 
     // Generador de números aleatorios para decisiones estocásticas
-    private final Random random = new Random();
+    private final Random random;
 
     // Ejecutores para diferentes acciones de los animales
     private final MovementExecutor movementExecutor;
+
+    // Tablas de percepción de presas, o null si el radio de percepción es 1
+    private final PerceptionField perceptionField;
     private final EatingExecutor eatingExecutor;
     private final ReproductionExecutor reproductionExecutor;
 
     // Nuevos componentes de concurrencia mejorada
     private final SimulationThreadPool threadPool;
+    // Indica si el pool lo creó este motor (y por tanto lo cierra) o se lo inyectaron
+    private final boolean ownsThreadPool;
     private final SimulationSynchronizer synchronizer;
     private final ThreadMonitor threadMonitor;
 
@@ -48,11 +73,14 @@ public class IslandEngine {
     // Mapa que mantiene el conteo de población por tipo de organismo
     private final Map<Class<? extends Organism>, Long> populationCounts = new ConcurrentHashMap<>();
 
-    // Mapa de organismos que están descansando (después de reproducción o caza)
-    private final Map<Organism, Integer> restingOrganisms = new ConcurrentHashMap<>();
+    // Animales que descansan tras reproducirse, archivados por el ciclo en que despiertan
+    private final ExpiryScheduler<Animal, Void> restingOrganisms = new ExpiryScheduler<>();
+
+    // Animales muertos y la celda de su cadáver, archivados por el ciclo en que desaparece
+    private final ExpiryScheduler<Organism, OrganismPosition> deadOrganisms = new ExpiryScheduler<>();
 
-    // Mapa de organismos muertos y sus posiciones temporales
-    private final Map<Organism, OrganismPosition> deadOrganisms = new ConcurrentHashMap<>();
+    // Ciclos que permanece un cadáver en el mapa
+    private static final int CORPSE_CYCLES = 5;
 
     // Listas de eventos programados para el siguiente ciclo
     private final List<HuntingEvent> scheduledDeaths = new ArrayList<>();
@@ -64,38 +92,270 @@ public class IslandEngine {
     private final List<ReproductionEvent> lastCycleReproductionEvents = new ArrayList<>();
     private final List<ReproductionEvent> lastCycleOffspringEvents = new ArrayList<>();
 
-    // Lista de plantas que pueden revivir después de ser consumidas
-    private final List<Plant> revivablePlants = Collections.synchronizedList(new ArrayList<>());
+    // Rebrotes pendientes de las plantas consumidas, por celda y ciclo de rebrote
+    private final PlantRegrowthWheel plantRegrowth;
 
     // Constantes para la reproducción
     private static final double REPRODUCTION_WEIGHT_LOSS_FACTOR = 0.2;
     private static final double OFFSPRING_WEIGHT_PERCENTAGE = 0.3;
-    private static final int REPRODUCTION_REST_CYCLES = 10;
 
-    // Ciclos necesarios para que una planta reviva
-    private static final int PLANT_REVIVAL_CYCLES = 5;
+    // Parámetros ajustables de la simulación (densidades, descansos, rebrote y rasgos por especie)
+    private final SimulationParameters parameters;
+
+    // Número máximo de celdas para el que se usa por defecto la vista con un elemento del DOM por celda
+    private static final int DOM_RENDER_CELL_LIMIT = 2500;
+
+    // Modo de renderizado de la vista HTML
+    private RenderMode renderMode;
+
+    // Exportador opcional de fotogramas PNG para time-lapses
+    private PngFrameExporter frameExporter;
+
+    // Anillo de fotogramas en memoria compartida para visores externos (opcional)
+    private SharedGridExporter sharedGridExporter;
+
+    // Número de ciclos que conserva en memoria la serie temporal de métricas
+    private static final int TIME_SERIES_CAPACITY = 4096;
+
+    // Especies animales con columna de población en la serie temporal, en orden fijo
+    private final List<Class<? extends Organism>> animalSpecies;
+
+    // Histograma de códigos de especie reutilizable para los recuentos de población
+    private final long[] speciesHistogram = new long[SpeciesCodes.codeCount()];
+
+    // Serie temporal columnar de métricas por ciclo y fila reutilizable para registrarla
+    private final CycleTimeSeries timeSeries;
+    private final long[] metricsRow;
+    private ColumnarTimeSeriesWriter timeSeriesWriter;
+
+    // Registro de métricas del motor y endpoint HTTP opcional que las expone
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final EngineMetrics metrics;
+    private PrometheusEndpoint metricsEndpoint;
+
+    // Generador de identificadores de los organismos creados por este motor
+    private final OrganismIds organismIds = new OrganismIds();
+
+    // Animales muertos reutilizables como crías o como animales de las alarmas
+    private final AnimalPool animalPool = new AnimalPool();
+
+    // Consumidor JFR opcional que alimenta el panel de estadísticas en vivo
+    private JfrLiveStats jfrLiveStats;
+
+    // Salidas del motor, cada una con su cola y su hilo; se crean al usarse por primera vez
+    private final OutputPipeline outputs = new OutputPipeline();
+    private OutputSink htmlSink;
+    private OutputSink consoleSink;
+
+    // Capacidad de la cola de la serie temporal, en bloques
+    private static final int TIME_SERIES_SINK_CAPACITY = 16;
+
+    // Capacidad de la cola de la consola, en mensajes
+    private static final int CONSOLE_SINK_CAPACITY = 64;
+
+    // Indica si se genera la vista HTML en cada ciclo
+    private boolean htmlOutputEnabled = true;
+
+    // Recuentos de eventos aplicados en el ciclo actual
+    private int cycleHuntingDeaths;
+    private int cycleStarvationDeaths;
+    private int cyclePlantsEaten;
+    private int cycleAlarms;
+
+    // Posición de cada especie animal en los recuentos por especie del ciclo
+    private final Map<Class<? extends Organism>, Integer> speciesIndex = new HashMap<>();
+
+    // Nacimientos y alarmas activadas por especie en el ciclo actual
+    private long[] cycleBirths;
+    private long[] cycleRaisedAlarms;
+
+    // Resumen del último ciclo completado; su texto se construye solo si alguien lo pide
+    private volatile CycleLog lastCycleLog;
+
+    // Registro de eventos de este motor
+    private final SimulationEventRegistry events = new SimulationEventRegistry();
+
+    // Indica si se imprimen estadísticas de concurrencia cada 10 ciclos; por defecto solo
+    // se publican como métricas
+    private boolean consoleStatisticsEnabled;
+
+    // Filas cuyos organismos simula este motor; el resto son halo de otra banda
+    private int firstActiveRow;
+    private int endActiveRow;
+
+    // Radio máximo de búsqueda de una celda libre para un animal que llega de otra banda
+    private static final int IMMIGRATION_SEARCH_RADIUS = 8;
 
     /**
-     * Constructor del motor de simulación.
+     * Constructor del motor de simulación con un mundo distinto en cada ejecución, generado
+     * como el de {@link #IslandEngine(int, int, long)} con una semilla aleatoria.
      * @param rows Número de filas del mapa
      * @param cols Número de columnas del mapa
      */
     public IslandEngine(int rows, int cols) {
-        this.islandMap = new IslandMap(rows, cols);
-        this.movementExecutor = new MovementExecutor(islandMap);
-        this.eatingExecutor = new EatingExecutor(islandMap);
-        this.reproductionExecutor = new ReproductionExecutor(islandMap);
+        this(new IslandMap(rows, cols), new Random().nextLong(), new SimulationThreadPool(), true, SimulationParameters.defaults());
+    }
+
+    /**
+     * Constructor del motor con un mundo reproducible.
+     * El mapa se genera en paralelo por teselas: la capa de terreno con {@link TerrainGenerator}
+     * y el resto con las densidades por defecto de {@link WorldGenerator}; la misma semilla produce el mismo mundo sea cual sea
+     * el número de hilos.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @param seed Semilla del mundo y del generador aleatorio del motor
+     */
+    public IslandEngine(int rows, int cols, long seed) {
+        this(new IslandMap(rows, cols), seed, new SimulationThreadPool(), true, SimulationParameters.defaults());
+    }
+
+    /**
+     * Constructor del motor con un mundo reproducible y un pool de simulación compartido.
+     * Varios motores pueden compartir el mismo pool para ejecutarse en la misma JVM: cada uno
+     * tiene su propio mapa, estado y registro de eventos, y el número de hilos no crece con el
+     * número de motores. El motor no cierra el pool ni arranca el muestreo de hilos; ambas cosas
+     * quedan a cargo de quien creó el pool. Los ciclos de cada motor deben ejecutarse desde un
+     * hilo que no sea del pool, porque cada fase espera a sus tareas en él.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @param seed Semilla del mundo y del generador aleatorio del motor
+     * @param threadPool Pool de simulación compartido
+     */
+    public IslandEngine(int rows, int cols, long seed, SimulationThreadPool threadPool) {
+        this(new IslandMap(rows, cols), seed, threadPool, false, SimulationParameters.defaults());
+    }
+
+    /**
+     * Constructor del motor con un mundo reproducible, un pool de simulación compartido y
+     * parámetros propios, para ejecutar varias configuraciones a la vez (ver
+     * {@link com.codegym.islandsimulation.ensemble.EnsembleRunner}).
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @param seed Semilla del mundo y del generador aleatorio del motor
+     * @param threadPool Pool de simulación compartido
+     * @param parameters Parámetros de la simulación
+     */
+    public IslandEngine(int rows, int cols, long seed, SimulationThreadPool threadPool, SimulationParameters parameters) {
+        this(new IslandMap(rows, cols), seed, threadPool, false, parameters);
+    }
+
+    /**
+     * Constructor del motor sobre un mapa vacío ya creado, por ejemplo uno con las celdas fuera
+     * del heap ({@link IslandMap#offHeap(int, int)}, {@link IslandMap#mapped(int, int, Path)})
+     * para islas que no caben en él.
+     * @param islandMap Mapa vacío de la isla
+     * @param seed Semilla del mundo y del generador aleatorio del motor
+     * @param threadPool Pool de simulación compartido
+     * @param parameters Parámetros de la simulación
+     */
+    public IslandEngine(IslandMap islandMap, long seed, SimulationThreadPool threadPool, SimulationParameters parameters) {
+        this(islandMap, seed, threadPool, false, parameters);
+    }
+
+    /**
+     * Constructor del motor para una banda horizontal de una isla repartida entre varios
+     * procesos (ver {@link com.codegym.islandsimulation.shard.ShardCoordinator}). El mapa local
+     * incluye las filas de halo de la banda, pero solo se pueblan y se simulan las filas propias;
+     * el halo lo rellena quien coordina las bandas entre ciclos. El terreno es el de esa zona de
+     * la isla completa, así que encaja con el de las bandas vecinas.
+     * @param cols Número de columnas de la isla
+     * @param band Banda que simula este motor
+     * @param seed Semilla de la isla
+     * @param threadPool Pool de simulación (no se cierra al cerrar el motor)
+     * @param parameters Parámetros de la simulación
+     */
+    public IslandEngine(int cols, MapBand band, long seed, SimulationThreadPool threadPool, SimulationParameters parameters) {
+        this(new IslandMap(band.localRows(), cols), new Random(band.seed(seed)), threadPool, false, parameters);
+        setActiveRows(band.firstOwnedRow(), band.endOwnedRow());
+        generateWorld(seed, band.firstLocalRow(), band.seed(seed));
+    }
+
+    private IslandEngine(IslandMap islandMap, long seed, SimulationThreadPool threadPool, boolean ownsThreadPool,
+                         SimulationParameters parameters) {
+        this(islandMap, new Random(seed), threadPool, ownsThreadPool, parameters);
+        generateWorld(seed, 0, seed);
+    }
+
+    /**
+     * Genera el terreno y puebla las filas activas del mapa con las densidades de los parámetros.
+     * @param terrainSeed Semilla del terreno de la isla completa
+     * @param terrainFirstRow Fila de la isla en la que empieza el mapa
+     * @param populationSeed Semilla con la que se colocan los organismos
+     */
+    private void generateWorld(long terrainSeed, int terrainFirstRow, long populationSeed) {
+        islandMap.setTerrain(new TerrainGenerator(threadPool)
+                .generateBand(islandMap.getRows(), islandMap.getCols(), terrainSeed, terrainFirstRow, islandMap.getCellMemory()));
+        Map<Class<? extends Organism>, Long> placed = new WorldGenerator(threadPool)
+                .populate(islandMap, populationSeed, parameters.densities(), organismIds, firstActiveRow, endActiveRow);
+        if (!parameters.speciesTraits().isEmpty()) {
+            for (Animal animal : islandMap.getAnimals()) {
+                applyTraits(animal);
+            }
+        }
+        placed.forEach((type, count) -> {
+            if (Animal.class.isAssignableFrom(type) && count > 0) {
+                populationCounts.put(type, count);
+            }
+        });
+    }
+
+    /**
+     * Inicializa los componentes del motor sin poblar el mapa.
+     */
+    private IslandEngine(IslandMap islandMap, Random random, SimulationThreadPool threadPool, boolean ownsThreadPool,
+                         SimulationParameters parameters) {
+        int rows = islandMap.getRows();
+        int cols = islandMap.getCols();
+        this.random = random;
+        this.parameters = parameters;
+        this.firstActiveRow = 0;
+        this.endActiveRow = rows;
+        this.islandMap = islandMap;
+        this.plantRegrowth = new PlantRegrowthWheel(rows * cols, PlantRegrowthWheel.DEFAULT_SLOTS, islandMap.getCellMemory());
+        this.renderMode = (long) rows * cols > DOM_RENDER_CELL_LIMIT ? RenderMode.CANVAS : RenderMode.DOM;
 
         // Inicializar componentes de concurrencia mejorada
-        this.threadPool = new SimulationThreadPool();
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
         this.synchronizer = new SimulationSynchronizer();
-        this.threadMonitor = new ThreadMonitor();
 
-        // Iniciar monitoreo de hilos
-        this.threadMonitor.startMonitoring();
+        // Las fases de los animales se ejecutan en el pool de simulación, sin pools propios
+        this.movementExecutor = new MovementExecutor(islandMap, threadPool);
+        this.eatingExecutor = new EatingExecutor(islandMap, threadPool, events);
+        this.reproductionExecutor = new ReproductionExecutor(islandMap, threadPool, events);
+
+        this.threadMonitor = new ThreadMonitor(metricsRegistry);
+        threadMonitor.registerPool("simulation", "SimulationWorker-");
+
+        // Iniciar muestreo de hilos con los intervalos por defecto, solo si el pool es propio
+        if (ownsThreadPool) {
+            this.threadMonitor.startMonitoring();
+        }
+
+        // Serie temporal con una columna de población por especie animal
+        this.animalSpecies = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL);
+        this.timeSeries = new CycleTimeSeries(
+                animalSpecies.stream().map(Class::getSimpleName).toList(), TIME_SERIES_CAPACITY);
+        this.metricsRow = new long[timeSeries.getColumnCount()];
+        this.metrics = new EngineMetrics(metricsRegistry, threadPool, animalSpecies);
+        metrics.registerClaimCounters(eatingExecutor.getClaims());
+        for (int i = 0; i < animalSpecies.size(); i++) {
+            speciesIndex.put(animalSpecies.get(i), i);
+        }
+        this.cycleBirths = new long[animalSpecies.size()];
+        this.cycleRaisedAlarms = new long[animalSpecies.size()];
+        this.lastCycleLog = new CycleLog(0, animalSpecies, cycleBirths.clone(), cycleRaisedAlarms.clone(), 0, 0, 0);
 
-        populateMap(islandMap);
-        initializePopulationCounts();
+        // Con radio 1 basta la búsqueda de presas adyacentes y no hacen falta tablas
+        this.perceptionField = parameters.perceptionRadius() > 1 ? createPerceptionField() : null;
+        movementExecutor.setPerception(perceptionField);
+    }
+
+    /**
+     * Crea las tablas de percepción con la dieta registrada de cada especie que caza.
+     */
+    private PerceptionField createPerceptionField() {
+        return new PerceptionField(islandMap, parameters.perceptionRadius(), OrganismRegistry.getDiets());
     }
 
     public int getCycleNumber() {
@@ -103,150 +363,202 @@ public class IslandEngine {
     }
 
     /**
-     * Inicializa el conteo de población basado en los organismos existentes en el mapa.
+     * Obtiene los parámetros con los que se creó el motor.
+     * @return Los parámetros de la simulación
      */
-    private void initializePopulationCounts() {
-        Map<Class<? extends Organism>, Long> initialCounts = islandMap.getOrganisms().stream()
-                .filter(o -> o instanceof Animal)
-                .collect(Collectors.groupingBy(Organism::getClass, Collectors.counting()));
-        populationCounts.putAll(initialCounts);
+    public SimulationParameters getParameters() {
+        return parameters;
     }
 
     /**
-     * Puebla el mapa con organismos iniciales.
-     * Coloca terreno, plantas y animales de forma aleatoria.
-     * @param map El mapa a poblar
+     * Obtiene la población actual de cada especie animal en las filas activas, incluidos los
+     * animales llegados de otras bandas desde el último ciclo.
+     * @return Vista no modificable de los recuentos
      */
-    public void populateMap(IslandMap map) {
-        // Tipos de terreno que se colocan en clusters
-        List<Class<? extends Organism>> clusterableTerrain = List.of(
-                Tree.class,
-                PalmTree.class,
-                ConiferousTree.class,
-                Rock.class,
-                Water.class
-        );
+    public Map<Class<? extends Organism>, Long> getPopulationCounts() {
+        return Collections.unmodifiableMap(populationCounts);
+    }
 
-        // Coloca clusters de terreno
-        for (Class<? extends Organism> terrainType : clusterableTerrain) {
-            for (int i = 0; i < 2; i++) {
-                int row = random.nextInt(map.getRows());
-                int col = random.nextInt(map.getCols());
-                int clusterSize = 5 + random.nextInt(10);
+    /**
+     * Obtiene el mapa de la isla. Solo debe modificarse entre ciclos, desde el hilo que los ejecuta.
+     * @return El mapa del motor
+     */
+    public IslandMap getIslandMap() {
+        return islandMap;
+    }
 
-                placeOrganismCluster(map, terrainType, row, col, clusterSize);
-            }
-        }
+    /**
+     * Activa o desactiva las estadísticas de concurrencia que se imprimen cada 10 ciclos.
+     * Las mismas cifras están siempre en el registro de métricas y en {@code /metrics}.
+     * @param enabled true para imprimirlas
+     */
+    public void setConsoleStatisticsEnabled(boolean enabled) {
+        this.consoleStatisticsEnabled = enabled;
+    }
 
-        // Obtiene todos los tipos de organismos disponibles
-        List<Class<? extends Organism>> organismTypes = OrganismRegistry.getAllOrganismTypes();
-        List<Class<? extends Organism>> animalTypes = organismTypes.stream()
-                .filter(c -> !Objects.requireNonNull(OrganismFactory.createOrganism(c)).isPlant())
-                .filter(c -> !clusterableTerrain.contains(c))
-                .filter(c -> c != Mushroom.class && c != MushroomGrass.class)
-                .toList();
-
-        // Encuentra el tipo de hierba para colocarla abundantemente
-        Class<? extends Organism> grassType = organismTypes.stream()
-                .filter(c -> Objects.requireNonNull(OrganismFactory.createOrganism(c)).isPlant())
-                .findFirst().orElse(null);
-
-        // Tipos de terreno que se colocan aleatoriamente
-        List<Class<? extends Organism>> randomTerrain = List.of(Mushroom.class, MushroomGrass.class);
-
-        // Coloca terreno aleatorio
-        for (Class<? extends Organism> randomType : randomTerrain) {
-            int count = 20 + random.nextInt(10);
-            for (int i = 0; i < count; i++) {
-                int row = random.nextInt(map.getRows());
-                int col = random.nextInt(map.getCols());
-                if (map.getOrganismAt(row, col) == null) {
-                    map.setOrganismAt(row, col, OrganismFactory.createOrganism(randomType));
-                }
-            }
-        }
+    /**
+     * Obtiene el resumen de eventos del último ciclo completado.
+     * El texto del log se construye la primera vez que se pide con {@link CycleLog#getText()}.
+     * @return El resumen del último ciclo
+     */
+    public CycleLog getLastCycleLog() {
+        return lastCycleLog;
+    }
 
-        // Coloca hierba abundantemente
-        if (grassType != null) {
-            int grassCount = 100 + random.nextInt(50);
-            for (int i = 0; i < grassCount; i++) {
-                int row = random.nextInt(map.getRows());
-                int col = random.nextInt(map.getCols());
-                if (map.getOrganismAt(row, col) == null) {
-                    map.setOrganismAt(row, col, OrganismFactory.createOrganism(grassType));
-                }
-            }
-        }
+    /**
+     * Activa o desactiva la vista HTML de cada ciclo. Sin ella la simulación no escribe
+     * archivos ni construye el texto del log, salvo que se pida con {@link #getLastCycleLog()}.
+     * @param enabled true para generar la vista (por defecto)
+     */
+    public void setHtmlOutputEnabled(boolean enabled) {
+        this.htmlOutputEnabled = enabled;
+    }
 
-        // Coloca animales
-        for (Class<? extends Organism> organismClass : animalTypes) {
-            int count = 5 + random.nextInt(5);
-            for (int i = 0; i < count; i++) {
-                int row = random.nextInt(map.getRows());
-                int col = random.nextInt(map.getCols());
-                if (map.getOrganismAt(row, col) == null) {
-                    map.setOrganismAt(row, col, OrganismFactory.createOrganism(organismClass));
-                }
-            }
-        }
+    /**
+     * Establece el modo de renderizado de la vista HTML.
+     * Por defecto se usa el canvas compacto para mapas de más de {@value #DOM_RENDER_CELL_LIMIT} celdas.
+     * @param renderMode El modo de renderizado
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = Objects.requireNonNull(renderMode);
+    }
 
-        System.out.println("✅ Isla poblada con éxito.");
+    /**
+     * Activa la exportación de fotogramas PNG cada cierto número de ciclos.
+     * La codificación se hace en segundo plano y no detiene la simulación.
+     * @param outputDirectory Directorio donde se escriben los fotogramas
+     * @param everyCycles Cada cuántos ciclos se exporta un fotograma
+     * @param blockSize Tamaño en píxeles del lado de cada celda
+     */
+    public void enableFrameExport(Path outputDirectory, int everyCycles, int blockSize) {
+        // El exportador reutiliza su instantánea, así que solo admite un fotograma en cola
+        OutputSink sink = addSink("png", 1, DropPolicy.DROP_NEWEST);
+        PngFrameExporter exporter = new PngFrameExporter(threadPool, sink, outputDirectory, everyCycles, blockSize);
+        metrics.registerFrameCounters("png", exporter::getFramesWritten, exporter::getFramesSkipped);
+        this.frameExporter = exporter;
     }
 
     /**
-     * Coloca un cluster de organismos del mismo tipo en el mapa.
-     * @param map El mapa donde colocar el cluster
-     * @param organismClass El tipo de organismo a colocar
-     * @param startRow Fila inicial del cluster
-     * @param startCol Columna inicial del cluster
-     * @param size Tamaño máximo del cluster
+     * Activa la publicación de cada ciclo en un anillo de fotogramas en memoria compartida,
+     * que otro proceso puede leer con {@link com.codegym.islandsimulation.map.SharedGridReader}.
+     * Cada fotograma lleva la fila de la serie temporal del ciclo y los códigos del mapa.
+     * @param file Archivo compartido; en Linux conviene que esté en {@code /dev/shm}
+     * @param frames Número de fotogramas del anillo
+     * @throws IOException si no se puede crear o mapear el archivo
      */
-    private void placeOrganismCluster(IslandMap map, Class<? extends Organism> organismClass, int startRow, int startCol, int size) {
-        if (!map.isValidPosition(startRow, startCol) || map.getOrganismAt(startRow, startCol) != null) {
-            return;
+    public void enableSharedGridExport(Path file, int frames) throws IOException {
+        this.sharedGridExporter = new SharedGridExporter(file, islandMap.getRows(), islandMap.getCols(),
+                timeSeries.getColumnNames(), frames);
+    }
+
+    /**
+     * Obtiene el registro de métricas del motor.
+     * @return El registro de métricas
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Inicia un consumidor JFR en proceso que muestra en el panel de estadísticas
+     * la duración de los ciclos y fases y los eventos ecológicos muestreados.
+     */
+    public void enableJfrLiveStats() {
+        if (jfrLiveStats == null) {
+            jfrLiveStats = new JfrLiveStats();
         }
+    }
+
+    /**
+     * Cambia cuántos animales muertos se conservan por especie para reutilizarlos.
+     * @param capacityPerSpecies Animales retenidos por especie (0 desactiva el reciclaje)
+     */
+    public void setAnimalPoolCapacity(int capacityPerSpecies) {
+        animalPool.setCapacityPerSpecies(capacityPerSpecies);
+    }
 
-        // Cola para el algoritmo de expansión del cluster
-        Queue<int[]> positions = new LinkedList<>();
-        positions.add(new int[]{startRow, startCol});
+    /**
+     * Obtiene el pool de animales reciclados del motor.
+     * @return El pool de animales
+     */
+    public AnimalPool getAnimalPool() {
+        return animalPool;
+    }
 
-        // Coloca el organismo inicial
-        try {
-            Organism organism = organismClass.getDeclaredConstructor().newInstance();
-            map.setOrganismAt(startRow, startCol, organism);
-        } catch (Exception e) {
-            System.err.println("Error al crear instancia de " + organismClass.getSimpleName());
-            return;
+    /**
+     * Obtiene el monitor de hilos, por ejemplo para reiniciarlo con otros intervalos
+     * o para comprobar deadlocks bajo demanda. Con un pool compartido el monitor no se
+     * arranca solo: basta con arrancar el de uno de los motores.
+     * @return El monitor de hilos del motor
+     */
+    public ThreadMonitor getThreadMonitor() {
+        return threadMonitor;
+    }
+
+    /**
+     * Inicia un endpoint HTTP local que expone las métricas en formato Prometheus en /metrics.
+     * @param port Puerto local (0 para elegir uno libre)
+     * @return El endpoint iniciado
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public PrometheusEndpoint startMetricsEndpoint(int port) throws IOException {
+        if (metricsEndpoint == null) {
+            metricsEndpoint = new PrometheusEndpoint(metricsRegistry, port);
         }
+        return metricsEndpoint;
+    }
 
-        int placedCount = 1;
-
-        // Expande el cluster usando BFS
-        while (!positions.isEmpty() && placedCount < size) {
-            int[] currentPos = positions.poll();
-            int currentRow = currentPos[0];
-            int currentCol = currentPos[1];
-
-            // Direcciones: arriba, abajo, izquierda, derecha
-            int[][] directions = {
-                    {-1, 0}, {1, 0}, {0, -1}, {0, 1}
-            };
-
-            for (int[] dir : directions) {
-                int newRow = currentRow + dir[0];
-                int newCol = currentCol + dir[1];
-                if (map.isValidPosition(newRow, newCol) && map.getOrganismAt(newRow, newCol) == null && random.nextDouble() > 0.5) {
-                    try {
-                        Organism organism = organismClass.getDeclaredConstructor().newInstance();
-                        map.setOrganismAt(newRow, newCol, organism);
-                    } catch (Exception e) {
-                        System.err.println("Error al crear instancia de " + organismClass.getSimpleName());
-                        continue;
-                    }
-                    positions.add(new int[]{newRow, newCol});
-                    placedCount++;
-                    if (placedCount >= size) break;
-                }
+    /**
+     * Obtiene la serie temporal de métricas por ciclo (últimos ciclos en memoria).
+     * @return La serie temporal columnar
+     */
+    public CycleTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+
+    /**
+     * Activa la exportación en streaming de la serie temporal a un directorio,
+     * con un archivo binario por columna.
+     * @param outputDirectory Directorio de salida
+     * @throws IOException si no se pueden crear los archivos
+     */
+    public void enableTimeSeriesExport(Path outputDirectory) throws IOException {
+        OutputSink sink = addSink("timeseries", TIME_SERIES_SINK_CAPACITY, DropPolicy.BLOCK);
+        this.timeSeriesWriter = new ColumnarTimeSeriesWriter(outputDirectory, timeSeries.getColumnNames(), sink);
+        timeSeries.setWriter(timeSeriesWriter);
+    }
+
+    /**
+     * Obtiene las salidas del motor, por ejemplo para añadir un exportador propio.
+     * @return Las salidas del motor
+     */
+    public OutputPipeline getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Crea una salida del motor y publica sus métricas.
+     */
+    private OutputSink addSink(String name, int capacity, DropPolicy policy) {
+        OutputSink sink = outputs.addSink(name, capacity, policy);
+        metrics.registerSink(sink);
+        return sink;
+    }
+
+    /**
+     * Recalcula el conteo de población de un rango de filas a partir del histograma
+     * de códigos de especie del mapa.
+     * @param firstRow Primera fila
+     * @param endRow Fila siguiente a la última
+     */
+    private void countPopulation(int firstRow, int endRow) {
+        Arrays.fill(speciesHistogram, 0L);
+        islandMap.countSpecies(firstRow, endRow, speciesHistogram);
+        populationCounts.clear();
+        for (Class<? extends Organism> species : animalSpecies) {
+            long count = speciesHistogram[SpeciesCodes.codeOf(species)];
+            if (count > 0) {
+                populationCounts.put(species, count);
             }
         }
     }
@@ -254,9 +566,11 @@ public class IslandEngine {
     /**
      * Procesa los eventos de caza del ciclo actual.
      * Programa las muertes de presas y marca a los depredadores como descansando.
+     * Las reservas de celdas garantizan una sola caza por presa; la presa se comprueba de
+     * nuevo por si ya no está en su celda.
      */
     private void processHuntingEvents() {
-        List<HuntingEvent> currentEvents = SimulationEventRegistry.getHuntingEvents();
+        List<HuntingEvent> currentEvents = events.getHuntingEvents();
         lastCycleHuntingEvents.addAll(currentEvents);
 
         for (HuntingEvent event : currentEvents) {
@@ -266,6 +580,7 @@ public class IslandEngine {
             Organism prey = islandMap.getOrganismAt(preyRow, preyCol);
             if (prey != null && prey.equals(event.prey())) {
                 scheduledDeaths.add(event);
+                FlightEvents.hunt(currentCycle, event.predator(), prey, preyRow, preyCol);
                 if (event.predator() instanceof Animal) {
                     ((Animal) event.predator()).setRestingAfterHunt(true);
                 }
@@ -277,7 +592,7 @@ public class IslandEngine {
      * Procesa los eventos de consumo de plantas del ciclo actual.
      */
     private void processEatingPlantEvents() {
-        List<EatingPlantEvent> currentEvents = SimulationEventRegistry.getEatingPlantEvents();
+        List<EatingPlantEvent> currentEvents = events.getEatingPlantEvents();
         lastCycleEatingPlantEvents.addAll(currentEvents);
         scheduledPlantChanges.addAll(currentEvents);
     }
@@ -286,42 +601,32 @@ public class IslandEngine {
      * Procesa los eventos de reproducción del ciclo actual.
      */
     private void processReproductionEvents() {
-        lastCycleReproductionEvents.addAll(SimulationEventRegistry.getReproductionEvents());
+        lastCycleReproductionEvents.addAll(events.getReproductionEvents());
     }
 
     /**
      * Procesa las muertes por inanición.
-     * Los animales con peso <= 0 mueren y se convierten en cadáveres temporales.
+     * Los animales con peso <= 0 mueren y se convierten en cadáveres temporales en la celda
+     * donde los encuentra el recorrido.
      */
     private void processStarvationDeaths() {
-        List<Organism> toRemove = new ArrayList<>();
-        for (int row = 0; row < islandMap.getRows(); row++) {
+        for (int row = firstActiveRow; row < endActiveRow; row++) {
             for (int col = 0; col < islandMap.getCols(); col++) {
                 Organism organism = islandMap.getOrganismAt(row, col);
                 if (organism instanceof Animal && organism.getWeight() <= 0) {
-                    toRemove.add(organism);
+                    // El cadáver sustituye al animal en la celda ya recorrida
+                    recordDeath(organism, row, col, DeathCause.STARVATION);
                 }
             }
         }
-
-        for (Organism deadAnimal : toRemove) {
-            int[] pos = MapUtils.findOrganismPosition(islandMap, deadAnimal);
-            if (pos != null) {
-                // Reemplaza el animal muerto con un cadáver temporal
-                islandMap.setOrganismAt(pos[0], pos[1], new Organism("☠️", 0) {
-                    @Override
-                    public boolean isPlant() { return false; }
-                });
-                deadOrganisms.put(deadAnimal, new OrganismPosition(pos[0], pos[1], 5));
-            }
-        }
     }
 
     /**
      * Procesa las alarmas de población y añade nuevos animales si es necesario.
      */
     private void processPopulationAlarms() {
-        List<PopulationAlarmEvent> alarms = SimulationEventRegistry.getPopulationAlarmEvents();
+        List<PopulationAlarmEvent> alarms = events.getPopulationAlarmEvents();
+        cycleAlarms = alarms.size();
         for (PopulationAlarmEvent alarm : alarms) {
             Class<? extends Organism> animalType = alarm.getAnimalType();
 
@@ -334,13 +639,16 @@ public class IslandEngine {
                 toAdd = 4;
             }
 
-            // Añade nuevos animales en posiciones aleatorias vacías
+            // Añade nuevos animales en posiciones aleatorias vacías, sin ocupar las celdas
+            // reservadas para las crías que nacen en este ciclo
             for (int i = 0; i < toAdd; i++) {
-                int row = random.nextInt(islandMap.getRows());
+                int row = firstActiveRow + random.nextInt(endActiveRow - firstActiveRow);
                 int col = random.nextInt(islandMap.getCols());
 
-                if (islandMap.getOrganismAt(row, col) == null) {
-                    Organism newAnimal = OrganismFactory.createOrganism(animalType);
+                if (islandMap.isFree(row, col) && !reproductionExecutor.isReservedForOffspring(row, col)) {
+                    Organism newAnimal = Animal.class.isAssignableFrom(animalType)
+                            ? acquireAnimal(animalType.asSubclass(Animal.class))
+                            : OrganismFactory.createOrganism(animalType);
                     if (newAnimal != null) {
                         islandMap.setOrganismAt(row, col, newAnimal);
                         populationCounts.compute(newAnimal.getClass(), (k, v) -> (v == null) ? 1L : v + 1);
@@ -360,10 +668,12 @@ public class IslandEngine {
 
             long currentCount = populationCounts.getOrDefault(animalType, 0L);
 
-            if (animalType.equals(Caterpillar.class) && currentCount < CATERPILLAR_MIN_POPULATION) {
-                SimulationEventRegistry.addPopulationAlarmEvent(new PopulationAlarmEvent(animalType));
-            } else if (!animalType.equals(Caterpillar.class) && currentCount <= 1) {
-                SimulationEventRegistry.addPopulationAlarmEvent(new PopulationAlarmEvent(animalType));
+            boolean critical = animalType.equals(Caterpillar.class)
+                    ? currentCount < CATERPILLAR_MIN_POPULATION
+                    : currentCount <= 1;
+            if (critical) {
+                events.addPopulationAlarmEvent(new PopulationAlarmEvent(animalType));
+                countForSpecies(cycleRaisedAlarms, animalType);
             }
         }
     }
@@ -376,17 +686,24 @@ public class IslandEngine {
             int plantRow = event.plantRow();
             int plantCol = event.plantCol();
 
-            Organism plant = islandMap.getOrganismAt(plantRow, plantCol);
-            if (plant instanceof Plant) {
-                ((Plant) plant).getEaten();
-                revivablePlants.add((Plant) plant);
+            if (!isActiveRow(plantRow)) {
+                // Planta del halo: la consume la banda que la simula
+                continue;
+            }
+            // Una planta comida por dos herbívoros en el mismo ciclo solo cuenta una vez
+            if (islandMap.eatPlantAt(plantRow, plantCol)) {
+                // El ciclo en que se come cuenta como el primero de los necesarios para revivir
+                plantRegrowth.schedule(plantRow * islandMap.getCols() + plantCol, currentCycle + parameters.plantRevivalCycles() - 1);
+                cyclePlantsEaten++;
             }
         }
         scheduledPlantChanges.clear();
     }
 
     /**
-     * Aplica los nacimientos programados de crías.
+     * Aplica los nacimientos programados de crías. Una pareja en la que algún padre ya no
+     * está en su celda (ha muerto desde que se emparejó) no tiene cría ni pasa a descansar:
+     * el animal podría volver del pool como otro distinto.
      */
     private void applyScheduledOffspring() {
         for (ReproductionEvent event : lastCycleReproductionEvents) {
@@ -395,8 +712,12 @@ public class IslandEngine {
             int row = event.offspringRow();
             int col = event.offspringCol();
 
-            if (islandMap.getOrganismAt(row, col) == null) {
-                Animal offspring = (Animal) OrganismFactory.createOrganism(parent1.getClass());
+            if (islandMap.getOrganismAt(event.parent1Row(), event.parent1Col()) != parent1
+                    || islandMap.getOrganismAt(event.parent2Row(), event.parent2Col()) != parent2) {
+                continue;
+            }
+            if (islandMap.isFree(row, col)) {
+                Animal offspring = acquireAnimal(parent1.getClass());
 
                 if (offspring != null) {
                     // Configura el peso inicial de la cría
@@ -417,117 +738,260 @@ public class IslandEngine {
                     parent1.setRestingAfterReproduction(true);
                     parent2.setRestingAfterReproduction(true);
 
-                    restingOrganisms.put(parent1, REPRODUCTION_REST_CYCLES);
-                    restingOrganisms.put(parent2, REPRODUCTION_REST_CYCLES);
+                    int wakeCycle = expiryCycle(parameters.reproductionRestCycles());
+                    restingOrganisms.schedule(parent1, null, wakeCycle);
+                    restingOrganisms.schedule(parent2, null, wakeCycle);
 
                     offspring.setRestingAfterReproduction(true);
-                    restingOrganisms.put(offspring, REPRODUCTION_REST_CYCLES);
+                    restingOrganisms.schedule(offspring, null, wakeCycle);
 
                     lastCycleOffspringEvents.add(event);
+                    countForSpecies(cycleBirths, offspring.getClass());
+                    FlightEvents.birth(currentCycle, offspring, row, col);
                 }
             }
         }
     }
 
     /**
-     * Aplica las muertes programadas por caza.
+     * Limita la simulación a las filas [firstRow, endRow); el resto del mapa es halo.
      */
-    private void applyScheduledDeaths() {
-        for (HuntingEvent event : scheduledDeaths) {
-            int preyRow = event.preyRow();
-            int preyCol = event.preyCol();
+    private void setActiveRows(int firstRow, int endRow) {
+        this.firstActiveRow = firstRow;
+        this.endActiveRow = endRow;
+        movementExecutor.setActiveRows(firstRow, endRow);
+        eatingExecutor.setActiveRows(firstRow, endRow);
+        reproductionExecutor.setActiveRows(firstRow, endRow);
+    }
 
-            Organism prey = islandMap.getOrganismAt(preyRow, preyCol);
-            if (prey != null && prey.equals(event.prey())) {
-                deadOrganisms.put(prey, new OrganismPosition(preyRow, preyCol, 5));
-                // Reemplaza la presa con un cadáver temporal
-                islandMap.setOrganismAt(preyRow, preyCol, new Organism("☠️", 0) {
-                    @Override
-                    public boolean isPlant() { return false; }
-                });
-            }
+    private boolean isActiveRow(int row) {
+        return row >= firstActiveRow && row < endActiveRow;
+    }
+
+    /**
+     * Obtiene las cazas del último ciclo, incluidas las de presas del halo, que debe
+     * aplicar la banda que las simula.
+     * @return Lista no modificable, válida hasta el siguiente ciclo
+     */
+    public List<HuntingEvent> getLastCycleHuntingEvents() {
+        return Collections.unmodifiableList(lastCycleHuntingEvents);
+    }
+
+    /**
+     * Obtiene los consumos de plantas del último ciclo, incluidos los de plantas del halo.
+     * @return Lista no modificable, válida hasta el siguiente ciclo
+     */
+    public List<EatingPlantEvent> getLastCycleEatingPlantEvents() {
+        return Collections.unmodifiableList(lastCycleEatingPlantEvents);
+    }
+
+    /**
+     * Retira del mapa un animal que ha salido de las filas del motor hacia otra banda.
+     * Se llama entre ciclos; el animal deja de contar en los descansos. En la población no
+     * contaba ya si está fuera de las filas activas, porque el recuento del ciclo solo las recorre.
+     * @param row Fila del animal
+     * @param col Columna del animal
+     * @return El animal retirado, o null si en la celda no hay ningún animal
+     */
+    public Animal emigrate(int row, int col) {
+        if (!(islandMap.getOrganismAt(row, col) instanceof Animal animal)) {
+            return null;
         }
-        scheduledDeaths.clear();
+        islandMap.setOrganismAt(row, col, null);
+        restingOrganisms.cancel(animal);
+        if (isActiveRow(row)) {
+            populationCounts.computeIfPresent(animal.getClass(), (k, v) -> v > 0 ? v - 1 : 0L);
+        }
+        return animal;
     }
 
     /**
-     * Revive las plantas que han estado muertas el tiempo suficiente.
+     * Coloca un animal que llega de otra banda en la celda indicada o, si está ocupada, en la
+     * celda libre más cercana de las filas del motor. Se llama entre ciclos; quien lo llama
+     * copia después el estado del animal de origen.
+     * @param species Especie del animal
+     * @param row Fila de destino
+     * @param col Columna de destino
+     * @return El animal colocado, o null si no hay sitio cerca
      */
-    private void revivePlants() {
-        List<Plant> plantsToRevive = new ArrayList<>();
+    public Animal immigrate(Class<? extends Animal> species, int row, int col) {
+        int[] cell = findFreeCellNear(row, col);
+        if (cell == null) {
+            return null;
+        }
+        Animal animal = organismIds.call(() -> acquireAnimal(species));
+        if (animal != null) {
+            islandMap.setOrganismAt(cell[0], cell[1], animal);
+            populationCounts.merge(species, 1L, Long::sum);
+        }
+        return animal;
+    }
 
-        for (Plant plant : revivablePlants) {
-            if (!plant.isAlive() && plant.getCyclesDead() >= PLANT_REVIVAL_CYCLES) {
-                plant.revive();
-                plantsToRevive.add(plant);
+    /**
+     * Busca la celda libre más cercana de las filas activas, por anillos alrededor de la
+     * celda dada, sin usar las reservadas para crías.
+     * @return {fila, columna}, o null si no hay ninguna dentro del radio de búsqueda
+     */
+    private int[] findFreeCellNear(int row, int col) {
+        for (int radius = 0; radius <= IMMIGRATION_SEARCH_RADIUS; radius++) {
+            for (int r = row - radius; r <= row + radius; r++) {
+                for (int c = col - radius; c <= col + radius; c++) {
+                    boolean onRing = Math.abs(r - row) == radius || Math.abs(c - col) == radius;
+                    if (onRing && isActiveRow(r) && islandMap.isFree(r, c)
+                            && !reproductionExecutor.isReservedForOffspring(r, c)) {
+                        return new int[] {r, c};
+                    }
+                }
             }
         }
-        revivablePlants.removeAll(plantsToRevive);
+        return null;
     }
 
     /**
-     * Actualiza el contador de ciclos muertos para las plantas consumidas.
+     * Programa para el siguiente ciclo la muerte de una presa cazada desde otra banda,
+     * si sigue en su celda.
+     * @param row Fila de la presa
+     * @param col Columna de la presa
+     * @param preyId Identificador de la presa que vio el depredador
+     * @return true si la presa seguía en la celda
      */
-    private void updateConsumedPlants() {
-        for (Plant plant : revivablePlants) {
-            plant.updateCyclesDead();
+    public boolean applyRemoteHunt(int row, int col, long preyId) {
+        Organism prey = islandMap.getOrganismAt(row, col);
+        if (!isActiveRow(row) || !(prey instanceof Animal) || prey.getId() != preyId) {
+            return false;
         }
+        // El depredador está en otra banda: el evento solo lleva la presa
+        scheduledDeaths.add(new HuntingEvent(null, prey, -1, -1, row, col));
+        return true;
     }
 
     /**
-     * Actualiza el estado de los organismos que están descansando.
+     * Programa para el siguiente ciclo el consumo de una planta comida desde otra banda.
+     * @param row Fila de la planta
+     * @param col Columna de la planta
+     * @return true si la celda tiene una planta viva
      */
-    private void updateRestingOrganisms() {
-        List<Organism> toAwake = new ArrayList<>();
+    public boolean applyRemotePlantEaten(int row, int col) {
+        Organism plant = islandMap.getOrganismAt(row, col);
+        if (!isActiveRow(row) || !(plant instanceof Plant) || !((Plant) plant).isAlive()) {
+            return false;
+        }
+        scheduledPlantChanges.add(new EatingPlantEvent(null, -1, -1, row, col));
+        return true;
+    }
 
-        for (Map.Entry<Organism, Integer> entry : restingOrganisms.entrySet()) {
-            Organism organism = entry.getKey();
-            Integer remainingCycles = entry.getValue();
-            remainingCycles--;
-            restingOrganisms.put(organism, remainingCycles);
+    /**
+     * Obtiene un animal del pool con los rasgos que fijan los parámetros para su especie.
+     * @param species La especie del animal
+     * @return Un animal en su estado inicial, o null si no se puede crear
+     */
+    private Animal acquireAnimal(Class<? extends Animal> species) {
+        Animal animal = animalPool.acquire(species);
+        if (animal != null) {
+            applyTraits(animal);
+        }
+        return animal;
+    }
 
-            if (remainingCycles <= 0) {
-                toAwake.add(organism);
-            }
+    /**
+     * Sustituye la velocidad y la comida de un animal si los parámetros lo indican para su especie.
+     */
+    private void applyTraits(Animal animal) {
+        SimulationParameters.SpeciesTraits traits = parameters.traitsFor(animal.getClass());
+        if (traits != null) {
+            animal.applyTraits(traits.maxSpeed(), traits.foodNeeded());
         }
+    }
 
-        for (Organism organism : toAwake) {
-            if (organism instanceof Animal) {
-                ((Animal) organism).setRestingAfterReproduction(false);
+    /**
+     * Aplica las muertes programadas por caza.
+     */
+    private void applyScheduledDeaths() {
+        for (HuntingEvent event : scheduledDeaths) {
+            int preyRow = event.preyRow();
+            int preyCol = event.preyCol();
+
+            Organism prey = islandMap.getOrganismAt(preyRow, preyCol);
+            // Una presa del halo la mata la banda que la simula
+            if (isActiveRow(preyRow) && prey != null && prey.equals(event.prey())) {
+                recordDeath(prey, preyRow, preyCol, DeathCause.HUNTING);
             }
-            restingOrganisms.remove(organism);
         }
+        scheduledDeaths.clear();
     }
 
     /**
-     * Actualiza el estado de los organismos muertos.
-     * Los cadáveres desaparecen después de un tiempo.
+     * Registra una muerte en el momento en que ocurre: deja un cadáver temporal en su celda,
+     * programa su retirada y anota la causa en los recuentos del ciclo.
+     * @param dead El organismo que muere
+     * @param row Fila de su celda
+     * @param col Columna de su celda
+     * @param cause Causa de la muerte
      */
-    private void updateDeadOrganisms() {
-        List<Organism> toRemoveFromMap = new ArrayList<>();
+    private void recordDeath(Organism dead, int row, int col, DeathCause cause) {
+        islandMap.setOrganismAt(row, col, Corpse.INSTANCE);
+        deadOrganisms.schedule(dead, new OrganismPosition(row, col), expiryCycle(CORPSE_CYCLES));
+        if (dead instanceof Animal) {
+            restingOrganisms.cancel((Animal) dead);
+        }
+        switch (cause) {
+            case HUNTING -> cycleHuntingDeaths++;
+            case STARVATION -> {
+                cycleStarvationDeaths++;
+                FlightEvents.starvation(currentCycle, dead, row, col);
+            }
+        }
+    }
 
-        for (Map.Entry<Organism, OrganismPosition> entry : deadOrganisms.entrySet()) {
-            Organism deadOrganism = entry.getKey();
-            OrganismPosition pos = entry.getValue();
-            pos.decrementCycles();
+    /**
+     * Revive las plantas cuyo rebrote vence en este ciclo.
+     */
+    private void revivePlants() {
+        int cols = islandMap.getCols();
+        plantRegrowth.advance(currentCycle, cell -> islandMap.revivePlantAt(cell / cols, cell % cols));
+    }
 
-            if (pos.getRemainingCycles() <= 0) {
-                toRemoveFromMap.add(deadOrganism);
-            }
+    /**
+     * Suma uno al recuento de una especie animal en un arreglo de recuentos por especie.
+     */
+    private void countForSpecies(long[] counts, Class<? extends Organism> type) {
+        Integer index = speciesIndex.get(type);
+        if (index != null) {
+            counts[index]++;
         }
+    }
 
-        for (Organism originalOrganism : toRemoveFromMap) {
-            OrganismPosition pos = deadOrganisms.get(originalOrganism);
-            if (pos != null) {
-                islandMap.setOrganismAt(pos.row, pos.col, null);
+    /**
+     * Ciclo en el que caduca un estado que empieza en el ciclo actual y dura
+     * {@code cycles} ciclos, contando el actual.
+     */
+    private int expiryCycle(int cycles) {
+        return currentCycle + cycles - 1;
+    }
 
-                if (originalOrganism instanceof Animal) {
-                    populationCounts.computeIfPresent(originalOrganism.getClass(), (k, v) -> v > 0 ? v - 1 : 0L);
-                    checkPopulationAndRaiseAlarm(originalOrganism);
-                }
+    /**
+     * Despierta a los animales cuyo descanso termina en este ciclo.
+     */
+    private void updateRestingOrganisms() {
+        restingOrganisms.advance(currentCycle, (animal, unused) -> animal.setRestingAfterReproduction(false));
+    }
+
+    /**
+     * Retira los cadáveres que desaparecen en este ciclo.
+     * Al retirar cada uno se actualiza la población de su especie, se comprueba si hay
+     * que activar una alarma y el animal se recicla.
+     */
+    private void updateDeadOrganisms() {
+        deadOrganisms.advance(currentCycle, (originalOrganism, pos) -> {
+            islandMap.setOrganismAt(pos.row(), pos.col(), null);
+
+            if (originalOrganism instanceof Animal) {
+                populationCounts.computeIfPresent(originalOrganism.getClass(), (k, v) -> v > 0 ? v - 1 : 0L);
+                checkPopulationAndRaiseAlarm(originalOrganism);
+                // El animal ya no está en el mapa ni en ninguna estructura: se recicla
+                animalPool.release((Animal) originalOrganism);
             }
-            deadOrganisms.remove(originalOrganism);
-        }
+        });
     }
 
     /**
@@ -535,11 +999,28 @@ public class IslandEngine {
      * Coordina todos los procesos: movimiento, alimentación, reproducción, etc.
      */
     public void updateSimulationCycle() {
+        // Los organismos creados durante el ciclo toman su identificador de este motor
+        organismIds.run(this::runSimulationCycle);
+    }
+
+    private void runSimulationCycle() {
+        long cycleStart = System.nanoTime();
         currentCycle++;
+        cycleHuntingDeaths = 0;
+        cycleStarvationDeaths = 0;
+        cyclePlantsEaten = 0;
+        cycleAlarms = 0;
+        Arrays.fill(cycleBirths, 0);
+        Arrays.fill(cycleRaisedAlarms, 0);
+        metrics.beginCycle(currentCycle, populationCounts.values().stream().mapToInt(Long::intValue).sum());
+
+        long phaseStart = cycleStart;
         processPopulationAlarms();
-        SimulationEventRegistry.clearPopulationAlarmEvents();
+        events.clearPopulationAlarmEvents();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.ALARMS, phaseStart);
 
         processStarvationDeaths();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.DEATHS, phaseStart);
 
         lastCycleOffspringEvents.clear();
 
@@ -551,146 +1032,190 @@ public class IslandEngine {
         lastCycleEatingPlantEvents.clear();
         lastCycleReproductionEvents.clear();
 
-        SimulationEventRegistry.clearHuntingEvents();
-        SimulationEventRegistry.clearEatingPlantEvents();
-        SimulationEventRegistry.clearReproductionEvents();
+        events.clearHuntingEvents();
+        events.clearEatingPlantEvents();
+        events.clearReproductionEvents();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.SCHEDULED_EVENTS, phaseStart);
 
-        // Ejecuta las acciones de los animales
+        // Ejecuta las acciones de los animales; los depredadores ven las presas del inicio del movimiento
+        if (perceptionField != null) {
+            perceptionField.rebuild(threadPool);
+        }
         movementExecutor.processAnimalMovements();
-        eatingExecutor.processAnimalEating();
-        reproductionExecutor.processAnimalReproduction();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.MOVEMENT, phaseStart);
+        eatingExecutor.processAnimalEating(currentCycle);
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.EATING, phaseStart);
+        reproductionExecutor.processAnimalReproduction(currentCycle);
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.REPRODUCTION, phaseStart);
 
         // Procesa los eventos generados
         processHuntingEvents();
         processEatingPlantEvents();
         processReproductionEvents();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.EVENT_PROCESSING, phaseStart);
 
         updateRestingOrganisms();
 
         updateDeadOrganisms();
-        updateConsumedPlants();
         revivePlants();
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.BOOKKEEPING, phaseStart);
+
+        // Actualiza el conteo de población de las filas activas
+        countPopulation(firstActiveRow, endActiveRow);
+        phaseStart = metrics.endPhase(EngineMetrics.Phase.POPULATION, phaseStart);
+
+        long cycleNanos = phaseStart - cycleStart;
+        recordCycleMetrics(cycleNanos);
+        metrics.recordCycle(cycleNanos, lastCycleOffspringEvents.size(), cycleHuntingDeaths, cycleStarvationDeaths,
+                cyclePlantsEaten, cycleAlarms, populationCounts);
+
+        // Solo se copian los recuentos: el texto se construye si algún consumidor lo pide
+        CycleLog cycleLog = new CycleLog(currentCycle, animalSpecies, cycleBirths.clone(), cycleRaisedAlarms.clone(),
+                cycleHuntingDeaths, cycleStarvationDeaths, cyclePlantsEaten);
+        lastCycleLog = cycleLog;
+        if (htmlOutputEnabled) {
+            renderHtml(cycleLog);
+        }
 
-        // Actualiza el conteo de población
-        populationCounts.clear();
-        islandMap.getOrganisms().stream()
-                .filter(o -> o instanceof Animal)
-                .collect(Collectors.groupingBy(Organism::getClass, Collectors.counting()))
-                .forEach(populationCounts::put);
-
-        String consolidatedLog = generateConsolidatedLog();
-
-        // --- CAMBIO AQUÍ: Se crea el renderizador sin el objeto server ---
-        IslandWebRenderer renderer = new IslandWebRenderer(islandMap, populationCounts, currentCycle, consolidatedLog);
-        renderer.setHuntingEvents(lastCycleHuntingEvents);
-        renderer.setEatingPlantEvents(lastCycleEatingPlantEvents);
-        renderer.setReproductionEvents(lastCycleReproductionEvents);
-        renderer.setOffspringEvents(lastCycleOffspringEvents);
-
-        // Ejecutar generación de HTML en pool de I/O separado
-        threadPool.submitIOTask(() -> {
-            try {
-                renderer.generateHtmlFile();
-                return "HTML generado exitosamente";
-            } catch (IOException e) {
-                System.err.println("Error generando HTML: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        });
+        if (frameExporter != null) {
+            frameExporter.onCycleCompleted(currentCycle, islandMap);
+        }
+        if (sharedGridExporter != null) {
+            sharedGridExporter.publish(metricsRow, islandMap);
+        }
+        metrics.endPhase(EngineMetrics.Phase.OUTPUT, phaseStart);
 
-        // Imprimir estadísticas de concurrencia cada 10 ciclos
-        if (currentCycle % 10 == 0) {
-            System.out.println("📈 " + threadPool.getPoolStatistics());
-            System.out.println("🔒 " + synchronizer.getLockInfo());
-            System.out.println("🧵 " + threadMonitor.getThreadSummary());
+        // Imprimir estadísticas de concurrencia cada 10 ciclos, en el hilo de la consola
+        if (consoleStatisticsEnabled && currentCycle % 10 == 0) {
+            if (consoleSink == null) {
+                consoleSink = addSink("console", CONSOLE_SINK_CAPACITY, DropPolicy.DROP_NEWEST);
+            }
+            String statistics = "📈 " + threadPool.getPoolStatistics() + "\n"
+                    + "🔒 " + synchronizer.getLockInfo() + "\n"
+                    + "🧵 " + threadMonitor.getThreadSummary();
+            consoleSink.offer(() -> System.out.println(statistics));
         }
     }
 
     /**
-     * Genera un log consolidado de los eventos del ciclo actual.
-     * @return String con el resumen de eventos del ciclo
+     * Genera la vista HTML del ciclo en el hilo de su salida con el renderizador del modo actual.
+     * Si ya hay una vista esperando en la cola, esta se descarta antes de prepararla.
+     * @param cycleLog Resumen del ciclo; su texto se construye en el hilo de la salida HTML al escribir la vista
      */
-    private String generateConsolidatedLog() {
-        StringBuilder log = new StringBuilder();
-        log.append("------------- Ciclo ").append(currentCycle).append(" -------------\n\n");
-
-        // Cuenta los nacimientos por especie
-        Map<Class<? extends Organism>, Long> births = lastCycleReproductionEvents.stream()
-                .collect(Collectors.groupingBy(e -> e.parent1().getClass(), Collectors.counting()));
-
-        long totalBirths = lastCycleReproductionEvents.size();
-        long totalHuntingDeaths = lastCycleHuntingEvents.size();
-        long totalStarvationDeaths = deadOrganisms.entrySet().stream()
-                .filter(e -> !lastCycleHuntingEvents.stream()
-                        .anyMatch(hunt -> hunt.prey().getId().equals(e.getKey().getId())))
-                .count();
-
-        long totalPlantEaten = lastCycleEatingPlantEvents.size();
-
-        // Registra nacimientos
-        if (totalBirths > 0) {
-            log.append("✔ Nacimientos:\n");
-            births.forEach((species, count) ->
-                    log.append("  - ").append(count).append(" nuevos ").append(species.getSimpleName()).append("\n"));
-            log.append("\n");
+    private void renderHtml(CycleLog cycleLog) {
+        if (htmlSink == null) {
+            htmlSink = addSink("html", 1, DropPolicy.DROP_OLDEST);
+        }
+        if (htmlSink.isFull()) {
+            metrics.htmlFrameSkipped();
+            return;
         }
 
-        // Registra muertes
-        if (totalHuntingDeaths > 0 || totalStarvationDeaths > 0) {
-            log.append("✔ Muertes:\n");
-            if (totalHuntingDeaths > 0) {
-                log.append("  - ").append(totalHuntingDeaths).append(" animales murieron por caza.\n");
+        RenderTask task;
+        if (renderMode == RenderMode.CANVAS) {
+            // El renderizador compacto codifica el mapa aquí, en el hilo de simulación
+            IslandCanvasRenderer renderer = new IslandCanvasRenderer(islandMap, populationCounts, currentCycle, cycleLog::getText);
+            renderer.setEventCounts(lastCycleHuntingEvents.size(), lastCycleReproductionEvents.size(), lastCycleEatingPlantEvents.size());
+            if (jfrLiveStats != null) {
+                renderer.setProfileRows(jfrLiveStats.snapshot());
             }
-            if (totalStarvationDeaths > 0) {
-                log.append("  - ").append(totalStarvationDeaths).append(" animales murieron de hambre.\n");
+            task = renderer::generateHtmlFile;
+        } else {
+            // --- CAMBIO AQUÍ: Se crea el renderizador sin el objeto server ---
+            // La vista DOM no muestra el log, así que no se construye su texto
+            IslandWebRenderer renderer = new IslandWebRenderer(islandMap, populationCounts, currentCycle, null);
+            renderer.setHuntingEvents(lastCycleHuntingEvents);
+            renderer.setEatingPlantEvents(lastCycleEatingPlantEvents);
+            renderer.setReproductionEvents(lastCycleReproductionEvents);
+            renderer.setOffspringEvents(lastCycleOffspringEvents);
+            if (jfrLiveStats != null) {
+                renderer.setProfileRows(jfrLiveStats.snapshot());
             }
-            log.append("\n");
+            task = renderer::generateHtmlFile;
         }
 
-        // Registra interacciones con plantas
-        if (totalPlantEaten > 0) {
-            log.append("✔ Interacciones:\n");
-            log.append("  - ").append(totalPlantEaten).append(" plantas fueron consumidas.\n");
-            log.append("\n");
+        // Ejecutar generación de HTML en el hilo de su salida
+        boolean queued = htmlSink.offer(() -> {
+            try {
+                task.render();
+                metrics.htmlFrameWritten();
+            } catch (IOException e) {
+                System.err.println("Error generando HTML: " + e.getMessage());
+                throw e;
+            }
+        });
+        if (!queued) {
+            metrics.htmlFrameSkipped();
         }
+    }
 
-        // Registra alarmas de población
-        if (SimulationEventRegistry.getPopulationAlarmEvents().size() > 0) {
-            log.append("✔ Repoblación:\n");
-            SimulationEventRegistry.getPopulationAlarmEvents().forEach(alarm -> {
-                log.append("  - Alarma para ").append(alarm.getAnimalType().getSimpleName()).append(" activada.\n");
-            });
-            log.append("\n");
+    /**
+     * Registra la fila de métricas del ciclo en la serie temporal.
+     * Reutiliza la misma fila en cada ciclo, por lo que no reserva memoria.
+     * @param cycleNanos Duración del ciclo en nanosegundos
+     */
+    private void recordCycleMetrics(long cycleNanos) {
+        metricsRow[CycleTimeSeries.CYCLE] = currentCycle;
+        metricsRow[CycleTimeSeries.CYCLE_NANOS] = cycleNanos;
+        metricsRow[CycleTimeSeries.BIRTHS] = lastCycleOffspringEvents.size();
+        metricsRow[CycleTimeSeries.HUNTING_DEATHS] = cycleHuntingDeaths;
+        metricsRow[CycleTimeSeries.STARVATION_DEATHS] = cycleStarvationDeaths;
+        metricsRow[CycleTimeSeries.PLANTS_EATEN] = cyclePlantsEaten;
+        metricsRow[CycleTimeSeries.ALARMS] = cycleAlarms;
+        for (int i = 0; i < animalSpecies.size(); i++) {
+            metricsRow[CycleTimeSeries.FIXED_COLUMNS + i] = populationCounts.getOrDefault(animalSpecies.get(i), 0L);
         }
-
-        return log.toString();
+        timeSeries.append(metricsRow);
     }
 
     /**
-     * Cierra los pools de hilos de forma ordenada al finalizar la simulación.
+     * Cierra de forma ordenada las salidas y, si son propios, los pools de hilos al finalizar la simulación.
      */
     public void shutdown() {
-        threadPool.shutdown();
+        if (metricsEndpoint != null) {
+            metricsEndpoint.close();
+        }
+        if (jfrLiveStats != null) {
+            jfrLiveStats.close();
+        }
+        if (sharedGridExporter != null) {
+            try {
+                sharedGridExporter.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando el anillo de fotogramas: " + e.getMessage());
+            }
+        }
+        if (timeSeriesWriter != null) {
+            try {
+                timeSeriesWriter.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando la serie temporal: " + e.getMessage());
+            }
+        }
+        // Las salidas escriben lo que tienen en cola; las que no terminan a tiempo se cancelan
+        outputs.close();
         threadMonitor.stopMonitoring();
+        // Un pool compartido lo cierra quien lo creó
+        if (ownsThreadPool) {
+            threadPool.shutdown();
+        }
     }
 
-    private static class OrganismPosition {
-        int row;
-        int col;
-        int remainingCycles;
-
-        public OrganismPosition(int row, int col, int remainingCycles) {
-            this.row = row;
-            this.col = col;
-            this.remainingCycles = remainingCycles;
-        }
+    /**
+     * Escritura de una vista HTML ya preparada.
+     */
+    @FunctionalInterface
+    private interface RenderTask {
+        void render() throws IOException;
+    }
 
-        public int getRemainingCycles() {
-            return remainingCycles;
-        }
+    // Celda de un cadáver en el mapa
+    private record OrganismPosition(int row, int col) {
+    }
 
-        public void decrementCycles() {
-            remainingCycles--;
-        }
+    // Causa de una muerte, anotada al registrarla
+    private enum DeathCause {
+        HUNTING,
+        STARVATION
     }
-}
\ No newline at end of file
+}
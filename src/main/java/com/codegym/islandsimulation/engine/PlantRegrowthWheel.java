@@ -0,0 +1,153 @@
+package com.codegym.islandsimulation.engine;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import com.codegym.islandsimulation.map.LongPlane;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Rueda de tiempos (hashed timing wheel) para el rebrote de las plantas consumidas.
+ *
+ * Cada planta se programa por su celda (índice fila a fila) para el ciclo en que debe
+ * revivir. Las celdas se guardan en la ranura {@code ciclo % ranuras}, de modo que en
+ * cada ciclo solo se recorre la ranura del ciclo actual y no todas las plantas
+ * pendientes. Las entradas cuyo ciclo queda a más de una vuelta de la rueda se
+ * conservan en su ranura hasta su vuelta.
+ *
+ * Una celda solo puede estar programada una vez: una máscara de bits por celda descarta
+ * las programaciones repetidas, por ejemplo si dos herbívoros comen la misma planta; se
+ * guarda en la {@link CellMemory} del mapa, de modo que no ocupa heap en un mapa fuera de él.
+ * Las entradas son pares de enteros en arreglos por ranura, sin un objeto por planta.
+ * No es segura para hilos: se usa desde el hilo que ejecuta el ciclo.
+ */
+public final class PlantRegrowthWheel {
+    // Número de ranuras por defecto (potencia de dos)
+    public static final int DEFAULT_SLOTS = 64;
+
+    // Capacidad inicial de cada ranura, en entradas
+    private static final int INITIAL_SLOT_CAPACITY = 16;
+
+    private final int mask;
+
+    // Entradas de cada ranura como pares {celda, ciclo}
+    private final int[][] slots;
+    private final int[] slotSizes;
+
+    // Bit a 1 por cada celda con un rebrote pendiente
+    private final LongPlane scheduled;
+
+    private int pending;
+
+    /**
+     * Constructor de la rueda con el número de ranuras por defecto.
+     * @param cells Número de celdas del mapa
+     */
+    public PlantRegrowthWheel(int cells) {
+        this(cells, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructor de la rueda.
+     * @param cells Número de celdas del mapa
+     * @param slots Número de ranuras; se redondea a la siguiente potencia de dos
+     */
+    public PlantRegrowthWheel(int cells, int slots) {
+        this(cells, slots, CellMemory.heap());
+    }
+
+    /**
+     * Constructor de la rueda con la máscara de celdas programadas en una memoria dada.
+     * @param cells Número de celdas del mapa
+     * @param slots Número de ranuras; se redondea a la siguiente potencia de dos
+     * @param memory Memoria de la máscara, normalmente la del mapa
+     */
+    public PlantRegrowthWheel(int cells, int slots, CellMemory memory) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("La rueda necesita al menos una ranura");
+        }
+        int size = Integer.highestOneBit(slots) == slots ? slots : Integer.highestOneBit(slots) << 1;
+        this.mask = size - 1;
+        this.slots = new int[size][];
+        this.slotSizes = new int[size];
+        this.scheduled = memory.allocateLongs((int) (((long) cells + 63) >>> 6));
+    }
+
+    /**
+     * Programa el rebrote de la planta de una celda.
+     * @param cell Índice de la celda (fila * columnas + columna)
+     * @param cycle Ciclo en el que debe revivir
+     * @return false si la celda ya tenía un rebrote pendiente
+     */
+    public boolean schedule(int cell, int cycle) {
+        long bit = 1L << cell;
+        long word = scheduled.get(cell >>> 6);
+        if ((word & bit) != 0) {
+            return false;
+        }
+        scheduled.set(cell >>> 6, word | bit);
+
+        int slot = cycle & mask;
+        int[] entries = slots[slot];
+        int size = slotSizes[slot];
+        if (entries == null) {
+            entries = slots[slot] = new int[INITIAL_SLOT_CAPACITY * 2];
+        } else if (size * 2 == entries.length) {
+            entries = slots[slot] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[size * 2] = cell;
+        entries[size * 2 + 1] = cycle;
+        slotSizes[slot] = size + 1;
+        pending++;
+        return true;
+    }
+
+    /**
+     * Entrega las celdas cuyo rebrote vence en el ciclo indicado, o antes, y las retira.
+     * Debe llamarse una vez por ciclo.
+     * @param cycle Ciclo actual
+     * @param action Acción que recibe el índice de cada celda que rebrota
+     * @return Número de celdas entregadas
+     */
+    public int advance(int cycle, IntConsumer action) {
+        int slot = cycle & mask;
+        int[] entries = slots[slot];
+        int size = slotSizes[slot];
+        int kept = 0;
+        int fired = 0;
+        for (int i = 0; i < size; i++) {
+            int cell = entries[i * 2];
+            int due = entries[i * 2 + 1];
+            if (due <= cycle) {
+                scheduled.set(cell >>> 6, scheduled.get(cell >>> 6) & ~(1L << cell));
+                action.accept(cell);
+                fired++;
+            } else {
+                // Vence en una vuelta posterior de la rueda
+                entries[kept * 2] = cell;
+                entries[kept * 2 + 1] = due;
+                kept++;
+            }
+        }
+        slotSizes[slot] = kept;
+        pending -= fired;
+        return fired;
+    }
+
+    /**
+     * Indica si una celda tiene un rebrote pendiente.
+     * @param cell Índice de la celda
+     * @return true si está programada
+     */
+    public boolean isScheduled(int cell) {
+        return (scheduled.get(cell >>> 6) & (1L << cell)) != 0;
+    }
+
+    /**
+     * Número de rebrotes pendientes.
+     * @return Las celdas programadas
+     */
+    public int getPending() {
+        return pending;
+    }
+}
@@ -0,0 +1,139 @@
+package com.codegym.islandsimulation.engine;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.world.WorldGenerator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros ajustables de una simulación. Son inmutables: los métodos {@code with...}
+ * devuelven una copia con el valor cambiado, de modo que un mismo punto de una búsqueda
+ * de parámetros puede compartirse entre varios motores.
+ * @param densities Fracción de las celdas que ocupa cada especie al generar el mundo, en orden de colocación
+ * @param reproductionRestCycles Ciclos que descansan los padres y la cría tras un nacimiento
+ * @param plantRevivalCycles Ciclos que tarda en revivir una planta comida
+ * @param speciesTraits Velocidad y comida necesaria que sustituyen a las del constructor de cada especie
+ * @param perceptionRadius Distancia (en casillas, contando diagonales) a la que un depredador hambriento
+ *                         percibe sus presas y se mueve hacia ellas; con 1 solo ve las adyacentes
+ */
+public record SimulationParameters(Map<Class<? extends Organism>, Double> densities,
+                                   int reproductionRestCycles, int plantRevivalCycles,
+                                   Map<Class<? extends Animal>, SpeciesTraits> speciesTraits,
+                                   int perceptionRadius) {
+
+    // Valores por defecto del motor
+    public static final int DEFAULT_REPRODUCTION_REST_CYCLES = 10;
+    public static final int DEFAULT_PLANT_REVIVAL_CYCLES = 5;
+    public static final int DEFAULT_PERCEPTION_RADIUS = 1;
+
+    private static final SimulationParameters DEFAULTS = new SimulationParameters(
+            WorldGenerator.getDefaultDensities(), DEFAULT_REPRODUCTION_REST_CYCLES,
+            DEFAULT_PLANT_REVIVAL_CYCLES, Map.of(), DEFAULT_PERCEPTION_RADIUS);
+
+    public SimulationParameters {
+        if (reproductionRestCycles < 1) {
+            throw new IllegalArgumentException("Los ciclos de descanso tras reproducirse deben ser positivos");
+        }
+        if (plantRevivalCycles < 1) {
+            throw new IllegalArgumentException("Los ciclos de rebrote de las plantas deben ser positivos");
+        }
+        if (perceptionRadius < 1) {
+            throw new IllegalArgumentException("El radio de percepción debe ser al menos 1");
+        }
+        // Copias con el orden original: las densidades se colocan en ese orden
+        densities = Collections.unmodifiableMap(new LinkedHashMap<>(densities));
+        speciesTraits = Collections.unmodifiableMap(new LinkedHashMap<>(speciesTraits));
+    }
+
+    /**
+     * Parámetros por defecto: densidades de {@link WorldGenerator} y rasgos de cada constructor.
+     * @return Los parámetros por defecto
+     */
+    public static SimulationParameters defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Copia con otra densidad para una especie.
+     * @param type Tipo de organismo
+     * @param density Fracción de las celdas que ocupa al generar el mundo
+     * @return Los parámetros con la densidad cambiada
+     */
+    public SimulationParameters withDensity(Class<? extends Organism> type, double density) {
+        Map<Class<? extends Organism>, Double> copy = new LinkedHashMap<>(densities);
+        copy.put(type, density);
+        return new SimulationParameters(copy, reproductionRestCycles, plantRevivalCycles, speciesTraits, perceptionRadius);
+    }
+
+    /**
+     * Copia con otros ciclos de descanso tras reproducirse.
+     * @param cycles Ciclos de descanso
+     * @return Los parámetros con el descanso cambiado
+     */
+    public SimulationParameters withReproductionRestCycles(int cycles) {
+        return new SimulationParameters(densities, cycles, plantRevivalCycles, speciesTraits, perceptionRadius);
+    }
+
+    /**
+     * Copia con otros ciclos de rebrote de las plantas.
+     * @param cycles Ciclos de rebrote
+     * @return Los parámetros con el rebrote cambiado
+     */
+    public SimulationParameters withPlantRevivalCycles(int cycles) {
+        return new SimulationParameters(densities, reproductionRestCycles, cycles, speciesTraits, perceptionRadius);
+    }
+
+    /**
+     * Copia con otra velocidad y comida necesaria para una especie.
+     * @param species Especie animal
+     * @param traits Rasgos que sustituyen a los del constructor
+     * @return Los parámetros con los rasgos cambiados
+     */
+    public SimulationParameters withSpeciesTraits(Class<? extends Animal> species, SpeciesTraits traits) {
+        Map<Class<? extends Animal>, SpeciesTraits> copy = new LinkedHashMap<>(speciesTraits);
+        copy.put(species, traits);
+        return new SimulationParameters(densities, reproductionRestCycles, plantRevivalCycles, copy, perceptionRadius);
+    }
+
+    /**
+     * Copia con otro radio de percepción de los depredadores.
+     * @param radius Radio en casillas (al menos 1)
+     * @return Los parámetros con el radio cambiado
+     */
+    public SimulationParameters withPerceptionRadius(int radius) {
+        return new SimulationParameters(densities, reproductionRestCycles, plantRevivalCycles, speciesTraits, radius);
+    }
+
+    /**
+     * Obtiene los rasgos que sustituyen a los del constructor de una especie.
+     * @param species Especie animal
+     * @return Los rasgos, o null si la especie usa los de su constructor
+     */
+    public SpeciesTraits traitsFor(Class<? extends Organism> species) {
+        return speciesTraits.get(species);
+    }
+
+    /**
+     * Velocidad máxima y comida necesaria por ciclo de una especie.
+     * @param maxSpeed Casillas por ciclo (al menos 1)
+     * @param foodNeeded Comida necesaria por ciclo (positiva)
+     */
+    public record SpeciesTraits(int maxSpeed, double foodNeeded) {
+        public SpeciesTraits {
+            if (maxSpeed < 1) {
+                throw new IllegalArgumentException("La velocidad máxima debe ser al menos 1");
+            }
+            if (foodNeeded <= 0) {
+                throw new IllegalArgumentException("La comida necesaria debe ser positiva");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return maxSpeed + "/" + foodNeeded;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.codegym.islandsimulation.ensemble;
+
+import com.codegym.islandsimulation.engine.SimulationParameters;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Una simulación de un conjunto: un punto de la rejilla de parámetros con una semilla.
+ * @param id Número de la ejecución dentro del conjunto
+ * @param rows Número de filas del mapa
+ * @param cols Número de columnas del mapa
+ * @param seed Semilla del mundo
+ * @param parameters Parámetros de la simulación
+ * @param settings Valor de cada eje de la rejilla en este punto, en orden, para el resumen
+ */
+public record EnsembleRun(int id, int rows, int cols, long seed, SimulationParameters parameters,
+                          Map<String, String> settings) {
+
+    public EnsembleRun {
+        // Copia con el orden de los ejes, que es el de las columnas del resumen
+        settings = Collections.unmodifiableMap(new LinkedHashMap<>(settings));
+    }
+}
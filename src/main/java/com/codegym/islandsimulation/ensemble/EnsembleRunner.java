@@ -0,0 +1,224 @@
+package com.codegym.islandsimulation.ensemble;
+
+import com.codegym.islandsimulation.engine.IslandEngine;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.metrics.CycleTimeSeries;
+import com.codegym.islandsimulation.output.DropPolicy;
+import com.codegym.islandsimulation.output.OutputPipeline;
+import com.codegym.islandsimulation.output.OutputSink;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta un conjunto de simulaciones (una rejilla de parámetros por K semillas) a la vez
+ * y escribe un resumen CSV con una fila por simulación a medida que terminan.
+ *
+ * Como mucho hay {@code concurrency} motores vivos a la vez, así que la memoria queda acotada
+ * por ese límite y no por el tamaño de la rejilla. Cada motor avanza sus ciclos en un hilo
+ * propio del conjunto y reparte sus fases en un único {@link SimulationThreadPool} compartido:
+ * con varios motores en marcha, las partes secuenciales de uno se solapan con las fases
+ * paralelas de otros y todos los núcleos quedan ocupados. Los motores no pueden avanzar en
+ * hilos del pool compartido, porque cada fase espera a sus propias tareas en él.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.ensemble.EnsembleRunner [ciclos] [semillas] [concurrencia] [resumen.csv]}
+ */
+public class EnsembleRunner {
+    // Filas del resumen que pueden esperar a escribirse
+    private static final int SUMMARY_QUEUE_CAPACITY = 64;
+
+    private final SimulationThreadPool threadPool;
+    private final int concurrency;
+    private final int cycles;
+    private final int warmupCycles;
+
+    // Especies animales, en el orden de las columnas de población de la serie temporal
+    private final List<String> species;
+
+    /**
+     * Constructor con un calentamiento de la cuarta parte de los ciclos.
+     * @param threadPool Pool de simulación compartido por todos los motores
+     * @param concurrency Número máximo de simulaciones a la vez
+     * @param cycles Ciclos de cada simulación
+     */
+    public EnsembleRunner(SimulationThreadPool threadPool, int concurrency, int cycles) {
+        this(threadPool, concurrency, cycles, cycles / 4);
+    }
+
+    /**
+     * Constructor del ejecutor de conjuntos.
+     * @param threadPool Pool de simulación compartido por todos los motores
+     * @param concurrency Número máximo de simulaciones a la vez
+     * @param cycles Ciclos de cada simulación
+     * @param warmupCycles Ciclos iniciales que no cuentan para la media ni la amplitud
+     */
+    public EnsembleRunner(SimulationThreadPool threadPool, int concurrency, int cycles, int warmupCycles) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("La concurrencia debe ser al menos 1");
+        }
+        if (cycles < 1 || warmupCycles < 0 || warmupCycles >= cycles) {
+            throw new IllegalArgumentException("Los ciclos de calentamiento deben ser menos que los de la simulación");
+        }
+        this.threadPool = threadPool;
+        this.concurrency = concurrency;
+        this.cycles = cycles;
+        this.warmupCycles = warmupCycles;
+        this.species = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL).stream()
+                .map(Class::getSimpleName).toList();
+    }
+
+    /**
+     * Ejecuta las simulaciones y escribe el resumen. Una simulación que falla se informa
+     * por consola y no detiene a las demás.
+     * @param runs Simulaciones del conjunto, todas con los mismos ejes de parámetros
+     * @param summaryFile Archivo CSV del resumen (se sobrescribe)
+     * @return Número de simulaciones terminadas
+     * @throws IOException si no se puede escribir el resumen
+     * @throws InterruptedException si se interrumpe la espera; las simulaciones en marcha se cancelan
+     */
+    public int run(List<EnsembleRun> runs, Path summaryFile) throws IOException, InterruptedException {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        Path parent = summaryFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        ExecutorService runners = Executors.newFixedThreadPool(Math.min(concurrency, runs.size()),
+                task -> new Thread(task, "EnsembleRunner-" + threadCounter.getAndIncrement()));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8);
+             OutputPipeline outputs = new OutputPipeline()) {
+            writer.write(header(runs.get(0)));
+            writer.newLine();
+            // Un único hilo escribe el archivo; las filas se vuelcan al llegar para poder seguir el progreso
+            OutputSink summary = outputs.addSink("ensemble-summary", SUMMARY_QUEUE_CAPACITY, DropPolicy.BLOCK);
+
+            for (EnsembleRun run : runs) {
+                runners.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        PopulationStats stats = simulate(run);
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        String row = row(run, stats, millis);
+                        summary.offer(() -> {
+                            writer.write(row);
+                            writer.newLine();
+                            writer.flush();
+                        });
+                        System.out.printf("✅ Simulación %d/%d terminada en %d ms%n",
+                                completed.incrementAndGet(), runs.size(), millis);
+                    } catch (RuntimeException e) {
+                        System.err.println("❌ Error en la simulación " + run.id() + " " + run.settings() + ": " + e);
+                    }
+                });
+            }
+            runners.shutdown();
+            try {
+                while (!runners.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // Sigue esperando: cada simulación puede tardar varios minutos
+                }
+            } catch (InterruptedException e) {
+                runners.shutdownNow();
+                throw e;
+            }
+        } finally {
+            runners.shutdownNow();
+        }
+        return completed.get();
+    }
+
+    /**
+     * Ejecuta una simulación completa sin salidas y acumula sus poblaciones ciclo a ciclo.
+     */
+    private PopulationStats simulate(EnsembleRun run) {
+        IslandEngine engine = new IslandEngine(run.rows(), run.cols(), run.seed(), threadPool, run.parameters());
+        try {
+            engine.setHtmlOutputEnabled(false);
+            engine.setConsoleStatisticsEnabled(false);
+            CycleTimeSeries series = engine.getTimeSeries();
+            PopulationStats stats = new PopulationStats(species.size(), warmupCycles);
+            long[] populations = new long[species.size()];
+            for (int cycle = 0; cycle < cycles; cycle++) {
+                engine.updateSimulationCycle();
+                for (int i = 0; i < populations.length; i++) {
+                    populations[i] = series.latest(CycleTimeSeries.FIXED_COLUMNS + i);
+                }
+                stats.record(engine.getCycleNumber(), populations);
+            }
+            return stats;
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private String header(EnsembleRun first) {
+        List<String> columns = new ArrayList<>(List.of("run", "rows", "cols", "seed"));
+        columns.addAll(first.settings().keySet());
+        columns.addAll(List.of("cycles", "millis", "collapse_cycle"));
+        for (String name : species) {
+            columns.add("mean_" + name);
+            columns.add("amplitude_" + name);
+            columns.add("extinction_" + name);
+        }
+        return String.join(",", columns);
+    }
+
+    private String row(EnsembleRun run, PopulationStats stats, long millis) {
+        List<String> values = new ArrayList<>();
+        values.add(Integer.toString(run.id()));
+        values.add(Integer.toString(run.rows()));
+        values.add(Integer.toString(run.cols()));
+        values.add(Long.toString(run.seed()));
+        values.addAll(run.settings().values());
+        values.add(Integer.toString(cycles));
+        values.add(Long.toString(millis));
+        values.add(Integer.toString(stats.collapseCycle()));
+        for (int i = 0; i < species.size(); i++) {
+            values.add(String.format(Locale.ROOT, "%.2f", stats.mean(i)));
+            values.add(String.format(Locale.ROOT, "%.1f", stats.amplitude(i)));
+            values.add(Integer.toString(stats.extinctionCycle(i)));
+        }
+        return String.join(",", values);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seeds = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path summaryFile = Path.of(args.length > 3 ? args[3] : "ensemble-summary.csv");
+
+        ParameterGrid grid = new ParameterGrid()
+                .squareSizes(40, 80)
+                .reproductionRestCycles(5, 10)
+                .plantRevivalCycles(3, 5);
+        List<EnsembleRun> runs = grid.runs(seeds, 1);
+        System.out.printf("🧪 Conjunto de %d simulaciones (%d puntos x %d semillas), %d a la vez, %d ciclos cada una%n",
+                runs.size(), grid.pointCount(), seeds, concurrency, cycles);
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        try {
+            long start = System.nanoTime();
+            int completed = new EnsembleRunner(threadPool, concurrency, cycles).run(runs, summaryFile);
+            System.out.printf("📄 %d simulaciones en %d ms; resumen en %s%n", completed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), summaryFile.toAbsolutePath());
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.codegym.islandsimulation.ensemble;
+
+import com.codegym.islandsimulation.engine.SimulationParameters;
+import com.codegym.islandsimulation.engine.SimulationParameters.SpeciesTraits;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rejilla de parámetros para un conjunto de simulaciones. Cada eje es una lista de valores;
+ * la rejilla es el producto cartesiano de los ejes y cada punto se ejecuta con K semillas.
+ * Los ejes que no se indican usan el valor por defecto del motor.
+ *
+ * Las semillas son las mismas en todos los puntos, de modo que dos configuraciones se
+ * comparan sobre los mismos mundos iniciales.
+ */
+public class ParameterGrid {
+    // Tamaños de mapa: pares {filas, columnas}
+    private final List<int[]> sizes = new ArrayList<>();
+
+    // Ejes de parámetros, en el orden en que se añadieron
+    private final List<Axis> axes = new ArrayList<>();
+
+    private final SimulationParameters base;
+
+    /**
+     * Rejilla sobre los parámetros por defecto.
+     */
+    public ParameterGrid() {
+        this(SimulationParameters.defaults());
+    }
+
+    /**
+     * Rejilla sobre unos parámetros base.
+     * @param base Parámetros que se usan en los ejes no indicados
+     */
+    public ParameterGrid(SimulationParameters base) {
+        this.base = base;
+    }
+
+    /**
+     * Añade mapas cuadrados al eje de tamaños.
+     * @param sides Lado de cada mapa
+     * @return Esta rejilla
+     */
+    public ParameterGrid squareSizes(int... sides) {
+        for (int side : sides) {
+            size(side, side);
+        }
+        return this;
+    }
+
+    /**
+     * Añade un tamaño de mapa al eje de tamaños.
+     * @param rows Número de filas
+     * @param cols Número de columnas
+     * @return Esta rejilla
+     */
+    public ParameterGrid size(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("El mapa necesita al menos una celda");
+        }
+        sizes.add(new int[] {rows, cols});
+        return this;
+    }
+
+    /**
+     * Eje de densidad de la hierba.
+     * @param densities Fracción de las celdas con hierba
+     * @return Esta rejilla
+     */
+    public ParameterGrid plantDensities(double... densities) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (double density : densities) {
+            labels.add(Double.toString(density));
+            changes.add(parameters -> parameters.withDensity(Vegetation.class, density));
+        }
+        return addAxis("plant_density", labels, changes);
+    }
+
+    /**
+     * Eje de densidad de los animales: la misma para cada especie animal de los parámetros base.
+     * @param densities Fracción de las celdas que ocupa cada especie animal
+     * @return Esta rejilla
+     */
+    public ParameterGrid animalDensities(double... densities) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (double density : densities) {
+            labels.add(Double.toString(density));
+            changes.add(parameters -> {
+                SimulationParameters changed = parameters;
+                for (Class<? extends Organism> type : parameters.densities().keySet()) {
+                    if (Animal.class.isAssignableFrom(type)) {
+                        changed = changed.withDensity(type, density);
+                    }
+                }
+                return changed;
+            });
+        }
+        return addAxis("animal_density", labels, changes);
+    }
+
+    /**
+     * Eje de ciclos de descanso tras reproducirse.
+     * @param cycles Valores del eje
+     * @return Esta rejilla
+     */
+    public ParameterGrid reproductionRestCycles(int... cycles) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (int value : cycles) {
+            labels.add(Integer.toString(value));
+            changes.add(parameters -> parameters.withReproductionRestCycles(value));
+        }
+        return addAxis("reproduction_rest_cycles", labels, changes);
+    }
+
+    /**
+     * Eje de ciclos de rebrote de las plantas.
+     * @param cycles Valores del eje
+     * @return Esta rejilla
+     */
+    public ParameterGrid plantRevivalCycles(int... cycles) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (int value : cycles) {
+            labels.add(Integer.toString(value));
+            changes.add(parameters -> parameters.withPlantRevivalCycles(value));
+        }
+        return addAxis("plant_revival_cycles", labels, changes);
+    }
+
+    /**
+     * Eje de radio de percepción de los depredadores.
+     * @param radii Valores del eje
+     * @return Esta rejilla
+     */
+    public ParameterGrid perceptionRadius(int... radii) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (int value : radii) {
+            labels.add(Integer.toString(value));
+            changes.add(parameters -> parameters.withPerceptionRadius(value));
+        }
+        return addAxis("perception_radius", labels, changes);
+    }
+
+    /**
+     * Eje de velocidad y comida necesaria de una especie.
+     * @param species Especie animal
+     * @param variants Rasgos de cada valor del eje
+     * @return Esta rejilla
+     */
+    public ParameterGrid speciesTraits(Class<? extends Animal> species, SpeciesTraits... variants) {
+        List<String> labels = new ArrayList<>();
+        List<UnaryOperator<SimulationParameters>> changes = new ArrayList<>();
+        for (SpeciesTraits traits : variants) {
+            labels.add(traits.toString());
+            changes.add(parameters -> parameters.withSpeciesTraits(species, traits));
+        }
+        return addAxis("traits_" + species.getSimpleName(), labels, changes);
+    }
+
+    private ParameterGrid addAxis(String name, List<String> labels, List<UnaryOperator<SimulationParameters>> changes) {
+        if (labels.isEmpty()) {
+            throw new IllegalArgumentException("El eje " + name + " necesita al menos un valor");
+        }
+        axes.add(new Axis(name, labels, changes));
+        return this;
+    }
+
+    /**
+     * Número de puntos de la rejilla (sin contar las semillas).
+     * @return Producto de los tamaños de los ejes
+     */
+    public int pointCount() {
+        int count = Math.max(1, sizes.size());
+        for (Axis axis : axes) {
+            count = Math.multiplyExact(count, axis.labels().size());
+        }
+        return count;
+    }
+
+    /**
+     * Expande la rejilla: cada punto con cada semilla.
+     * @param seedsPerPoint Semillas por punto (K)
+     * @param baseSeed Primera semilla; las demás son consecutivas
+     * @return Las ejecuciones, agrupadas por punto
+     */
+    public List<EnsembleRun> runs(int seedsPerPoint, long baseSeed) {
+        if (seedsPerPoint < 1) {
+            throw new IllegalArgumentException("Cada punto necesita al menos una semilla");
+        }
+        if (sizes.isEmpty()) {
+            throw new IllegalStateException("La rejilla necesita al menos un tamaño de mapa");
+        }
+        int points = pointCount();
+        List<EnsembleRun> runs = new ArrayList<>(Math.multiplyExact(points, seedsPerPoint));
+        for (int point = 0; point < points; point++) {
+            // El índice del punto se descompone en un índice por eje, el último eje varía más rápido
+            int remainder = point;
+            int[] choice = new int[axes.size()];
+            for (int a = axes.size() - 1; a >= 0; a--) {
+                int size = axes.get(a).labels().size();
+                choice[a] = remainder % size;
+                remainder /= size;
+            }
+            int[] mapSize = sizes.get(remainder);
+
+            SimulationParameters parameters = base;
+            Map<String, String> settings = new LinkedHashMap<>();
+            for (int a = 0; a < axes.size(); a++) {
+                Axis axis = axes.get(a);
+                parameters = axis.changes().get(choice[a]).apply(parameters);
+                settings.put(axis.name(), axis.labels().get(choice[a]));
+            }
+            for (int k = 0; k < seedsPerPoint; k++) {
+                runs.add(new EnsembleRun(runs.size(), mapSize[0], mapSize[1], baseSeed + k, parameters, settings));
+            }
+        }
+        return runs;
+    }
+
+    private record Axis(String name, List<String> labels, List<UnaryOperator<SimulationParameters>> changes) {
+    }
+}
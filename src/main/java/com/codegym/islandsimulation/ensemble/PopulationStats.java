@@ -0,0 +1,92 @@
+package com.codegym.islandsimulation.ensemble;
+
+import java.util.Arrays;
+
+/**
+ * Estadísticas en streaming de las poblaciones de una simulación: no guarda la serie,
+ * solo acumuladores por especie, así que su memoria no depende del número de ciclos.
+ *
+ * La media y la amplitud se calculan tras los ciclos de calentamiento, para no mezclar el
+ * transitorio inicial con el régimen de la simulación; la extinción se vigila desde el principio.
+ */
+final class PopulationStats {
+    private final int warmupCycles;
+
+    private final double[] sums;
+    private final long[] minimums;
+    private final long[] maximums;
+    private final int[] extinctionCycles;
+    private int sampledCycles;
+    private int collapseCycle = -1;
+
+    /**
+     * @param speciesCount Número de especies
+     * @param warmupCycles Ciclos iniciales que no cuentan para la media ni la amplitud
+     */
+    PopulationStats(int speciesCount, int warmupCycles) {
+        this.warmupCycles = warmupCycles;
+        this.sums = new double[speciesCount];
+        this.minimums = new long[speciesCount];
+        this.maximums = new long[speciesCount];
+        this.extinctionCycles = new int[speciesCount];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        Arrays.fill(extinctionCycles, -1);
+    }
+
+    /**
+     * Registra las poblaciones al final de un ciclo.
+     * @param cycle Número del ciclo
+     * @param populations Población de cada especie
+     */
+    void record(int cycle, long[] populations) {
+        long total = 0;
+        for (int i = 0; i < populations.length; i++) {
+            total += populations[i];
+            if (populations[i] == 0 && extinctionCycles[i] < 0) {
+                extinctionCycles[i] = cycle;
+            }
+        }
+        if (total == 0 && collapseCycle < 0) {
+            collapseCycle = cycle;
+        }
+        if (cycle <= warmupCycles) {
+            return;
+        }
+        sampledCycles++;
+        for (int i = 0; i < populations.length; i++) {
+            sums[i] += populations[i];
+            minimums[i] = Math.min(minimums[i], populations[i]);
+            maximums[i] = Math.max(maximums[i], populations[i]);
+        }
+    }
+
+    /**
+     * Primer ciclo en que no quedaba ningún animal, o -1.
+     */
+    int collapseCycle() {
+        return collapseCycle;
+    }
+
+    /**
+     * Primer ciclo en que la especie llegó a cero, o -1. Las alarmas de población pueden
+     * devolverla al mapa después.
+     */
+    int extinctionCycle(int species) {
+        return extinctionCycles[species];
+    }
+
+    /**
+     * Población media de la especie tras el calentamiento.
+     */
+    double mean(int species) {
+        return sampledCycles == 0 ? 0 : sums[species] / sampledCycles;
+    }
+
+    /**
+     * Amplitud de la oscilación tras el calentamiento: la mitad de la distancia entre el
+     * máximo y el mínimo de la población.
+     */
+    double amplitude(int species) {
+        return sampledCycles == 0 ? 0 : (maximums[species] - minimums[species]) / 2.0;
+    }
+}
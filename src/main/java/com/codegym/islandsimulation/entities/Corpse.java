@@ -0,0 +1,25 @@
+package com.codegym.islandsimulation.entities;
+
+/**
+ * Cadáver temporal que ocupa la celda de un animal muerto.
+ * Es un flyweight: todas las celdas con cadáver comparten la misma instancia, ya que
+ * el cadáver no tiene estado propio. El tiempo que le queda en el mapa lo lleva el motor
+ * junto al animal muerto, de modo que una muerte no reserva memoria para el cadáver.
+ */
+public final class Corpse extends Organism {
+    // Instancia compartida por todas las celdas con cadáver
+    public static final Corpse INSTANCE = new Corpse();
+
+    private Corpse() {
+        super("☠️", 0);
+    }
+
+    /**
+     * Los cadáveres no son plantas.
+     * @return false
+     */
+    @Override
+    public boolean isPlant() {
+        return false;
+    }
+}
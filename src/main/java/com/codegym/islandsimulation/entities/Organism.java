@@ -1,14 +1,12 @@
 package com.codegym.islandsimulation.entities;
 
-import java.util.UUID;
-
 /**
  * Clase abstracta base para todos los organismos en la simulación.
  * Representa tanto animales como plantas con propiedades comunes.
  */
 public abstract class Organism {
-    // Identificador único para cada organismo
-    private final UUID id = UUID.randomUUID();
+    // Identificador único para cada organismo, asignado por el generador del motor activo
+    private long id = OrganismIds.nextId();
     
     // Emoji que representa visualmente al organismo
     private String emoji;
@@ -60,12 +58,20 @@ public abstract class Organism {
 
     /**
      * Obtiene el identificador único del organismo.
-     * @return El UUID del organismo
+     * @return El identificador del organismo
      */
-    public UUID getId() {
+    public long getId() {
         return id;
     }
 
+    /**
+     * Asigna un identificador nuevo al organismo. Se usa al reutilizar un organismo
+     * de un pool, para que no conserve la identidad del anterior.
+     */
+    protected void renewId() {
+        this.id = OrganismIds.nextId();
+    }
+
     /**
      * Método abstracto que determina si el organismo es una planta.
      * @return true si es una planta, false si es un animal
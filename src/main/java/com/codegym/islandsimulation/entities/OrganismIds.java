@@ -0,0 +1,113 @@
+package com.codegym.islandsimulation.entities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Generador de identificadores de organismo de 64 bits, crecientes y únicos dentro
+ * de un motor. Sustituye a {@code UUID.randomUUID()}, que pasa por {@code SecureRandom}.
+ *
+ * Los identificadores se reparten por bloques: cada hilo reserva un bloque con una
+ * única operación atómica y después asigna identificadores de él sin sincronización,
+ * de modo que los nacimientos en paralelo no compiten por un contador común.
+ * Dentro de un hilo los identificadores son estrictamente crecientes.
+ *
+ * Cada motor tiene su propio generador y lo activa en el hilo que ejecuta el ciclo
+ * con {@link #run(Runnable)}, {@link #call(Supplier)} o {@link #enter()}; los organismos
+ * creados fuera de cualquier motor usan un generador global. Al salir del ámbito el hilo
+ * suelta su bloque, así que los hilos de un pool compartido no retienen uno por motor.
+ */
+public final class OrganismIds {
+    // Identificadores reservados por hilo en cada operación atómica
+    private static final int BLOCK_SIZE = 1024;
+
+    // Generador usado cuando no hay ningún motor activo en el hilo
+    private static final OrganismIds GLOBAL = new OrganismIds();
+
+    // Generador activo en cada hilo
+    private static final ThreadLocal<OrganismIds> CURRENT = new ThreadLocal<>();
+
+    // Inicio del siguiente bloque libre (el identificador 0 no se asigna nunca)
+    private final AtomicLong nextBlock = new AtomicLong(1);
+
+    // Bloque en uso por cada hilo: {siguiente, fin}
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Asigna el siguiente identificador del bloque del hilo actual.
+     * @return Un identificador no usado antes en este generador
+     */
+    public long next() {
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            long start = nextBlock.getAndAdd(BLOCK_SIZE);
+            range[0] = start;
+            range[1] = start + BLOCK_SIZE;
+        }
+        return range[0]++;
+    }
+
+    /**
+     * Activa este generador en el hilo actual hasta que se cierre el ámbito devuelto,
+     * que restaura el generador que estuviera activo antes y suelta el bloque del hilo
+     * (los identificadores que quedaban en él no se asignan).
+     * @return Ámbito a cerrar con try-with-resources
+     */
+    public Scope enter() {
+        OrganismIds previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            block.remove();
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Ejecuta una acción con este generador activo en el hilo actual.
+     * @param action La acción
+     */
+    public void run(Runnable action) {
+        Scope scope = enter();
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Calcula un valor con este generador activo en el hilo actual.
+     * @param action La acción que calcula el valor
+     * @return El valor calculado
+     */
+    public <T> T call(Supplier<T> action) {
+        Scope scope = enter();
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Asigna un identificador con el generador activo en el hilo actual.
+     * @return El nuevo identificador
+     */
+    static long nextId() {
+        OrganismIds current = CURRENT.get();
+        return (current != null ? current : GLOBAL).next();
+    }
+
+    /**
+     * Ámbito de activación de un generador.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -5,9 +5,10 @@ import com.codegym.islandsimulation.entities.interfaces.Carnivore;
 import com.codegym.islandsimulation.entities.interfaces.Herbivore;
 import com.codegym.islandsimulation.entities.plants.Plant;
 import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.PerceptionField;
+import com.codegym.islandsimulation.threads.CellClaims;
 import com.codegym.islandsimulation.threads.EatingPlantEvent;
 import com.codegym.islandsimulation.threads.HuntingEvent;
-import com.codegym.islandsimulation.threads.ReproductionEvent;
 import com.codegym.islandsimulation.threads.SimulationEventRegistry;
 import com.codegym.islandsimulation.utils.MapUtils;
 
@@ -22,10 +23,10 @@ import java.util.Random;
  */
 public abstract class Animal extends Organism {
     // Velocidad máxima de movimiento del animal
-    private final int maxSpeed;
+    private int maxSpeed;
     
     // Cantidad de comida necesaria para mantener el peso
-    private final double foodNeeded;
+    private double foodNeeded;
     
     // Peso inicial del animal (usado como referencia para reproducción)
     private final double initialWeight;
@@ -70,6 +71,14 @@ public abstract class Animal extends Organism {
         return foodNeeded;
     }
 
+    /**
+     * Obtiene la velocidad máxima de movimiento del animal.
+     * @return El número máximo de casillas por ciclo
+     */
+    public int getMaxSpeed() {
+        return maxSpeed;
+    }
+
     /**
      * Obtiene el peso inicial del animal.
      * @return El peso inicial
@@ -78,6 +87,47 @@ public abstract class Animal extends Organism {
         return initialWeight;
     }
 
+    /**
+     * Obtiene el nivel actual de comida del animal.
+     * @return El nivel de comida
+     */
+    public double getCurrentFoodLevel() {
+        return currentFoodLevel;
+    }
+
+    /**
+     * Obtiene los ciclos que le quedan al animal para poder reproducirse de nuevo.
+     * @return El número de ciclos de espera
+     */
+    public int getReproductionCooldown() {
+        return reproductionCooldown;
+    }
+
+    /**
+     * Restaura el estado de un animal que llega de otra banda de la isla. Un animal que se
+     * acaba de mover no está descansando, así que basta con el peso, la comida y la espera.
+     * @param weight El peso del animal
+     * @param currentFoodLevel El nivel de comida
+     * @param reproductionCooldown Los ciclos de espera para reproducirse
+     */
+    public void restoreMigrationState(double weight, double currentFoodLevel, int reproductionCooldown) {
+        setWeight(weight);
+        this.currentFoodLevel = currentFoodLevel;
+        this.reproductionCooldown = reproductionCooldown;
+    }
+
+    /**
+     * Sustituye la velocidad máxima y la comida necesaria de la especie, por ejemplo para
+     * explorar parámetros. Se aplica al crear el animal, antes de colocarlo en el mapa.
+     * @param maxSpeed La velocidad máxima de movimiento
+     * @param foodNeeded La cantidad de comida necesaria por ciclo
+     */
+    public void applyTraits(int maxSpeed, double foodNeeded) {
+        this.maxSpeed = maxSpeed;
+        this.foodNeeded = foodNeeded;
+        this.currentFoodLevel = foodNeeded;
+    }
+
     /**
      * Establece si el animal está descansando después de cazar.
      * @param restingAfterHunt true si está descansando
@@ -102,6 +152,21 @@ public abstract class Animal extends Organism {
         this.isRestingAfterReproduction = restingAfterReproduction;
     }
 
+    /**
+     * Devuelve el animal a su estado recién construido para reutilizarlo desde un pool:
+     * peso y nivel de comida iniciales, sin descansos ni espera de reproducción,
+     * y con un identificador nuevo.
+     */
+    public void resetForReuse() {
+        renewId();
+        setWeight(initialWeight);
+        this.currentFoodLevel = foodNeeded;
+        this.isRestingAfterHunt = false;
+        this.isRestingAfterEatingPlant = false;
+        this.isRestingAfterReproduction = false;
+        this.reproductionCooldown = 0;
+    }
+
     /**
      * Los animales no son plantas.
      * @return false
@@ -119,6 +184,20 @@ public abstract class Animal extends Organism {
      * @param currentCol La columna actual del animal
      */
     public void move(IslandMap map, int currentRow, int currentCol) {
+        move(map, currentRow, currentCol, null);
+    }
+
+    /**
+     * Mueve el animal en el mapa.
+     * Un carnívoro hambriento que percibe presas dentro del radio de percepción camina hacia
+     * ellas y se detiene al tener una al lado; el resto de animales se mueve aleatoriamente
+     * en direcciones válidas hasta agotar su velocidad.
+     * @param map El mapa donde se mueve el animal
+     * @param currentRow La fila actual del animal
+     * @param currentCol La columna actual del animal
+     * @param perception Tablas de percepción de presas del ciclo, o null para moverse al azar
+     */
+    public void move(IslandMap map, int currentRow, int currentCol, PerceptionField perception) {
         // Si el animal está descansando, no se mueve
         if (isRestingAfterEatingPlant || isRestingAfterHunt || isRestingAfterReproduction) {
             this.isRestingAfterEatingPlant = false;
@@ -132,6 +211,9 @@ public abstract class Animal extends Organism {
         int row = currentRow;
         int col = currentCol;
 
+        // Grupo de presas que persigue, o -1 si no caza o no tiene hambre
+        int preyGroup = perception != null && this instanceof Carnivore && isHungry() ? perception.groupOf(this) : -1;
+
         // Remueve el animal de su posición actual
         map.setOrganismAt(currentRow, currentCol, null);
 
@@ -149,7 +231,7 @@ public abstract class Animal extends Organism {
             for (int[] dir : directions) {
                 int newRow = row + dir[0];
                 int newCol = col + dir[1];
-                if (map.isValidPosition(newRow, newCol) && map.getOrganismAt(newRow, newCol) == null) {
+                if (map.isFree(newRow, newCol)) {
                     validDirections.add(dir);
                 }
             }
@@ -159,8 +241,19 @@ public abstract class Animal extends Organism {
                 break;
             }
 
-            // Elige una dirección aleatoria válida
-            int[] chosenDir = validDirections.get(random.nextInt(validDirections.size()));
+            int[] chosenDir = null;
+            if (preyGroup >= 0) {
+                // Con una presa al lado se queda para comerla
+                if (perception.anyWithin(preyGroup, row, col, 1)) {
+                    break;
+                }
+                chosenDir = closestDirection(validDirections, perception.directionTo(preyGroup, row, col));
+            }
+
+            // Si no persigue a ninguna presa, elige una dirección aleatoria válida
+            if (chosenDir == null) {
+                chosenDir = validDirections.get(random.nextInt(validDirections.size()));
+            }
             row += chosenDir[0];
             col += chosenDir[1];
 
@@ -171,14 +264,47 @@ public abstract class Animal extends Organism {
         map.setOrganismAt(row, col, this);
     }
 
+    /**
+     * Elige, entre las direcciones válidas, la que más se acerca a un objetivo.
+     * @param validDirections Direcciones libres
+     * @param target Desplazamiento {fila, columna} hacia el objetivo, o null si no hay objetivo
+     * @return La dirección elegida, o null si ninguna avanza hacia el objetivo
+     */
+    private static int[] closestDirection(List<int[]> validDirections, int[] target) {
+        if (target == null) {
+            return null;
+        }
+        int[] best = null;
+        int bestScore = 0;
+        for (int[] dir : validDirections) {
+            int score = dir[0] * target[0] + dir[1] * target[1];
+            if (score > bestScore) {
+                best = dir;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
     /**
      * Hace que el animal coma.
-     * Reduce el nivel de comida y busca alimento si es necesario.
+     * Reduce el nivel de comida y busca alimento si es necesario. Si se dan reservas,
+     * el animal solo consume la presa o planta cuya celda consigue reservar, de modo que
+     * cada una se consume una sola vez aunque varios animales coman en paralelo. Antes de
+     * comer reserva también su propia celda: un animal cuya celda ya está reservada ha sido
+     * cazado en este ciclo y no actúa, y uno que está comiendo no puede ser cazado a la vez.
      * @param map El mapa donde está el animal
      * @param currentRow La fila actual del animal
      * @param currentCol La columna actual del animal
+     * @param claims Reservas de celdas del ciclo, o null para no reservar
+     * @param events Registro de eventos del motor donde se anotan las cazas y los consumos
      */
-    public void eat(IslandMap map, int currentRow, int currentCol) {
+    public void eat(IslandMap map, int currentRow, int currentCol, CellClaims claims, SimulationEventRegistry events) {
+        // Un animal cazado en este ciclo ya no come
+        if (claims != null && claims.isClaimed(currentRow, currentCol)) {
+            return;
+        }
+
         // Reduce el nivel de comida del animal
         this.currentFoodLevel -= this.getFoodNeeded() * 0.10;
         
@@ -188,74 +314,78 @@ public abstract class Animal extends Organism {
         }
 
         // Si el nivel de comida es bajo, busca alimento
-        if (this.currentFoodLevel < this.getFoodNeeded() / 2) {
-            List<Organism> adjacentOrganisms = MapUtils.getAdjacentOrganisms(map, currentRow, currentCol);
-            Organism potentialFood = null;
-
-            // Busca comida potencial entre organismos adyacentes
-            for (Organism organism : adjacentOrganisms) {
-                if (organism == null) {
-                    continue;
-                }
-
-                // Si es carnívoro, busca animales que pueda cazar
-                if (this instanceof Carnivore && organism instanceof Animal) {
-                    if (((Carnivore) this).getPreyChances().containsKey(organism.getClass())) {
-                        potentialFood = organism;
-                        break;
-                    }
-                } 
-                // Si es herbívoro, busca plantas vivas
-                else if (this instanceof Herbivore && organism.isPlant()) {
-                    if (((Plant) organism).isAlive()) {
-                        potentialFood = organism;
-                        break;
-                    }
-                }
-            }
+        if (isHungry()) {
+            // Busca comida potencial entre organismos adyacentes que nadie haya reservado ya
+            int[] foodPos = MapUtils.findAdjacentPosition(map, currentRow, currentCol,
+                    (organism, row, col) -> isFood(organism) && (claims == null || !claims.isClaimed(row, col)));
 
             // Si encontró comida, intenta consumirla
-            if (potentialFood != null) {
+            if (foodPos != null) {
+                Organism potentialFood = map.getOrganismAt(foodPos[0], foodPos[1]);
                 if (this instanceof Carnivore) {
                     // Lógica de caza para carnívoros
                     Map<Class<? extends Organism>, Integer> preyChances = ((Carnivore) this).getPreyChances();
                     int successChance = preyChances.getOrDefault(potentialFood.getClass(), 0);
 
-                    if (new Random().nextInt(100) < successChance) {
+                    // La caza solo cuenta si el depredador se queda con la presa
+                    if (new Random().nextInt(100) < successChance
+                            && claimForEating(claims, currentRow, currentCol, foodPos)) {
                         // Caza exitosa
                         this.currentFoodLevel += potentialFood.getWeight() / 2;
-                        int[] preyPos = MapUtils.findOrganismPosition(map, potentialFood);
-                        if (preyPos != null) {
-                            // Registra el evento de caza
-                            SimulationEventRegistry.addHuntingEvent(new HuntingEvent(
-                                    this, potentialFood, currentRow, currentCol, preyPos[0], preyPos[1]
-                            ));
-                        }
+                        // Registra el evento de caza
+                        events.addHuntingEvent(new HuntingEvent(
+                                this, potentialFood, currentRow, currentCol, foodPos[0], foodPos[1]
+                        ));
                     }
-                } else {
+                } else if (claimForEating(claims, currentRow, currentCol, foodPos)) {
                     // Lógica de consumo de plantas para herbívoros
                     this.currentFoodLevel = this.getFoodNeeded();
-                    int[] plantPos = MapUtils.findOrganismPosition(map, potentialFood);
-                    if (plantPos != null) {
-                        // Registra el evento de consumo de planta
-                        SimulationEventRegistry.addEatingPlantEvent(new EatingPlantEvent(
-                                this, currentRow, currentCol, plantPos[0], plantPos[1]
-                        ));
-                        this.isRestingAfterEatingPlant = true;
-                    }
+                    // Registra el evento de consumo de planta
+                    events.addEatingPlantEvent(new EatingPlantEvent(
+                            this, currentRow, currentCol, foodPos[0], foodPos[1]
+                    ));
+                    this.isRestingAfterEatingPlant = true;
                 }
             }
         }
     }
 
     /**
-     * Hace que el animal intente reproducirse.
-     * Busca una pareja del mismo tipo y una posición vacía para la cría.
-     * @param map El mapa donde está el animal
-     * @param currentRow La fila actual del animal
-     * @param currentCol La columna actual del animal
+     * Reserva la celda del propio animal y después la de su comida. Si la propia falla, otro
+     * animal lo ha cazado entre tanto; si falla la de la comida, el animal se queda sin comer
+     * pero conserva su celda hasta el final del ciclo.
+     * @return true si las dos reservas son de este animal (siempre, si no hay reservas)
      */
-    public void reproduce(IslandMap map, int currentRow, int currentCol) {
+    private static boolean claimForEating(CellClaims claims, int row, int col, int[] foodPos) {
+        return claims == null || (claims.tryClaim(row, col) && claims.tryClaim(foodPos[0], foodPos[1]));
+    }
+
+    /**
+     * Indica si el animal tiene hambre: su nivel de comida está por debajo de la mitad de lo que necesita.
+     */
+    private boolean isHungry() {
+        return this.currentFoodLevel < this.getFoodNeeded() / 2;
+    }
+
+    /**
+     * Indica si un organismo adyacente es comida para este animal: una presa para los
+     * carnívoros o una planta viva para los herbívoros.
+     */
+    private boolean isFood(Organism organism) {
+        // Si es carnívoro, busca animales que pueda cazar
+        if (this instanceof Carnivore && organism instanceof Animal) {
+            return ((Carnivore) this).getPreyChances().containsKey(organism.getClass());
+        }
+        // Si es herbívoro, busca plantas vivas
+        return this instanceof Herbivore && organism.isPlant() && ((Plant) organism).isAlive();
+    }
+
+    /**
+     * Prepara al animal para la fase de reproducción del ciclo: si aún está en cooldown
+     * descuenta un ciclo de espera. Debe llamarse una vez por ciclo.
+     * @return true si el animal puede buscar pareja en este ciclo
+     */
+    public boolean prepareForReproduction() {
         // Verifica si el animal tiene el peso mínimo para reproducirse
         double minWeightForReproduction = this.initialWeight * REPRODUCTION_MIN_WEIGHT_PERCENTAGE;
 
@@ -263,30 +393,18 @@ public abstract class Animal extends Organism {
             if (reproductionCooldown > 0) {
                 reproductionCooldown--;
             }
-            return;
-        }
-
-        // Busca organismos adyacentes y una posición vacía
-        List<Organism> adjacentOrganisms = MapUtils.getAdjacentOrganisms(map, currentRow, currentCol);
-        Animal partner = null;
-        int[] emptyPosition = MapUtils.findEmptyAdjacentPosition(map, currentRow, currentCol);
-
-        // Busca una pareja del mismo tipo que no esté en cooldown
-        for (Organism organism : adjacentOrganisms) {
-            if (organism != null && organism.getClass().equals(this.getClass()) && ((Animal) organism).reproductionCooldown == 0) {
-                partner = (Animal) organism;
-                break;
-            }
+            return false;
         }
+        return true;
+    }
 
-        // Si encuentra pareja y posición vacía, registra el evento de reproducción
-        if (partner != null && emptyPosition != null) {
-            // Solo uno de los dos registra el evento (el de ID menor)
-            if (this.getId().compareTo(partner.getId()) < 0) {
-                SimulationEventRegistry.addReproductionEvent(
-                        new ReproductionEvent(this, partner, emptyPosition[0], emptyPosition[1])
-                );
-            }
-        }
+    /**
+     * Indica si un organismo puede ser pareja de este animal: del mismo tipo y sin cooldown.
+     * @param organism El organismo candidato
+     * @return true si puede ser su pareja
+     */
+    public boolean isMateFor(Organism organism) {
+        return organism != null && organism.getClass().equals(this.getClass())
+                && ((Animal) organism).reproductionCooldown == 0;
     }
 }
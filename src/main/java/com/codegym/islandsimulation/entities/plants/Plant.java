@@ -4,15 +4,13 @@ import com.codegym.islandsimulation.entities.Organism;
 
 /**
  * Clase abstracta que representa una planta en la simulación.
- * Las plantas pueden ser consumidas por herbívoros y revivir después de un tiempo.
+ * Las plantas pueden ser consumidas por herbívoros y revivir después de un tiempo,
+ * que el motor programa por celda.
  */
 public abstract class Plant extends Organism {
     // Indica si la planta está viva o ha sido consumida
     private boolean isAlive = true;
     
-    // Número de ciclos que la planta ha estado muerta
-    private int cyclesDead = 0;
-    
     // Emoji original de la planta (se restaura al revivir)
     private final String originalEmoji;
 
@@ -41,20 +39,9 @@ public abstract class Plant extends Organism {
      */
     public void revive() {
         this.isAlive = true;
-        this.cyclesDead = 0;
         this.setEmoji(originalEmoji);
     }
 
-    /**
-     * Actualiza el contador de ciclos muertos.
-     * Se llama cada ciclo para llevar la cuenta de cuánto tiempo ha estado muerta.
-     */
-    public void updateCyclesDead() {
-        if (!isAlive) {
-            this.cyclesDead++;
-        }
-    }
-
     /**
      * Verifica si la planta está viva.
      * @return true si la planta está viva, false si ha sido consumida
@@ -63,14 +50,6 @@ public abstract class Plant extends Organism {
         return isAlive;
     }
 
-    /**
-     * Obtiene el número de ciclos que la planta ha estado muerta.
-     * @return El número de ciclos muertos
-     */
-    public int getCyclesDead() {
-        return cyclesDead;
-    }
-
     /**
      * Las plantas son plantas.
      * @return true
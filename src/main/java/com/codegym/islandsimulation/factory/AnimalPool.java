@@ -0,0 +1,104 @@
+package com.codegym.islandsimulation.factory;
+
+import com.codegym.islandsimulation.entities.animals.Animal;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool de animales por especie para reutilizar los animales muertos como crías
+ * o como animales añadidos por las alarmas de población.
+ * Un animal devuelto al pool se reinicia por completo al reutilizarse, incluido un
+ * identificador nuevo, por lo que es indistinguible de uno recién construido.
+ * No es thread-safe: lo usa únicamente el hilo que ejecuta el ciclo del motor.
+ */
+public class AnimalPool {
+    // Número máximo de animales retenidos por especie por defecto
+    public static final int DEFAULT_CAPACITY_PER_SPECIES = 256;
+
+    private final Map<Class<? extends Animal>, ArrayDeque<Animal>> pools = new HashMap<>();
+    private int capacityPerSpecies;
+
+    // Estadísticas de uso
+    private long reused = 0;
+    private long created = 0;
+
+    /**
+     * Constructor del pool con la capacidad por defecto.
+     */
+    public AnimalPool() {
+        this(DEFAULT_CAPACITY_PER_SPECIES);
+    }
+
+    /**
+     * Constructor del pool.
+     * @param capacityPerSpecies Animales retenidos como máximo por especie (0 desactiva el reciclaje)
+     */
+    public AnimalPool(int capacityPerSpecies) {
+        setCapacityPerSpecies(capacityPerSpecies);
+    }
+
+    /**
+     * Cambia la capacidad por especie. Los animales que sobren se descartan.
+     * @param capacityPerSpecies Animales retenidos como máximo por especie (0 desactiva el reciclaje)
+     */
+    public void setCapacityPerSpecies(int capacityPerSpecies) {
+        if (capacityPerSpecies < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        this.capacityPerSpecies = capacityPerSpecies;
+        for (ArrayDeque<Animal> pool : pools.values()) {
+            while (pool.size() > capacityPerSpecies) {
+                pool.poll();
+            }
+        }
+    }
+
+    /**
+     * Obtiene un animal de la especie indicada, reutilizando uno del pool si lo hay.
+     * @param species La especie del animal
+     * @return Un animal en su estado inicial, o null si no se puede crear
+     */
+    public Animal acquire(Class<? extends Animal> species) {
+        ArrayDeque<Animal> pool = pools.get(species);
+        Animal animal = pool != null ? pool.poll() : null;
+        if (animal != null) {
+            animal.resetForReuse();
+            reused++;
+            return animal;
+        }
+        created++;
+        return (Animal) OrganismFactory.createOrganism(species);
+    }
+
+    /**
+     * Devuelve al pool un animal que ya no está en el mapa ni en ninguna estructura del motor.
+     * @param animal El animal muerto
+     */
+    public void release(Animal animal) {
+        if (capacityPerSpecies == 0) {
+            return;
+        }
+        ArrayDeque<Animal> pool = pools.computeIfAbsent(animal.getClass(), species -> new ArrayDeque<>());
+        if (pool.size() < capacityPerSpecies) {
+            pool.push(animal);
+        }
+    }
+
+    /**
+     * Número de animales obtenidos del pool en lugar de construirse.
+     * @return Animales reutilizados
+     */
+    public long getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Número de animales que hubo que construir porque el pool estaba vacío.
+     * @return Animales construidos
+     */
+    public long getCreatedCount() {
+        return created;
+    }
+}
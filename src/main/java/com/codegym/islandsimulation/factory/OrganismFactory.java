@@ -4,21 +4,22 @@ import com.codegym.islandsimulation.entities.Organism;
 
 /**
  * Factoría para crear instancias de organismos.
- * Utiliza reflexión para crear organismos de cualquier tipo especificado.
+ * Usa las factorías enlazadas a los constructores que guarda {@link OrganismRegistry},
+ * por lo que crear un organismo no necesita reflexión.
  */
 public class OrganismFactory {
 
     /**
      * Crea una nueva instancia de un organismo del tipo especificado.
      * @param clazz La clase del organismo a crear
-     * @return Una nueva instancia del organismo, o null si hay un error
+     * @return Una nueva instancia del organismo, o null si el tipo no está registrado
      */
     public static Organism createOrganism(Class<? extends Organism> clazz) {
-        try {
-            return clazz.getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            System.err.println("❌ Error al crear organismo: " + clazz.getSimpleName());
+        SpeciesInfo info = OrganismRegistry.getInfo(clazz);
+        if (info == null) {
+            System.err.println("❌ Error al crear organismo: " + clazz.getSimpleName() + " no está registrado");
             return null;
         }
+        return info.create();
     }
 }
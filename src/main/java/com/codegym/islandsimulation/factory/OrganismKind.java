@@ -0,0 +1,13 @@
+package com.codegym.islandsimulation.factory;
+
+/**
+ * Categoría de un tipo de organismo registrado.
+ */
+public enum OrganismKind {
+    // Se mueve, come y se reproduce
+    ANIMAL,
+    // Puede ser consumida por los herbívoros y vuelve a crecer
+    PLANT,
+    // Elemento estático del mapa
+    TERRAIN
+}
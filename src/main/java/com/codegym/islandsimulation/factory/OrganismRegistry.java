@@ -2,65 +2,136 @@ package com.codegym.islandsimulation.factory;
 
 import com.codegym.islandsimulation.entities.Organism;
 import com.codegym.islandsimulation.entities.animals.*;
+import com.codegym.islandsimulation.entities.interfaces.Carnivore;
 import com.codegym.islandsimulation.entities.plants.Vegetation;
 import com.codegym.islandsimulation.entities.terrain.*;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Registro central de todos los tipos de organismos disponibles en la simulación.
- * Mantiene un mapeo entre nombres y clases de organismos para facilitar su creación.
+ * Para cada tipo guarda sus metadatos ({@link SpeciesInfo}): categoría, valores por
+ * defecto y una factoría enlazada a su constructor, construidos una vez al arrancar.
  */
 public class OrganismRegistry {
 
-    // Mapa que asocia nombres de organismos con sus clases correspondientes
-    private static final Map<String, Class<? extends Organism>> organismMap = new HashMap<>();
+    // Metadatos por nombre. Conserva el orden de registro para que los códigos de especie sean estables.
+    private static final Map<String, SpeciesInfo> organismMap = new LinkedHashMap<>();
+
+    // Metadatos por clase, para las búsquedas en las rutas de creación
+    private static final Map<Class<? extends Organism>, SpeciesInfo> infoByType = new HashMap<>();
 
     // Inicialización estática: registra todos los tipos de organismos disponibles
     static {
         // Registra todos los animales
-        register("Lobo", Wolf.class);
-        register("Boa", Boa.class);
-        register("Zorro", Fox.class);
-        register("Oso", Bear.class);
-        register("Águila", Eagle.class);
-        register("Caballo", Horse.class);
-        register("Ciervo", Deer.class);
-        register("Conejo", Rabbit.class);
-        register("Ratón", Mouse.class);
-        register("Cabra", Goat.class);
-        register("Oveja", Sheep.class);
-        register("Jabalí", Boar.class);
-        register("Búfalo", Buffalo.class);
-        register("Pato", Duck.class);
-        register("Oruga", Caterpillar.class);
+        register("Lobo", Wolf.class, OrganismKind.ANIMAL, Wolf::new);
+        register("Boa", Boa.class, OrganismKind.ANIMAL, Boa::new);
+        register("Zorro", Fox.class, OrganismKind.ANIMAL, Fox::new);
+        register("Oso", Bear.class, OrganismKind.ANIMAL, Bear::new);
+        register("Águila", Eagle.class, OrganismKind.ANIMAL, Eagle::new);
+        register("Caballo", Horse.class, OrganismKind.ANIMAL, Horse::new);
+        register("Ciervo", Deer.class, OrganismKind.ANIMAL, Deer::new);
+        register("Conejo", Rabbit.class, OrganismKind.ANIMAL, Rabbit::new);
+        register("Ratón", Mouse.class, OrganismKind.ANIMAL, Mouse::new);
+        register("Cabra", Goat.class, OrganismKind.ANIMAL, Goat::new);
+        register("Oveja", Sheep.class, OrganismKind.ANIMAL, Sheep::new);
+        register("Jabalí", Boar.class, OrganismKind.ANIMAL, Boar::new);
+        register("Búfalo", Buffalo.class, OrganismKind.ANIMAL, Buffalo::new);
+        register("Pato", Duck.class, OrganismKind.ANIMAL, Duck::new);
+        register("Oruga", Caterpillar.class, OrganismKind.ANIMAL, Caterpillar::new);
         
         // Registra plantas y terreno
-        register("Hierba", Vegetation.class);
-        register("Árbol", Tree.class);
-        register("Roca", Rock.class);
-        register("Agua", Water.class);
-        register("Hongo", Mushroom.class);
-        register("Palmera", PalmTree.class);
-        register("Árbol conífero", ConiferousTree.class);
-        register("Hierba de hongo", MushroomGrass.class);
+        register("Hierba", Vegetation.class, OrganismKind.PLANT, Vegetation::new);
+        register("Árbol", Tree.class, OrganismKind.TERRAIN, Tree::new);
+        register("Roca", Rock.class, OrganismKind.TERRAIN, Rock::new);
+        register("Agua", Water.class, OrganismKind.TERRAIN, Water::new);
+        register("Hongo", Mushroom.class, OrganismKind.TERRAIN, Mushroom::new);
+        register("Palmera", PalmTree.class, OrganismKind.TERRAIN, PalmTree::new);
+        register("Árbol conífero", ConiferousTree.class, OrganismKind.TERRAIN, ConiferousTree::new);
+        register("Hierba de hongo", MushroomGrass.class, OrganismKind.TERRAIN, MushroomGrass::new);
     }
 
     /**
      * Registra un tipo de organismo en el registro.
+     * Construye un ejemplar una sola vez para leer sus valores por defecto.
      * @param name El nombre del organismo
      * @param clazz La clase del organismo
+     * @param kind La categoría del organismo
+     * @param factory Factoría enlazada al constructor del organismo
      */
-    private static void register(String name, Class<? extends Organism> clazz) {
-        organismMap.put(name, clazz);
+    private static <T extends Organism> void register(String name, Class<T> clazz, OrganismKind kind, Supplier<T> factory) {
+        T prototype = factory.get();
+        int maxSpeed = 0;
+        double foodNeeded = 0;
+        if (prototype instanceof Animal animal) {
+            maxSpeed = animal.getMaxSpeed();
+            foodNeeded = animal.getFoodNeeded();
+        }
+        Map<Class<? extends Organism>, Integer> preyChances = prototype instanceof Carnivore carnivore
+                ? Map.copyOf(carnivore.getPreyChances()) : Map.of();
+        SpeciesInfo info = new SpeciesInfo(name, clazz, kind, factory, prototype.getEmoji(),
+                prototype.getWeight(), maxSpeed, foodNeeded, preyChances);
+        organismMap.put(name, info);
+        infoByType.put(clazz, info);
     }
 
     /**
-     * Obtiene todos los tipos de organismos registrados.
+     * Obtiene todos los tipos de organismos registrados, en orden de registro.
      * @return Lista de todas las clases de organismos disponibles
      */
     public static List<Class<? extends Organism>> getAllOrganismTypes() {
-        return new ArrayList<>(organismMap.values());
+        List<Class<? extends Organism>> types = new ArrayList<>(organismMap.size());
+        for (SpeciesInfo info : organismMap.values()) {
+            types.add(info.type());
+        }
+        return types;
+    }
+
+    /**
+     * Obtiene los tipos de organismos de una categoría, en orden de registro.
+     * @param kind La categoría buscada
+     * @return Lista de clases de esa categoría
+     */
+    public static List<Class<? extends Organism>> getOrganismTypes(OrganismKind kind) {
+        List<Class<? extends Organism>> types = new ArrayList<>();
+        for (SpeciesInfo info : organismMap.values()) {
+            if (info.kind() == kind) {
+                types.add(info.type());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Obtiene los metadatos de todos los tipos registrados, en orden de registro.
+     * @return Lista inmutable de metadatos
+     */
+    public static List<SpeciesInfo> getAllSpecies() {
+        return List.copyOf(organismMap.values());
+    }
+
+    /**
+     * Obtiene la dieta de cada especie que caza: las presas de su {@link SpeciesInfo#preyChances()}.
+     * @return Mapa inmutable de especie a presas, en orden de registro
+     */
+    public static Map<Class<? extends Organism>, Set<Class<? extends Organism>>> getDiets() {
+        Map<Class<? extends Organism>, Set<Class<? extends Organism>>> diets = new LinkedHashMap<>();
+        for (SpeciesInfo info : organismMap.values()) {
+            if (!info.preyChances().isEmpty()) {
+                diets.put(info.type(), info.preyChances().keySet());
+            }
+        }
+        return Collections.unmodifiableMap(diets);
+    }
+
+    /**
+     * Obtiene los metadatos de un tipo de organismo.
+     * @param type La clase del organismo
+     * @return Sus metadatos, o null si el tipo no está registrado
+     */
+    public static SpeciesInfo getInfo(Class<? extends Organism> type) {
+        return infoByType.get(type);
     }
 
 }
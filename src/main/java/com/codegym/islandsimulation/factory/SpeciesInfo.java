@@ -0,0 +1,34 @@
+package com.codegym.islandsimulation.factory;
+
+import com.codegym.islandsimulation.entities.Organism;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Metadatos de un tipo de organismo registrado, calculados una sola vez al arrancar.
+ * Incluye la factoría ya enlazada al constructor, de modo que crear un organismo no
+ * necesita reflexión.
+ * @param name Nombre del organismo
+ * @param type Clase del organismo
+ * @param kind Categoría del organismo
+ * @param factory Factoría que construye un organismo nuevo
+ * @param emoji Emoji del organismo recién creado
+ * @param weight Peso inicial
+ * @param maxSpeed Velocidad máxima (0 si no es un animal)
+ * @param foodNeeded Comida necesaria por ciclo (0 si no es un animal)
+ * @param preyChances Probabilidad de caza (0-100) de cada presa; vacío si la especie no caza
+ */
+public record SpeciesInfo(String name, Class<? extends Organism> type, OrganismKind kind,
+                          Supplier<? extends Organism> factory, String emoji,
+                          double weight, int maxSpeed, double foodNeeded,
+                          Map<Class<? extends Organism>, Integer> preyChances) {
+
+    /**
+     * Crea un organismo nuevo de este tipo.
+     * @return El organismo recién construido
+     */
+    public Organism create() {
+        return factory.get();
+    }
+}
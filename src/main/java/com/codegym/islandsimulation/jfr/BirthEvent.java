@@ -0,0 +1,33 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR: nacimiento de una cría (muestreado).
+ * Se emite a través de {@link FlightEvents}, que aplica el muestreo.
+ */
+@Name(BirthEvent.NAME)
+@Label("Island Birth")
+@Category({"Island Simulation", "Ecology"})
+@Description("Nacimiento de una cría (muestreado)")
+@StackTrace(false)
+public class BirthEvent extends Event {
+    public static final String NAME = "com.codegym.island.Birth";
+
+    @Label("Cycle")
+    public long cycle;
+
+    @Label("Species")
+    public String species;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+}
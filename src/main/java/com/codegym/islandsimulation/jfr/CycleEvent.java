@@ -0,0 +1,39 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR que abarca un ciclo completo de simulación.
+ */
+@Name(CycleEvent.NAME)
+@Label("Island Cycle")
+@Category({"Island Simulation"})
+@Description("Ciclo completo de la simulación de la isla")
+@StackTrace(false)
+public class CycleEvent extends Event {
+    public static final String NAME = "com.codegym.island.Cycle";
+
+    @Label("Cycle")
+    public long cycle;
+
+    @Label("Animals")
+    @Description("Animales vivos al final del ciclo")
+    public long animals;
+
+    @Label("Births")
+    public int births;
+
+    @Label("Hunting Deaths")
+    public int huntingDeaths;
+
+    @Label("Starvation Deaths")
+    public int starvationDeaths;
+
+    @Label("Plants Eaten")
+    public int plantsEaten;
+}
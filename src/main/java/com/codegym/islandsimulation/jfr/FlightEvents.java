@@ -0,0 +1,161 @@
+package com.codegym.islandsimulation.jfr;
+
+import com.codegym.islandsimulation.entities.Organism;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Punto de emisión de los eventos ecológicos de JFR.
+ * Cada método comprueba primero si el tipo de evento está habilitado, en una instancia
+ * compartida: sin una grabación activa el coste es esa comprobación, sin reservar memoria
+ * ni tocar el generador aleatorio. Con la grabación activa,
+ * solo se emite uno de cada {@code sampleEvery} eventos para acotar el volumen.
+ */
+public final class FlightEvents {
+    // Por defecto se emite uno de cada 10 eventos ecológicos
+    public static final int DEFAULT_SAMPLE_EVERY = 10;
+
+    private static volatile int sampleEvery = DEFAULT_SAMPLE_EVERY;
+
+    // Eventos que se devuelven, sin iniciar, mientras los ciclos o las fases no se graban; nunca se emiten
+    private static final CycleEvent DISABLED_CYCLE = new CycleEvent();
+    private static final PhaseEvent DISABLED_PHASE = new PhaseEvent();
+
+    // Instancias que solo sirven para preguntar si su tipo de evento está habilitado
+    private static final HuntEvent HUNTS = new HuntEvent();
+    private static final BirthEvent BIRTHS = new BirthEvent();
+    private static final StarvationEvent STARVATIONS = new StarvationEvent();
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Cambia la tasa de muestreo de los eventos ecológicos.
+     * @param every Se emite uno de cada {@code every} eventos (1 los emite todos)
+     */
+    public static void setSampleEvery(int every) {
+        if (every < 1) {
+            throw new IllegalArgumentException("La tasa de muestreo debe ser positiva");
+        }
+        sampleEvery = every;
+    }
+
+    /**
+     * Obtiene la tasa de muestreo actual de los eventos ecológicos.
+     * @return Uno de cada cuántos eventos se emite
+     */
+    public static int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Emite un evento de caza si está habilitado y entra en la muestra.
+     */
+    public static void hunt(long cycle, Organism predator, Organism prey, int row, int col) {
+        if (HUNTS.isEnabled() && sampled()) {
+            HuntEvent event = new HuntEvent();
+            event.cycle = cycle;
+            event.predator = predator.getClass().getSimpleName();
+            event.prey = prey.getClass().getSimpleName();
+            event.row = row;
+            event.col = col;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emite un evento de nacimiento si está habilitado y entra en la muestra.
+     */
+    public static void birth(long cycle, Organism offspring, int row, int col) {
+        if (BIRTHS.isEnabled() && sampled()) {
+            BirthEvent event = new BirthEvent();
+            event.cycle = cycle;
+            event.species = offspring.getClass().getSimpleName();
+            event.row = row;
+            event.col = col;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emite un evento de muerte por inanición si está habilitado y entra en la muestra.
+     */
+    public static void starvation(long cycle, Organism animal, int row, int col) {
+        if (STARVATIONS.isEnabled() && sampled()) {
+            StarvationEvent event = new StarvationEvent();
+            event.cycle = cycle;
+            event.species = animal.getClass().getSimpleName();
+            event.row = row;
+            event.col = col;
+            event.commit();
+        }
+    }
+
+    /**
+     * Inicia la medida de un ciclo. Sin grabación activa no reserva memoria y devuelve un
+     * evento compartido que {@link #endCycle} descarta.
+     * @return El evento en curso, que se cierra con {@link #endCycle}
+     */
+    public static CycleEvent beginCycle() {
+        if (!DISABLED_CYCLE.isEnabled()) {
+            return DISABLED_CYCLE;
+        }
+        CycleEvent event = new CycleEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Emite un ciclo iniciado con {@link #beginCycle()} si está habilitado y supera el umbral.
+     * @param event El evento devuelto por {@link #beginCycle()}
+     * @param cycle Número del ciclo
+     * @param animals Animales vivos al final del ciclo
+     */
+    public static void endCycle(CycleEvent event, long cycle, long animals, int births,
+                                int huntingDeaths, int starvationDeaths, int plantsEaten) {
+        if (event != DISABLED_CYCLE && event.shouldCommit()) {
+            event.cycle = cycle;
+            event.animals = animals;
+            event.births = births;
+            event.huntingDeaths = huntingDeaths;
+            event.starvationDeaths = starvationDeaths;
+            event.plantsEaten = plantsEaten;
+            event.commit();
+        }
+    }
+
+    /**
+     * Inicia la medida de una fase. Sin grabación activa no reserva memoria y devuelve un
+     * evento compartido que {@link #endPhase(PhaseEvent, String, int)} descarta. Las fases
+     * no se muestrean: hay unas pocas por ciclo.
+     * @return El evento en curso, que se cierra con {@link #endPhase(PhaseEvent, String, int)}
+     */
+    public static PhaseEvent beginPhase() {
+        if (!DISABLED_PHASE.isEnabled()) {
+            return DISABLED_PHASE;
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Emite una fase iniciada con {@link #beginPhase()} si está habilitada y supera el umbral.
+     * @param event El evento devuelto por {@link #beginPhase()}
+     * @param phase Nombre de la fase
+     * @param animals Animales procesados en la fase
+     */
+    public static void endPhase(PhaseEvent event, String phase, int animals) {
+        // Una grabación iniciada a mitad de fase no emite el evento compartido, que no tiene inicio
+        if (event != DISABLED_PHASE && event.shouldCommit()) {
+            event.phase = phase;
+            event.animals = animals;
+            event.commit();
+        }
+    }
+
+    private static boolean sampled() {
+        int every = sampleEvery;
+        return every == 1 || ThreadLocalRandom.current().nextInt(every) == 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR: caza registrada por el motor (muestreada).
+ * Se emite a través de {@link FlightEvents}, que aplica el muestreo.
+ */
+@Name(HuntEvent.NAME)
+@Label("Island Hunt")
+@Category({"Island Simulation", "Ecology"})
+@Description("Caza registrada por el motor (muestreada)")
+@StackTrace(false)
+public class HuntEvent extends Event {
+    public static final String NAME = "com.codegym.island.Hunt";
+
+    @Label("Cycle")
+    public long cycle;
+
+    @Label("Predator")
+    public String predator;
+
+    @Label("Prey")
+    public String prey;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+}
@@ -0,0 +1,109 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consumidor en proceso de los eventos JFR de la simulación.
+ * Abre un {@link RecordingStream} con los eventos de la isla habilitados y resume lo
+ * que recibe (duración del último ciclo, duración media por fase y eventos ecológicos
+ * muestreados) para mostrarlo en el panel de estadísticas en vivo.
+ * JFR entrega los eventos al flujo aproximadamente una vez por segundo, por lo que
+ * el resumen va ligeramente por detrás de la simulación.
+ */
+public class JfrLiveStats implements AutoCloseable {
+    private final RecordingStream stream;
+
+    private volatile long lastCycle = 0;
+    private volatile long lastCycleNanos = 0;
+
+    // Duración acumulada y número de eventos por fase, ordenados por nombre
+    private final Map<String, PhaseTotals> phases = new ConcurrentSkipListMap<>();
+
+    private final LongAdder sampledHunts = new LongAdder();
+    private final LongAdder sampledBirths = new LongAdder();
+    private final LongAdder sampledStarvations = new LongAdder();
+
+    /**
+     * Prefijo de la clave de las filas de duración media de una fase: la clave es el prefijo
+     * seguido del nombre de la fase.
+     */
+    public static final String PHASE_KEY_PREFIX = "jfrPhase.";
+
+    /**
+     * Inicia el consumidor y la grabación en memoria que lo alimenta.
+     */
+    public JfrLiveStats() {
+        this.stream = new RecordingStream();
+        stream.setMaxAge(Duration.ofSeconds(30));
+        for (String name : new String[] {CycleEvent.NAME, PhaseEvent.NAME, HuntEvent.NAME, BirthEvent.NAME, StarvationEvent.NAME}) {
+            stream.enable(name);
+        }
+        stream.onEvent(CycleEvent.NAME, this::onCycle);
+        stream.onEvent(PhaseEvent.NAME, this::onPhase);
+        stream.onEvent(HuntEvent.NAME, event -> sampledHunts.increment());
+        stream.onEvent(BirthEvent.NAME, event -> sampledBirths.increment());
+        stream.onEvent(StarvationEvent.NAME, event -> sampledStarvations.increment());
+        stream.startAsync();
+    }
+
+    private void onCycle(RecordedEvent event) {
+        long cycle = event.getLong("cycle");
+        if (cycle >= lastCycle) {
+            lastCycle = cycle;
+            lastCycleNanos = event.getDuration().toNanos();
+        }
+    }
+
+    private void onPhase(RecordedEvent event) {
+        PhaseTotals totals = phases.computeIfAbsent(event.getString("phase"), p -> new PhaseTotals());
+        totals.nanos.add(event.getDuration().toNanos());
+        totals.count.increment();
+    }
+
+    /**
+     * Obtiene el resumen actual como filas clave/valor para el panel de estadísticas. Las claves
+     * son de {@link com.codegym.islandsimulation.map.RendererMessages}, que las traduce al idioma
+     * del renderizador; las de las fases empiezan por {@link #PHASE_KEY_PREFIX}.
+     * @return Filas ordenadas del resumen
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> rows = new LinkedHashMap<>();
+        rows.put("jfrCycle", String.valueOf(lastCycle));
+        rows.put("jfrCycleDuration", formatMillis(lastCycleNanos));
+        for (Map.Entry<String, PhaseTotals> entry : phases.entrySet()) {
+            long count = entry.getValue().count.sum();
+            if (count > 0) {
+                rows.put(PHASE_KEY_PREFIX + entry.getKey(), formatMillis(entry.getValue().nanos.sum() / count));
+            }
+        }
+        rows.put("jfrSampledHunts", String.valueOf(sampledHunts.sum()));
+        rows.put("jfrSampledBirths", String.valueOf(sampledBirths.sum()));
+        rows.put("jfrSampledStarvations", String.valueOf(sampledStarvations.sum()));
+        return rows;
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f ms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Detiene el flujo de eventos.
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    // Totales acumulados de una fase
+    private static class PhaseTotals {
+        final LongAdder nanos = new LongAdder();
+        final LongAdder count = new LongAdder();
+    }
+}
@@ -0,0 +1,29 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR para una fase de un ciclo. Las fases de movimiento, alimentación y
+ * reproducción las emiten los ejecutores con el número de animales procesados;
+ * el resto las emite el motor con los animales vivos al inicio del ciclo.
+ */
+@Name(PhaseEvent.NAME)
+@Label("Island Phase")
+@Category({"Island Simulation"})
+@Description("Fase de un ciclo de la simulación de la isla")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    public static final String NAME = "com.codegym.island.Phase";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Animals")
+    @Description("Animales procesados en la fase")
+    public int animals;
+}
@@ -0,0 +1,33 @@
+package com.codegym.islandsimulation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR: muerte por inanición (muestreada).
+ * Se emite a través de {@link FlightEvents}, que aplica el muestreo.
+ */
+@Name(StarvationEvent.NAME)
+@Label("Island Starvation")
+@Category({"Island Simulation", "Ecology"})
+@Description("Muerte por inanición (muestreada)")
+@StackTrace(false)
+public class StarvationEvent extends Event {
+    public static final String NAME = "com.codegym.island.Starvation";
+
+    @Label("Cycle")
+    public long cycle;
+
+    @Label("Species")
+    public String species;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+}
@@ -0,0 +1,160 @@
+package com.codegym.islandsimulation.map;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_MASK;
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_SHIFT;
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_SIZE;
+
+/**
+ * Plano de un byte por elemento, en el heap o fuera de él según la {@link CellMemory} que lo
+ * reserva. Es el formato de los planos de códigos de {@link SpeciesCodes}, que
+ * {@link PlaneKernels} recorre bloque a bloque.
+ */
+public abstract class BytePlane {
+    private final int length;
+
+    private BytePlane(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Número de elementos del plano.
+     */
+    public final int length() {
+        return length;
+    }
+
+    public abstract byte get(int index);
+
+    public abstract void set(int index, byte value);
+
+    /**
+     * Pone todos los elementos a un valor.
+     */
+    public abstract void fill(byte value);
+
+    /**
+     * Copia el plano entero al inicio del arreglo indicado.
+     * @param target Arreglo de al menos {@link #length()} bytes
+     */
+    public abstract void copyTo(byte[] target);
+
+    abstract void histogram(PlaneKernels kernels, int from, int to, long[] counts);
+
+    abstract long countEqual(PlaneKernels kernels, int from, int to, byte code);
+
+    abstract void overlay(PlaneKernels kernels, byte[] target);
+
+    static final class Heap extends BytePlane {
+        private final byte[] values;
+
+        Heap(int length) {
+            super(length);
+            this.values = new byte[length];
+        }
+
+        @Override
+        public byte get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public void set(int index, byte value) {
+            values[index] = value;
+        }
+
+        @Override
+        public void fill(byte value) {
+            Arrays.fill(values, value);
+        }
+
+        @Override
+        public void copyTo(byte[] target) {
+            System.arraycopy(values, 0, target, 0, values.length);
+        }
+
+        @Override
+        void histogram(PlaneKernels kernels, int from, int to, long[] counts) {
+            kernels.histogram(values, from, to, counts);
+        }
+
+        @Override
+        long countEqual(PlaneKernels kernels, int from, int to, byte code) {
+            return kernels.countEqual(values, from, to, code);
+        }
+
+        @Override
+        void overlay(PlaneKernels kernels, byte[] target) {
+            kernels.overlay(values, target);
+        }
+    }
+
+    static final class OffHeap extends BytePlane {
+        private final ByteBuffer[] blocks;
+
+        OffHeap(ByteBuffer[] blocks, int length) {
+            super(length);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public byte get(int index) {
+            return blocks[index >>> BLOCK_SHIFT].get(index & BLOCK_MASK);
+        }
+
+        @Override
+        public void set(int index, byte value) {
+            blocks[index >>> BLOCK_SHIFT].put(index & BLOCK_MASK, value);
+        }
+
+        @Override
+        public void fill(byte value) {
+            byte[] run = new byte[Math.min(BLOCK_SIZE, length())];
+            Arrays.fill(run, value);
+            for (ByteBuffer block : blocks) {
+                block.put(0, run, 0, block.capacity());
+            }
+        }
+
+        @Override
+        public void copyTo(byte[] target) {
+            for (int b = 0; b < blocks.length; b++) {
+                blocks[b].get(0, target, b << BLOCK_SHIFT, blocks[b].capacity());
+            }
+        }
+
+        @Override
+        void histogram(PlaneKernels kernels, int from, int to, long[] counts) {
+            for (int start = from; start < to; start = blockEnd(start, to)) {
+                int end = blockEnd(start, to);
+                kernels.histogram(blocks[start >>> BLOCK_SHIFT], start & BLOCK_MASK, end - (start & ~BLOCK_MASK), counts);
+            }
+        }
+
+        @Override
+        long countEqual(PlaneKernels kernels, int from, int to, byte code) {
+            long count = 0;
+            for (int start = from; start < to; start = blockEnd(start, to)) {
+                int end = blockEnd(start, to);
+                count += kernels.countEqual(blocks[start >>> BLOCK_SHIFT], start & BLOCK_MASK, end - (start & ~BLOCK_MASK), code);
+            }
+            return count;
+        }
+
+        @Override
+        void overlay(PlaneKernels kernels, byte[] target) {
+            for (int b = 0; b < blocks.length; b++) {
+                kernels.overlay(blocks[b], target, b << BLOCK_SHIFT);
+            }
+        }
+
+        /**
+         * Final del bloque que contiene {@code start}, sin pasar de {@code to}.
+         */
+        private static int blockEnd(int start, int to) {
+            return (int) Math.min(to, ((long) (start >>> BLOCK_SHIFT) + 1) << BLOCK_SHIFT);
+        }
+    }
+}
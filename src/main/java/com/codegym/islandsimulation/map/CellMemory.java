@@ -0,0 +1,149 @@
+package com.codegym.islandsimulation.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Origen de la memoria de los planos por celda ({@link BytePlane}, {@link IntPlane} y
+ * {@link LongPlane}): arreglos del heap, memoria directa o un archivo mapeado en memoria.
+ *
+ * Cada mapa tiene la suya ({@link IslandMap#getCellMemory()}) y todo lo que guarda un valor
+ * por celda (el terreno, las reservas, los sellos de ciclo, las tablas de percepción...) la
+ * usa para reservar sus planos. Así, en un mapa fuera del heap, el heap crece con el número
+ * de animales y no con el de celdas.
+ *
+ * Fuera del heap cada plano se reparte en bloques de {@value #BLOCK_SIZE} elementos, cada uno
+ * en su propio búfer: ningún búfer llega al límite de 2 GB y el sistema operativo pagina los
+ * bloques de un archivo mapeado por separado.
+ */
+public final class CellMemory {
+    static final int BLOCK_SHIFT = 20;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    // Alineación de cada bloque, suficiente para los accesos atómicos de 8 bytes
+    private static final int BLOCK_ALIGNMENT = 8;
+
+    private static final CellMemory HEAP = new CellMemory(null);
+
+    // Reserva de los bloques fuera del heap (null en el heap)
+    private final BlockAllocator allocator;
+
+    // Bytes reservados fuera del heap
+    private final AtomicLong offHeapBytes = new AtomicLong();
+
+    private CellMemory(BlockAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * Memoria del heap: cada plano es un arreglo.
+     */
+    public static CellMemory heap() {
+        return HEAP;
+    }
+
+    /**
+     * Memoria directa, fuera del heap. Su tamaño está limitado por {@code -XX:MaxDirectMemorySize}.
+     */
+    public static CellMemory direct() {
+        return new CellMemory((position, bytes) -> ByteBuffer.allocateDirect(bytes));
+    }
+
+    /**
+     * Memoria mapeada sobre un archivo nuevo, que crece con cada plano reservado; el sistema
+     * operativo pagina los bloques, así que los planos pueden superar la memoria física.
+     * @param file Archivo de respaldo (se sobrescribe)
+     * @return La memoria
+     * @throws IOException si no se puede crear el archivo
+     */
+    public static CellMemory mapped(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.newByteChannel(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING).close();
+        return new CellMemory((position, bytes) -> {
+            // Los mapeos siguen siendo válidos después de cerrar el canal
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+            }
+        });
+    }
+
+    /**
+     * Indica si los planos se guardan fuera del heap.
+     */
+    public boolean isOffHeap() {
+        return allocator != null;
+    }
+
+    /**
+     * Bytes reservados fuera del heap por todos los planos de esta memoria.
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes.get();
+    }
+
+    /**
+     * Reserva un plano de bytes a cero.
+     * @param length Número de elementos
+     * @return El plano
+     */
+    public BytePlane allocateBytes(int length) {
+        return allocator == null ? new BytePlane.Heap(length) : new BytePlane.OffHeap(allocateBlocks(length, Byte.BYTES), length);
+    }
+
+    /**
+     * Reserva un plano de enteros a cero.
+     * @param length Número de elementos
+     * @return El plano
+     */
+    public IntPlane allocateInts(int length) {
+        return allocator == null ? new IntPlane.Heap(length) : new IntPlane.OffHeap(allocateBlocks(length, Integer.BYTES), length);
+    }
+
+    /**
+     * Reserva un plano de enteros largos a cero.
+     * @param length Número de elementos
+     * @return El plano
+     */
+    public LongPlane allocateLongs(int length) {
+        return allocator == null ? new LongPlane.Heap(length) : new LongPlane.OffHeap(allocateBlocks(length, Long.BYTES), length);
+    }
+
+    /**
+     * Reserva los bloques de un plano fuera del heap, en orden nativo de bytes.
+     */
+    private synchronized ByteBuffer[] allocateBlocks(int length, int elementBytes) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Longitud de plano negativa: " + length);
+        }
+        ByteBuffer[] blocks = new ByteBuffer[(int) (((long) length + BLOCK_MASK) >>> BLOCK_SHIFT)];
+        long position = offHeapBytes.get();
+        try {
+            for (int b = 0; b < blocks.length; b++) {
+                int elements = Math.min(BLOCK_SIZE, length - (b << BLOCK_SHIFT));
+                int bytes = elements * elementBytes;
+                blocks[b] = allocator.allocate(position, bytes).order(ByteOrder.nativeOrder());
+                position += (bytes + BLOCK_ALIGNMENT - 1) & -BLOCK_ALIGNMENT;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se puede reservar un plano de " + length + " celdas", e);
+        }
+        offHeapBytes.set(position);
+        return blocks;
+    }
+
+    @FunctionalInterface
+    private interface BlockAllocator {
+        ByteBuffer allocate(long position, int bytes) throws IOException;
+    }
+}
@@ -0,0 +1,56 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+
+import java.util.List;
+
+/**
+ * Almacenamiento de los organismos de las celdas de un {@link IslandMap}. Las filas y
+ * columnas que recibe ya están comprobadas por el mapa.
+ */
+interface CellStore {
+
+    /**
+     * Plano con el código de {@link SpeciesCodes} del organismo de cada celda, fila a fila,
+     * que el almacenamiento mantiene al día en cada cambio. Solo lectura.
+     */
+    BytePlane codes();
+
+    /**
+     * Organismo de una celda, o null si está vacía.
+     */
+    Organism get(int row, int col);
+
+    /**
+     * Coloca un organismo en una celda (null la vacía).
+     */
+    void set(int row, int col, Organism organism);
+
+    /**
+     * Indica si la celda no tiene ningún organismo.
+     */
+    boolean isEmpty(int row, int col);
+
+    /**
+     * Marca como comida la planta viva de una celda.
+     * @return true si había una planta viva
+     */
+    boolean eatPlant(int row, int col);
+
+    /**
+     * Revive la planta comida de una celda.
+     * @return true si había una planta comida
+     */
+    boolean revivePlant(int row, int col);
+
+    /**
+     * Añade a la lista los organismos de todas las celdas, fila a fila.
+     */
+    void collectOrganisms(List<Organism> target);
+
+    /**
+     * Añade a la lista los animales de todas las celdas, fila a fila.
+     */
+    void collectAnimals(List<Animal> target);
+}
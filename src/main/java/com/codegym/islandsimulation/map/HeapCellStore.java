@@ -0,0 +1,91 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Plant;
+
+import java.util.List;
+
+/**
+ * Almacenamiento en el heap: una referencia por celda a un objeto propio de cada organismo,
+ * y al lado el plano de sus códigos de especie.
+ */
+final class HeapCellStore implements CellStore {
+    private final int cols;
+
+    // Matriz 2D que almacena los organismos en cada posición
+    private final Organism[][] grid;
+
+    // Código de especie del organismo de cada celda, fila a fila
+    private final BytePlane codes;
+
+    HeapCellStore(int rows, int cols) {
+        int cells = IslandMap.cellCount(rows, cols);
+        this.cols = cols;
+        this.grid = new Organism[rows][cols];
+        this.codes = CellMemory.heap().allocateBytes(cells);
+    }
+
+    @Override
+    public BytePlane codes() {
+        return codes;
+    }
+
+    @Override
+    public Organism get(int row, int col) {
+        return grid[row][col];
+    }
+
+    @Override
+    public void set(int row, int col, Organism organism) {
+        grid[row][col] = organism;
+        codes.set(row * cols + col, SpeciesCodes.codeOf(organism));
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return grid[row][col] == null;
+    }
+
+    @Override
+    public boolean eatPlant(int row, int col) {
+        if (grid[row][col] instanceof Plant plant && plant.isAlive()) {
+            plant.getEaten();
+            codes.set(row * cols + col, SpeciesCodes.EATEN_PLANT);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean revivePlant(int row, int col) {
+        if (grid[row][col] instanceof Plant plant && !plant.isAlive()) {
+            plant.revive();
+            codes.set(row * cols + col, SpeciesCodes.codeOf(plant));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void collectOrganisms(List<Organism> target) {
+        for (Organism[] row : grid) {
+            for (Organism organism : row) {
+                if (organism != null) {
+                    target.add(organism);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void collectAnimals(List<Animal> target) {
+        for (Organism[] row : grid) {
+            for (Organism organism : row) {
+                if (organism instanceof Animal animal) {
+                    target.add(animal);
+                }
+            }
+        }
+    }
+}
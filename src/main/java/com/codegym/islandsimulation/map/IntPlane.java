@@ -0,0 +1,126 @@
+package com.codegym.islandsimulation.map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_MASK;
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_SHIFT;
+
+/**
+ * Plano de un entero por elemento, en el heap o fuera de él según la {@link CellMemory} que
+ * lo reserva. Las lecturas y escrituras simples no ordenan nada entre hilos; para los sellos
+ * y reservas compartidos entre hilos están {@link #getVolatile} y {@link #compareAndSet}.
+ */
+public abstract class IntPlane {
+    private final int length;
+
+    private IntPlane(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Número de elementos del plano.
+     */
+    public final int length() {
+        return length;
+    }
+
+    public abstract int get(int index);
+
+    public abstract void set(int index, int value);
+
+    /**
+     * Lectura con semántica volátil.
+     */
+    public abstract int getVolatile(int index);
+
+    /**
+     * Sustituye un elemento si tiene el valor esperado, de forma atómica.
+     * @return true si se ha sustituido
+     */
+    public abstract boolean compareAndSet(int index, int expected, int value);
+
+    /**
+     * Pone todos los elementos a un valor.
+     */
+    public abstract void fill(int value);
+
+    static final class Heap extends IntPlane {
+        private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+        private final int[] values;
+
+        Heap(int length) {
+            super(length);
+            this.values = new int[length];
+        }
+
+        @Override
+        public int get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public void set(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        public int getVolatile(int index) {
+            return (int) ELEMENTS.getVolatile(values, index);
+        }
+
+        @Override
+        public boolean compareAndSet(int index, int expected, int value) {
+            return ELEMENTS.compareAndSet(values, index, expected, value);
+        }
+
+        @Override
+        public void fill(int value) {
+            Arrays.fill(values, value);
+        }
+    }
+
+    static final class OffHeap extends IntPlane {
+        private static final VarHandle ELEMENTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+        private final ByteBuffer[] blocks;
+
+        OffHeap(ByteBuffer[] blocks, int length) {
+            super(length);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public int get(int index) {
+            return (int) ELEMENTS.get(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 2);
+        }
+
+        @Override
+        public void set(int index, int value) {
+            ELEMENTS.set(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 2, value);
+        }
+
+        @Override
+        public int getVolatile(int index) {
+            return (int) ELEMENTS.getVolatile(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 2);
+        }
+
+        @Override
+        public boolean compareAndSet(int index, int expected, int value) {
+            return ELEMENTS.compareAndSet(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 2, expected, value);
+        }
+
+        @Override
+        public void fill(int value) {
+            for (ByteBuffer block : blocks) {
+                for (int offset = 0; offset < block.capacity(); offset += Integer.BYTES) {
+                    ELEMENTS.set(block, offset, value);
+                }
+            }
+        }
+    }
+}
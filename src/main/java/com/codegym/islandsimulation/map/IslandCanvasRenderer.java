@@ -0,0 +1,283 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.terrain.Water;
+import com.codegym.islandsimulation.utils.MapUtils;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Renderizador compacto de la isla para mapas grandes.
+ * En lugar de generar un elemento del DOM por celda, codifica el mapa como un arreglo
+ * de un byte por celda (código de especie) en base64 y lo dibuja en un canvas con un
+ * pequeño script. El tiempo de dibujo no depende del DOM: los mapas grandes se pintan
+ * píxel a píxel con una paleta de colores y los pequeños con un atlas de emojis.
+ * El panel lateral conserva la localización de {@link RendererMessages}.
+ */
+public class IslandCanvasRenderer {
+    // Tamaño máximo en píxeles que ocupa el lado mayor del mapa en pantalla
+    private static final int MAX_CANVAS_SIZE = 900;
+
+    // Tamaño máximo de celda y tamaño mínimo a partir del cual se dibujan emojis
+    private static final int MAX_CELL_SIZE = 24;
+    private static final int MIN_SPRITE_CELL_SIZE = 12;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] speciesCodes;
+    private final Map<Class<? extends Organism>, Long> populationCounts;
+    private final int cycleNumber;
+    private final Supplier<String> consolidatedLog;
+    private final RendererMessages messages;
+
+    // Recuentos de eventos del ciclo para el panel de estadísticas
+    private int huntsThisCycle;
+    private int reproductionsThisCycle;
+    private int plantsEatenThisCycle;
+
+    // Filas opcionales de perfilado (etiqueta, valor) para el panel de estadísticas
+    private Map<String, String> profileRows = Map.of();
+
+    /**
+     * Constructor del renderizador con idioma español por defecto.
+     * El mapa se codifica en el momento de la construcción, de modo que el archivo
+     * puede escribirse después en otro hilo sin leer el mapa mientras cambia.
+     */
+    public IslandCanvasRenderer(IslandMap island, Map<Class<? extends Organism>, Long> populationCounts, int cycleNumber, String consolidatedLog) {
+        this(island, populationCounts, cycleNumber, consolidatedLog, "es");
+    }
+
+    public IslandCanvasRenderer(IslandMap island, Map<Class<? extends Organism>, Long> populationCounts, int cycleNumber, String consolidatedLog, String language) {
+        this(island, populationCounts, cycleNumber, () -> consolidatedLog, language);
+    }
+
+    /**
+     * Constructor del renderizador con un log que se obtiene al escribir el archivo,
+     * de modo que su texto se construye en el hilo que escribe y no al preparar la vista.
+     */
+    public IslandCanvasRenderer(IslandMap island, Map<Class<? extends Organism>, Long> populationCounts, int cycleNumber, Supplier<String> consolidatedLog) {
+        this(island, populationCounts, cycleNumber, consolidatedLog, "es");
+    }
+
+    public IslandCanvasRenderer(IslandMap island, Map<Class<? extends Organism>, Long> populationCounts, int cycleNumber, Supplier<String> consolidatedLog, String language) {
+        this.rows = island.getRows();
+        this.cols = island.getCols();
+        this.speciesCodes = island.encodeSpeciesCodes(null);
+        this.populationCounts = new HashMap<>(populationCounts);
+        this.cycleNumber = cycleNumber;
+        this.consolidatedLog = consolidatedLog == null ? () -> null : consolidatedLog;
+        this.messages = new RendererMessages(language);
+    }
+
+    /**
+     * Establece los recuentos de eventos del ciclo que se muestran en el panel lateral.
+     * @param hunts Número de cazas del ciclo
+     * @param reproductions Número de reproducciones del ciclo
+     * @param plantsEaten Número de plantas consumidas en el ciclo
+     */
+    public void setEventCounts(int hunts, int reproductions, int plantsEaten) {
+        this.huntsThisCycle = hunts;
+        this.reproductionsThisCycle = reproductions;
+        this.plantsEatenThisCycle = plantsEaten;
+    }
+
+    /**
+     * Establece las filas de perfilado que se muestran en el panel lateral.
+     * @param rows Filas clave/valor, en orden; las claves se traducen con {@link RendererMessages#profileLabel(String)}
+     */
+    public void setProfileRows(Map<String, String> rows) {
+        this.profileRows = new LinkedHashMap<>(rows);
+    }
+
+    /**
+     * Genera el archivo `island.html` con el mapa en canvas y el panel de estadísticas.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public void generateHtmlFile() throws IOException {
+        int cellSize = Math.max(1, Math.min(MAX_CELL_SIZE, MAX_CANVAS_SIZE / Math.max(1, Math.max(rows, cols))));
+
+        // Recuentos derivados directamente de los códigos de celda
+        long[] histogram = new long[SpeciesCodes.codeCount()];
+        PlaneKernels.best().histogram(speciesCodes, 0, speciesCodes.length, histogram);
+        long corpses = histogram[SpeciesCodes.CORPSE];
+        long water = histogram[SpeciesCodes.codeOf(Water.class)];
+        long occupied = speciesCodes.length - histogram[SpeciesCodes.EMPTY] - corpses - water;
+        double occupationPercent = speciesCodes.length == 0 ? 0.0 : (occupied * 100.0) / speciesCodes.length;
+
+        StringBuilder html = new StringBuilder(speciesCodes.length * 4 / 3 + 8192);
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n")
+                .append("<meta charset='UTF-8'>\n")
+                .append("<title>").append(messages.get("title")).append("</title>\n")
+                .append("<style>\n")
+                .append("body { font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, Arial, sans-serif, 'Segoe UI Emoji', 'Noto Color Emoji'; margin: 0; background-color: #f9f9f9; }\n")
+                .append(".main-container { display: flex; flex-direction: row; justify-content: center; align-items: flex-start; gap: 24px; padding: 20px; }\n")
+                .append(".grid-container { background: #fff; border-radius: 10px; box-shadow: 0 1px 8px rgba(0,0,0,0.04); padding: 12px; }\n")
+                .append("#island-canvas { image-rendering: pixelated; display: block; }\n")
+                .append(".side-panel { display: flex; flex-direction: column; gap: 18px; width: 300px; }\n")
+                .append(".stats, .log-panel { background: #fff; border-radius: 8px; box-shadow: 0 2px 6px rgba(0,0,0,0.1); padding: 15px; font-size: 14px; }\n")
+                .append(".stats h3, .stats h4 { margin: 0 0 12px 0; color: #333; }\n")
+                .append(".stat-row { display: flex; justify-content: space-between; padding: 4px 0; }\n")
+                .append(".stat-row span:last-child { font-weight: bold; }\n")
+                .append(".divider { border: 0; height: 1px; background: #e0e0e0; margin: 15px 0; }\n")
+                .append(".species-item { display: inline-flex; padding: 4px 8px; margin: 2px; border-radius: 6px; font-weight: bold; }\n")
+                .append(".status-red { background-color: #ffcccc; }\n")
+                .append(".status-yellow { background-color: #fff2cc; }\n")
+                .append(".status-green { background-color: #ccffcc; }\n")
+                .append(".log-panel pre { white-space: pre-wrap; margin: 0; font-family: inherit; }\n")
+                .append("</style>\n")
+                .append("</head>\n<body>\n")
+                .append("<h2 style='text-align: center;'>").append(messages.get("mapTitle")).append("</h2>\n")
+                .append("<div class='main-container'>\n")
+                .append("<div class='grid-container'><canvas id='island-canvas'></canvas></div>\n")
+                .append("<div class='side-panel'>\n");
+
+        // --- Panel de estadísticas ---
+        html.append("<div class='stats'>\n")
+                .append("<h3>").append(messages.get("stats")).append("</h3>\n");
+        appendStatRow(html, "📅 " + messages.get("cycle"), String.valueOf(cycleNumber));
+        appendStatRow(html, "👥 " + messages.get("totalPopulation"), String.valueOf(calculateTotalPopulation()));
+        appendStatRow(html, "🗺️ " + messages.get("occupation"), String.format("%.1f%%", occupationPercent));
+        html.append("<hr class='divider'>\n")
+                .append("<h4>").append(messages.get("cycleEvents")).append("</h4>\n");
+        appendStatRow(html, "❤️ " + messages.get("reproductions"), String.valueOf(reproductionsThisCycle));
+        appendStatRow(html, "💀 " + messages.get("deadAnimals"), String.valueOf(corpses));
+        appendStatRow(html, "⚔️ " + messages.get("hunts"), String.valueOf(huntsThisCycle));
+        appendStatRow(html, "🌿 " + messages.get("plantsEaten"), String.valueOf(plantsEatenThisCycle));
+        html.append("<hr class='divider'>\n")
+                .append("<h4>").append(messages.get("populationBySpecies")).append("</h4>\n");
+
+        List<Class<? extends Organism>> sortedSpecies = new ArrayList<>(populationCounts.keySet());
+        sortedSpecies.sort(Comparator.comparing(Class::getSimpleName));
+        for (Class<? extends Organism> species : sortedSpecies) {
+            long count = populationCounts.getOrDefault(species, 0L);
+            html.append("<span class='species-item ").append(getStatusClass(count)).append("'>")
+                    .append(MapUtils.getEmojiForClass(species)).append(" ").append(count)
+                    .append("</span>\n");
+        }
+        if (!profileRows.isEmpty()) {
+            html.append("<hr class='divider'>\n")
+                    .append("<h4>").append(messages.get("profile")).append("</h4>\n");
+            profileRows.forEach((key, value) -> appendStatRow(html, escapeHtml(messages.profileLabel(key)), escapeHtml(value)));
+        }
+        html.append("</div>\n"); // stats
+
+        // --- Log consolidado ---
+        String log = consolidatedLog.get();
+        html.append("<div class='log-panel'>\n")
+                .append("<h4>").append(messages.get("log")).append("</h4>\n")
+                .append("<pre>").append(escapeHtml(log == null ? "" : log)).append("</pre>\n")
+                .append("</div>\n");
+
+        html.append("</div>\n"); // side-panel
+        html.append("</div>\n"); // main-container
+
+        appendCanvasScript(html, cellSize);
+
+        html.append("</body>\n</html>");
+
+        try (FileWriter fw = new FileWriter("island.html", StandardCharsets.UTF_8)) {
+            fw.write(html.toString());
+        }
+    }
+
+    /**
+     * Agrega el script que decodifica los códigos de celda y dibuja el canvas.
+     * Con celdas pequeñas se pinta un píxel por celda con la paleta de colores;
+     * con celdas grandes se usa un atlas de emojis dibujado una sola vez.
+     */
+    private void appendCanvasScript(StringBuilder html, int cellSize) {
+        int codeCount = SpeciesCodes.codeCount();
+
+        html.append("<script>\n")
+                .append("const ROWS = ").append(rows).append(", COLS = ").append(cols)
+                .append(", CELL = ").append(cellSize).append(", MIN_SPRITE_CELL = ").append(MIN_SPRITE_CELL_SIZE).append(";\n");
+
+        html.append("const PALETTE = [");
+        for (int code = 0; code < codeCount; code++) {
+            if (code > 0) html.append(',');
+            html.append(SpeciesCodes.colorOf(code));
+        }
+        html.append("];\n");
+
+        html.append("const SPRITES = [");
+        for (int code = 0; code < codeCount; code++) {
+            if (code > 0) html.append(',');
+            html.append('"').append(SpeciesCodes.emojiOf(code)).append('"');
+        }
+        html.append("];\n");
+
+        html.append("const DATA = '").append(Base64.getEncoder().encodeToString(speciesCodes)).append("';\n")
+                .append("const bin = atob(DATA);\n")
+                .append("const cells = new Uint8Array(bin.length);\n")
+                .append("for (let i = 0; i < bin.length; i++) cells[i] = bin.charCodeAt(i);\n")
+                .append("const canvas = document.getElementById('island-canvas');\n")
+                .append("canvas.width = COLS * CELL;\n")
+                .append("canvas.height = ROWS * CELL;\n")
+                .append("const ctx = canvas.getContext('2d');\n")
+                .append("if (CELL < MIN_SPRITE_CELL) {\n")
+                .append("  const img = ctx.createImageData(COLS, ROWS);\n")
+                .append("  const px = new Uint32Array(img.data.buffer);\n")
+                .append("  const lut = PALETTE.map(rgb => (0xFF000000 | ((rgb & 0xFF) << 16) | (rgb & 0xFF00) | ((rgb >> 16) & 0xFF)) >>> 0);\n")
+                .append("  for (let i = 0; i < cells.length; i++) px[i] = lut[cells[i]];\n")
+                .append("  const frame = document.createElement('canvas');\n")
+                .append("  frame.width = COLS;\n")
+                .append("  frame.height = ROWS;\n")
+                .append("  frame.getContext('2d').putImageData(img, 0, 0);\n")
+                .append("  ctx.imageSmoothingEnabled = false;\n")
+                .append("  ctx.drawImage(frame, 0, 0, COLS * CELL, ROWS * CELL);\n")
+                .append("} else {\n")
+                .append("  const atlas = document.createElement('canvas');\n")
+                .append("  atlas.width = CELL * SPRITES.length;\n")
+                .append("  atlas.height = CELL;\n")
+                .append("  const a = atlas.getContext('2d');\n")
+                .append("  a.font = Math.floor(CELL * 0.8) + 'px sans-serif';\n")
+                .append("  a.textAlign = 'center';\n")
+                .append("  a.textBaseline = 'middle';\n")
+                .append("  SPRITES.forEach((sprite, i) => {\n")
+                .append("    a.fillStyle = '#f3f6f8';\n")
+                .append("    a.fillRect(i * CELL, 0, CELL, CELL);\n")
+                .append("    a.fillText(sprite, i * CELL + CELL / 2, CELL / 2 + 1);\n")
+                .append("  });\n")
+                .append("  for (let r = 0, i = 0; r < ROWS; r++) {\n")
+                .append("    for (let c = 0; c < COLS; c++, i++) {\n")
+                .append("      ctx.drawImage(atlas, cells[i] * CELL, 0, CELL, CELL, c * CELL, r * CELL, CELL, CELL);\n")
+                .append("    }\n")
+                .append("  }\n")
+                .append("}\n")
+                .append("setTimeout(() => location.reload(), 3000);\n")
+                .append("</script>\n");
+    }
+
+    private void appendStatRow(StringBuilder html, String label, String value) {
+        html.append("<div class='stat-row'><span>").append(label).append(":</span><span>")
+                .append(value).append("</span></div>\n");
+    }
+
+    /**
+     * Calcula la población total de animales a partir de los recuentos por especie.
+     */
+    private long calculateTotalPopulation() {
+        return populationCounts.entrySet().stream()
+                .filter(entry -> Animal.class.isAssignableFrom(entry.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private String getStatusClass(long count) {
+        if (count >= 1 && count <= 3) {
+            return "status-red";
+        } else if (count >= 4 && count <= 6) {
+            return "status-yellow";
+        }
+        return "status-green";
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
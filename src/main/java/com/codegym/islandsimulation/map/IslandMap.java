@@ -1,13 +1,30 @@
 package com.codegym.islandsimulation.map;
 
 import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Representa el mapa de la isla donde viven todos los organismos.
- * El mapa es una cuadrícula 2D donde cada celda puede contener un organismo o estar vacía.
+ * El mapa es una cuadrícula 2D donde cada celda puede contener un organismo o estar vacía,
+ * sobre una capa de terreno estática ({@link TerrainLayer}) que se consulta aparte.
+ *
+ * Por defecto cada celda guarda una referencia a su organismo en el heap. Para islas muy
+ * grandes, {@link #offHeap(int, int)} y {@link #mapped(int, int, Path)} guardan las celdas
+ * fuera del heap (ver {@link OffHeapCellStore}): solo los animales son objetos, y las plantas
+ * se comen y reviven con {@link #eatPlantAt(int, int)} y {@link #revivePlantAt(int, int)}.
+ *
+ * Las celdas llevan al día un plano de un byte por celda con el código de {@link SpeciesCodes}
+ * de su organismo (fuera del heap es el propio plano de códigos del almacenamiento). Los
+ * recuentos por especie, de celdas vacías o de cadáveres se hacen sobre ese plano con
+ * {@link PlaneKernels}, sin tocar los organismos.
+ *
+ * Las celdas, el terreno y los datos por celda de las fases se reservan en la
+ * {@link CellMemory} del mapa, que está fuera del heap si las celdas lo están.
  */
 public class IslandMap {
 
@@ -17,8 +34,14 @@ public class IslandMap {
     // Número de columnas del mapa
     private final int cols;
     
-    // Matriz 2D que almacena los organismos en cada posición
-    private final Organism[][] grid;
+    // Organismos de las celdas, en el heap o fuera de él
+    private final CellStore cells;
+
+    // Memoria de los planos por celda, en el mismo sitio que las celdas
+    private final CellMemory memory;
+
+    // Terreno inmutable de la isla, separado de los organismos
+    private TerrainLayer terrain;
 
     /**
      * Constructor del mapa de la isla.
@@ -26,9 +49,65 @@ public class IslandMap {
      * @param cols Número de columnas del mapa
      */
     public IslandMap(int rows, int cols) {
+        this(rows, cols, new HeapCellStore(rows, cols), CellMemory.heap());
+    }
+
+    private IslandMap(int rows, int cols, CellMemory memory) {
+        this(rows, cols, new OffHeapCellStore(rows, cols, memory), memory);
+    }
+
+    private IslandMap(int rows, int cols, CellStore cells, CellMemory memory) {
+        cellCount(rows, cols);
         this.rows = rows;
         this.cols = cols;
-        this.grid = new Organism[rows][cols];
+        this.cells = cells;
+        this.memory = memory;
+        this.terrain = TerrainLayer.empty(rows, cols);
+    }
+
+    /**
+     * Crea un mapa cuyas celdas se guardan en memoria directa, fuera del heap.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @return El mapa vacío
+     */
+    public static IslandMap offHeap(int rows, int cols) {
+        cellCount(rows, cols);
+        return new IslandMap(rows, cols, CellMemory.direct());
+    }
+
+    /**
+     * Crea un mapa cuyas celdas se guardan en un archivo mapeado en memoria, que puede
+     * superar la memoria física. Los planos por celda de las fases se mapean sobre el mismo archivo.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @param file Archivo de respaldo (se sobrescribe)
+     * @return El mapa vacío
+     * @throws IOException si no se puede crear o mapear el archivo
+     */
+    public static IslandMap mapped(int rows, int cols, Path file) throws IOException {
+        // Antes de crear el archivo
+        cellCount(rows, cols);
+        return new IslandMap(rows, cols, CellMemory.mapped(file));
+    }
+
+    /**
+     * Número de celdas de un mapa de las dimensiones indicadas. Los planos por celda se
+     * indexan con un int, así que el producto no puede pasar de {@link Integer#MAX_VALUE}.
+     * @param rows Número de filas
+     * @param cols Número de columnas
+     * @return filas x columnas
+     * @throws IllegalArgumentException si alguna dimensión es negativa o el mapa tiene demasiadas celdas
+     */
+    static int cellCount(int rows, int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Dimensiones de mapa negativas: " + rows + "x" + cols);
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Un mapa de " + rows + "x" + cols + " tiene " + (long) rows * cols
+                    + " celdas; como mucho puede tener " + Integer.MAX_VALUE);
+        }
+        return rows * cols;
     }
 
     /**
@@ -48,21 +127,98 @@ public class IslandMap {
     }
 
     /**
-     * Obtiene una lista de todos los organismos presentes en el mapa.
+     * Obtiene la memoria en la que se reservan los planos por celda del mapa y de las fases
+     * que lo recorren.
+     * @return La memoria del mapa
+     */
+    public CellMemory getCellMemory() {
+        return memory;
+    }
+
+    /**
+     * Obtiene la capa de terreno del mapa.
+     * @return La capa de terreno
+     */
+    public TerrainLayer getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Establece la capa de terreno del mapa. Se hace una vez, al generar el mundo,
+     * antes de colocar organismos.
+     * @param terrain La capa de terreno, de las mismas dimensiones que el mapa
+     */
+    public void setTerrain(TerrainLayer terrain) {
+        if (terrain.getRows() != rows || terrain.getCols() != cols) {
+            throw new IllegalArgumentException("La capa de terreno no tiene las dimensiones del mapa");
+        }
+        this.terrain = terrain;
+    }
+
+    /**
+     * Obtiene una lista de todos los organismos presentes en el mapa (sin el terreno).
+     * En un mapa fuera del heap las plantas y los cadáveres son objetos compartidos.
      * @return Lista de todos los organismos no nulos
      */
     public List<Organism> getOrganisms() {
         List<Organism> organisms = new ArrayList<>();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (grid[i][j] != null) {
-                    organisms.add(grid[i][j]);
-                }
-            }
-        }
+        cells.collectOrganisms(organisms);
         return organisms;
     }
 
+    /**
+     * Obtiene una lista de los animales presentes en el mapa.
+     * @return Lista de los animales, fila a fila
+     */
+    public List<Animal> getAnimals() {
+        List<Animal> animals = new ArrayList<>();
+        cells.collectAnimals(animals);
+        return animals;
+    }
+
+    /**
+     * Codifica el mapa como un arreglo de un byte por celda (orden fila a fila).
+     * Cada byte es el código de especie de la celda según {@link SpeciesCodes}: el del
+     * organismo si lo hay y si no el del terreno.
+     * @param target Arreglo donde escribir los códigos (se crea uno nuevo si es null o no tiene el tamaño adecuado)
+     * @return El arreglo con los códigos de todas las celdas
+     */
+    public byte[] encodeSpeciesCodes(byte[] target) {
+        int size = rows * cols;
+        byte[] codes = (target != null && target.length == size) ? target : new byte[size];
+        terrain.copyCodes(codes);
+        PlaneKernels.best().overlay(cells.codes(), codes);
+        return codes;
+    }
+
+    /**
+     * Suma a cada contador el número de celdas de un rango de filas cuyo organismo tiene ese
+     * código (el terreno no se cuenta).
+     * @param firstRow Primera fila
+     * @param endRow Fila siguiente a la última
+     * @param counts Contadores indexados por código, de al menos {@link SpeciesCodes#codeCount()} posiciones
+     */
+    public void countSpecies(int firstRow, int endRow, long[] counts) {
+        PlaneKernels.best().histogram(cells.codes(), firstRow * cols, endRow * cols, counts);
+    }
+
+    /**
+     * Cuenta las celdas del mapa cuyo organismo tiene un código (el terreno no se cuenta).
+     * Con {@link SpeciesCodes#EMPTY} cuenta las celdas sin organismo.
+     * @param code Código de {@link SpeciesCodes}
+     * @return El número de celdas
+     */
+    public long countCells(byte code) {
+        return PlaneKernels.best().countEqual(cells.codes(), 0, rows * cols, code);
+    }
+
+    /**
+     * Plano de códigos de especie de los organismos, fila a fila, sin copiar. Solo lectura.
+     */
+    BytePlane speciesPlane() {
+        return cells.codes();
+    }
+
     /**
      * Obtiene el organismo en una posición específica del mapa.
      * @param row Fila de la posición
@@ -71,7 +227,7 @@ public class IslandMap {
      */
     public Organism getOrganismAt(int row, int col) {
         if (isValidPosition(row, col)) {
-            return grid[row][col];
+            return cells.get(row, col);
         }
         return null;
     }
@@ -84,10 +240,41 @@ public class IslandMap {
      */
     public void setOrganismAt(int row, int col, Organism organism) {
         if (isValidPosition(row, col)) {
-            grid[row][col] = organism;
+            cells.set(row, col, organism);
         }
     }
 
+    /**
+     * Marca como comida la planta de una posición.
+     * @param row Fila de la posición
+     * @param col Columna de la posición
+     * @return true si había una planta viva
+     */
+    public boolean eatPlantAt(int row, int col) {
+        return isValidPosition(row, col) && cells.eatPlant(row, col);
+    }
+
+    /**
+     * Revive la planta comida de una posición.
+     * @param row Fila de la posición
+     * @param col Columna de la posición
+     * @return true si había una planta comida
+     */
+    public boolean revivePlantAt(int row, int col) {
+        return isValidPosition(row, col) && cells.revivePlant(row, col);
+    }
+
+    /**
+     * Verifica si se puede colocar un organismo en una posición: está dentro del mapa,
+     * el terreno no la bloquea y no hay ningún organismo.
+     * @param row Fila a verificar
+     * @param col Columna a verificar
+     * @return true si la posición está libre
+     */
+    public boolean isFree(int row, int col) {
+        return isValidPosition(row, col) && !terrain.isBlocked(row, col) && cells.isEmpty(row, col);
+    }
+
     /**
      * Verifica si una posición es válida dentro del mapa.
      * @param row Fila a verificar
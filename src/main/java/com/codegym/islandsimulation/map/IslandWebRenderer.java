@@ -2,6 +2,7 @@ package com.codegym.islandsimulation.map;
 
 import com.codegym.islandsimulation.entities.Organism;
 import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.terrain.Water;
 import com.codegym.islandsimulation.threads.EatingPlantEvent;
 import com.codegym.islandsimulation.threads.HuntingEvent;
 import com.codegym.islandsimulation.threads.ReproductionEvent;
@@ -35,6 +36,9 @@ public class IslandWebRenderer {
     private List<ReproductionEvent> lastCycleReproductionEvents;
     private List<ReproductionEvent> lastCycleOffspringEvents;
 
+    // Filas opcionales de perfilado (etiqueta, valor) para el panel de estadísticas
+    private Map<String, String> profileRows = Map.of();
+
     // Un registro inmutable para representar una posición en el mapa.
     private record Position(int row, int col) {
     }
@@ -61,9 +65,9 @@ public class IslandWebRenderer {
      */
     private double getOccupationPercent() {
         int totalCells = island.getRows() * island.getCols();
-        long occupiedCells = island.getOrganisms().stream()
-                .filter(o -> o != null && !o.getEmoji().equals("💧") && !o.getEmoji().equals("☠️"))
-                .count();
+        TerrainLayer terrain = island.getTerrain();
+        long occupiedCells = totalCells - island.countCells(SpeciesCodes.EMPTY) - island.countCells(SpeciesCodes.CORPSE)
+                + terrain.countTerrainCells() - terrain.count(Water.class);
         return totalCells == 0 ? 0.0 : (occupiedCells * 100.0) / totalCells;
     }
 
@@ -82,6 +86,10 @@ public class IslandWebRenderer {
     public void setOffspringEvents(List<ReproductionEvent> events) {
         this.lastCycleOffspringEvents = events;
     }
+
+    public void setProfileRows(Map<String, String> rows) {
+        this.profileRows = rows;
+    }
     /**
      * Genera un archivo HTML que representa el estado actual de la isla,
      * incluyendo el mapa, estadísticas y un registro de eventos.
@@ -429,10 +437,13 @@ public class IslandWebRenderer {
                 .append("<div class='grid-container'>\n<div class='grid'>\n");
 
 // --- Renderizado del mapa ---
+        TerrainLayer terrain = island.getTerrain();
+        byte waterCode = SpeciesCodes.codeOf(Water.class);
         for (int row = 0; row < island.getRows(); row++) {
             for (int col = 0; col < island.getCols(); col++) {
                 Organism organism = island.getOrganismAt(row, col);
-                String emoji = (organism == null) ? " " : organism.getEmoji();
+                byte terrainCode = terrain.getCode(row, col);
+                String emoji = (organism != null) ? organism.getEmoji() : SpeciesCodes.emojiOf(terrainCode);
                 String cellStyle = "cell";
                 String tooltip = "";
 
@@ -449,7 +460,7 @@ public class IslandWebRenderer {
                 } else if (eatingPlantPositions.contains(currentPos)) {
                     cellStyle += " eatingPlant";
                     tooltip = "Comiendo planta";
-                } else if ("💧".equals(emoji)) {
+                } else if (organism == null && terrainCode == waterCode) {
                     cellStyle += " water-cell";
                     tooltip = "Agua";
                 } else if ("☠️".equals(emoji)) {
@@ -491,7 +502,7 @@ public class IslandWebRenderer {
         html.append("<div class='side-panel'>\n");
 
 // --- Panel de estadísticas ---
-        long deathsThisCycle = island.getOrganisms().stream().filter(o -> o.getEmoji().equals("☠️")).count();
+        long deathsThisCycle = island.countCells(SpeciesCodes.CORPSE);
         int huntsThisCycle = lastCycleHuntingEvents != null ? lastCycleHuntingEvents.size() : 0;
         int reproductionsThisCycle = lastCycleReproductionEvents != null ? lastCycleReproductionEvents.size() : 0;
         int foodEatenThisCycle = lastCycleEatingPlantEvents != null ? lastCycleEatingPlantEvents.size() : 0;
@@ -511,8 +522,14 @@ public class IslandWebRenderer {
                 .append("<li>").append("💀 Animales muertos:").append(" <span>").append(deathsThisCycle).append("</span></li>\n")
                 .append("<li>").append("⚔️ Acciones de Caza:").append(" <span>").append(huntsThisCycle).append("</span></li>\n")
                 .append("<li>").append("🌿 Plantas consumidas:").append(" <span>").append(foodEatenThisCycle).append("</span></li>\n")
-                .append("</ul>\n")
-                .append("</div>\n"); // stats
+                .append("</ul>\n");
+        if (!profileRows.isEmpty()) {
+            html.append("<hr class='divider'>\n")
+                    .append("<h4>").append(messages.get("profile")).append("</h4>\n");
+            profileRows.forEach((key, value) -> html.append("<div class='stat-row'><span>").append(messages.profileLabel(key))
+                    .append(":</span><span>").append(value).append("</span></div>\n"));
+        }
+        html.append("</div>\n"); // stats
 
 // --- Panel de eventos (Log consolidado) ---
         html.append("<div class='log-panel'>\n")
@@ -691,11 +708,8 @@ public class IslandWebRenderer {
         Set<Position> positions = new HashSet<>();
         if (lastCycleReproductionEvents != null) {
             for (ReproductionEvent event : lastCycleReproductionEvents) {
-                int[] posParent1 = MapUtils.findOrganismPosition(island, event.parent1());
-                int[] posParent2 = MapUtils.findOrganismPosition(island, event.parent2());
-
-                if (posParent1 != null) positions.add(new Position(posParent1[0], posParent1[1]));
-                if (posParent2 != null) positions.add(new Position(posParent2[0], posParent2[1]));
+                positions.add(new Position(event.parent1Row(), event.parent1Col()));
+                positions.add(new Position(event.parent2Row(), event.parent2Col()));
             }
         }
         return positions;
@@ -0,0 +1,125 @@
+package com.codegym.islandsimulation.map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_MASK;
+import static com.codegym.islandsimulation.map.CellMemory.BLOCK_SHIFT;
+
+/**
+ * Plano de un entero largo por elemento: como {@link IntPlane}, para máscaras de bits y
+ * reservas de 64 bits.
+ */
+public abstract class LongPlane {
+    private final int length;
+
+    private LongPlane(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Número de elementos del plano.
+     */
+    public final int length() {
+        return length;
+    }
+
+    public abstract long get(int index);
+
+    public abstract void set(int index, long value);
+
+    /**
+     * Lectura con semántica volátil.
+     */
+    public abstract long getVolatile(int index);
+
+    /**
+     * Sustituye un elemento si tiene el valor esperado, de forma atómica.
+     * @return true si se ha sustituido
+     */
+    public abstract boolean compareAndSet(int index, long expected, long value);
+
+    /**
+     * Pone todos los elementos a un valor.
+     */
+    public abstract void fill(long value);
+
+    static final class Heap extends LongPlane {
+        private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] values;
+
+        Heap(int length) {
+            super(length);
+            this.values = new long[length];
+        }
+
+        @Override
+        public long get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public void set(int index, long value) {
+            values[index] = value;
+        }
+
+        @Override
+        public long getVolatile(int index) {
+            return (long) ELEMENTS.getVolatile(values, index);
+        }
+
+        @Override
+        public boolean compareAndSet(int index, long expected, long value) {
+            return ELEMENTS.compareAndSet(values, index, expected, value);
+        }
+
+        @Override
+        public void fill(long value) {
+            Arrays.fill(values, value);
+        }
+    }
+
+    static final class OffHeap extends LongPlane {
+        private static final VarHandle ELEMENTS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+        private final ByteBuffer[] blocks;
+
+        OffHeap(ByteBuffer[] blocks, int length) {
+            super(length);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public long get(int index) {
+            return (long) ELEMENTS.get(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 3);
+        }
+
+        @Override
+        public void set(int index, long value) {
+            ELEMENTS.set(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 3, value);
+        }
+
+        @Override
+        public long getVolatile(int index) {
+            return (long) ELEMENTS.getVolatile(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 3);
+        }
+
+        @Override
+        public boolean compareAndSet(int index, long expected, long value) {
+            return ELEMENTS.compareAndSet(blocks[index >>> BLOCK_SHIFT], (index & BLOCK_MASK) << 3, expected, value);
+        }
+
+        @Override
+        public void fill(long value) {
+            for (ByteBuffer block : blocks) {
+                for (int offset = 0; offset < block.capacity(); offset += Long.BYTES) {
+                    ELEMENTS.set(block, offset, value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.codegym.islandsimulation.map;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banda horizontal de una isla repartida entre varios motores. Cada motor simula sus
+ * filas propias y guarda además unas filas de borde (halo) arriba y abajo, copia de las
+ * filas vecinas de las otras bandas, para que sus animales vean lo que hay al otro lado.
+ *
+ * El mapa local de la banda tiene {@link #localRows()} filas: primero el halo superior,
+ * después las filas propias y por último el halo inferior.
+ * @param firstRow Fila de la isla en la que empiezan las filas propias
+ * @param rows Número de filas propias
+ * @param haloTop Filas de halo por encima (0 en el borde superior de la isla)
+ * @param haloBottom Filas de halo por debajo (0 en el borde inferior de la isla)
+ */
+public record MapBand(int firstRow, int rows, int haloTop, int haloBottom) {
+
+    public MapBand {
+        if (firstRow < 0 || rows < 1 || haloTop < 0 || haloBottom < 0) {
+            throw new IllegalArgumentException("Banda no válida: fila " + firstRow + ", " + rows + " filas");
+        }
+    }
+
+    /**
+     * Divide las filas de una isla en bandas contiguas de tamaño parecido.
+     * @param totalRows Filas de la isla
+     * @param count Número de bandas
+     * @param halo Filas de halo a cada lado entre bandas vecinas
+     * @return Las bandas, de arriba abajo
+     */
+    public static List<MapBand> split(int totalRows, int count, int halo) {
+        if (count < 1 || totalRows / count < Math.max(1, halo)) {
+            throw new IllegalArgumentException("Cada banda necesita al menos " + Math.max(1, halo) + " filas propias");
+        }
+        List<MapBand> bands = new ArrayList<>(count);
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = (int) ((long) totalRows * (i + 1) / count);
+            bands.add(new MapBand(start, end - start, i == 0 ? 0 : halo, i == count - 1 ? 0 : halo));
+            start = end;
+        }
+        return bands;
+    }
+
+    /**
+     * Filas del mapa local: halos más filas propias.
+     */
+    public int localRows() {
+        return haloTop + rows + haloBottom;
+    }
+
+    /**
+     * Primera fila propia en el mapa local.
+     */
+    public int firstOwnedRow() {
+        return haloTop;
+    }
+
+    /**
+     * Fila local siguiente a la última propia.
+     */
+    public int endOwnedRow() {
+        return haloTop + rows;
+    }
+
+    /**
+     * Fila de la isla en la que empieza el mapa local (la primera del halo superior).
+     */
+    public int firstLocalRow() {
+        return firstRow - haloTop;
+    }
+
+    /**
+     * Convierte una fila del mapa local en fila de la isla.
+     */
+    public int toIslandRow(int localRow) {
+        return firstRow - haloTop + localRow;
+    }
+
+    /**
+     * Convierte una fila de la isla en fila del mapa local.
+     */
+    public int toLocalRow(int islandRow) {
+        return islandRow - firstRow + haloTop;
+    }
+
+    /**
+     * Indica si una fila local es propia de la banda.
+     */
+    public boolean isOwned(int localRow) {
+        return localRow >= haloTop && localRow < haloTop + rows;
+    }
+
+    /**
+     * Semilla con la que se puebla la banda: distinta en cada banda de una misma isla.
+     * @param seed Semilla de la isla
+     * @return Semilla de la banda
+     */
+    public long seed(long seed) {
+        long z = seed + (firstRow + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
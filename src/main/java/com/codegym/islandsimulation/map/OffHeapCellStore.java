@@ -0,0 +1,215 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Corpse;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Almacenamiento fuera del heap: dos planos por celda reservados en una {@link CellMemory}
+ * directa o mapeada sobre un archivo.
+ * <pre>
+ * códigos  byte  código de especie ({@link SpeciesCodes}): EMPTY, el de la especie, CORPSE o EATEN_PLANT
+ * asas     int   asa del animal en la tabla de animales; en una planta comida, el código de su
+ *                especie para poder revivirla; 0 en el resto
+ * </pre>
+ * El plano de códigos es a la vez el plano de especies del mapa ({@link #codes()}), así que los
+ * recuentos de {@link PlaneKernels} recorren directamente los bytes del almacenamiento.
+ *
+ * Solo los animales, que tienen estado propio y comportamiento, son objetos del heap, y la
+ * celda guarda un asa hacia ellos. Las plantas, los cadáveres y las celdas vacías viven solo
+ * en los planos: al leerlos se devuelve un objeto compartido por especie y estado, que no
+ * debe modificarse (las plantas se comen y reviven con {@link #eatPlant} y {@link #revivePlant}).
+ * Así el heap crece con el número de animales y no con el de celdas.
+ */
+final class OffHeapCellStore implements CellStore {
+    // Tabla de animales por bloques: crece sin copiar ni mover los bloques ya creados
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int MAX_CHUNKS = 1 << (31 - CHUNK_SHIFT);
+
+    private final int rows;
+    private final int cols;
+    private final BytePlane codes;
+    private final IntPlane handles;
+
+    // Objetos compartidos por código: organismos sin estado propio y plantas comidas
+    private final Organism[] shared;
+    private final Organism[] sharedEaten;
+    private final boolean[] plantCodes;
+
+    // Animales vivos en el mapa, por asa (el asa 0 no se usa)
+    private final Animal[][] animalChunks = new Animal[MAX_CHUNKS][];
+    private int nextHandle = 1;
+    private int[] freeHandles = new int[1024];
+    private int freeCount;
+
+    /**
+     * Crea el almacenamiento con sus planos en una memoria fuera del heap.
+     * @param memory Memoria directa o mapeada del mapa
+     */
+    OffHeapCellStore(int rows, int cols, CellMemory memory) {
+        if (!memory.isOffHeap()) {
+            throw new IllegalArgumentException("El almacenamiento fuera del heap necesita una memoria fuera del heap");
+        }
+        int cells = IslandMap.cellCount(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.codes = memory.allocateBytes(cells);
+        this.handles = memory.allocateInts(cells);
+
+        int codeCount = SpeciesCodes.codeCount();
+        this.shared = new Organism[codeCount];
+        this.sharedEaten = new Organism[codeCount];
+        this.plantCodes = new boolean[codeCount];
+        shared[SpeciesCodes.CORPSE] = Corpse.INSTANCE;
+        for (int code = 0; code < codeCount; code++) {
+            Class<? extends Organism> species = SpeciesCodes.speciesOf(code);
+            if (species == null || Animal.class.isAssignableFrom(species)) {
+                continue;
+            }
+            shared[code] = OrganismFactory.createOrganism(species);
+            if (shared[code] instanceof Plant) {
+                Plant eaten = (Plant) OrganismFactory.createOrganism(species);
+                eaten.getEaten();
+                sharedEaten[code] = eaten;
+                plantCodes[code] = true;
+            }
+        }
+    }
+
+    @Override
+    public BytePlane codes() {
+        return codes;
+    }
+
+    @Override
+    public Organism get(int row, int col) {
+        int cell = row * cols + col;
+        byte code = codes.get(cell);
+        if (code == SpeciesCodes.EMPTY) {
+            return null;
+        }
+        int handle = handles.get(cell);
+        if (code == SpeciesCodes.EATEN_PLANT) {
+            return sharedEaten[handle];
+        }
+        if (handle != 0) {
+            return animalChunks[handle >>> CHUNK_SHIFT][handle & CHUNK_MASK];
+        }
+        return shared[code];
+    }
+
+    @Override
+    public void set(int row, int col, Organism organism) {
+        int cell = row * cols + col;
+        int handle = animalHandle(cell);
+        if (organism instanceof Animal animal) {
+            if (handle == 0) {
+                handle = allocateHandle();
+                handles.set(cell, handle);
+            }
+            animalChunks[handle >>> CHUNK_SHIFT][handle & CHUNK_MASK] = animal;
+            codes.set(cell, SpeciesCodes.codeOf(animal.getClass()));
+            return;
+        }
+        if (handle != 0) {
+            releaseHandle(handle);
+        }
+        byte code = SpeciesCodes.codeOf(organism);
+        if (organism != null && code == SpeciesCodes.EMPTY) {
+            throw new IllegalArgumentException("Organismo sin código de especie: " + organism.getClass().getSimpleName());
+        }
+        // Una planta comida guarda el código de su especie para revivir
+        handles.set(cell, code == SpeciesCodes.EATEN_PLANT ? SpeciesCodes.codeOf(organism.getClass()) : 0);
+        codes.set(cell, code);
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return codes.get(row * cols + col) == SpeciesCodes.EMPTY;
+    }
+
+    @Override
+    public boolean eatPlant(int row, int col) {
+        int cell = row * cols + col;
+        byte code = codes.get(cell);
+        if (!plantCodes[code & 0xFF]) {
+            return false;
+        }
+        handles.set(cell, code);
+        codes.set(cell, SpeciesCodes.EATEN_PLANT);
+        return true;
+    }
+
+    @Override
+    public boolean revivePlant(int row, int col) {
+        int cell = row * cols + col;
+        if (codes.get(cell) != SpeciesCodes.EATEN_PLANT) {
+            return false;
+        }
+        codes.set(cell, (byte) handles.get(cell));
+        handles.set(cell, 0);
+        return true;
+    }
+
+    @Override
+    public void collectOrganisms(List<Organism> target) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Organism organism = get(row, col);
+                if (organism != null) {
+                    target.add(organism);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void collectAnimals(List<Animal> target) {
+        int cells = rows * cols;
+        for (int cell = 0; cell < cells; cell++) {
+            int handle = animalHandle(cell);
+            if (handle != 0) {
+                target.add(animalChunks[handle >>> CHUNK_SHIFT][handle & CHUNK_MASK]);
+            }
+        }
+    }
+
+    /**
+     * Asa del animal de una celda, o 0 si no tiene animal.
+     */
+    private int animalHandle(int cell) {
+        return codes.get(cell) == SpeciesCodes.EATEN_PLANT ? 0 : handles.get(cell);
+    }
+
+    /**
+     * Reserva un asa; puede llamarse desde varios hilos de simulación a la vez.
+     */
+    private synchronized int allocateHandle() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (nextHandle == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Demasiados animales en el mapa");
+        }
+        int handle = nextHandle++;
+        int chunk = handle >>> CHUNK_SHIFT;
+        if (animalChunks[chunk] == null) {
+            animalChunks[chunk] = new Animal[1 << CHUNK_SHIFT];
+        }
+        return handle;
+    }
+
+    private synchronized void releaseHandle(int handle) {
+        animalChunks[handle >>> CHUNK_SHIFT][handle & CHUNK_MASK] = null;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+}
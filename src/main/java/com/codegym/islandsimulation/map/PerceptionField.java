@@ -0,0 +1,278 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Percepción de presas a distancia mediante tablas de sumas acumuladas (summed-area tables).
+ *
+ * Hay una tabla por grupo de presas: las especies que caza un depredador. Los depredadores
+ * con la misma dieta comparten grupo. La entrada (r, c) de una tabla es el número de presas
+ * del grupo en el rectángulo [0, r) x [0, c), de modo que el número de presas de cualquier
+ * rectángulo sale de cuatro lecturas: saber si hay presas a distancia r o hacia qué lado
+ * están cuesta lo mismo sea cual sea el radio.
+ *
+ * Las tablas se reconstruyen una vez por ciclo con {@link #rebuild(SimulationThreadPool)}
+ * desde el plano de códigos de especie del mapa, en dos pasadas paralelas: sumas por filas en
+ * franjas de filas y después sumas por columnas en franjas de columnas. Las consultas ven el
+ * mapa tal como estaba al reconstruir, aunque los animales se muevan después. Las tablas se
+ * reservan en la {@link CellMemory} del mapa.
+ */
+public final class PerceptionField {
+    // Máximo de grupos: la pertenencia de cada código se guarda en una máscara de bits
+    private static final int MAX_GROUPS = Integer.SIZE;
+
+    private final IslandMap map;
+    private final int radius;
+    private final int rows;
+    private final int cols;
+
+    // Ancho de una fila de las tablas (una columna más que el mapa)
+    private final int stride;
+
+    // Grupo de presas de cada depredador, por código de especie (-1 si no caza)
+    private final int[] groupByCode;
+
+    // Grupos a los que pertenece cada código de especie, como máscara de bits
+    private final int[] membership;
+
+    // Tabla de sumas acumuladas de cada grupo, (rows + 1) x (cols + 1)
+    private final IntPlane[] tables;
+
+    /**
+     * Crea las tablas de percepción de un mapa (vacías hasta la primera reconstrucción).
+     * @param map Mapa cuyas presas se perciben
+     * @param radius Radio de percepción en casillas, contando diagonales
+     * @param diets Presas de cada especie depredadora
+     */
+    public PerceptionField(IslandMap map, int radius,
+                           Map<Class<? extends Organism>, ? extends Collection<Class<? extends Organism>>> diets) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("El radio de percepción debe ser al menos 1");
+        }
+        this.map = map;
+        this.radius = radius;
+        this.rows = map.getRows();
+        this.cols = map.getCols();
+        this.stride = cols + 1;
+        // Las tablas tienen una fila y una columna más que el mapa
+        if ((long) (rows + 1) * stride > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El mapa de " + rows + "x" + cols
+                    + " es demasiado grande para las tablas de percepción de " + (rows + 1) + "x" + stride);
+        }
+        this.groupByCode = new int[SpeciesCodes.codeCount()];
+        this.membership = new int[SpeciesCodes.codeCount()];
+        Arrays.fill(groupByCode, -1);
+
+        List<Set<Class<? extends Organism>>> groups = new ArrayList<>();
+        for (Map.Entry<Class<? extends Organism>, ? extends Collection<Class<? extends Organism>>> diet : diets.entrySet()) {
+            Set<Class<? extends Organism>> prey = new HashSet<>(diet.getValue());
+            int group = groups.indexOf(prey);
+            if (group < 0) {
+                if (groups.size() == MAX_GROUPS) {
+                    throw new IllegalArgumentException("Demasiados grupos de presas: " + diets.size());
+                }
+                group = groups.size();
+                groups.add(prey);
+                for (Class<? extends Organism> species : prey) {
+                    membership[SpeciesCodes.codeOf(species) & 0xFF] |= 1 << group;
+                }
+            }
+            groupByCode[SpeciesCodes.codeOf(diet.getKey()) & 0xFF] = group;
+        }
+        // Las especies sin registrar tienen el código EMPTY: ni cazan ni son presa
+        membership[SpeciesCodes.EMPTY] = 0;
+        groupByCode[SpeciesCodes.EMPTY] = -1;
+
+        this.tables = new IntPlane[groups.size()];
+        for (int group = 0; group < tables.length; group++) {
+            tables[group] = map.getCellMemory().allocateInts((rows + 1) * stride);
+        }
+    }
+
+    /**
+     * Obtiene el radio de percepción.
+     * @return El radio en casillas
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Obtiene el número de grupos de presas (y de tablas).
+     * @return El número de grupos
+     */
+    public int getGroupCount() {
+        return tables.length;
+    }
+
+    /**
+     * Memoria que ocupan las tablas.
+     * @return Bytes de las tablas
+     */
+    public long getTableBytes() {
+        return (long) tables.length * (rows + 1) * stride * Integer.BYTES;
+    }
+
+    /**
+     * Obtiene el grupo de presas de un depredador.
+     * @param predator El depredador
+     * @return El índice del grupo, o -1 si su especie no caza
+     */
+    public int groupOf(Organism predator) {
+        return groupByCode[SpeciesCodes.codeOf(predator.getClass()) & 0xFF];
+    }
+
+    /**
+     * Reconstruye todas las tablas a partir del estado actual del mapa.
+     * @param threadPool Pool de simulación donde se reparten las franjas
+     */
+    public void rebuild(SimulationThreadPool threadPool) {
+        if (tables.length == 0) {
+            return;
+        }
+        BytePlane plane = map.speciesPlane();
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        // Primera pasada: sumas acumuladas de cada fila, por franjas de filas
+        int rowStrips = Math.max(1, Math.min(rows, parallelism * 4));
+        int rowsPerStrip = (rows + rowStrips - 1) / rowStrips;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int start = 0; start < rows; start += rowsPerStrip) {
+            final int from = start;
+            final int to = Math.min(rows, start + rowsPerStrip);
+            tasks.add(() -> {
+                sumRows(plane, from, to);
+                return null;
+            });
+        }
+        invokeAll(threadPool, tasks);
+
+        // Segunda pasada: acumula cada fila sobre la anterior, por franjas de columnas
+        int colStrips = Math.max(1, Math.min(cols, parallelism * 4));
+        int colsPerStrip = (cols + colStrips - 1) / colStrips;
+        tasks.clear();
+        for (int start = 1; start <= cols; start += colsPerStrip) {
+            final int from = start;
+            final int to = Math.min(cols + 1, start + colsPerStrip);
+            tasks.add(() -> {
+                sumColumns(from, to);
+                return null;
+            });
+        }
+        invokeAll(threadPool, tasks);
+    }
+
+    /**
+     * Cuenta las presas de un grupo en un rectángulo, recortado a los límites del mapa.
+     * @param group Grupo de presas
+     * @param firstRow Primera fila
+     * @param firstCol Primera columna
+     * @param lastRow Última fila (incluida)
+     * @param lastCol Última columna (incluida)
+     * @return El número de presas del rectángulo
+     */
+    public int count(int group, int firstRow, int firstCol, int lastRow, int lastCol) {
+        int top = Math.max(0, firstRow);
+        int left = Math.max(0, firstCol);
+        int bottom = Math.min(rows, lastRow + 1);
+        int right = Math.min(cols, lastCol + 1);
+        if (top >= bottom || left >= right) {
+            return 0;
+        }
+        IntPlane table = tables[group];
+        return table.get(bottom * stride + right) - table.get(top * stride + right)
+                - table.get(bottom * stride + left) + table.get(top * stride + left);
+    }
+
+    /**
+     * Indica si hay alguna presa de un grupo a cierta distancia de una celda (la propia celda incluida).
+     * @param group Grupo de presas
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @param distance Distancia en casillas, contando diagonales
+     * @return true si hay al menos una presa
+     */
+    public boolean anyWithin(int group, int row, int col, int distance) {
+        return count(group, row - distance, col - distance, row + distance, col + distance) > 0;
+    }
+
+    /**
+     * Calcula hacia dónde moverse para acercarse a las presas de un grupo dentro del radio de
+     * percepción: hacia la mitad (norte o sur, oeste o este) del cuadrado con más presas, de
+     * modo que el paso apunta al cuadrante más poblado.
+     * @param group Grupo de presas
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return Array con el desplazamiento {fila, columna}, cada uno -1, 0 o 1 ({0, 0} si las presas
+     *         están repartidas por igual), o null si no hay presas dentro del radio
+     */
+    public int[] directionTo(int group, int row, int col) {
+        int north = count(group, row - radius, col - radius, row - 1, col + radius);
+        int south = count(group, row + 1, col - radius, row + radius, col + radius);
+        int west = count(group, row - radius, col - radius, row + radius, col - 1);
+        int east = count(group, row - radius, col + 1, row + radius, col + radius);
+        if (north + south + west + east == 0) {
+            return null;
+        }
+        return new int[]{Integer.signum(south - north), Integer.signum(east - west)};
+    }
+
+    /**
+     * Escribe en las tablas las sumas acumuladas de las filas [from, to) de cada grupo.
+     */
+    private void sumRows(BytePlane plane, int from, int to) {
+        int groups = tables.length;
+        int[] running = new int[groups];
+        for (int row = from; row < to; row++) {
+            Arrays.fill(running, 0);
+            int cell = row * cols;
+            int entry = (row + 1) * stride + 1;
+            for (int col = 0; col < cols; col++, cell++, entry++) {
+                int bits = membership[plane.get(cell) & 0xFF];
+                for (int group = 0; group < groups; group++) {
+                    running[group] += (bits >>> group) & 1;
+                    tables[group].set(entry, running[group]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Acumula hacia abajo las columnas [from, to) de las tablas (la columna 0 es siempre cero).
+     */
+    private void sumColumns(int from, int to) {
+        for (IntPlane table : tables) {
+            for (int row = 2; row <= rows; row++) {
+                int entry = row * stride;
+                for (int col = from; col < to; col++) {
+                    table.set(entry + col, table.get(entry + col) + table.get(entry - stride + col));
+                }
+            }
+        }
+    }
+
+    private static void invokeAll(SimulationThreadPool threadPool, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : threadPool.submitAllSimulationTasks(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrucción de las tablas de percepción interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error reconstruyendo las tablas de percepción", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.codegym.islandsimulation.map;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Operaciones sobre planos de un byte por celda (códigos de {@link SpeciesCodes}): histogramas
+ * por código, recuentos de un código y superposición de dos planos. Sustituyen a los recorridos
+ * de todas las celdas a través de referencias a organismos.
+ *
+ * Los planos pueden estar en el heap o fuera de él ({@link BytePlane}); fuera del heap las
+ * operaciones recorren sus bloques uno a uno, sin copiarlos.
+ *
+ * La implementación por defecto es la escalar. La de la Vector API del JDK es opcional: se
+ * compila con el perfil {@code vector} ({@code mvn -Pvector compile}) y se usa si además el
+ * módulo {@code jdk.incubator.vector} está cargado ({@code java --add-modules jdk.incubator.vector ...}),
+ * salvo que se desactive con {@code -Disland.vector=false}.
+ */
+public abstract class PlaneKernels {
+    // Implementación con la Vector API, o null si el módulo no está disponible
+    private static final PlaneKernels VECTOR = loadVector();
+
+    /**
+     * Suma a cada contador las celdas del rango [from, to) con ese código.
+     * @param plane Plano de códigos
+     * @param from Primera celda
+     * @param to Celda siguiente a la última
+     * @param counts Contadores indexados por código; los códigos fuera de rango no se cuentan
+     */
+    public abstract void histogram(byte[] plane, int from, int to, long[] counts);
+
+    /**
+     * Cuenta las celdas del rango [from, to) con un código.
+     * @param plane Plano de códigos
+     * @param from Primera celda
+     * @param to Celda siguiente a la última
+     * @param code Código a contar
+     * @return El número de celdas con ese código
+     */
+    public abstract long countEqual(byte[] plane, int from, int to, byte code);
+
+    /**
+     * Copia sobre el destino las celdas del plano que no están vacías (EMPTY).
+     * @param plane Plano superior
+     * @param target Plano inferior, de la misma longitud, que recibe el resultado
+     */
+    public abstract void overlay(byte[] plane, byte[] target);
+
+    /**
+     * Suma a cada contador las celdas del rango [from, to) de un plano con ese código.
+     * @param plane Plano de códigos, en el heap o fuera de él
+     * @param from Primera celda
+     * @param to Celda siguiente a la última
+     * @param counts Contadores indexados por código; los códigos fuera de rango no se cuentan
+     */
+    public final void histogram(BytePlane plane, int from, int to, long[] counts) {
+        plane.histogram(this, from, to, counts);
+    }
+
+    /**
+     * Cuenta las celdas del rango [from, to) de un plano con un código.
+     * @param plane Plano de códigos, en el heap o fuera de él
+     * @param from Primera celda
+     * @param to Celda siguiente a la última
+     * @param code Código a contar
+     * @return El número de celdas con ese código
+     */
+    public final long countEqual(BytePlane plane, int from, int to, byte code) {
+        return plane.countEqual(this, from, to, code);
+    }
+
+    /**
+     * Copia sobre el destino las celdas de un plano que no están vacías (EMPTY).
+     * @param plane Plano superior, en el heap o fuera de él
+     * @param target Plano inferior, de al menos la misma longitud, que recibe el resultado
+     */
+    public final void overlay(BytePlane plane, byte[] target) {
+        plane.overlay(this, target);
+    }
+
+    /**
+     * Histograma del rango [from, to) de un bloque de un plano fuera del heap.
+     */
+    abstract void histogram(ByteBuffer block, int from, int to, long[] counts);
+
+    /**
+     * Recuento de un código en el rango [from, to) de un bloque de un plano fuera del heap.
+     */
+    abstract long countEqual(ByteBuffer block, int from, int to, byte code);
+
+    /**
+     * Superpone un bloque entero de un plano fuera del heap a partir de una posición del destino.
+     */
+    abstract void overlay(ByteBuffer block, byte[] target, int targetOffset);
+
+    /**
+     * Implementación escalar, disponible siempre.
+     */
+    public static PlaneKernels scalar() {
+        return ScalarPlaneKernels.INSTANCE;
+    }
+
+    /**
+     * Implementación con la Vector API.
+     * @return La implementación, o null si el módulo no está cargado
+     */
+    public static PlaneKernels vector() {
+        return VECTOR;
+    }
+
+    /**
+     * La implementación más rápida disponible.
+     */
+    public static PlaneKernels best() {
+        return VECTOR != null ? VECTOR : ScalarPlaneKernels.INSTANCE;
+    }
+
+    /**
+     * Nombre de la implementación, para los informes.
+     */
+    public abstract String getName();
+
+    private static PlaneKernels loadVector() {
+        if (!Boolean.parseBoolean(System.getProperty("island.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // Se carga por nombre: sin el perfil vector no existe, y sin el módulo no se puede enlazar
+            return (PlaneKernels) Class.forName(PlaneKernels.class.getPackageName() + ".VectorPlaneKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.output.OutputSink;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Exportador de fotogramas PNG para generar time-lapses de simulaciones largas.
+ * Cada N ciclos toma una instantánea compacta del mapa (un byte por celda) y la escribe
+ * como PNG de color indexado, con un píxel o un bloque de píxeles por celda y la paleta
+ * fija de {@link SpeciesCodes}.
+ * La codificación se hace fuera del hilo de simulación: las filas se reparten en franjas
+ * que se filtran y comprimen en paralelo, y los flujos deflate de cada franja se concatenan
+ * en un único flujo zlib (cada franja termina con SYNC_FLUSH y los Adler-32 se combinan).
+ * Si el fotograma anterior aún se está escribiendo, el nuevo se descarta en lugar de
+ * frenar la simulación.
+ */
+public class PngFrameExporter {
+    // Firma de cualquier archivo PNG
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    // Cabecera zlib: deflate con ventana de 32K, sin diccionario
+    private static final byte[] ZLIB_HEADER = {0x78, 0x01};
+
+    // Tipos de filtro PNG usados
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+
+    // Módulo de la suma Adler-32
+    private static final long ADLER_BASE = 65521;
+
+    private final SimulationThreadPool threadPool;
+    private final OutputSink sink;
+    private final Path outputDirectory;
+    private final int everyCycles;
+    private final int blockSize;
+    private final int compressionLevel;
+
+    // Instantánea reutilizable; solo se reescribe cuando no hay un fotograma en curso
+    private byte[] snapshot;
+
+    // Indica si hay un fotograma codificándose
+    private final AtomicBoolean exportInProgress = new AtomicBoolean(false);
+
+    // Estadísticas de exportación
+    private final AtomicLong framesWritten = new AtomicLong(0);
+    private final AtomicLong framesSkipped = new AtomicLong(0);
+
+    /**
+     * Constructor del exportador.
+     * @param threadPool Pool de la simulación, donde se comprimen las franjas
+     * @param sink Salida en cuyo hilo se escribe cada fotograma
+     * @param outputDirectory Directorio donde se escriben los fotogramas
+     * @param everyCycles Cada cuántos ciclos se exporta un fotograma
+     * @param blockSize Tamaño en píxeles del lado de cada celda
+     */
+    public PngFrameExporter(SimulationThreadPool threadPool, OutputSink sink, Path outputDirectory, int everyCycles, int blockSize) {
+        if (everyCycles < 1 || blockSize < 1) {
+            throw new IllegalArgumentException("El intervalo y el tamaño de bloque deben ser positivos");
+        }
+        this.threadPool = threadPool;
+        this.sink = sink;
+        this.outputDirectory = outputDirectory;
+        this.everyCycles = everyCycles;
+        this.blockSize = blockSize;
+        this.compressionLevel = Deflater.BEST_SPEED;
+    }
+
+    /**
+     * Notifica el final de un ciclo. Si corresponde, toma la instantánea del mapa
+     * y programa su codificación en segundo plano.
+     * Debe llamarse desde el hilo de simulación, con el mapa en un estado consistente.
+     * @param cycle El número de ciclo que acaba de terminar
+     * @param map El mapa de la isla
+     */
+    public void onCycleCompleted(int cycle, IslandMap map) {
+        if (cycle % everyCycles != 0) {
+            return;
+        }
+        if (!exportInProgress.compareAndSet(false, true)) {
+            framesSkipped.incrementAndGet();
+            return;
+        }
+
+        snapshot = map.encodeSpeciesCodes(snapshot);
+        final byte[] codes = snapshot;
+        final int rows = map.getRows();
+        final int cols = map.getCols();
+
+        boolean queued = sink.offer(() -> {
+            try {
+                writeFrame(cycle, codes, rows, cols);
+                framesWritten.incrementAndGet();
+            } catch (IOException e) {
+                System.err.println("Error exportando fotograma PNG: " + e.getMessage());
+                throw e;
+            } finally {
+                exportInProgress.set(false);
+            }
+        });
+        if (!queued) {
+            // La salida ya está cerrada: el fotograma no se escribirá
+            exportInProgress.set(false);
+            framesSkipped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Número de fotogramas escritos en disco.
+     * @return El número de fotogramas escritos
+     */
+    public long getFramesWritten() {
+        return framesWritten.get();
+    }
+
+    /**
+     * Número de fotogramas descartados porque el anterior seguía en curso.
+     * @return El número de fotogramas descartados
+     */
+    public long getFramesSkipped() {
+        return framesSkipped.get();
+    }
+
+    /**
+     * Codifica y escribe un fotograma completo.
+     */
+    private void writeFrame(int cycle, byte[] codes, int rows, int cols) throws IOException {
+        int width = cols * blockSize;
+        int height = rows * blockSize;
+
+        List<byte[]> compressedStrips = new ArrayList<>();
+        long adler = encodeStrips(codes, rows, cols, width, height, compressedStrips);
+
+        Files.createDirectories(outputDirectory);
+        Path target = outputDirectory.resolve(String.format("frame_%08d.png", cycle));
+        Path temporary = outputDirectory.resolve(target.getFileName() + ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            out.write(PNG_SIGNATURE);
+            writeChunk(out, "IHDR", buildHeader(width, height));
+            writeChunk(out, "PLTE", buildPalette());
+
+            // Un IDAT por franja: el primero lleva la cabecera zlib y el último el Adler-32
+            for (int i = 0; i < compressedStrips.size(); i++) {
+                byte[] strip = compressedStrips.get(i);
+                boolean first = i == 0;
+                boolean last = i == compressedStrips.size() - 1;
+                int length = strip.length + (first ? ZLIB_HEADER.length : 0) + (last ? 4 : 0);
+                byte[] data = new byte[length];
+                int offset = 0;
+                if (first) {
+                    System.arraycopy(ZLIB_HEADER, 0, data, 0, ZLIB_HEADER.length);
+                    offset = ZLIB_HEADER.length;
+                }
+                System.arraycopy(strip, 0, data, offset, strip.length);
+                if (last) {
+                    writeInt(data, length - 4, (int) adler);
+                }
+                writeChunk(out, "IDAT", data);
+            }
+            writeChunk(out, "IEND", new byte[0]);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reparte las filas de la imagen en franjas, las filtra y comprime en paralelo.
+     * @return El Adler-32 del flujo sin comprimir completo
+     */
+    private long encodeStrips(byte[] codes, int rows, int cols, int width, int height, List<byte[]> output) throws IOException {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int stripCount = Math.max(1, Math.min(height, parallelism * 4));
+        int rowsPerStrip = (height + stripCount - 1) / stripCount;
+        // Las franjas empiezan en un límite de celda para que el filtro Up sea trivial de decidir
+        rowsPerStrip = ((rowsPerStrip + blockSize - 1) / blockSize) * blockSize;
+
+        List<Callable<StripResult>> tasks = new ArrayList<>();
+        for (int startRow = 0; startRow < height; startRow += rowsPerStrip) {
+            final int from = startRow;
+            final int to = Math.min(height, startRow + rowsPerStrip);
+            final boolean lastStrip = to == height;
+            tasks.add(() -> compressStrip(codes, cols, width, from, to, lastStrip));
+        }
+
+        List<Future<StripResult>> futures = threadPool.submitAllSimulationTasks(tasks);
+        long adler = 1L;
+        try {
+            for (Future<StripResult> future : futures) {
+                StripResult result = future.get();
+                output.add(result.compressed());
+                adler = combineAdler32(adler, result.adler(), result.rawLength());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupción durante la codificación del fotograma", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error codificando una franja del fotograma", e.getCause());
+        }
+        return adler;
+    }
+
+    /**
+     * Filtra y comprime una franja de filas de la imagen.
+     * Las filas idénticas a la anterior (las repetidas por el tamaño de bloque) usan el
+     * filtro Up, que las convierte en ceros; el resto usa el filtro None, recomendado
+     * para imágenes de paleta.
+     */
+    private StripResult compressStrip(byte[] codes, int cols, int width, int fromRow, int toRow, boolean lastStrip) {
+        int stride = width + 1;
+        byte[] raw = new byte[(toRow - fromRow) * stride];
+        int offset = 0;
+
+        for (int y = fromRow; y < toRow; y++) {
+            if (y % blockSize != 0) {
+                // Fila repetida dentro del bloque: filtro Up y diferencias nulas
+                raw[offset] = FILTER_UP;
+            } else {
+                raw[offset] = FILTER_NONE;
+                int cellRowStart = (y / blockSize) * cols;
+                int x = offset + 1;
+                for (int col = 0; col < cols; col++) {
+                    byte code = codes[cellRowStart + col];
+                    for (int b = 0; b < blockSize; b++) {
+                        raw[x++] = code;
+                    }
+                }
+            }
+            offset += stride;
+        }
+
+        Adler32 adler = new Adler32();
+        adler.update(raw, 0, raw.length);
+
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(raw);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 8));
+            byte[] buffer = new byte[64 * 1024];
+            if (lastStrip) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    compressed.write(buffer, 0, n);
+                }
+            } else {
+                // SYNC_FLUSH alinea la salida a byte sin marcar el bloque final
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return new StripResult(compressed.toByteArray(), adler.getValue(), raw.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Combina dos sumas Adler-32 como si se hubieran calculado sobre los datos concatenados.
+     * @param adler1 Suma de la primera parte
+     * @param adler2 Suma de la segunda parte
+     * @param length2 Longitud en bytes de la segunda parte
+     * @return La suma de la concatenación
+     */
+    static long combineAdler32(long adler1, long adler2, long length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (remainder * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xFFFF) + ((adler2 >> 16) & 0xFFFF) + ADLER_BASE - remainder;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum2 >= (ADLER_BASE << 1)) sum2 -= (ADLER_BASE << 1);
+        if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+        return sum1 | (sum2 << 16);
+    }
+
+    private byte[] buildHeader(int width, int height) {
+        byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8;  // Profundidad de bits
+        header[9] = 3;  // Color indexado
+        header[10] = 0; // Compresión deflate
+        header[11] = 0; // Filtrado adaptativo
+        header[12] = 0; // Sin entrelazado
+        return header;
+    }
+
+    private byte[] buildPalette() {
+        int entries = SpeciesCodes.codeCount();
+        byte[] palette = new byte[entries * 3];
+        for (int code = 0; code < entries; code++) {
+            int rgb = SpeciesCodes.colorOf(code);
+            palette[code * 3] = (byte) (rgb >> 16);
+            palette[code * 3 + 1] = (byte) (rgb >> 8);
+            palette[code * 3 + 2] = (byte) rgb;
+        }
+        return palette;
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] length = new byte[4];
+        writeInt(length, 0, data.length);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        byte[] crcBytes = new byte[4];
+        writeInt(crcBytes, 0, (int) crc.getValue());
+
+        out.write(length);
+        out.write(typeBytes);
+        out.write(data);
+        out.write(crcBytes);
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    // Resultado de comprimir una franja: datos deflate, Adler-32 y longitud sin comprimir
+    private record StripResult(byte[] compressed, long adler, int rawLength) {
+    }
+}
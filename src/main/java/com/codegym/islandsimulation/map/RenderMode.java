@@ -0,0 +1,18 @@
+package com.codegym.islandsimulation.map;
+
+/**
+ * Modos de renderizado disponibles para la vista HTML de la isla.
+ */
+public enum RenderMode {
+    /**
+     * Un elemento del DOM por celda con su emoji ({@link IslandWebRenderer}).
+     * Adecuado para mapas pequeños, con animaciones y tooltips por celda.
+     */
+    DOM,
+
+    /**
+     * Un byte por celda dibujado en un canvas ({@link IslandCanvasRenderer}).
+     * Adecuado para mapas grandes: el coste de dibujo no depende del DOM.
+     */
+    CANVAS
+}
@@ -28,6 +28,19 @@ public class RendererMessages {
             messages.put("critical", "Critical");
             messages.put("low", "Low");
             messages.put("stable", "Stable");
+            messages.put("occupation", "Map occupation");
+            messages.put("cycleEvents", "Cycle events");
+            messages.put("reproductions", "Reproductions");
+            messages.put("deadAnimals", "Dead animals");
+            messages.put("hunts", "Hunting actions");
+            messages.put("plantsEaten", "Plants eaten");
+            messages.put("profile", "⏱️ Profiling (JFR)");
+            messages.put("jfrCycle", "JFR cycle");
+            messages.put("jfrCycleDuration", "Cycle duration");
+            messages.put("jfrPhase", "Phase %s (mean)");
+            messages.put("jfrSampledHunts", "Sampled hunts");
+            messages.put("jfrSampledBirths", "Sampled births");
+            messages.put("jfrSampledStarvations", "Sampled starvations");
         } else {
             // Español por defecto
             messages.put("title", "Isla Simulación");
@@ -41,6 +54,19 @@ public class RendererMessages {
             messages.put("critical", "Crítica");
             messages.put("low", "Baja");
             messages.put("stable", "Estable");
+            messages.put("occupation", "Ocupación del mapa");
+            messages.put("cycleEvents", "Eventos del ciclo");
+            messages.put("reproductions", "Reproducciones");
+            messages.put("deadAnimals", "Animales muertos");
+            messages.put("hunts", "Acciones de Caza");
+            messages.put("plantsEaten", "Plantas consumidas");
+            messages.put("profile", "⏱️ Perfil (JFR)");
+            messages.put("jfrCycle", "Ciclo JFR");
+            messages.put("jfrCycleDuration", "Duración del ciclo");
+            messages.put("jfrPhase", "Fase %s (media)");
+            messages.put("jfrSampledHunts", "Cazas muestreadas");
+            messages.put("jfrSampledBirths", "Nacimientos muestreados");
+            messages.put("jfrSampledStarvations", "Inaniciones muestreadas");
         }
     }
     /**
@@ -52,4 +78,19 @@ public class RendererMessages {
     public String get(String key) {
         return messages.getOrDefault(key, key);
     }
+
+    /**
+     * Obtiene la etiqueta de una fila del perfil JFR. Las claves de fase llevan el nombre de la
+     * fase tras el punto (por ejemplo {@code jfrPhase.movement}), que se inserta en el mensaje.
+     *
+     * @param key Clave de la fila.
+     * @return Etiqueta en el idioma seleccionado.
+     */
+    public String profileLabel(String key) {
+        int dot = key.indexOf('.');
+        if (dot < 0) {
+            return get(key);
+        }
+        return String.format(get(key.substring(0, dot)), key.substring(dot + 1));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.codegym.islandsimulation.map;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Implementación escalar de {@link PlaneKernels}.
+ */
+final class ScalarPlaneKernels extends PlaneKernels {
+    static final ScalarPlaneKernels INSTANCE = new ScalarPlaneKernels();
+
+    // Bloque máximo con contadores de 32 bits, para no desbordarlos
+    private static final int BLOCK = 1 << 30;
+
+    private ScalarPlaneKernels() {
+    }
+
+    @Override
+    public void histogram(byte[] plane, int from, int to, long[] counts) {
+        // Cuatro tablas parciales: celdas consecutivas con el mismo código no esperan unas a otras
+        int[] c0 = new int[256];
+        int[] c1 = new int[256];
+        int[] c2 = new int[256];
+        int[] c3 = new int[256];
+        for (int start = from; start < to; start += BLOCK) {
+            int end = (int) Math.min(to, (long) start + BLOCK);
+            int i = start;
+            for (; i + 3 < end; i += 4) {
+                c0[plane[i] & 0xFF]++;
+                c1[plane[i + 1] & 0xFF]++;
+                c2[plane[i + 2] & 0xFF]++;
+                c3[plane[i + 3] & 0xFF]++;
+            }
+            for (; i < end; i++) {
+                c0[plane[i] & 0xFF]++;
+            }
+            int limit = Math.min(counts.length, 256);
+            for (int code = 0; code < limit; code++) {
+                counts[code] += (long) c0[code] + c1[code] + c2[code] + c3[code];
+            }
+            Arrays.fill(c0, 0);
+            Arrays.fill(c1, 0);
+            Arrays.fill(c2, 0);
+            Arrays.fill(c3, 0);
+        }
+    }
+
+    @Override
+    public long countEqual(byte[] plane, int from, int to, byte code) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (plane[i] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void overlay(byte[] plane, byte[] target) {
+        for (int i = 0; i < plane.length; i++) {
+            if (plane[i] != SpeciesCodes.EMPTY) {
+                target[i] = plane[i];
+            }
+        }
+    }
+
+    @Override
+    void histogram(ByteBuffer block, int from, int to, long[] counts) {
+        // Un bloque tiene menos celdas de las que desbordan un contador de 32 bits
+        int[] c0 = new int[256];
+        int[] c1 = new int[256];
+        int[] c2 = new int[256];
+        int[] c3 = new int[256];
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            c0[block.get(i) & 0xFF]++;
+            c1[block.get(i + 1) & 0xFF]++;
+            c2[block.get(i + 2) & 0xFF]++;
+            c3[block.get(i + 3) & 0xFF]++;
+        }
+        for (; i < to; i++) {
+            c0[block.get(i) & 0xFF]++;
+        }
+        int limit = Math.min(counts.length, 256);
+        for (int code = 0; code < limit; code++) {
+            counts[code] += (long) c0[code] + c1[code] + c2[code] + c3[code];
+        }
+    }
+
+    @Override
+    long countEqual(ByteBuffer block, int from, int to, byte code) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (block.get(i) == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    void overlay(ByteBuffer block, byte[] target, int targetOffset) {
+        for (int i = 0; i < block.capacity(); i++) {
+            byte code = block.get(i);
+            if (code != SpeciesCodes.EMPTY) {
+                target[targetOffset + i] = code;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+}
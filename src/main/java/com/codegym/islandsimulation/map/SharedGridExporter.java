@@ -0,0 +1,167 @@
+package com.codegym.islandsimulation.map;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Publica cada ciclo terminado en un anillo de fotogramas en memoria compartida (un archivo
+ * mapeado, por ejemplo en {@code /dev/shm}), para que un visor u otro proceso de análisis
+ * lea el último ciclo sin pedir nada a la simulación ni frenarla.
+ *
+ * Cada fotograma lleva los contadores del ciclo (la fila de la serie temporal, con las
+ * poblaciones) y el código de especie de cada celda. El escritor nunca espera a los lectores:
+ * cada hueco del anillo tiene un número de secuencia (seqlock) que es impar mientras se
+ * escribe, y el lector comprueba al terminar que no ha cambiado. Con N huecos, un lector
+ * dispone de N - 1 ciclos para leer el último fotograma antes de que se sobrescriba.
+ *
+ * Formato (little-endian), leído por {@link SharedGridReader}:
+ * <pre>
+ * cabecera (64 bytes): magic, versión, filas, columnas, huecos, contadores,
+ *                      bytes por hueco, posición del primer hueco (int),
+ *                      fotogramas publicados (long, en la posición 32)
+ * nombres de los contadores: longitud (short) y UTF-8 de cada uno
+ * huecos: secuencia (long), contadores (long), códigos (un byte por celda)
+ * </pre>
+ */
+public class SharedGridExporter implements AutoCloseable {
+    static final int MAGIC = 0x49534752;
+    static final int VERSION = 1;
+
+    // Posiciones de la cabecera
+    static final int ROWS_OFFSET = 8;
+    static final int COLS_OFFSET = 12;
+    static final int SLOTS_OFFSET = 16;
+    static final int COUNTERS_OFFSET = 20;
+    static final int SLOT_BYTES_OFFSET = 24;
+    static final int FIRST_SLOT_OFFSET = 28;
+    static final int PUBLISHED_OFFSET = 32;
+    static final int HEADER_BYTES = 64;
+
+    // Acceso con orden de memoria a los números de secuencia dentro del mapeo
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int counterCount;
+    private final int slotBytes;
+    private final int firstSlot;
+    private final int cells;
+
+    // Códigos del último ciclo, reutilizados antes de copiarlos al mapeo
+    private byte[] codes;
+    private long published;
+
+    /**
+     * Crea (o reemplaza) el archivo del anillo y escribe su cabecera.
+     * @param file Archivo compartido; en Linux conviene que esté en {@code /dev/shm}
+     * @param rows Filas del mapa
+     * @param cols Columnas del mapa
+     * @param counterNames Nombres de los contadores de cada fotograma
+     * @param slotCount Número de fotogramas del anillo (al menos 2)
+     * @throws IOException si no se puede crear o mapear el archivo
+     */
+    public SharedGridExporter(Path file, int rows, int cols, List<String> counterNames, int slotCount) throws IOException {
+        if (slotCount < 2) {
+            throw new IllegalArgumentException("El anillo necesita al menos 2 fotogramas");
+        }
+        this.slotCount = slotCount;
+        this.counterCount = counterNames.size();
+        this.cells = IslandMap.cellCount(rows, cols);
+        this.slotBytes = align(Long.BYTES * (1 + counterCount) + cells);
+
+        byte[][] names = new byte[counterCount][];
+        int namesBytes = 0;
+        for (int i = 0; i < counterCount; i++) {
+            names[i] = counterNames.get(i).getBytes(StandardCharsets.UTF_8);
+            namesBytes += Short.BYTES + names[i].length;
+        }
+        this.firstSlot = align(HEADER_BYTES + namesBytes);
+        long size = firstSlot + (long) slotBytes * slotCount;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El anillo no cabe en un solo mapeo: " + size + " bytes");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Un lector que abra el archivo antes de que la cabecera esté completa no verá el magic
+        buffer.putInt(4, VERSION)
+                .putInt(ROWS_OFFSET, rows)
+                .putInt(COLS_OFFSET, cols)
+                .putInt(SLOTS_OFFSET, slotCount)
+                .putInt(COUNTERS_OFFSET, counterCount)
+                .putInt(SLOT_BYTES_OFFSET, slotBytes)
+                .putInt(FIRST_SLOT_OFFSET, firstSlot);
+        int position = HEADER_BYTES;
+        for (byte[] name : names) {
+            buffer.putShort(position, (short) name.length);
+            buffer.put(position + Short.BYTES, name);
+            position += Short.BYTES + name.length;
+        }
+        LONGS.setRelease(buffer, PUBLISHED_OFFSET, 0L);
+        buffer.putInt(0, MAGIC);
+    }
+
+    /**
+     * Publica un ciclo terminado en el siguiente hueco del anillo. Debe llamarse desde el
+     * hilo de simulación, con el mapa en un estado consistente; no espera a ningún lector.
+     * @param counters Contadores del ciclo, en el orden de sus nombres
+     * @param map El mapa de la isla
+     */
+    public void publish(long[] counters, IslandMap map) {
+        long frame = published;
+        int slot = firstSlot + (int) (frame % slotCount) * slotBytes;
+
+        // Secuencia impar: los lectores de este hueco descartarán lo que lean
+        LONGS.setOpaque(buffer, slot, 2 * frame + 1);
+        VarHandle.storeStoreFence();
+
+        int position = slot + Long.BYTES;
+        for (int i = 0; i < counterCount; i++, position += Long.BYTES) {
+            buffer.putLong(position, counters[i]);
+        }
+        codes = map.encodeSpeciesCodes(codes);
+        buffer.put(position, codes, 0, cells);
+
+        // Secuencia par: el fotograma está completo
+        LONGS.setRelease(buffer, slot, 2 * frame + 2);
+        published = frame + 1;
+        LONGS.setRelease(buffer, PUBLISHED_OFFSET, published);
+    }
+
+    /**
+     * Número de fotogramas publicados.
+     * @return El número de fotogramas publicados
+     */
+    public long getPublishedFrames() {
+        return published;
+    }
+
+    /**
+     * Cierra el archivo. Su contenido sigue disponible para los lectores que lo tengan abierto.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int align(int bytes) {
+        return (bytes + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
@@ -0,0 +1,252 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.animals.Animal;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static com.codegym.islandsimulation.map.SharedGridExporter.LONGS;
+
+/**
+ * Lector de referencia del anillo de fotogramas de {@link SharedGridExporter}, pensado para
+ * ejecutarse en otro proceso. Lee directamente del archivo mapeado, sin copiar el fotograma:
+ * {@link #latest()} devuelve una vista del último hueco publicado y, como el escritor puede
+ * sobrescribirlo en cualquier momento, lo leído solo es válido si {@link Frame#isValid()}
+ * sigue siendo cierto después de leerlo.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.map.SharedGridReader <archivo> [intervalo ms]}
+ */
+public final class SharedGridReader implements AutoCloseable {
+    // Intentos de leer el último fotograma mientras el escritor lo sobrescribe
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final int cols;
+    private final int slotCount;
+    private final int slotBytes;
+    private final int firstSlot;
+    private final List<String> counterNames;
+
+    private SharedGridReader(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != SharedGridExporter.MAGIC) {
+            throw new IOException("El archivo no es un anillo de fotogramas o aún no está listo");
+        }
+        if (buffer.getInt(4) != SharedGridExporter.VERSION) {
+            throw new IOException("Versión de anillo no soportada: " + buffer.getInt(4));
+        }
+        this.rows = buffer.getInt(SharedGridExporter.ROWS_OFFSET);
+        this.cols = buffer.getInt(SharedGridExporter.COLS_OFFSET);
+        this.slotCount = buffer.getInt(SharedGridExporter.SLOTS_OFFSET);
+        this.slotBytes = buffer.getInt(SharedGridExporter.SLOT_BYTES_OFFSET);
+        this.firstSlot = buffer.getInt(SharedGridExporter.FIRST_SLOT_OFFSET);
+
+        int counterCount = buffer.getInt(SharedGridExporter.COUNTERS_OFFSET);
+        List<String> names = new ArrayList<>(counterCount);
+        int position = SharedGridExporter.HEADER_BYTES;
+        for (int i = 0; i < counterCount; i++) {
+            byte[] name = new byte[buffer.getShort(position)];
+            buffer.get(position + Short.BYTES, name);
+            names.add(new String(name, StandardCharsets.UTF_8));
+            position += Short.BYTES + name.length;
+        }
+        this.counterNames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Abre y mapea en solo lectura el archivo de un anillo.
+     * @param file Archivo compartido que escribe el motor
+     * @return El lector
+     * @throws IOException si el archivo no existe o no es un anillo válido
+     */
+    public static SharedGridReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < SharedGridExporter.HEADER_BYTES) {
+                throw new IOException("El anillo aún no está listo");
+            }
+            return new SharedGridReader(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Nombres de los contadores de cada fotograma: los de la serie temporal del motor.
+     * @return Lista no modificable de nombres
+     */
+    public List<String> getCounterNames() {
+        return counterNames;
+    }
+
+    /**
+     * Número de fotogramas publicados hasta ahora.
+     * @return El número de fotogramas publicados
+     */
+    public long getPublishedFrames() {
+        return (long) LONGS.getAcquire(buffer, SharedGridExporter.PUBLISHED_OFFSET);
+    }
+
+    /**
+     * Obtiene una vista del último fotograma completo.
+     * @return La vista, o null si aún no hay ninguno o el escritor no deja de sobrescribirlo
+     */
+    public Frame latest() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long published = getPublishedFrames();
+            if (published == 0) {
+                return null;
+            }
+            long frame = published - 1;
+            int slot = firstSlot + (int) (frame % slotCount) * slotBytes;
+            long sequence = 2 * frame + 2;
+            if ((long) LONGS.getAcquire(buffer, slot) == sequence) {
+                return new Frame(frame, slot, sequence);
+            }
+            // El hueco ya se está reutilizando: hay un fotograma más nuevo
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Vista de un fotograma dentro del archivo mapeado. Sus lecturas no copian nada y
+     * pueden ver datos a medio escribir: hay que comprobar {@link #isValid()} al terminar.
+     */
+    public final class Frame {
+        private final long number;
+        private final int slot;
+        private final long sequence;
+
+        private Frame(long number, int slot, long sequence) {
+            this.number = number;
+            this.slot = slot;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Número del fotograma, contando desde 0 en el primer ciclo publicado.
+         */
+        public long getNumber() {
+            return number;
+        }
+
+        /**
+         * Valor de un contador, en el orden de {@link #getCounterNames()}.
+         */
+        public long counter(int index) {
+            return buffer.getLong(slot + Long.BYTES * (1 + index));
+        }
+
+        /**
+         * Código de especie de una celda, según {@link SpeciesCodes}.
+         */
+        public byte code(int row, int col) {
+            return buffer.get(codesOffset() + row * cols + col);
+        }
+
+        /**
+         * Copia los códigos de todas las celdas, fila a fila.
+         * @param target Arreglo de al menos filas x columnas bytes
+         */
+        public void copyCodes(byte[] target) {
+            buffer.get(codesOffset(), target, 0, rows * cols);
+        }
+
+        /**
+         * Indica si el fotograma seguía intacto al terminar de leerlo: si no, lo leído
+         * puede mezclar dos ciclos y hay que descartarlo.
+         */
+        public boolean isValid() {
+            VarHandle.loadLoadFence();
+            return (long) LONGS.getOpaque(buffer, slot) == sequence;
+        }
+
+        private int codesOffset() {
+            return slot + Long.BYTES * (1 + counterNames.size());
+        }
+    }
+
+    /**
+     * Sigue el anillo y muestra cada fotograma nuevo: sus contadores y los animales que hay en el mapa.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: SharedGridReader <archivo> [intervalo ms]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        long intervalMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+
+        boolean[] animalCodes = new boolean[SpeciesCodes.codeCount()];
+        for (int code = 0; code < animalCodes.length; code++) {
+            Class<?> species = SpeciesCodes.speciesOf(code);
+            animalCodes[code] = species != null && Animal.class.isAssignableFrom(species);
+        }
+
+        try (SharedGridReader reader = open(file)) {
+            System.out.printf("👀 Leyendo %s: mapa de %dx%d, %d fotogramas en el anillo%n",
+                    file, reader.getRows(), reader.getCols(), reader.slotCount);
+            long lastShown = -1;
+            long discarded = 0;
+            while (true) {
+                Frame frame = reader.latest();
+                if (frame == null || frame.getNumber() == lastShown) {
+                    Thread.sleep(intervalMillis);
+                    continue;
+                }
+                StringJoiner counters = new StringJoiner(", ");
+                for (int i = 0; i < reader.getCounterNames().size(); i++) {
+                    long value = frame.counter(i);
+                    if (value != 0) {
+                        counters.add(reader.getCounterNames().get(i) + "=" + value);
+                    }
+                }
+                int animals = 0;
+                for (int row = 0; row < reader.getRows(); row++) {
+                    for (int col = 0; col < reader.getCols(); col++) {
+                        int code = frame.code(row, col) & 0xFF;
+                        if (code < animalCodes.length && animalCodes[code]) {
+                            animals++;
+                        }
+                    }
+                }
+                if (!frame.isValid()) {
+                    discarded++;
+                    continue;
+                }
+                lastShown = frame.getNumber();
+                System.out.printf("🖼️ Fotograma %d: %d animales en el mapa [%s]%s%n", lastShown, animals, counters,
+                        discarded > 0 ? " (" + discarded + " lecturas descartadas)" : "");
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Corpse;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.*;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+import com.codegym.islandsimulation.entities.terrain.*;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.utils.MapUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación compacta de especies: asigna a cada tipo de organismo un código de un byte.
+ * Permite representar el mapa completo como un arreglo de un byte por celda,
+ * útil para renderizadores y exportadores que no necesitan los objetos vivos.
+ */
+public final class SpeciesCodes {
+    // Códigos reservados para estados de celda que no son especies registradas
+    public static final byte EMPTY = 0;
+    public static final byte CORPSE = 1;
+    public static final byte EATEN_PLANT = 2;
+
+    // Primer código asignado a las especies del registro
+    private static final int FIRST_SPECIES_CODE = 3;
+
+    // Emoji con el que se representan los cadáveres en el mapa
+    private static final String CORPSE_EMOJI = "☠️";
+
+    // Tabla código -> clase (los códigos reservados no tienen clase)
+    private static final List<Class<? extends Organism>> SPECIES = new ArrayList<>();
+
+    // Tabla inversa clase -> código
+    private static final Map<Class<? extends Organism>, Byte> CODES = new HashMap<>();
+
+    // Colores RGB por clase para las vistas sin emojis
+    private static final Map<Class<? extends Organism>, Integer> COLORS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < FIRST_SPECIES_CODE; i++) {
+            SPECIES.add(null);
+        }
+        for (Class<? extends Organism> type : OrganismRegistry.getAllOrganismTypes()) {
+            CODES.put(type, (byte) SPECIES.size());
+            SPECIES.add(type);
+        }
+
+        COLORS.put(Wolf.class, 0x6E6E78);
+        COLORS.put(Boa.class, 0x4F7A28);
+        COLORS.put(Fox.class, 0xE0701A);
+        COLORS.put(Bear.class, 0x6B3E1E);
+        COLORS.put(Eagle.class, 0x8C5A2B);
+        COLORS.put(Horse.class, 0xA0522D);
+        COLORS.put(Deer.class, 0xC68642);
+        COLORS.put(Rabbit.class, 0xD9D9D9);
+        COLORS.put(Mouse.class, 0x9E9E9E);
+        COLORS.put(Goat.class, 0xF2E6C9);
+        COLORS.put(Sheep.class, 0xFFFFFF);
+        COLORS.put(Boar.class, 0x5C4033);
+        COLORS.put(Buffalo.class, 0x3B2F2F);
+        COLORS.put(Duck.class, 0xF5D033);
+        COLORS.put(Caterpillar.class, 0xB5E61D);
+        COLORS.put(Vegetation.class, 0x7CCB5B);
+        COLORS.put(Tree.class, 0x2E8B3E);
+        COLORS.put(Rock.class, 0x8A8D91);
+        COLORS.put(Water.class, 0x4A90E2);
+        COLORS.put(Mushroom.class, 0xD64541);
+        COLORS.put(PalmTree.class, 0x3FA34D);
+        COLORS.put(ConiferousTree.class, 0x1E5E32);
+        COLORS.put(MushroomGrass.class, 0xA67B5B);
+    }
+
+    private SpeciesCodes() {
+    }
+
+    /**
+     * Obtiene el código de un organismo, teniendo en cuenta su estado en la celda.
+     * @param organism El organismo (puede ser null para una celda vacía)
+     * @return El código de un byte de la celda
+     */
+    public static byte codeOf(Organism organism) {
+        if (organism == null) {
+            return EMPTY;
+        }
+        if (organism instanceof Plant && !((Plant) organism).isAlive()) {
+            return EATEN_PLANT;
+        }
+        Byte code = CODES.get(organism.getClass());
+        if (code != null) {
+            return code;
+        }
+        return organism instanceof Corpse ? CORPSE : EMPTY;
+    }
+
+    /**
+     * Obtiene el código asignado a un tipo de organismo.
+     * @param species La clase del organismo
+     * @return El código, o EMPTY si la clase no está registrada
+     */
+    public static byte codeOf(Class<? extends Organism> species) {
+        return CODES.getOrDefault(species, EMPTY);
+    }
+
+    /**
+     * Número total de códigos en uso (reservados más especies registradas).
+     * @return La cantidad de códigos
+     */
+    public static int codeCount() {
+        return SPECIES.size();
+    }
+
+    /**
+     * Obtiene la clase asociada a un código.
+     * @param code El código de la celda
+     * @return La clase del organismo, o null para los códigos reservados
+     */
+    public static Class<? extends Organism> speciesOf(int code) {
+        return code >= 0 && code < SPECIES.size() ? SPECIES.get(code) : null;
+    }
+
+    /**
+     * Obtiene el emoji con el que se dibuja un código.
+     * @param code El código de la celda
+     * @return El emoji representativo
+     */
+    public static String emojiOf(int code) {
+        switch (code) {
+            case EMPTY:
+                return " ";
+            case CORPSE:
+                return CORPSE_EMOJI;
+            case EATEN_PLANT:
+                return "🌱";
+            default:
+                Class<? extends Organism> species = speciesOf(code);
+                return species == null ? "❔" : MapUtils.getEmojiForClass(species);
+        }
+    }
+
+    /**
+     * Obtiene el color RGB con el que se dibuja un código en las vistas compactas.
+     * @param code El código de la celda
+     * @return El color en formato 0xRRGGBB
+     */
+    public static int colorOf(int code) {
+        switch (code) {
+            case EMPTY:
+                return 0xF3F6F8;
+            case CORPSE:
+                return 0x202020;
+            case EATEN_PLANT:
+                return 0xC9E4B4;
+            default:
+                return COLORS.getOrDefault(speciesOf(code), 0xFF00FF);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.factory.SpeciesInfo;
+
+import java.util.Arrays;
+
+/**
+ * Capa estática de terreno de la isla: un byte por celda con el código de
+ * {@link SpeciesCodes} del terreno ({@link SpeciesCodes#EMPTY} si no hay).
+ *
+ * El terreno no come, no se mueve ni cambia durante la simulación, así que se guarda
+ * aparte de la cuadrícula de organismos: los recorridos de las fases solo visitan
+ * vida, y el movimiento consulta una máscara de bits de celdas bloqueadas calculada
+ * una sola vez al construir la capa. La capa es inmutable; se crea con un {@link Builder}.
+ *
+ * Los códigos y la máscara se guardan en planos de la {@link CellMemory} del constructor, y
+ * la capa vacía de un mapa sin terreno no reserva ninguno.
+ */
+public final class TerrainLayer {
+    private final int rows;
+    private final int cols;
+
+    // Código de terreno por celda, fila a fila (null si no hay terreno)
+    private final BytePlane codes;
+
+    // Bit a 1 por cada celda que no se puede ocupar, fila a fila (null si no hay terreno)
+    private final LongPlane blocked;
+
+    // Número de celdas por código
+    private final long[] histogram;
+
+    private TerrainLayer(int rows, int cols, BytePlane codes, LongPlane blocked) {
+        this.rows = rows;
+        this.cols = cols;
+        this.codes = codes;
+        this.blocked = blocked;
+        this.histogram = new long[SpeciesCodes.codeCount()];
+        if (codes == null) {
+            histogram[SpeciesCodes.EMPTY] = (long) rows * cols;
+            return;
+        }
+        PlaneKernels.best().histogram(codes, 0, codes.length(), histogram);
+        long word = 0;
+        for (int i = 0; i < codes.length(); i++) {
+            if (codes.get(i) != SpeciesCodes.EMPTY) {
+                // Todo el terreno ocupa su celda
+                word |= 1L << i;
+            }
+            if ((i & 63) == 63 || i == codes.length() - 1) {
+                blocked.set(i >>> 6, word);
+                word = 0;
+            }
+        }
+    }
+
+    /**
+     * Crea una capa sin terreno.
+     * @param rows Número de filas
+     * @param cols Número de columnas
+     * @return Capa vacía
+     */
+    public static TerrainLayer empty(int rows, int cols) {
+        return new TerrainLayer(rows, cols, null, null);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Obtiene el código de terreno de una celda.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return El código de {@link SpeciesCodes}, o {@link SpeciesCodes#EMPTY} si no hay terreno
+     */
+    public byte getCode(int row, int col) {
+        return codes == null ? SpeciesCodes.EMPTY : codes.get(row * cols + col);
+    }
+
+    /**
+     * Obtiene el tipo de terreno de una celda.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return La clase del terreno, o null si no hay
+     */
+    public Class<? extends Organism> getType(int row, int col) {
+        byte code = getCode(row, col);
+        return code == SpeciesCodes.EMPTY ? null : SpeciesCodes.speciesOf(code);
+    }
+
+    /**
+     * Indica si el terreno impide ocupar una celda.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return true si la celda está bloqueada
+     */
+    public boolean isBlocked(int row, int col) {
+        if (blocked == null) {
+            return false;
+        }
+        int index = row * cols + col;
+        return (blocked.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * Cuenta las celdas de un tipo de terreno.
+     * @param type La clase del terreno
+     * @return Número de celdas con ese terreno
+     */
+    public long count(Class<? extends Organism> type) {
+        byte code = SpeciesCodes.codeOf(type);
+        return code == SpeciesCodes.EMPTY ? 0 : histogram[code & 0xFF];
+    }
+
+    /**
+     * Cuenta las celdas con cualquier terreno.
+     * @return Número de celdas con terreno
+     */
+    public long countTerrainCells() {
+        return (long) rows * cols - histogram[SpeciesCodes.EMPTY];
+    }
+
+    /**
+     * Copia los códigos de terreno, fila a fila, al inicio del arreglo indicado.
+     * @param target Arreglo de al menos {@code rows * cols} bytes
+     */
+    public void copyCodes(byte[] target) {
+        if (codes == null) {
+            Arrays.fill(target, 0, rows * cols, SpeciesCodes.EMPTY);
+        } else {
+            codes.copyTo(target);
+        }
+    }
+
+    /**
+     * Constructor de una capa de terreno. Admite escrituras concurrentes siempre que
+     * cada hilo escriba celdas distintas y {@link #build()} se llame después de que
+     * todas hayan terminado.
+     */
+    public static final class Builder {
+        private final int rows;
+        private final int cols;
+        private final CellMemory memory;
+        private BytePlane codes;
+
+        /**
+         * Constructor de una capa en el heap.
+         * @param rows Número de filas
+         * @param cols Número de columnas
+         */
+        public Builder(int rows, int cols) {
+            this(rows, cols, CellMemory.heap());
+        }
+
+        /**
+         * Constructor de una capa cuyos planos se reservan en una memoria, normalmente la del
+         * mapa que la va a usar.
+         * @param rows Número de filas
+         * @param cols Número de columnas
+         * @param memory Memoria de los planos
+         */
+        public Builder(int rows, int cols, CellMemory memory) {
+            this.rows = rows;
+            this.cols = cols;
+            this.memory = memory;
+            this.codes = memory.allocateBytes(IslandMap.cellCount(rows, cols));
+        }
+
+        /**
+         * Coloca terreno en una celda.
+         * @param row Fila de la celda
+         * @param col Columna de la celda
+         * @param code Código de {@link SpeciesCodes} de un tipo de terreno
+         */
+        public void set(int row, int col, byte code) {
+            codes.set(row * cols + col, code);
+        }
+
+        /**
+         * Código de {@link SpeciesCodes} de un tipo de terreno, para usarlo con {@link #set}.
+         * @param type La clase del terreno
+         * @return Su código
+         * @throws IllegalArgumentException si la clase no está registrada como terreno
+         */
+        public static byte codeOf(Class<? extends Organism> type) {
+            SpeciesInfo info = OrganismRegistry.getInfo(type);
+            if (info == null || info.kind() != OrganismKind.TERRAIN) {
+                throw new IllegalArgumentException(type.getSimpleName() + " no es un tipo de terreno");
+            }
+            return SpeciesCodes.codeOf(type);
+        }
+
+        /**
+         * Construye la capa inmutable. El constructor no puede usarse después.
+         * @return La capa de terreno
+         */
+        public TerrainLayer build() {
+            if (codes == null) {
+                throw new IllegalStateException("La capa de terreno ya se ha construido");
+            }
+            TerrainLayer layer = new TerrainLayer(rows, cols, codes, memory.allocateLongs((int) (((long) rows * cols + 63) >>> 6)));
+            codes = null;
+            return layer;
+        }
+    }
+}
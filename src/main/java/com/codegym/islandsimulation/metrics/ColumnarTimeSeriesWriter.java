@@ -0,0 +1,175 @@
+package com.codegym.islandsimulation.metrics;
+
+import com.codegym.islandsimulation.output.OutputSink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Exportador en streaming de una {@link CycleTimeSeries} a disco en formato columnar.
+ * Escribe un archivo por columna ({@code <columna>.i64}) con enteros de 64 bits
+ * little-endian, solo añadiendo al final, más un {@code schema.json} que describe las
+ * columnas. El formato se carga directamente con herramientas de análisis, por ejemplo
+ * {@code numpy.fromfile("births.i64", "<i8")}.
+ * Las filas se acumulan en bloques en memoria y cada bloque lleno se escribe en el
+ * hilo de su salida, de modo que el coste por ciclo en el hilo de simulación es una copia.
+ */
+public class ColumnarTimeSeriesWriter implements AutoCloseable {
+    // Número de filas por bloque escrito a disco
+    private static final int DEFAULT_BLOCK_ROWS = 256;
+
+    private final Path directory;
+    private final List<String> columnNames;
+    private final OutputSink sink;
+    private final int blockRows;
+
+    // Bloque en construcción, por columnas
+    private long[][] block;
+    private int blockSize = 0;
+
+    // Bloques pendientes de escribir, en orden
+    private final Queue<PendingBlock> pendingBlocks = new ConcurrentLinkedQueue<>();
+
+    // Canales abiertos, uno por columna (solo se usan dentro de drain)
+    private final FileChannel[] channels;
+    private long rowsWritten = 0;
+    private boolean closed = false;
+
+    /**
+     * Constructor del exportador. Crea el directorio y los archivos de columna vacíos.
+     * @param directory Directorio de salida
+     * @param columnNames Nombres de las columnas, en orden
+     * @param sink Salida en cuyo hilo se escriben los bloques; no debe descartar tareas
+     * @throws IOException si no se pueden crear los archivos
+     */
+    public ColumnarTimeSeriesWriter(Path directory, List<String> columnNames, OutputSink sink) throws IOException {
+        this.directory = directory;
+        this.columnNames = List.copyOf(columnNames);
+        this.sink = sink;
+        this.blockRows = DEFAULT_BLOCK_ROWS;
+        this.block = new long[columnNames.size()][blockRows];
+        this.channels = new FileChannel[columnNames.size()];
+
+        Files.createDirectories(directory);
+        for (int column = 0; column < channels.length; column++) {
+            channels[column] = FileChannel.open(directory.resolve(columnNames.get(column) + ".i64"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        writeSchema();
+    }
+
+    /**
+     * Añade una fila al bloque en construcción; si el bloque se llena, se envía a disco.
+     * @param row Valores de la fila, uno por columna
+     */
+    public void append(long[] row) {
+        for (int column = 0; column < block.length; column++) {
+            block[column][blockSize] = row[column];
+        }
+        blockSize++;
+        if (blockSize == blockRows) {
+            submitBlock();
+        }
+    }
+
+    /**
+     * Número de filas ya escritas en disco.
+     * @return El número de filas escritas
+     */
+    public synchronized long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Escribe las filas pendientes y cierra los archivos.
+     * Debe llamarse desde el hilo que añade filas, antes de cerrar su salida.
+     */
+    @Override
+    public void close() throws IOException {
+        if (blockSize > 0) {
+            pendingBlocks.add(new PendingBlock(block, blockSize));
+            block = new long[columnNames.size()][blockRows];
+            blockSize = 0;
+        }
+        synchronized (this) {
+            drain();
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+            closed = true;
+            writeSchema();
+        }
+    }
+
+    /**
+     * Entrega el bloque lleno a la salida y empieza uno nuevo. Si la salida ya no acepta
+     * tareas, el bloque espera en la cola y se escribe al cerrar.
+     */
+    private void submitBlock() {
+        pendingBlocks.add(new PendingBlock(block, blockSize));
+        block = new long[columnNames.size()][blockRows];
+        blockSize = 0;
+        sink.offer(() -> {
+            synchronized (this) {
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Escribe en orden todos los bloques pendientes. Se ejecuta con el monitor tomado,
+     * por lo que las escrituras nunca se intercalan con las de {@link #close()}.
+     */
+    private void drain() throws IOException {
+        if (closed) {
+            return;
+        }
+        PendingBlock pending;
+        while ((pending = pendingBlocks.poll()) != null) {
+            ByteBuffer buffer = ByteBuffer.allocate(pending.rows() * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int column = 0; column < channels.length; column++) {
+                buffer.clear();
+                buffer.asLongBuffer().put(pending.columns()[column], 0, pending.rows());
+                buffer.limit(pending.rows() * Long.BYTES);
+                while (buffer.hasRemaining()) {
+                    channels[column].write(buffer);
+                }
+            }
+            rowsWritten += pending.rows();
+        }
+        writeSchema();
+    }
+
+    /**
+     * Escribe la descripción de las columnas y el número de filas ya exportadas.
+     */
+    private void writeSchema() throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"format\": \"columnar-i64-le\",\n")
+                .append("  \"rows\": ").append(rowsWritten).append(",\n")
+                .append("  \"columns\": [\n");
+        for (int i = 0; i < columnNames.size(); i++) {
+            json.append("    {\"name\": \"").append(columnNames.get(i))
+                    .append("\", \"file\": \"").append(columnNames.get(i)).append(".i64\", \"dtype\": \"<i8\"}")
+                    .append(i < columnNames.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        try (Writer out = Files.newBufferedWriter(directory.resolve("schema.json"), StandardCharsets.UTF_8)) {
+            out.write(json.toString());
+        }
+    }
+
+    // Bloque de filas pendiente de escritura, por columnas
+    private record PendingBlock(long[][] columns, int rows) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.codegym.islandsimulation.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monótono sin bloqueos.
+ * Usa un LongAdder, de modo que los incrementos concurrentes no compiten entre sí
+ * y la lectura desde el endpoint de métricas nunca detiene a quien incrementa.
+ */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Incrementa el contador en uno.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Incrementa el contador en una cantidad.
+     * @param amount Cantidad a sumar (no negativa)
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Obtiene el valor actual del contador.
+     * @return El valor acumulado
+     */
+    public long get() {
+        return value.sum();
+    }
+}
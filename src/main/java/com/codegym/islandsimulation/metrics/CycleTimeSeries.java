@@ -0,0 +1,146 @@
+package com.codegym.islandsimulation.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Serie temporal columnar de métricas por ciclo, de ancho fijo y solo de escritura al final.
+ * Cada columna es un arreglo de enteros de 64 bits usado como buffer circular, de modo
+ * que registrar un ciclo no reserva memoria: solo copia una fila en las columnas.
+ * Mantiene en memoria los últimos {@code capacity} ciclos para la vista en vivo y,
+ * opcionalmente, reenvía cada fila a un {@link ColumnarTimeSeriesWriter} para
+ * exportarla a disco.
+ */
+public class CycleTimeSeries {
+    // Columnas fijas, presentes en cualquier simulación
+    public static final int CYCLE = 0;
+    public static final int CYCLE_NANOS = 1;
+    public static final int BIRTHS = 2;
+    public static final int HUNTING_DEATHS = 3;
+    public static final int STARVATION_DEATHS = 4;
+    public static final int PLANTS_EATEN = 5;
+    public static final int ALARMS = 6;
+
+    // Número de columnas fijas; las de población por especie van a continuación
+    public static final int FIXED_COLUMNS = 7;
+
+    private static final List<String> FIXED_COLUMN_NAMES = List.of(
+            "cycle", "cycle_nanos", "births", "hunting_deaths", "starvation_deaths", "plants_eaten", "alarms");
+
+    private final List<String> columnNames;
+    private final long[][] columns;
+    private final int capacity;
+
+    // Número total de filas registradas (la posición en el buffer es total % capacity)
+    private long totalRows = 0;
+
+    // Exportador opcional a disco
+    private volatile ColumnarTimeSeriesWriter writer;
+
+    /**
+     * Constructor de la serie temporal.
+     * @param speciesNames Nombres de las especies con columna de población, en orden
+     * @param capacity Número de ciclos que se conservan en memoria
+     */
+    public CycleTimeSeries(List<String> speciesNames, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        List<String> names = new ArrayList<>(FIXED_COLUMN_NAMES);
+        for (String species : speciesNames) {
+            names.add("population_" + species);
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.capacity = capacity;
+        this.columns = new long[names.size()][capacity];
+    }
+
+    /**
+     * Añade una fila completa al final de la serie.
+     * Debe llamarse desde un único hilo (el de simulación).
+     * @param row Valores de la fila, uno por columna
+     */
+    public void append(long[] row) {
+        if (row.length != columns.length) {
+            throw new IllegalArgumentException("La fila tiene " + row.length + " valores y se esperaban " + columns.length);
+        }
+        int slot = (int) (totalRows % capacity);
+        for (int column = 0; column < columns.length; column++) {
+            columns[column][slot] = row[column];
+        }
+        totalRows++;
+
+        ColumnarTimeSeriesWriter currentWriter = writer;
+        if (currentWriter != null) {
+            currentWriter.append(row);
+        }
+    }
+
+    /**
+     * Asocia un exportador a disco. Las filas siguientes se escriben también en él.
+     * @param writer El exportador, o null para dejar de exportar
+     */
+    public void setWriter(ColumnarTimeSeriesWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Obtiene los nombres de las columnas, en orden.
+     * @return Lista inmutable de nombres
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Número de columnas de la serie.
+     * @return El número de columnas
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Número de filas disponibles en memoria (como máximo la capacidad).
+     * @return El número de filas retenidas
+     */
+    public int size() {
+        return (int) Math.min(totalRows, capacity);
+    }
+
+    /**
+     * Número total de filas registradas desde el inicio.
+     * @return El número total de filas
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Obtiene el valor más reciente de una columna.
+     * @param column Índice de la columna
+     * @return El último valor registrado, o 0 si la serie está vacía
+     */
+    public long latest(int column) {
+        if (totalRows == 0) {
+            return 0;
+        }
+        return columns[column][(int) ((totalRows - 1) % capacity)];
+    }
+
+    /**
+     * Copia los valores retenidos de una columna, del más antiguo al más reciente.
+     * @param column Índice de la columna
+     * @return Arreglo con los valores retenidos
+     */
+    public long[] copyColumn(int column) {
+        int size = size();
+        long[] values = new long[size];
+        long first = totalRows - size;
+        for (int i = 0; i < size; i++) {
+            values[i] = columns[column][(int) ((first + i) % capacity)];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,27 @@
+package com.codegym.islandsimulation.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Medidor de un valor instantáneo que puede subir o bajar.
+ * El valor se publica con escrituras atómicas y se lee sin bloqueos.
+ */
+public class Gauge {
+    private final AtomicLong value = new AtomicLong();
+
+    /**
+     * Establece el valor actual.
+     * @param newValue El nuevo valor
+     */
+    public void set(long newValue) {
+        value.set(newValue);
+    }
+
+    /**
+     * Obtiene el valor actual.
+     * @return El valor publicado
+     */
+    public long get() {
+        return value.get();
+    }
+}
@@ -0,0 +1,94 @@
+package com.codegym.islandsimulation.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de duraciones con cubetas fijas, sin bloqueos.
+ * Cada observación incrementa una sola cubeta (no acumulativa); la suma acumulada
+ * que exige el formato Prometheus se calcula al exportar.
+ */
+public class Histogram {
+    // Límites superiores de las cubetas de duración, en segundos
+    static final double[] DEFAULT_BOUNDS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final double[] bounds;
+    private final long[] boundsNanos;
+
+    // Una cubeta por límite más la cubeta +Inf
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Constructor del histograma con los límites por defecto.
+     */
+    public Histogram() {
+        this(DEFAULT_BOUNDS);
+    }
+
+    /**
+     * Constructor del histograma.
+     * @param bounds Límites superiores de las cubetas en segundos, en orden creciente
+     */
+    public Histogram(double[] bounds) {
+        this.bounds = bounds.clone();
+        this.boundsNanos = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            boundsNanos[i] = (long) (bounds[i] * 1_000_000_000L);
+        }
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una duración.
+     * @param nanos La duración en nanosegundos
+     */
+    public void observeNanos(long nanos) {
+        int bucket = 0;
+        while (bucket < boundsNanos.length && nanos > boundsNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+        count.increment();
+    }
+
+    double[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Obtiene los recuentos acumulados por cubeta (la última es +Inf).
+     * @return Recuentos acumulados
+     */
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Suma de todas las duraciones observadas, en segundos.
+     * @return La suma en segundos
+     */
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+
+    /**
+     * Número de observaciones registradas.
+     * @return El número de observaciones
+     */
+    public long getCount() {
+        return count.sum();
+    }
+}
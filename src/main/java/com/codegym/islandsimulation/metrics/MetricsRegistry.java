@@ -0,0 +1,181 @@
+package com.codegym.islandsimulation.metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registro de métricas de la simulación y su exportación en formato de texto de Prometheus.
+ * Las métricas se agrupan en familias (mismo nombre, tipo y ayuda) con una serie por
+ * combinación de etiquetas. Registrar una métrica es idempotente: pedir de nuevo el
+ * mismo nombre y etiquetas devuelve la misma instancia.
+ * Todos los valores se leen sin bloqueos, por lo que una lectura del endpoint nunca
+ * detiene a la simulación.
+ */
+public class MetricsRegistry {
+    // Familias en orden de registro
+    private final List<Family> families = new CopyOnWriteArrayList<>();
+    private final Map<String, Family> familiesByName = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene o crea un contador.
+     * @param name Nombre de la métrica (se recomienda el sufijo _total)
+     * @param help Descripción de la métrica
+     * @param labels Pares nombre/valor de etiquetas
+     * @return El contador
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series(labels, Counter::new);
+    }
+
+    /**
+     * Obtiene o crea un medidor con valor publicado explícitamente.
+     * @param name Nombre de la métrica
+     * @param help Descripción de la métrica
+     * @param labels Pares nombre/valor de etiquetas
+     * @return El medidor
+     */
+    public Gauge gauge(String name, String help, String... labels) {
+        return (Gauge) family(name, help, "gauge").series(labels, Gauge::new);
+    }
+
+    /**
+     * Registra un medidor cuyo valor se calcula en cada lectura.
+     * La función debe ser barata y no bloquear.
+     * @param name Nombre de la métrica
+     * @param help Descripción de la métrica
+     * @param supplier Función que devuelve el valor actual
+     * @param labels Pares nombre/valor de etiquetas
+     */
+    public void gauge(String name, String help, LongSupplier supplier, String... labels) {
+        family(name, help, "gauge").series(labels, () -> supplier);
+    }
+
+    /**
+     * Registra un contador cuyo valor se calcula en cada lectura.
+     * La función debe ser barata, no bloquear y devolver valores no decrecientes.
+     * @param name Nombre de la métrica
+     * @param help Descripción de la métrica
+     * @param supplier Función que devuelve el valor actual
+     * @param labels Pares nombre/valor de etiquetas
+     */
+    public void counter(String name, String help, LongSupplier supplier, String... labels) {
+        family(name, help, "counter").series(labels, () -> supplier);
+    }
+
+    /**
+     * Obtiene o crea un histograma de duraciones.
+     * @param name Nombre de la métrica (se recomienda el sufijo _seconds)
+     * @param help Descripción de la métrica
+     * @param labels Pares nombre/valor de etiquetas
+     * @return El histograma
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").series(labels, Histogram::new);
+    }
+
+    /**
+     * Escribe todas las métricas en el formato de exposición de texto de Prometheus.
+     * @param out Destino del texto
+     */
+    public void writePrometheus(StringBuilder out) {
+        for (Family family : families) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> entry : family.series.entrySet()) {
+                String labels = entry.getKey();
+                Object metric = entry.getValue();
+                if (metric instanceof Histogram histogram) {
+                    writeHistogram(out, family.name, labels, histogram);
+                } else {
+                    out.append(family.name).append(braces(labels)).append(' ').append(valueOf(metric)).append('\n');
+                }
+            }
+        }
+    }
+
+    private void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        double[] bounds = histogram.getBounds();
+        long[] cumulative = histogram.cumulativeCounts();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < bounds.length; i++) {
+            out.append(name).append("_bucket{").append(prefix).append("le=\"")
+                    .append(formatDouble(bounds[i])).append("\"} ").append(cumulative[i]).append('\n');
+        }
+        long total = cumulative[cumulative.length - 1];
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(total).append('\n');
+        out.append(name).append("_sum").append(braces(labels)).append(' ').append(formatDouble(histogram.getSumSeconds())).append('\n');
+        out.append(name).append("_count").append(braces(labels)).append(' ').append(total).append('\n');
+    }
+
+    private static long valueOf(Object metric) {
+        if (metric instanceof Counter counter) {
+            return counter.get();
+        } else if (metric instanceof Gauge gauge) {
+            return gauge.get();
+        } else if (metric instanceof LongSupplier supplier) {
+            return supplier.getAsLong();
+        }
+        return 0;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = familiesByName.computeIfAbsent(name, n -> {
+            Family created = new Family(n, help, type);
+            families.add(created);
+            return created;
+        });
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("La métrica " + name + " ya está registrada como " + family.type);
+        }
+        return family;
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String formatDouble(double value) {
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    /**
+     * Convierte pares nombre/valor en la representación de etiquetas de Prometheus.
+     */
+    private static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Las etiquetas deben darse en pares nombre/valor");
+        }
+        StringBuilder formatted = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) formatted.append(',');
+            formatted.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return formatted.toString();
+    }
+
+    // Familia de métricas: series indexadas por su cadena de etiquetas, ordenadas por etiquetas
+    private static class Family {
+        final String name;
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Object series(String[] labels, Supplier<Object> factory) {
+            return series.computeIfAbsent(formatLabels(labels), key -> factory.get());
+        }
+    }
+}
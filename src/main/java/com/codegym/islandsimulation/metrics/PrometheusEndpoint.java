@@ -0,0 +1,78 @@
+package com.codegym.islandsimulation.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endpoint HTTP local que expone las métricas en formato de texto de Prometheus en {@code /metrics}.
+ * Escucha solo en la interfaz de loopback y atiende las peticiones con un único hilo daemon,
+ * de modo que una lectura nunca compite con los hilos de la simulación.
+ */
+public class PrometheusEndpoint implements AutoCloseable {
+    // Tipo de contenido del formato de exposición de texto de Prometheus
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Crea e inicia el endpoint.
+     * @param registry Registro de métricas a exponer
+     * @param port Puerto local (0 para elegir uno libre)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public PrometheusEndpoint(MetricsRegistry registry, int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsEndpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", exchange -> handle(exchange, registry));
+        server.start();
+        System.out.println("📡 Métricas disponibles en http://localhost:" + getPort() + "/metrics");
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el endpoint.
+     * @return El puerto local
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange, MetricsRegistry registry) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder body = new StringBuilder(4096);
+            registry.writePrometheus(body);
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Detiene el endpoint.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
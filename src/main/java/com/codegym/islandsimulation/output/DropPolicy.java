@@ -0,0 +1,15 @@
+package com.codegym.islandsimulation.output;
+
+/**
+ * Qué hace una salida cuando su cola está llena y llega otra tarea.
+ */
+public enum DropPolicy {
+    /** Descarta la tarea nueva y conserva las que esperan (fotogramas de un time-lapse). */
+    DROP_NEWEST,
+
+    /** Descarta la tarea más antigua de la cola: gana siempre la más reciente (vistas en vivo). */
+    DROP_OLDEST,
+
+    /** Espera a que haya sitio en la cola: no se pierde nada (datos que deben escribirse completos). */
+    BLOCK
+}
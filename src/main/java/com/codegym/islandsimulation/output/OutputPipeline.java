@@ -0,0 +1,117 @@
+package com.codegym.islandsimulation.output;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conjunto de salidas de un motor. Cada salida tiene su cola acotada y su hilo (virtual
+ * si el JDK lo permite); el cierre es estructurado: se deja de aceptar tareas, cada salida
+ * escribe las que tiene en cola dentro del plazo y las que no terminan se cancelan.
+ */
+public class OutputPipeline implements AutoCloseable {
+    // Plazo por defecto para vaciar las colas al cerrar
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    // Espera máxima a que termine una salida cancelada
+    private static final long CANCEL_JOIN_MILLIS = 1000;
+
+    private final OutputThreads threads;
+    private final List<OutputSink> sinks = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Constructor con hilos virtuales cuando estén disponibles.
+     */
+    public OutputPipeline() {
+        this(true);
+    }
+
+    /**
+     * Constructor del conjunto de salidas.
+     * @param preferVirtualThreads false para usar siempre hilos de plataforma
+     */
+    public OutputPipeline(boolean preferVirtualThreads) {
+        this.threads = new OutputThreads(preferVirtualThreads);
+    }
+
+    /**
+     * Indica si este JDK permite ejecutar las salidas en hilos virtuales.
+     * @return true en JDK 21 o posterior
+     */
+    public static boolean virtualThreadsAvailable() {
+        return OutputThreads.virtualThreadsAvailable();
+    }
+
+    /**
+     * Crea y arranca una salida.
+     * @param name Nombre de la salida (también da nombre a su hilo)
+     * @param capacity Tareas que puede tener en cola
+     * @param policy Qué hacer cuando la cola está llena
+     * @return La salida creada
+     */
+    public synchronized OutputSink addSink(String name, int capacity, DropPolicy policy) {
+        if (closed) {
+            throw new IllegalStateException("Las salidas ya están cerradas");
+        }
+        OutputSink sink = new OutputSink(name, capacity, policy);
+        sink.start(threads);
+        sinks.add(sink);
+        return sink;
+    }
+
+    /**
+     * Obtiene las salidas creadas, en orden de creación.
+     * @return Lista no modificable de salidas
+     */
+    public synchronized List<OutputSink> getSinks() {
+        return Collections.unmodifiableList(new ArrayList<>(sinks));
+    }
+
+    /**
+     * Cierra todas las salidas: escriben lo que tienen en cola dentro del plazo y las
+     * que no han terminado se cancelan.
+     * @param drainTimeout Plazo total para vaciar las colas
+     * @return true si todas las salidas terminaron sin cancelarse
+     */
+    public synchronized boolean close(Duration drainTimeout) {
+        if (closed) {
+            return true;
+        }
+        closed = true;
+        for (OutputSink sink : sinks) {
+            sink.beginClose();
+        }
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        boolean drained = true;
+        try {
+            for (OutputSink sink : sinks) {
+                if (!sink.awaitClose(deadline)) {
+                    drained = false;
+                    System.err.println("⚠️ La salida " + sink.getName() + " no terminó a tiempo y se cancela.");
+                    sink.cancel();
+                }
+            }
+            for (OutputSink sink : sinks) {
+                sink.join(CANCEL_JOIN_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            for (OutputSink sink : sinks) {
+                sink.cancel();
+            }
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return drained;
+    }
+
+    /**
+     * Cierra las salidas con el plazo por defecto.
+     */
+    @Override
+    public void close() {
+        close(DEFAULT_DRAIN_TIMEOUT);
+    }
+}
@@ -0,0 +1,198 @@
+package com.codegym.islandsimulation.output;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salida de la simulación (vista HTML, fotogramas, serie temporal, consola...) con su
+ * propia cola acotada y su propio hilo, de modo que una salida lenta no retrasa a las demás.
+ *
+ * El hilo de simulación entrega tareas con {@link #offer}; si la cola está llena se aplica
+ * la {@link DropPolicy} de la salida. Las salidas se crean y se cierran con {@link OutputPipeline}.
+ */
+public final class OutputSink {
+    // Marca de fin de la cola: el hilo termina al llegar a ella
+    private static final SinkTask END = () -> { };
+
+    private final String name;
+    private final int capacity;
+    private final DropPolicy policy;
+
+    // La cola no tiene límite propio: la capacidad la controlan los permisos
+    private final LinkedBlockingQueue<SinkTask> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean closed;
+    private Thread thread;
+
+    OutputSink(String name, int capacity, DropPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La cola de la salida " + name + " necesita capacidad");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * Arranca el hilo de la salida.
+     */
+    void start(OutputThreads threads) {
+        this.thread = threads.start("Sink-" + name, this::runLoop);
+    }
+
+    /**
+     * Entrega una tarea a la salida, aplicando su política si la cola está llena.
+     * @param task La tarea de escritura
+     * @return true si la tarea quedó en cola; false si se descartó
+     */
+    public boolean offer(SinkTask task) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    return false;
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!permits.tryAcquire()) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+            case DROP_OLDEST -> {
+                // La tarea descartada cede su permiso a la nueva
+                while (!permits.tryAcquire()) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                        break;
+                    }
+                }
+            }
+        }
+        queue.add(task);
+        return true;
+    }
+
+    /**
+     * Indica si la cola está llena, para no preparar una tarea que se descartaría.
+     * @return true si no cabe ninguna tarea más
+     */
+    public boolean isFull() {
+        return permits.availablePermits() == 0;
+    }
+
+    private void runLoop() {
+        try {
+            while (true) {
+                SinkTask task = queue.take();
+                if (task == END) {
+                    return;
+                }
+                permits.release();
+                try {
+                    task.run();
+                    written.increment();
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    failed.increment();
+                    System.err.println("Error en la salida " + name + ": " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            // Cancelada al cerrar: las tareas que quedan no se escriben
+            int pending = 0;
+            SinkTask task;
+            while ((task = queue.poll()) != null) {
+                if (task != END) {
+                    pending++;
+                }
+            }
+            dropped.add(pending);
+        }
+    }
+
+    /**
+     * Deja de aceptar tareas; el hilo termina tras escribir las que ya están en cola.
+     */
+    void beginClose() {
+        closed = true;
+        queue.add(END);
+    }
+
+    /**
+     * Espera a que el hilo termine hasta el instante indicado.
+     * @return true si terminó
+     */
+    boolean awaitClose(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        }
+        return !thread.isAlive();
+    }
+
+    /**
+     * Cancela la salida: interrumpe la tarea en curso y descarta las pendientes.
+     */
+    void cancel() {
+        thread.interrupt();
+    }
+
+    void join(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public DropPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Tareas en cola, sin contar la que se está ejecutando.
+     */
+    public int getQueued() {
+        return capacity - permits.availablePermits();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Indica si la salida se ejecuta en un hilo virtual.
+     */
+    public boolean isVirtual() {
+        return OutputThreads.isVirtual(thread);
+    }
+}
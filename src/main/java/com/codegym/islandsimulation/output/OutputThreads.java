@@ -0,0 +1,84 @@
+package com.codegym.islandsimulation.output;
+
+import java.lang.reflect.Method;
+
+/**
+ * Crea los hilos de las salidas: hilos virtuales si el JDK los ofrece (21 o posterior) y
+ * hilos de plataforma daemon si no. El proyecto compila para Java 17, así que los hilos
+ * virtuales se obtienen por reflexión con {@code Thread.ofVirtual()}.
+ */
+final class OutputThreads {
+    // Métodos de Thread.Builder resueltos al cargar la clase (null si no hay hilos virtuales)
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_START;
+    private static final Method IS_VIRTUAL;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderStart = null;
+        Method isVirtual = null;
+        if (Runtime.version().feature() >= 21) {
+            try {
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                builderName = builder.getMethod("name", String.class);
+                builderStart = builder.getMethod("start", Runnable.class);
+                isVirtual = Thread.class.getMethod("isVirtual");
+            } catch (ReflectiveOperationException e) {
+                ofVirtual = null;
+            }
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_START = builderStart;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private final boolean virtual;
+
+    /**
+     * @param preferVirtual true para usar hilos virtuales cuando estén disponibles
+     */
+    OutputThreads(boolean preferVirtual) {
+        this.virtual = preferVirtual && OF_VIRTUAL != null;
+    }
+
+    /**
+     * Indica si este JDK permite crear hilos virtuales.
+     */
+    static boolean virtualThreadsAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Arranca un hilo con el nombre y el trabajo indicados.
+     */
+    Thread start(String name, Runnable task) {
+        if (virtual) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_START.invoke(builder, task);
+            } catch (ReflectiveOperationException e) {
+                // Si la reflexión falla se usa un hilo de plataforma
+            }
+        }
+        Thread thread = new Thread(task, name);
+        // Como los hilos virtuales, no impide que la JVM termine
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null || thread == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
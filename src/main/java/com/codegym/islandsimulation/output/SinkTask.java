@@ -0,0 +1,9 @@
+package com.codegym.islandsimulation.output;
+
+/**
+ * Trabajo de escritura que una salida ejecuta en su propio hilo.
+ */
+@FunctionalInterface
+public interface SinkTask {
+    void run() throws Exception;
+}
@@ -0,0 +1,302 @@
+package com.codegym.islandsimulation.shard;
+
+import com.codegym.islandsimulation.engine.IslandEngine;
+import com.codegym.islandsimulation.entities.Corpse;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.MapBand;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.threads.EatingPlantEvent;
+import com.codegym.islandsimulation.threads.HuntingEvent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Intercambio de una banda con sus vecinas al final de cada ciclo. El mensaje hacia cada
+ * vecina lleva, en este orden:
+ * <ol>
+ *     <li>Los animales que han entrado en el halo de ese lado (migrantes): se retiran del
+ *     motor local y la vecina los coloca en sus filas propias.</li>
+ *     <li>Las cazas y plantas comidas por animales locales en ese halo: la vecina las aplica
+ *     en el ciclo siguiente si la presa o la planta siguen ahí, como hace el motor con las suyas.</li>
+ *     <li>Las filas propias del borde, con el código de especie de cada celda y el
+ *     identificador de cada animal: son el nuevo halo de la vecina.</li>
+ * </ol>
+ * En el halo se colocan copias de los organismos de la vecina ("fantasmas"): no actúan,
+ * pero ocupan su celda y pueden ser presa o comida de los animales locales. Una presa
+ * del borde puede alimentar en el mismo ciclo a un depredador de cada lado; su muerte
+ * se aplica una sola vez.
+ */
+final class BandExchange {
+    // Lado de la banda con el que se intercambia
+    enum Side { TOP, BOTTOM }
+
+    // Bytes por migrante: fila, columna, código, peso, comida y espera de reproducción
+    private static final int MIGRANT_BYTES = 4 + 4 + 1 + 8 + 8 + 4;
+
+    // Indica qué códigos de especie corresponden a animales
+    private static final boolean[] ANIMAL_CODES = new boolean[SpeciesCodes.codeCount()];
+
+    static {
+        for (int code = 0; code < ANIMAL_CODES.length; code++) {
+            Class<? extends Organism> species = SpeciesCodes.speciesOf(code);
+            ANIMAL_CODES[code] = species != null && Animal.class.isAssignableFrom(species);
+        }
+    }
+
+    private final IslandEngine engine;
+    private final IslandMap map;
+    private final MapBand band;
+    private final int cols;
+
+    // Fantasmas colocados en cada halo y el identificador de su original en la vecina
+    private final Organism[][] ghosts = new Organism[2][];
+    private final byte[][] ghostCodes = new byte[2][];
+    private final long[][] ghostIds = new long[2][];
+
+    // Totales acumulados, para el informe al coordinador
+    private long emigrants;
+    private long immigrants;
+    private long rejectedImmigrants;
+    private long remoteHunts;
+    private long remotePlantsEaten;
+
+    BandExchange(IslandEngine engine, MapBand band) {
+        this.engine = engine;
+        this.map = engine.getIslandMap();
+        this.band = band;
+        this.cols = map.getCols();
+        for (Side side : Side.values()) {
+            int cells = haloRows(side) * cols;
+            ghosts[side.ordinal()] = new Organism[cells];
+            ghostCodes[side.ordinal()] = new byte[cells];
+            ghostIds[side.ordinal()] = new long[cells];
+        }
+    }
+
+    /**
+     * Prepara el mensaje para la vecina de un lado. Retira del motor los animales que han
+     * entrado en ese halo, así que debe llamarse una sola vez por lado y ciclo, y para
+     * todos los lados antes de aplicar ningún mensaje recibido.
+     * @param side Lado de la vecina
+     * @param cycle Ciclo que acaba de terminar
+     * @param buffer Búfer a reutilizar (puede ser null)
+     * @return El mensaje, listo para enviar
+     */
+    ByteBuffer encode(Side side, int cycle, ByteBuffer buffer) {
+        int haloRows = haloRows(side);
+        int haloStart = haloStart(side);
+        Organism[] sideGhosts = ghosts[side.ordinal()];
+        long[] sideIds = ghostIds[side.ordinal()];
+
+        // Migrantes: cualquier animal del halo que no sea el fantasma de su celda
+        List<Animal> migrants = new ArrayList<>();
+        List<int[]> migrantCells = new ArrayList<>();
+        for (int r = 0; r < haloRows; r++) {
+            for (int col = 0; col < cols; col++) {
+                int row = haloStart + r;
+                Organism organism = map.getOrganismAt(row, col);
+                if (organism instanceof Animal && organism != sideGhosts[r * cols + col]) {
+                    migrants.add(engine.emigrate(row, col));
+                    migrantCells.add(new int[] {band.toIslandRow(row), col});
+                }
+            }
+        }
+        emigrants += migrants.size();
+
+        // Cazas y plantas comidas en el halo, sobre fantasmas que siguen en su celda
+        List<long[]> hunts = new ArrayList<>();
+        for (HuntingEvent event : engine.getLastCycleHuntingEvents()) {
+            int index = haloIndex(side, event.preyRow(), event.preyCol());
+            if (index >= 0 && event.prey() == sideGhosts[index]) {
+                hunts.add(new long[] {band.toIslandRow(event.preyRow()), event.preyCol(), sideIds[index]});
+            }
+        }
+        List<int[]> plants = new ArrayList<>();
+        for (EatingPlantEvent event : engine.getLastCycleEatingPlantEvents()) {
+            int index = haloIndex(side, event.plantRow(), event.plantCol());
+            if (index >= 0 && map.getOrganismAt(event.plantRow(), event.plantCol()) == sideGhosts[index]) {
+                plants.add(new int[] {band.toIslandRow(event.plantRow()), event.plantCol()});
+            }
+        }
+
+        int boundaryRows = haloRows;
+        int boundaryStart = side == Side.TOP ? band.firstOwnedRow() : band.endOwnedRow() - boundaryRows;
+        int capacity = 4 * Integer.BYTES + migrants.size() * MIGRANT_BYTES + hunts.size() * 16
+                + plants.size() * 8 + 2 * Integer.BYTES + boundaryRows * cols * (1 + Long.BYTES);
+        if (buffer == null || buffer.capacity() < capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+        buffer.clear();
+        buffer.putInt(cycle);
+
+        buffer.putInt(migrants.size());
+        for (int i = 0; i < migrants.size(); i++) {
+            Animal animal = migrants.get(i);
+            buffer.putInt(migrantCells.get(i)[0]).putInt(migrantCells.get(i)[1])
+                    .put(SpeciesCodes.codeOf(animal.getClass()))
+                    .putDouble(animal.getWeight())
+                    .putDouble(animal.getCurrentFoodLevel())
+                    .putInt(animal.getReproductionCooldown());
+        }
+
+        buffer.putInt(hunts.size());
+        for (long[] hunt : hunts) {
+            buffer.putInt((int) hunt[0]).putInt((int) hunt[1]).putLong(hunt[2]);
+        }
+
+        buffer.putInt(plants.size());
+        for (int[] plant : plants) {
+            buffer.putInt(plant[0]).putInt(plant[1]);
+        }
+
+        // Filas propias del borde: código de cada celda e identificador de cada animal
+        buffer.putInt(boundaryRows).putInt(cols);
+        for (int row = boundaryStart; row < boundaryStart + boundaryRows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Organism organism = map.getOrganismAt(row, col);
+                byte code = SpeciesCodes.codeOf(organism);
+                buffer.put(code);
+                if (ANIMAL_CODES[code]) {
+                    buffer.putLong(organism.getId());
+                }
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Aplica el mensaje de la vecina de un lado: coloca sus migrantes, programa sus cazas y
+     * consumos en las filas propias y actualiza el halo de ese lado.
+     * @param side Lado de la vecina
+     * @param cycle Ciclo que acaba de terminar
+     * @param message Mensaje recibido
+     */
+    void apply(Side side, int cycle, ByteBuffer message) {
+        int received = message.getInt();
+        if (received != cycle) {
+            throw new IllegalStateException("Ciclo " + received + " recibido de la banda vecina durante el ciclo " + cycle);
+        }
+
+        int migrantCount = message.getInt();
+        for (int i = 0; i < migrantCount; i++) {
+            int row = band.toLocalRow(message.getInt());
+            int col = message.getInt();
+            byte code = message.get();
+            double weight = message.getDouble();
+            double food = message.getDouble();
+            int cooldown = message.getInt();
+            Animal animal = engine.immigrate(SpeciesCodes.speciesOf(code).asSubclass(Animal.class), row, col);
+            if (animal != null) {
+                animal.restoreMigrationState(weight, food, cooldown);
+                immigrants++;
+            } else {
+                // Sin sitio en la banda: el animal se pierde
+                rejectedImmigrants++;
+            }
+        }
+
+        int huntCount = message.getInt();
+        for (int i = 0; i < huntCount; i++) {
+            int row = band.toLocalRow(message.getInt());
+            int col = message.getInt();
+            if (engine.applyRemoteHunt(row, col, message.getLong())) {
+                remoteHunts++;
+            }
+        }
+
+        int plantCount = message.getInt();
+        for (int i = 0; i < plantCount; i++) {
+            int row = band.toLocalRow(message.getInt());
+            if (engine.applyRemotePlantEaten(row, message.getInt())) {
+                remotePlantsEaten++;
+            }
+        }
+
+        int haloRows = message.getInt();
+        int haloCols = message.getInt();
+        if (haloRows != haloRows(side) || haloCols != cols) {
+            throw new IllegalStateException("El halo recibido no coincide con el de la banda");
+        }
+        int haloStart = haloStart(side);
+        Organism[] sideGhosts = ghosts[side.ordinal()];
+        byte[] sideCodes = ghostCodes[side.ordinal()];
+        long[] sideIds = ghostIds[side.ordinal()];
+        for (int index = 0; index < haloRows * cols; index++) {
+            byte code = message.get();
+            long id = ANIMAL_CODES[code] ? message.getLong() : 0;
+            int row = haloStart + index / cols;
+            int col = index % cols;
+            Organism current = map.getOrganismAt(row, col);
+            // Un fantasma que no ha cambiado se conserva
+            if (current != null && current == sideGhosts[index] && sideCodes[index] == code && sideIds[index] == id) {
+                continue;
+            }
+            Organism ghost = createGhost(code);
+            map.setOrganismAt(row, col, ghost);
+            sideGhosts[index] = ghost;
+            sideCodes[index] = code;
+            sideIds[index] = id;
+        }
+    }
+
+    /**
+     * Crea la copia local de una celda de la vecina a partir de su código.
+     */
+    private static Organism createGhost(byte code) {
+        switch (code) {
+            case SpeciesCodes.EMPTY:
+                return null;
+            case SpeciesCodes.CORPSE:
+                return Corpse.INSTANCE;
+            case SpeciesCodes.EATEN_PLANT:
+                Plant eaten = (Plant) OrganismFactory.createOrganism(Vegetation.class);
+                eaten.getEaten();
+                return eaten;
+            default:
+                return OrganismFactory.createOrganism(SpeciesCodes.speciesOf(code));
+        }
+    }
+
+    private int haloRows(Side side) {
+        return side == Side.TOP ? band.haloTop() : band.haloBottom();
+    }
+
+    private int haloStart(Side side) {
+        return side == Side.TOP ? 0 : band.endOwnedRow();
+    }
+
+    /**
+     * Índice de una celda dentro del halo de un lado, o -1 si no está en él.
+     */
+    private int haloIndex(Side side, int row, int col) {
+        int r = row - haloStart(side);
+        return r >= 0 && r < haloRows(side) ? r * cols + col : -1;
+    }
+
+    long getEmigrants() {
+        return emigrants;
+    }
+
+    long getImmigrants() {
+        return immigrants;
+    }
+
+    long getRejectedImmigrants() {
+        return rejectedImmigrants;
+    }
+
+    long getRemoteHunts() {
+        return remoteHunts;
+    }
+
+    long getRemotePlantsEaten() {
+        return remotePlantsEaten;
+    }
+}
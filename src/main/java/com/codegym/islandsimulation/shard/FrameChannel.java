@@ -0,0 +1,120 @@
+package com.codegym.islandsimulation.shard;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Conexión local entre procesos por un socket de dominio Unix que intercambia mensajes
+ * completos: cada mensaje va precedido de su longitud en 4 bytes.
+ *
+ * Se lee y se escribe directamente sobre el canal, sin los flujos de {@code Channels},
+ * que comparten un lock entre lectura y escritura: así un hilo puede enviar mientras otro
+ * recibe por la misma conexión sin bloquearse mutuamente.
+ */
+final class FrameChannel implements AutoCloseable {
+    // Tamaño máximo de un mensaje, para detectar datos corruptos
+    private static final int MAX_FRAME_BYTES = 1 << 28;
+
+    // Espera entre intentos de conexión mientras el otro proceso arranca
+    private static final long CONNECT_RETRY_MILLIS = 50;
+
+    private final SocketChannel channel;
+    private final ByteBuffer sendHeader = ByteBuffer.allocate(Integer.BYTES);
+    private final ByteBuffer receiveHeader = ByteBuffer.allocate(Integer.BYTES);
+    private ByteBuffer receiveBuffer = ByteBuffer.allocate(4096);
+
+    private FrameChannel(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Abre un socket de escucha en la ruta indicada, borrando el archivo de un socket anterior.
+     */
+    static ServerSocketChannel listen(Path socket) throws IOException {
+        Files.deleteIfExists(socket);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        return server;
+    }
+
+    /**
+     * Espera la siguiente conexión de un socket de escucha.
+     */
+    static FrameChannel accept(ServerSocketChannel server) throws IOException {
+        return new FrameChannel(server.accept());
+    }
+
+    /**
+     * Se conecta a un socket, reintentando mientras el proceso que escucha aún no lo ha creado.
+     * @param socket Ruta del socket
+     * @param timeout Tiempo máximo de espera
+     */
+    static FrameChannel connect(Path socket, Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(socket);
+        while (true) {
+            try {
+                return new FrameChannel(SocketChannel.open(address));
+            } catch (IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("No se pudo conectar a " + socket, e);
+                }
+                Thread.sleep(CONNECT_RETRY_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Envía un mensaje completo: los bytes entre la posición y el límite del búfer.
+     * Solo debe enviar un hilo a la vez.
+     */
+    void send(ByteBuffer payload) throws IOException {
+        sendHeader.clear();
+        sendHeader.putInt(payload.remaining()).flip();
+        ByteBuffer[] buffers = {sendHeader, payload};
+        while (payload.hasRemaining() || sendHeader.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    /**
+     * Recibe el siguiente mensaje completo. El búfer devuelto se reutiliza en la siguiente
+     * llamada, así que hay que terminar de leerlo antes. Solo debe recibir un hilo a la vez.
+     * @return El mensaje, listo para leer
+     */
+    ByteBuffer receive() throws IOException {
+        receiveHeader.clear();
+        readFully(receiveHeader);
+        int length = receiveHeader.flip().getInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Longitud de mensaje no válida: " + length);
+        }
+        if (receiveBuffer.capacity() < length) {
+            receiveBuffer = ByteBuffer.allocate(Math.max(length, receiveBuffer.capacity() * 2));
+        }
+        receiveBuffer.clear().limit(length);
+        readFully(receiveBuffer);
+        return receiveBuffer.flip();
+    }
+
+    private void readFully(ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new EOFException("El otro proceso cerró la conexión");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,317 @@
+package com.codegym.islandsimulation.shard;
+
+import com.codegym.islandsimulation.engine.SimulationParameters;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.factory.SpeciesInfo;
+import com.codegym.islandsimulation.map.MapBand;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta una isla repartida en bandas horizontales, cada una en un proceso (JVM) propio
+ * de la misma máquina. Las bandas se comunican por sockets de dominio Unix en un
+ * directorio temporal: cada una con sus vecinas, para los halos y los migrantes, y todas
+ * con este coordinador, que hace de barrera entre ciclos: ninguna banda empieza un ciclo
+ * hasta que todas han terminado el anterior y su intercambio.
+ *
+ * El halo de cada banda tiene tantas filas como la velocidad máxima de las especies, así
+ * que un animal no puede atravesarlo en un ciclo y su presa más lejana está siempre a la vista.
+ *
+ * Las opciones de la JVM de las bandas se pasan en la propiedad {@code island.shard.jvmArgs},
+ * separadas por espacios.
+ *
+ * Uso: {@code java -cp target/classes com.codegym.islandsimulation.shard.ShardCoordinator [filas] [columnas] [bandas] [ciclos] [semilla]}
+ */
+public class ShardCoordinator {
+    // Ciclos entre dos líneas de progreso por consola
+    private static final int REPORT_EVERY_CYCLES = 10;
+
+    private final int rows;
+    private final int cols;
+    private final int shards;
+    private final long seed;
+    private final int halo;
+    private final List<Class<?>> species;
+
+    // Destino del progreso del coordinador y de la salida de los procesos de las bandas
+    private final PrintStream log;
+    private final ProcessBuilder.Redirect bandOutput;
+
+    /**
+     * Constructor del coordinador.
+     * @param rows Filas de la isla
+     * @param cols Columnas de la isla
+     * @param shards Número de bandas (procesos)
+     * @param seed Semilla de la isla
+     */
+    public ShardCoordinator(int rows, int cols, int shards, long seed) {
+        this(rows, cols, shards, seed, System.out, ProcessBuilder.Redirect.INHERIT);
+    }
+
+    /**
+     * Constructor del coordinador con otros destinos para el progreso y para la salida de las bandas.
+     * @param log Donde se escribe el progreso de los ciclos
+     * @param bandOutput Donde van la salida estándar y de errores de los procesos de las bandas
+     *                   (para un archivo, {@link ProcessBuilder.Redirect#appendTo})
+     */
+    ShardCoordinator(int rows, int cols, int shards, long seed, PrintStream log, ProcessBuilder.Redirect bandOutput) {
+        this.log = log;
+        this.bandOutput = bandOutput;
+        this.rows = rows;
+        this.cols = cols;
+        this.shards = shards;
+        this.seed = seed;
+        this.halo = haloRows(SimulationParameters.defaults());
+        this.species = new ArrayList<>(OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL));
+        // Falla aquí, y no en cada proceso, si las bandas no caben en la isla
+        MapBand.split(rows, shards, halo);
+    }
+
+    /**
+     * Filas de halo necesarias: la mayor velocidad de las especies animales.
+     */
+    static int haloRows(SimulationParameters parameters) {
+        int halo = 1;
+        for (SpeciesInfo info : OrganismRegistry.getAllSpecies()) {
+            if (info.kind() == OrganismKind.ANIMAL) {
+                SimulationParameters.SpeciesTraits traits = parameters.traitsFor(info.type());
+                halo = Math.max(halo, traits != null ? traits.maxSpeed() : info.maxSpeed());
+            }
+        }
+        return halo;
+    }
+
+    /**
+     * Lanza los procesos de las bandas y ejecuta los ciclos.
+     * @param cycles Número de ciclos
+     * @throws IOException si falla la comunicación con alguna banda; se detienen todas
+     * @throws InterruptedException si se interrumpe la espera; se detienen todas
+     */
+    public void run(int cycles) throws IOException, InterruptedException {
+        run(cycles, this::launch, (cycle, populations) -> { });
+    }
+
+    /**
+     * Ejecuta los ciclos con las bandas que arranca {@code launcher}.
+     * @param cycles Número de ciclos
+     * @param launcher Arranca cada banda
+     * @param listener Se llama tras recibir el informe de todas las bandas de cada ciclo,
+     *                 mientras las bandas esperan la orden del ciclo siguiente
+     */
+    void run(int cycles, BandLauncher launcher, CycleListener listener) throws IOException, InterruptedException {
+        Path socketDirectory = Files.createTempDirectory("island-shards");
+        List<RunningBand> bands = new ArrayList<>();
+        FrameChannel[] channels = new FrameChannel[shards];
+        boolean completed = false;
+        try (ServerSocketChannel server = FrameChannel.listen(ShardWorker.coordinatorSocket(socketDirectory))) {
+            for (int i = 0; i < shards; i++) {
+                bands.add(launcher.launch(socketDirectory, i));
+            }
+            // Cada banda se presenta con su índice al conectarse
+            for (int i = 0; i < shards; i++) {
+                FrameChannel channel = FrameChannel.accept(server);
+                channels[channel.receive().getInt()] = channel;
+            }
+            log.printf("🧩 %d bandas de %dx%d con %d filas de halo en %s%n",
+                    shards, rows / shards, cols, halo, socketDirectory);
+
+            long start = System.nanoTime();
+            ByteBuffer go = ByteBuffer.allocate(1).put(ShardWorker.GO).flip();
+            for (int cycle = 0; cycle <= cycles; cycle++) {
+                CycleReport report = collect(channels, cycle);
+                if (cycle == 1 || (cycle > 0 && cycle % REPORT_EVERY_CYCLES == 0) || cycle == cycles) {
+                    log.println(report.describe(species));
+                }
+                listener.cycleCompleted(cycle, report.populations.clone());
+                if (cycle < cycles) {
+                    for (FrameChannel channel : channels) {
+                        channel.send(go.rewind());
+                    }
+                }
+            }
+            ByteBuffer stop = ByteBuffer.allocate(1).put(ShardWorker.STOP).flip();
+            for (FrameChannel channel : channels) {
+                channel.send(stop.rewind());
+            }
+            log.printf("🏁 %d ciclos en %d ms%n", cycles, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            completed = true;
+        } finally {
+            for (FrameChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            for (RunningBand band : bands) {
+                if (!completed) {
+                    band.kill();
+                }
+                band.await();
+            }
+            try (var files = Files.list(socketDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(socketDirectory);
+        }
+    }
+
+    /**
+     * Espera el informe de todas las bandas para un ciclo y los suma.
+     */
+    private CycleReport collect(FrameChannel[] channels, int cycle) throws IOException {
+        CycleReport total = new CycleReport(cycle, species.size());
+        for (FrameChannel channel : channels) {
+            ByteBuffer message = channel.receive();
+            int index = message.getInt();
+            int received = message.getInt();
+            if (received != cycle) {
+                throw new IOException("La banda " + index + " informa del ciclo " + received + " en lugar del " + cycle);
+            }
+            total.slowestMillis = Math.max(total.slowestMillis, message.getLong());
+            for (int i = 0; i < total.populations.length; i++) {
+                total.populations[i] += message.getLong();
+            }
+            for (int i = 0; i < total.exchange.length; i++) {
+                total.exchange[i] += message.getLong();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Lanza el proceso de una banda con el mismo Java y classpath que el coordinador.
+     */
+    private RunningBand launch(Path socketDirectory, int index) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("island.shard.jvmArgs", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(socketDirectory.toString());
+        command.add(Integer.toString(index));
+        command.add(Integer.toString(shards));
+        command.add(Integer.toString(rows));
+        command.add(Integer.toString(cols));
+        command.add(Long.toString(seed));
+        command.add(Integer.toString(halo));
+        Process process = new ProcessBuilder(command)
+                .directory(new File(System.getProperty("user.dir")))
+                .redirectInput(ProcessBuilder.Redirect.INHERIT)
+                .redirectOutput(bandOutput)
+                .redirectError(bandOutput)
+                .start();
+        return new RunningBand() {
+            @Override
+            public void kill() {
+                process.destroyForcibly();
+            }
+
+            @Override
+            public void await() throws InterruptedException {
+                process.waitFor();
+            }
+        };
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    int getShards() {
+        return shards;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int getHalo() {
+        return halo;
+    }
+
+    /**
+     * Arranca una banda: un proceso, o un hilo de esta JVM en las pruebas.
+     */
+    @FunctionalInterface
+    interface BandLauncher {
+        RunningBand launch(Path socketDirectory, int index) throws IOException;
+    }
+
+    /**
+     * Banda en ejecución, a la que se espera al terminar o se detiene si algo falla.
+     */
+    interface RunningBand {
+        void kill();
+
+        void await() throws InterruptedException;
+    }
+
+    /**
+     * Recibe las poblaciones sumadas de cada ciclo.
+     */
+    @FunctionalInterface
+    interface CycleListener {
+        void cycleCompleted(int cycle, long[] populations) throws IOException;
+    }
+
+    /**
+     * Suma de los informes de todas las bandas en un ciclo.
+     */
+    private static final class CycleReport {
+        private final int cycle;
+        private final long[] populations;
+        // Emigrantes, inmigrantes, rechazados, cazas remotas y plantas remotas (acumulados)
+        private final long[] exchange = new long[ShardWorker.EXCHANGE_COUNTERS];
+        private long slowestMillis;
+
+        private CycleReport(int cycle, int speciesCount) {
+            this.cycle = cycle;
+            this.populations = new long[speciesCount];
+        }
+
+        private String describe(List<Class<?>> species) {
+            StringJoiner counts = new StringJoiner(", ");
+            long total = 0;
+            for (int i = 0; i < populations.length; i++) {
+                total += populations[i];
+                if (populations[i] > 0) {
+                    counts.add(species.get(i).getSimpleName() + "=" + populations[i]);
+                }
+            }
+            return String.format("🔄 Ciclo %d (%d ms la banda más lenta): %d animales [%s]%n"
+                            + "   🚚 migrantes %d enviados, %d colocados, %d sin sitio; 🎯 %d cazas y 🌿 %d plantas entre bandas",
+                    cycle, slowestMillis, total, counts, exchange[0], exchange[1], exchange[2], exchange[3], exchange[4]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 120;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int cycles = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        new ShardCoordinator(rows, cols, shards, seed).run(cycles);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,288 @@
+package com.codegym.islandsimulation.shard;
+
+import com.codegym.islandsimulation.engine.IslandEngine;
+import com.codegym.islandsimulation.engine.SimulationParameters;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.map.MapBand;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Proceso que simula una banda de la isla en modo repartido. Lo lanza
+ * {@link ShardCoordinator}, que le indica cuándo ejecutar cada ciclo.
+ *
+ * Al final de cada ciclo intercambia con las bandas vecinas sus migrantes, las cazas y
+ * consumos en el halo y las filas de borde (ver {@link BandExchange}), y después informa
+ * al coordinador de sus poblaciones. Cada banda se conecta a la de arriba y espera la
+ * conexión de la de abajo; los envíos van en hilos propios para que dos vecinas que
+ * envían a la vez no se bloqueen con el búfer del socket lleno.
+ *
+ * Uso: {@code ShardWorker <directorio de sockets> <banda> <bandas> <filas> <columnas> <semilla> <halo>}
+ */
+public final class ShardWorker {
+    // Órdenes del coordinador
+    static final byte STOP = 0;
+    static final byte GO = 1;
+
+    // Contadores de intercambio que se añaden al informe, tras las poblaciones
+    static final int EXCHANGE_COUNTERS = 5;
+
+    // Tiempo máximo de espera a que arranquen el coordinador y las bandas vecinas
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int index;
+    private final IslandEngine engine;
+    private final BandExchange exchange;
+    private final List<Class<? extends Organism>> species;
+
+    private final FrameChannel coordinator;
+    private final FrameChannel upper;
+    private final FrameChannel lower;
+
+    // Un hilo de envío por vecina
+    private final ExecutorService senders = Executors.newFixedThreadPool(2, task -> {
+        Thread thread = new Thread(task, "ShardSender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ByteBuffer upperMessage;
+    private ByteBuffer lowerMessage;
+    private ByteBuffer report;
+
+    // Último ciclo cuyo intercambio ha terminado; se escribe antes de informar al coordinador
+    private volatile int exchangedCycle = -1;
+
+    private ShardWorker(int index, IslandEngine engine, MapBand band, FrameChannel coordinator,
+                        FrameChannel upper, FrameChannel lower) {
+        this.index = index;
+        this.engine = engine;
+        this.exchange = new BandExchange(engine, band);
+        this.species = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL);
+        this.coordinator = coordinator;
+        this.upper = upper;
+        this.lower = lower;
+        this.report = ByteBuffer.allocate(2 * Integer.BYTES + Long.BYTES
+                + (species.size() + EXCHANGE_COUNTERS) * Long.BYTES);
+    }
+
+    /**
+     * Obtiene el motor de la banda. Quien lo inspecte desde otro hilo debe hacerlo mientras
+     * la banda espera la orden del coordinador y después de leer {@link #getExchangedCycle()}.
+     * @return El motor de la banda
+     */
+    IslandEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Obtiene los contadores de intercambio de la banda.
+     * @return El intercambio con las vecinas
+     */
+    BandExchange getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Obtiene el último ciclo cuyo intercambio con las vecinas ha terminado.
+     * @return El ciclo, o -1 si aún no ha terminado el intercambio inicial
+     */
+    int getExchangedCycle() {
+        return exchangedCycle;
+    }
+
+    /**
+     * Ejecuta ciclos mientras el coordinador lo pida. Antes del primero intercambia los
+     * halos iniciales, para que cada banda vea a sus vecinas desde el principio.
+     */
+    private void run() throws IOException, InterruptedException {
+        exchangeWithNeighbours();
+        sendReport(0);
+        while (true) {
+            ByteBuffer command = coordinator.receive();
+            if (command.get() != GO) {
+                return;
+            }
+            long start = System.nanoTime();
+            engine.updateSimulationCycle();
+            exchangeWithNeighbours();
+            sendReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Prepara los mensajes para las dos vecinas, los envía en segundo plano y aplica los recibidos.
+     */
+    private void exchangeWithNeighbours() throws IOException, InterruptedException {
+        int cycle = engine.getCycleNumber();
+        // Todos los mensajes se preparan antes de aplicar ninguno: aplicar cambia el halo
+        Future<?> upperSend = null;
+        Future<?> lowerSend = null;
+        if (upper != null) {
+            upperMessage = exchange.encode(BandExchange.Side.TOP, cycle, upperMessage);
+            ByteBuffer message = upperMessage;
+            upperSend = senders.submit(() -> {
+                upper.send(message);
+                return null;
+            });
+        }
+        if (lower != null) {
+            lowerMessage = exchange.encode(BandExchange.Side.BOTTOM, cycle, lowerMessage);
+            ByteBuffer message = lowerMessage;
+            lowerSend = senders.submit(() -> {
+                lower.send(message);
+                return null;
+            });
+        }
+        if (upper != null) {
+            exchange.apply(BandExchange.Side.TOP, cycle, upper.receive());
+        }
+        if (lower != null) {
+            exchange.apply(BandExchange.Side.BOTTOM, cycle, lower.receive());
+        }
+        // Los búferes se reutilizan en el ciclo siguiente
+        awaitSend(upperSend);
+        awaitSend(lowerSend);
+        exchangedCycle = cycle;
+    }
+
+    private static void awaitSend(Future<?> send) throws IOException, InterruptedException {
+        if (send == null) {
+            return;
+        }
+        try {
+            send.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Error al enviar a la banda vecina", e.getCause());
+        }
+    }
+
+    /**
+     * Envía al coordinador el ciclo, su duración, la población de cada especie y los
+     * contadores de intercambio acumulados.
+     */
+    private void sendReport(long millis) throws IOException {
+        report.clear();
+        report.putInt(index).putInt(engine.getCycleNumber()).putLong(millis);
+        for (Class<? extends Organism> type : species) {
+            report.putLong(engine.getPopulationCounts().getOrDefault(type, 0L));
+        }
+        report.putLong(exchange.getEmigrants())
+                .putLong(exchange.getImmigrants())
+                .putLong(exchange.getRejectedImmigrants())
+                .putLong(exchange.getRemoteHunts())
+                .putLong(exchange.getRemotePlantsEaten());
+        coordinator.send(report.flip());
+    }
+
+    private void close() {
+        senders.shutdownNow();
+        closeQuietly(upper);
+        closeQuietly(lower);
+        closeQuietly(coordinator);
+    }
+
+    private static void closeQuietly(FrameChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Se está cerrando el proceso: no hay nada más que hacer
+            }
+        }
+    }
+
+    /**
+     * Ruta del socket en el que una banda espera a su vecina de abajo.
+     */
+    static Path bandSocket(Path socketDirectory, int index) {
+        return socketDirectory.resolve("band-" + index + ".sock");
+    }
+
+    /**
+     * Ruta del socket del coordinador.
+     */
+    static Path coordinatorSocket(Path socketDirectory) {
+        return socketDirectory.resolve("coordinator.sock");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("Uso: ShardWorker <directorio> <banda> <bandas> <filas> <columnas> <semilla> <halo>");
+            System.exit(2);
+        }
+        runBand(Path.of(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                Integer.parseInt(args[4]), Long.parseLong(args[5]), Integer.parseInt(args[6]), worker -> { });
+        System.exit(0);
+    }
+
+    /**
+     * Crea el motor de una banda, la conecta con el coordinador y con sus vecinas y ejecuta
+     * sus ciclos hasta que el coordinador ordene parar. Es el cuerpo del proceso de la banda;
+     * las pruebas lo llaman también desde hilos de su propia JVM.
+     * @param socketDirectory Directorio de los sockets
+     * @param index Índice de la banda
+     * @param count Número de bandas
+     * @param rows Filas de la isla
+     * @param cols Columnas de la isla
+     * @param seed Semilla de la isla
+     * @param halo Filas de halo
+     * @param onConnected Recibe la banda una vez conectada, antes del intercambio inicial
+     */
+    static void runBand(Path socketDirectory, int index, int count, int rows, int cols, long seed, int halo,
+                        Consumer<ShardWorker> onConnected) throws IOException, InterruptedException {
+        MapBand band = MapBand.split(rows, count, halo).get(index);
+
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        IslandEngine engine = new IslandEngine(cols, band, seed, threadPool, SimulationParameters.defaults());
+        engine.setHtmlOutputEnabled(false);
+        engine.setConsoleStatisticsEnabled(false);
+
+        ShardWorker worker = null;
+        FrameChannel coordinator = null;
+        FrameChannel upper = null;
+        FrameChannel lower = null;
+        try {
+            coordinator = FrameChannel.connect(coordinatorSocket(socketDirectory), CONNECT_TIMEOUT);
+            coordinator.send(ByteBuffer.allocate(Integer.BYTES).putInt(index).flip());
+
+            // Se escucha antes de conectar: así ninguna banda espera a otra que aún no escucha
+            ServerSocketChannel server = index < count - 1 ? FrameChannel.listen(bandSocket(socketDirectory, index)) : null;
+            if (index > 0) {
+                upper = FrameChannel.connect(bandSocket(socketDirectory, index - 1), CONNECT_TIMEOUT);
+            }
+            if (server != null) {
+                try (server) {
+                    lower = FrameChannel.accept(server);
+                }
+            }
+
+            worker = new ShardWorker(index, engine, band, coordinator, upper, lower);
+            onConnected.accept(worker);
+            worker.run();
+        } finally {
+            if (worker != null) {
+                worker.close();
+            } else {
+                closeQuietly(upper);
+                closeQuietly(lower);
+                closeQuietly(coordinator);
+            }
+            engine.shutdown();
+            threadPool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.codegym.islandsimulation.threads;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import com.codegym.islandsimulation.map.IntPlane;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservas por celda sin bloqueos para las fases paralelas de la simulación.
+ *
+ * Cada celda guarda el número del último ciclo en que fue reservada. Reservar una
+ * celda es un compareAndSet de ese sello al ciclo actual: solo un hilo lo consigue
+ * por ciclo, y al empezar un ciclo nuevo todas las celdas quedan libres sin tener
+ * que limpiar el arreglo. Así cada presa o planta se consume una sola vez aunque
+ * varios animales la elijan a la vez, sin ningún lock global.
+ * Los sellos se guardan en un plano de la {@link CellMemory} del mapa.
+ */
+public final class CellClaims {
+    private final int cols;
+
+    // Último ciclo en que se reservó cada celda (0 = nunca)
+    private final IntPlane stamps;
+
+    // Ciclo cuyas reservas están en curso
+    private volatile int cycle;
+
+    // Estadísticas de contención acumuladas
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    /**
+     * Constructor de las reservas de un mapa.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     */
+    public CellClaims(int rows, int cols) {
+        this(rows, cols, CellMemory.heap());
+    }
+
+    /**
+     * Constructor de las reservas de un mapa con los sellos en una memoria dada.
+     * @param rows Número de filas del mapa
+     * @param cols Número de columnas del mapa
+     * @param memory Memoria de los sellos, normalmente la del mapa
+     */
+    public CellClaims(int rows, int cols, CellMemory memory) {
+        this.cols = cols;
+        this.stamps = memory.allocateInts(rows * cols);
+    }
+
+    /**
+     * Empieza las reservas de un ciclo; las del ciclo anterior dejan de contar.
+     * Debe llamarse antes de lanzar la fase, desde el hilo que la coordina.
+     * @param cycle Número del ciclo (mayor que cero y creciente)
+     */
+    public void beginCycle(int cycle) {
+        if (cycle <= 0) {
+            throw new IllegalArgumentException("El ciclo de las reservas debe ser positivo: " + cycle);
+        }
+        this.cycle = cycle;
+    }
+
+    /**
+     * Intenta reservar una celda en el ciclo actual.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return true si la reserva es de quien llama; false si otro hilo la reservó antes
+     */
+    public boolean tryClaim(int row, int col) {
+        int index = row * cols + col;
+        int current = cycle;
+        int stamp = stamps.getVolatile(index);
+        // El sello solo puede pasar al ciclo actual, así que basta un único intento
+        if (stamp != current && stamps.compareAndSet(index, stamp, current)) {
+            claimed.increment();
+            return true;
+        }
+        conflicts.increment();
+        return false;
+    }
+
+    /**
+     * Indica si una celda ya está reservada en el ciclo actual.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return true si está reservada
+     */
+    public boolean isClaimed(int row, int col) {
+        return stamps.getVolatile(row * cols + col) == cycle;
+    }
+
+    /**
+     * Número total de reservas conseguidas.
+     */
+    public long getClaimed() {
+        return claimed.sum();
+    }
+
+    /**
+     * Número total de reservas perdidas porque otro hilo llegó antes.
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+}
@@ -0,0 +1,91 @@
+package com.codegym.islandsimulation.threads;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import com.codegym.islandsimulation.map.LongPlane;
+
+/**
+ * Reservas por celda con prioridad, deterministas aunque se hagan en paralelo.
+ *
+ * A diferencia de {@link CellClaims}, donde gana el primer hilo que llega, aquí cada
+ * ofertante propone una clave y la celda se queda con la menor (un mínimo atómico por
+ * compareAndSet). El resultado de una ronda no depende del orden de los hilos, sino solo
+ * de las claves. Las reservas se hacen por rondas: cada ronda se abre con
+ * {@link #beginRound()}, los hilos hacen sus ofertas y, una vez terminadas todas, cada uno
+ * comprueba con {@link #holds} si su clave ha ganado.
+ *
+ * Cada entrada guarda la ronda en los bits altos y la clave en los bajos, así que al abrir
+ * una ronda nueva todas las celdas quedan libres sin recorrer el arreglo.
+ */
+public final class CellReservations {
+    // Bits de la clave; el resto guardan la ronda
+    private static final int KEY_BITS = 40;
+
+    // Última ronda representable antes de volver a empezar
+    private static final int MAX_ROUND = (1 << (Long.SIZE - KEY_BITS - 1)) - 1;
+
+    private final LongPlane slots;
+
+    // Ronda abierta (la primera es 1; 0 marca las celdas nunca reservadas)
+    private volatile long round;
+
+    /**
+     * Constructor de las reservas.
+     * @param cells Número de celdas
+     */
+    public CellReservations(int cells) {
+        this(cells, CellMemory.heap());
+    }
+
+    /**
+     * Constructor de las reservas con las entradas en una memoria dada.
+     * @param cells Número de celdas
+     * @param memory Memoria de las entradas, normalmente la del mapa
+     */
+    public CellReservations(int cells, CellMemory memory) {
+        this.slots = memory.allocateLongs(cells);
+    }
+
+    /**
+     * Abre una ronda nueva de reservas; las de rondas anteriores dejan de contar.
+     * Debe llamarse desde el hilo que coordina la fase, entre dos pasadas paralelas.
+     */
+    public void beginRound() {
+        long next = round + 1;
+        if (next > MAX_ROUND) {
+            // Muy de tarde en tarde el contador da la vuelta y se limpian las celdas
+            slots.fill(0);
+            next = 1;
+        }
+        round = next;
+    }
+
+    /**
+     * Ofrece una clave por una celda; la celda se queda con la menor clave de la ronda.
+     * @param cell Índice de la celda
+     * @param key Clave de prioridad (no negativa y menor que 2^40; menor gana)
+     */
+    public void offer(int cell, long key) {
+        long wanted = (round << KEY_BITS) | key;
+        while (true) {
+            long current = slots.getVolatile(cell);
+            // Solo se compite con las ofertas de la ronda actual
+            if ((current >>> KEY_BITS) == round && current <= wanted) {
+                return;
+            }
+            if (slots.compareAndSet(cell, current, wanted)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Indica si una clave ha ganado una celda en la ronda actual.
+     * Solo es definitivo cuando han terminado todas las ofertas de la ronda.
+     * @param cell Índice de la celda
+     * @param key Clave ofrecida
+     * @return true si la celda es de esa clave
+     */
+    public boolean holds(int cell, long key) {
+        return slots.getVolatile(cell) == ((round << KEY_BITS) | key);
+    }
+}
@@ -2,45 +2,86 @@ package com.codegym.islandsimulation.threads;
 
 import com.codegym.islandsimulation.entities.Organism;
 import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.jfr.FlightEvents;
+import com.codegym.islandsimulation.jfr.PhaseEvent;
 import com.codegym.islandsimulation.map.IslandMap;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Ejecutor que maneja la alimentación de todos los animales en la simulación.
- * Utiliza un pool de hilos para procesar la alimentación de forma concurrente,
- * permitiendo que todos los animales busquen comida simultáneamente.
+ * Utiliza el pool de simulación, que puede compartirse entre motores, para procesar la
+ * alimentación de forma concurrente, permitiendo que todos los animales busquen comida simultáneamente.
+ * Cada presa o planta se reserva con {@link CellClaims} antes de consumirla, así que
+ * se consume una sola vez por ciclo sin bloquear el mapa.
  */
 public class EatingExecutor {
     // El mapa de la isla donde están los animales y su comida
     private final IslandMap map;
     
     // Pool de hilos para ejecutar la alimentación concurrentemente
-    private final ExecutorService executor;
+    private final SimulationThreadPool threadPool;
+
+    // Registro de eventos del motor
+    private final SimulationEventRegistry events;
+
+    // Reservas por celda de las presas y plantas consumidas en el ciclo
+    private final CellClaims claims;
+
+    // Filas cuyos animales comen (la comida puede estar fuera de ellas)
+    private int firstRow;
+    private int endRow;
 
     /**
      * Constructor del ejecutor de alimentación.
      * @param map El mapa de la isla donde están los animales y su comida
+     * @param threadPool Pool de simulación donde comen los animales
+     * @param events Registro de eventos del motor
      */
-    public EatingExecutor(IslandMap map) {
+    public EatingExecutor(IslandMap map, SimulationThreadPool threadPool, SimulationEventRegistry events) {
         this.map = map;
-        // Crea un pool de hilos con el número de procesadores disponibles
-        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.threadPool = threadPool;
+        this.events = events;
+        this.claims = new CellClaims(map.getRows(), map.getCols(), map.getCellMemory());
+        this.endRow = map.getRows();
+    }
+
+    /**
+     * Limita la fase a los animales de las filas [firstRow, endRow), por ejemplo a las filas
+     * propias de una banda ({@link com.codegym.islandsimulation.map.MapBand}); los de las
+     * filas de halo son copias de otra banda y no actúan. Por defecto actúan todas las filas.
+     * @param firstRow Primera fila activa
+     * @param endRow Fila siguiente a la última activa
+     */
+    public void setActiveRows(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow > map.getRows() || firstRow >= endRow) {
+            throw new IllegalArgumentException("Filas fuera del mapa: [" + firstRow + ", " + endRow + ")");
+        }
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+    }
+
+    /**
+     * Obtiene las reservas de celdas del ejecutor, con sus estadísticas de contención.
+     * @return Las reservas de celdas
+     */
+    public CellClaims getClaims() {
+        return claims;
     }
 
     /**
      * Procesa la alimentación de todos los animales en el mapa.
      * Crea tareas concurrentes para cada animal y las ejecuta en paralelo.
+     * @param cycle Número del ciclo, que sella las reservas de comida
      */
-    public void processAnimalEating() {
+    public void processAnimalEating(int cycle) {
+        claims.beginCycle(cycle);
         List<Callable<Void>> tasks = new ArrayList<>();
 
-        // Recorre todo el mapa buscando animales
-        for (int row = 0; row < map.getRows(); row++) {
+        // Recorre las filas activas buscando animales
+        for (int row = firstRow; row < endRow; row++) {
             for (int col = 0; col < map.getCols(); col++) {
                 Organism organism = map.getOrganismAt(row, col);
                 if (organism instanceof Animal) {
@@ -51,7 +92,7 @@ public class EatingExecutor {
                     
                     // Crea una tarea para que este animal coma
                     tasks.add(() -> {
-                        animal.eat(map, finalRow, finalCol);
+                        animal.eat(map, finalRow, finalCol, claims, events);
                         return null;
                     });
                 }
@@ -59,10 +100,8 @@ public class EatingExecutor {
         }
 
         // Ejecuta todas las tareas de alimentación concurrentemente
-        try {
-            executor.invokeAll(tasks);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        PhaseEvent phaseEvent = FlightEvents.beginPhase();
+        threadPool.submitAllSimulationTasks(tasks);
+        FlightEvents.endPhase(phaseEvent, "eating", tasks.size());
     }
 }
\ No newline at end of file
@@ -2,34 +2,67 @@ package com.codegym.islandsimulation.threads;
 
 import com.codegym.islandsimulation.entities.Organism;
 import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.jfr.FlightEvents;
+import com.codegym.islandsimulation.jfr.PhaseEvent;
 import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.PerceptionField;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Ejecutor que maneja el movimiento de todos los animales en la simulación.
- * Utiliza un pool de hilos para procesar los movimientos de forma concurrente,
- * mejorando el rendimiento de la simulación.
+ * Utiliza el pool de simulación para procesar los movimientos de forma concurrente,
+ * mejorando el rendimiento de la simulación. El pool puede compartirse entre motores.
  */
 public class MovementExecutor {
     // El mapa de la isla donde se mueven los animales
     private final IslandMap map;
     
     // Pool de hilos para ejecutar los movimientos concurrentemente
-    private final ExecutorService executor;
+    private final SimulationThreadPool threadPool;
+
+    // Filas cuyos animales se mueven
+    private int firstRow;
+    private int endRow;
+
+    // Tablas de percepción de presas, o null si los depredadores solo ven las celdas adyacentes
+    private PerceptionField perception;
 
     /**
      * Constructor del ejecutor de movimientos.
      * @param map El mapa de la isla donde se mueven los animales
+     * @param threadPool Pool de simulación donde se ejecutan los movimientos
      */
-    public MovementExecutor(IslandMap map) {
+    public MovementExecutor(IslandMap map, SimulationThreadPool threadPool) {
         this.map = map;
-        // Crea un pool de hilos con el número de procesadores disponibles
-        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.threadPool = threadPool;
+        this.endRow = map.getRows();
+    }
+
+    /**
+     * Limita la fase a los animales de las filas [firstRow, endRow), por ejemplo a las filas
+     * propias de una banda ({@link com.codegym.islandsimulation.map.MapBand}); los de las
+     * filas de halo son copias de otra banda y no actúan. Por defecto actúan todas las filas.
+     * @param firstRow Primera fila activa
+     * @param endRow Fila siguiente a la última activa
+     */
+    public void setActiveRows(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow > map.getRows() || firstRow >= endRow) {
+            throw new IllegalArgumentException("Filas fuera del mapa: [" + firstRow + ", " + endRow + ")");
+        }
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+    }
+
+    /**
+     * Establece las tablas de percepción con las que los depredadores hambrientos se mueven
+     * hacia sus presas. Deben estar reconstruidas antes de cada fase de movimiento.
+     * @param perception Las tablas, o null para que todos los animales se muevan al azar
+     */
+    public void setPerception(PerceptionField perception) {
+        this.perception = perception;
     }
 
     /**
@@ -39,8 +72,8 @@ public class MovementExecutor {
     public void processAnimalMovements() {
         List<Callable<Void>> tasks = new ArrayList<>();
 
-        // Recorre todo el mapa buscando animales
-        for (int row = 0; row < map.getRows(); row++) {
+        // Recorre las filas activas buscando animales
+        for (int row = firstRow; row < endRow; row++) {
             for (int col = 0; col < map.getCols(); col++) {
                 Organism organism = map.getOrganismAt(row, col);
                 if (organism instanceof Animal animal) {
@@ -51,7 +84,7 @@ public class MovementExecutor {
                     // Crea una tarea para mover este animal
                     tasks.add(() -> {
                         synchronized (map) {
-                            animal.move(map, finalRow, finalCol);
+                            animal.move(map, finalRow, finalCol, perception);
                         }
                         return null;
                     });
@@ -60,10 +93,8 @@ public class MovementExecutor {
         }
 
         // Ejecuta todas las tareas de movimiento concurrentemente
-        try {
-            executor.invokeAll(tasks);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        PhaseEvent phaseEvent = FlightEvents.beginPhase();
+        threadPool.submitAllSimulationTasks(tasks);
+        FlightEvents.endPhase(phaseEvent, "movement", tasks.size());
     }
 }
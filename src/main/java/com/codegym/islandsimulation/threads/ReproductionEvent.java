@@ -4,11 +4,17 @@ import com.codegym.islandsimulation.entities.animals.Animal;
 
 /**
  * Registro que representa un evento de reproducción en la simulación.
- * Contiene información sobre los padres y la posición donde nacerá la cría.
+ * Contiene información sobre los padres, sus celdas al emparejarse y la posición donde nacerá la cría.
  * @param parent1 El primer animal padre
+ * @param parent1Row Fila del primer padre
+ * @param parent1Col Columna del primer padre
  * @param parent2 El segundo animal padre
+ * @param parent2Row Fila del segundo padre
+ * @param parent2Col Columna del segundo padre
  * @param offspringRow Fila donde nacerá la cría
  * @param offspringCol Columna donde nacerá la cría
  */
-public record ReproductionEvent(Animal parent1, Animal parent2, int offspringRow, int offspringCol) {
+public record ReproductionEvent(Animal parent1, int parent1Row, int parent1Col,
+                                Animal parent2, int parent2Row, int parent2Col,
+                                int offspringRow, int offspringCol) {
 }
\ No newline at end of file
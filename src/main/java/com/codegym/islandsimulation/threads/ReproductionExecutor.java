@@ -1,66 +1,438 @@
 package com.codegym.islandsimulation.threads;
 
-import com.codegym.islandsimulation.entities.Organism;
 import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.jfr.FlightEvents;
+import com.codegym.islandsimulation.jfr.PhaseEvent;
+import com.codegym.islandsimulation.map.CellMemory;
+import com.codegym.islandsimulation.map.IntPlane;
 import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.LongPlane;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Ejecutor que maneja la reproducción de todos los animales en la simulación.
- * Utiliza un pool de hilos para procesar la reproducción de forma concurrente,
- * permitiendo que todos los animales intenten reproducirse simultáneamente.
+ * Utiliza el pool de simulación, que puede compartirse entre motores, para procesar la
+ * reproducción de forma concurrente, repartiendo los animales del mapa en bloques que se
+ * procesan en paralelo.
+ *
+ * La fase se hace por pasadas paralelas separadas por barreras, con reservas por
+ * celda de {@link CellReservations}, de modo que el resultado solo depende del mapa
+ * y no del orden en que se ejecutan los hilos:
+ * <ol>
+ *     <li>Cada animal descuenta su cooldown y decide si puede buscar pareja.</li>
+ *     <li>Emparejamiento por rondas: cada animal libre propone a su primer vecino compatible
+ *     libre y la propuesta se ofrece en las dos celdas; una pareja se forma si su propuesta
+ *     gana en ambas. Así cada animal está en una sola pareja y cada pareja se registra una vez.</li>
+ *     <li>Reserva de la celda de la cría por rondas: cada pareja ofrece su primera celda vacía
+ *     vecina de los padres que siga libre; la que pierde pasa a la siguiente en la ronda siguiente.</li>
+ * </ol>
  */
 public class ReproductionExecutor {
+    // Direcciones vecinas, en el mismo orden que MapUtils
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1},
+            {-1, -1}, {-1, 1}, {1, -1}, {1, 1}
+    };
+
+    // Dirección opuesta de cada dirección
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+
+    // Rondas de emparejamiento por ciclo
+    private static final int MATCHING_ROUNDS = 3;
+
+    // Animales por tarea en cada pasada paralela
+    private static final int CHUNK_SIZE = 2048;
+
     // El mapa de la isla donde están los animales
     private final IslandMap islandMap;
-    
+    private final int rows;
+    private final int cols;
+
     // Pool de hilos para ejecutar la reproducción concurrentemente
-    private final ExecutorService executorService;
+    private final SimulationThreadPool threadPool;
+
+    // Registro de eventos del motor
+    private final SimulationEventRegistry events;
+
+    // Reservas con prioridad de las celdas de los animales y de las crías
+    private final CellReservations reservations;
+
+    // Por celda, ciclo en que su animal puede buscar pareja, en que quedó emparejado
+    // y en que la celda se reservó para una cría
+    private final IntPlane readyCycle;
+    private final IntPlane matchedCycle;
+    private final IntPlane offspringCycle;
+
+    // Por celda, clave de la propuesta de su animal en la ronda de emparejamiento actual
+    private final LongPlane proposals;
+
+    // Ciclo de la última fase de reproducción
+    private int lastCycle;
+
+    // Filas cuyos animales se reproducen; parejas y crías también deben estar en ellas
+    private int firstRow;
+    private int endRow;
 
     /**
      * Constructor del ejecutor de reproducción.
      * @param islandMap El mapa de la isla donde están los animales
+     * @param threadPool Pool de simulación donde se procesan los bloques de animales
+     * @param events Registro de eventos del motor
      */
-    public ReproductionExecutor(IslandMap islandMap) {
+    public ReproductionExecutor(IslandMap islandMap, SimulationThreadPool threadPool, SimulationEventRegistry events) {
         this.islandMap = islandMap;
-        // Crea un pool de hilos con el número de procesadores disponibles
-        this.executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.rows = islandMap.getRows();
+        this.cols = islandMap.getCols();
+        this.threadPool = threadPool;
+        this.events = events;
+        int cells = rows * cols;
+        // Los planos por celda van en la memoria del mapa, fuera del heap si el mapa lo está
+        CellMemory memory = islandMap.getCellMemory();
+        this.reservations = new CellReservations(cells, memory);
+        this.readyCycle = memory.allocateInts(cells);
+        this.matchedCycle = memory.allocateInts(cells);
+        this.offspringCycle = memory.allocateInts(cells);
+        this.proposals = memory.allocateLongs(cells);
+        this.endRow = rows;
+    }
+
+    /**
+     * Limita la fase a los animales, parejas y crías de las filas [firstRow, endRow), por
+     * ejemplo a las filas propias de una banda ({@link com.codegym.islandsimulation.map.MapBand});
+     * los de las filas de halo son copias de otra banda y no actúan. Por defecto actúan todas las filas.
+     * @param firstRow Primera fila activa
+     * @param endRow Fila siguiente a la última activa
+     */
+    public void setActiveRows(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow > rows || firstRow >= endRow) {
+            throw new IllegalArgumentException("Filas fuera del mapa: [" + firstRow + ", " + endRow + ")");
+        }
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+    }
+
+    /**
+     * Indica si una celda está reservada para una cría de la última fase de reproducción.
+     * Las crías nacen al principio del ciclo siguiente, así que estas celdas no deben ocuparse antes.
+     * @param row Fila de la celda
+     * @param col Columna de la celda
+     * @return true si la celda espera una cría
+     */
+    public boolean isReservedForOffspring(int row, int col) {
+        return lastCycle != 0 && offspringCycle.get(row * cols + col) == lastCycle;
     }
 
     /**
      * Procesa la reproducción de todos los animales en el mapa.
-     * Crea tareas concurrentes para cada animal y las ejecuta en paralelo.
+     * Empareja a los animales, reserva la celda de cada cría y registra un evento por pareja.
+     * @param cycle Número del ciclo (positivo y creciente), que sella las reservas
      */
-    public void processAnimalReproduction() {
-        List<Callable<Void>> tasks = new ArrayList<>();
+    public void processAnimalReproduction(int cycle) {
+        PhaseEvent phaseEvent = FlightEvents.beginPhase();
+        lastCycle = cycle;
 
-        // Recorre el mapa buscando animales
-        IntStream.range(0, islandMap.getRows()).forEach(row -> IntStream.range(0, islandMap.getCols()).forEach(col -> {
-            Organism organism = islandMap.getOrganismAt(row, col);
-            if (organism instanceof Animal animal) {
-                // Captura las coordenadas finales para la tarea
-                final int finalRow = row;
-                final int finalCol = col;
-
-                // Crea una tarea para que este animal intente reproducirse
-                tasks.add(() -> {
-                    animal.reproduce(islandMap, finalRow, finalCol);
-                    return null;
-                });
+        // Recorre las filas activas buscando animales, en orden de filas
+        List<Animal> animalList = new ArrayList<>();
+        int[] cells = new int[64];
+        for (int row = firstRow; row < endRow; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (islandMap.getOrganismAt(row, col) instanceof Animal animal) {
+                    if (animalList.size() == cells.length) {
+                        cells = Arrays.copyOf(cells, cells.length * 2);
+                    }
+                    cells[animalList.size()] = row * cols + col;
+                    animalList.add(animal);
+                }
             }
-        }));
+        }
+        Animal[] animals = animalList.toArray(new Animal[0]);
+        int[] animalCells = Arrays.copyOf(cells, animals.length);
 
-        // Ejecuta todas las tareas de reproducción concurrentemente
         try {
-            executorService.invokeAll(tasks);
+            // Cada animal descuenta su cooldown y decide si busca pareja
+            forEachChunk(animals.length, (chunk, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (animals[i].prepareForReproduction()) {
+                        readyCycle.set(animalCells[i], cycle);
+                    }
+                }
+            });
+
+            List<Pair> pairs = matchPairs(cycle, animalCells);
+            placeOffspring(cycle, pairs);
+
+            // Un evento por pareja con celda para la cría, en un orden estable
+            List<ReproductionEvent> events = new ArrayList<>(pairs.size());
+            for (Pair pair : pairs) {
+                if (pair.offspringCell >= 0) {
+                    events.add(new ReproductionEvent(pair.parent1, pair.cell1 / cols, pair.cell1 % cols,
+                            pair.parent2, pair.cell2 / cols, pair.cell2 % cols,
+                            pair.offspringCell / cols, pair.offspringCell % cols));
+                }
+            }
+            this.events.addReproductionEvents(events);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+
+        FlightEvents.endPhase(phaseEvent, "reproduction", animals.length);
+    }
+
+    /**
+     * Empareja a los animales por rondas. En cada ronda, la propuesta con la menor clave
+     * gana en cada celda; una pareja se forma si su propuesta gana en las dos celdas.
+     * @return Las parejas, en un orden que solo depende del mapa
+     */
+    private List<Pair> matchPairs(int cycle, int[] cells) throws InterruptedException {
+        List<Pair> pairs = new ArrayList<>();
+        List<Pair>[] chunkPairs = newChunkLists(cells.length);
+        for (int round = 0; round < MATCHING_ROUNDS; round++) {
+            reservations.beginRound();
+
+            // Cada animal libre propone a su primer vecino compatible libre
+            forEachChunk(cells.length, (chunk, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int cell = cells[i];
+                    proposals.set(cell, -1);
+                    if (readyCycle.get(cell) != cycle || matchedCycle.get(cell) == cycle) {
+                        continue;
+                    }
+                    long key = proposeMate(cycle, cell);
+                    if (key >= 0) {
+                        proposals.set(cell, key);
+                        reservations.offer(cell, key);
+                        reservations.offer(partnerCell(cell, key), key);
+                    }
+                }
+            });
+
+            // Se forman las parejas cuya propuesta ganó en las dos celdas
+            forEachChunk(cells.length, (chunk, from, to) -> {
+                List<Pair> found = chunkPairs[chunk];
+                for (int i = from; i < to; i++) {
+                    int cell = cells[i];
+                    long key = proposals.get(cell);
+                    if (key < 0) {
+                        continue;
+                    }
+                    int other = partnerCell(cell, key);
+                    if (!reservations.holds(cell, key) || !reservations.holds(other, key)) {
+                        continue;
+                    }
+                    matchedCycle.set(cell, cycle);
+                    matchedCycle.set(other, cycle);
+                    // Si los dos se propusieron mutuamente, la registra el de la celda menor
+                    if (proposals.get(other) == key && other < cell) {
+                        continue;
+                    }
+                    int low = Math.min(cell, other);
+                    int high = Math.max(cell, other);
+                    found.add(new Pair(animalAt(low), animalAt(high), low, high));
+                }
+            });
+
+            int before = pairs.size();
+            for (List<Pair> found : chunkPairs) {
+                pairs.addAll(found);
+                found.clear();
+            }
+            if (pairs.size() == before) {
+                break;
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Busca el primer vecino de un animal que pueda ser su pareja y no esté emparejado.
+     * @return La clave de la propuesta, o -1 si no hay ninguno
+     */
+    private long proposeMate(int cycle, int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        Animal animal = animalAt(cell);
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int newRow = row + DIRECTIONS[d][0];
+            int newCol = col + DIRECTIONS[d][1];
+            if (newRow < firstRow || newRow >= endRow || !islandMap.isValidPosition(newRow, newCol)) {
+                continue;
+            }
+            int other = newRow * cols + newCol;
+            if (matchedCycle.get(other) != cycle && animal.isMateFor(islandMap.getOrganismAt(newRow, newCol))) {
+                return edgeKey(cell, other, d);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reserva por rondas una celda vacía para la cría de cada pareja: primero las vecinas
+     * del primer padre y después las del segundo. En cada celda gana la pareja anterior en
+     * la lista; las que pierden prueban su siguiente celda en la ronda siguiente.
+     */
+    private void placeOffspring(int cycle, List<Pair> pairs) throws InterruptedException {
+        int active = pairs.size();
+        while (active > 0) {
+            reservations.beginRound();
+
+            forEachChunk(pairs.size(), (chunk, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    Pair pair = pairs.get(i);
+                    if (pair.offspringCell < 0 && pair.nextCandidate < 2 * DIRECTIONS.length) {
+                        int cell = nextFreeCandidate(cycle, pair);
+                        if (cell >= 0) {
+                            reservations.offer(cell, i);
+                        }
+                    }
+                }
+            });
+
+            AtomicInteger stillActive = new AtomicInteger();
+            forEachChunk(pairs.size(), (chunk, from, to) -> {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    Pair pair = pairs.get(i);
+                    if (pair.offspringCell >= 0 || pair.nextCandidate >= 2 * DIRECTIONS.length) {
+                        continue;
+                    }
+                    int cell = candidateCell(pair, pair.nextCandidate);
+                    if (reservations.holds(cell, i)) {
+                        pair.offspringCell = cell;
+                        offspringCycle.set(cell, cycle);
+                    } else {
+                        count++;
+                    }
+                }
+                stillActive.addAndGet(count);
+            });
+            active = stillActive.get();
+        }
+    }
+
+    /**
+     * Avanza hasta la siguiente celda candidata de una pareja que esté vacía y sin reservar.
+     * @return La celda, o -1 si ya no quedan candidatas
+     */
+    private int nextFreeCandidate(int cycle, Pair pair) {
+        while (pair.nextCandidate < 2 * DIRECTIONS.length) {
+            int cell = candidateCell(pair, pair.nextCandidate);
+            if (cell >= 0 && offspringCycle.get(cell) != cycle && islandMap.isFree(cell / cols, cell % cols)) {
+                return cell;
+            }
+            pair.nextCandidate++;
+        }
+        return -1;
+    }
+
+    /**
+     * Celda candidata número {@code index} de una pareja: las vecinas del primer padre y
+     * después las del segundo, en el orden de las direcciones; -1 si cae fuera de las filas activas.
+     */
+    private int candidateCell(Pair pair, int index) {
+        int cell = index < DIRECTIONS.length ? pair.cell1 : pair.cell2;
+        int[] dir = DIRECTIONS[index % DIRECTIONS.length];
+        int row = cell / cols + dir[0];
+        int col = cell % cols + dir[1];
+        if (row < firstRow || row >= endRow || col < 0 || col >= cols) {
+            return -1;
+        }
+        return row * cols + col;
+    }
+
+    private Animal animalAt(int cell) {
+        return (Animal) islandMap.getOrganismAt(cell / cols, cell % cols);
+    }
+
+    /**
+     * Clave única de la propuesta entre dos celdas vecinas, igual la haga cualquiera de
+     * los dos animales: la celda menor y la dirección hacia la mayor.
+     */
+    private static long edgeKey(int cell, int other, int direction) {
+        return cell < other
+                ? (long) cell * DIRECTIONS.length + direction
+                : (long) other * DIRECTIONS.length + OPPOSITE[direction];
+    }
+
+    /**
+     * Celda del otro animal de una propuesta.
+     */
+    private int partnerCell(int cell, long key) {
+        int low = (int) (key / DIRECTIONS.length);
+        int[] dir = DIRECTIONS[(int) (key % DIRECTIONS.length)];
+        int high = low + dir[0] * cols + dir[1];
+        return cell == low ? high : low;
+    }
+
+    // Las listas del array se crean aquí y todas son de Pair
+    @SuppressWarnings("unchecked")
+    private static List<Pair>[] newChunkLists(int count) {
+        List<Pair>[] lists = (List<Pair>[]) new List<?>[chunkCount(count)];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new ArrayList<>();
+        }
+        return lists;
+    }
+
+    private static int chunkCount(int count) {
+        return Math.max(1, (count + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * Ejecuta una pasada en paralelo sobre bloques de índices y espera a que terminen todas.
+     */
+    private void forEachChunk(int count, ChunkTask task) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int chunk = 0; chunk < chunkCount(count); chunk++) {
+            int index = chunk;
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(count, from + CHUNK_SIZE);
+            tasks.add(() -> {
+                task.run(index, from, to);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : threadPool.submitAllSimulationTasks(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la fase de reproducción", e.getCause());
+        }
+    }
+
+    /**
+     * Trabajo de una pasada sobre el bloque de índices [from, to).
+     */
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int chunk, int from, int to);
+    }
+
+    /**
+     * Pareja formada en el ciclo, con la celda reservada para su cría.
+     */
+    private static final class Pair {
+        final Animal parent1;
+        final Animal parent2;
+        final int cell1;
+        final int cell2;
+
+        // Siguiente celda candidata para la cría y celda reservada (-1 si aún no tiene)
+        int nextCandidate;
+        int offspringCell = -1;
+
+        Pair(Animal parent1, Animal parent2, int cell1, int cell2) {
+            this.parent1 = parent1;
+            this.parent2 = parent2;
+            this.cell1 = cell1;
+            this.cell2 = cell2;
+        }
     }
-}
\ No newline at end of file
+}
@@ -6,29 +6,31 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Registro central de eventos de la simulación.
+ * Registro de eventos de la simulación de un motor.
  * Mantiene listas de todos los eventos que ocurren durante un ciclo de simulación:
  * cazas, consumo de plantas, reproducciones y alarmas de población.
  * Utiliza colecciones thread-safe para manejar eventos concurrentes.
+ * Cada motor tiene su propio registro, así que varios motores pueden ejecutarse en la
+ * misma JVM sin mezclar sus eventos.
  */
 public class SimulationEventRegistry {
     // Lista de eventos de caza (thread-safe)
-    private static final List<HuntingEvent> huntingEvents = Collections.synchronizedList(new ArrayList<>());
+    private final List<HuntingEvent> huntingEvents = Collections.synchronizedList(new ArrayList<>());
     
-    // Lista de eventos de consumo de plantas
-    private static final List<EatingPlantEvent> eatingPlantEvents = new ArrayList<>();
+    // Lista de eventos de consumo de plantas (thread-safe)
+    private final List<EatingPlantEvent> eatingPlantEvents = Collections.synchronizedList(new ArrayList<>());
     
     // Lista de eventos de reproducción (thread-safe)
-    private static final List<ReproductionEvent> reproductionEvents = new CopyOnWriteArrayList<>();
+    private final List<ReproductionEvent> reproductionEvents = new CopyOnWriteArrayList<>();
     
     // Lista de alarmas de población (thread-safe)
-    private static final List<PopulationAlarmEvent> populationAlarmEvents = new CopyOnWriteArrayList<>();
+    private final List<PopulationAlarmEvent> populationAlarmEvents = new CopyOnWriteArrayList<>();
 
     /**
      * Añade un evento de caza al registro.
      * @param event El evento de caza a registrar
      */
-    public static void addHuntingEvent(HuntingEvent event) {
+    public void addHuntingEvent(HuntingEvent event) {
         huntingEvents.add(event);
     }
 
@@ -36,14 +38,14 @@ public class SimulationEventRegistry {
      * Obtiene una copia de todos los eventos de caza registrados.
      * @return Lista de eventos de caza
      */
-    public static List<HuntingEvent> getHuntingEvents() {
+    public List<HuntingEvent> getHuntingEvents() {
         return new ArrayList<>(huntingEvents);
     }
 
     /**
      * Limpia todos los eventos de caza del registro.
      */
-    public static void clearHuntingEvents() {
+    public void clearHuntingEvents() {
         huntingEvents.clear();
     }
 
@@ -51,22 +53,22 @@ public class SimulationEventRegistry {
      * Añade un evento de consumo de planta al registro.
      * @param event El evento de consumo de planta a registrar
      */
-    public static void addEatingPlantEvent(EatingPlantEvent event) {
+    public void addEatingPlantEvent(EatingPlantEvent event) {
         eatingPlantEvents.add(event);
     }
 
     /**
-     * Obtiene todos los eventos de consumo de plantas registrados.
+     * Obtiene una copia de todos los eventos de consumo de plantas registrados.
      * @return Lista de eventos de consumo de plantas
      */
-    public static List<EatingPlantEvent> getEatingPlantEvents() {
-        return eatingPlantEvents;
+    public List<EatingPlantEvent> getEatingPlantEvents() {
+        return new ArrayList<>(eatingPlantEvents);
     }
 
     /**
      * Limpia todos los eventos de consumo de plantas del registro.
      */
-    public static void clearEatingPlantEvents() {
+    public void clearEatingPlantEvents() {
         eatingPlantEvents.clear();
     }
 
@@ -74,22 +76,30 @@ public class SimulationEventRegistry {
      * Añade un evento de reproducción al registro.
      * @param event El evento de reproducción a registrar
      */
-    public static void addReproductionEvent(ReproductionEvent event) {
+    public void addReproductionEvent(ReproductionEvent event) {
         reproductionEvents.add(event);
     }
 
+    /**
+     * Añade varios eventos de reproducción al registro de una vez.
+     * @param events Los eventos de reproducción a registrar
+     */
+    public void addReproductionEvents(List<ReproductionEvent> events) {
+        reproductionEvents.addAll(events);
+    }
+
     /**
      * Obtiene todos los eventos de reproducción registrados.
      * @return Lista de eventos de reproducción
      */
-    public static List<ReproductionEvent> getReproductionEvents() {
+    public List<ReproductionEvent> getReproductionEvents() {
         return reproductionEvents;
     }
 
     /**
      * Limpia todos los eventos de reproducción del registro.
      */
-    public static void clearReproductionEvents() {
+    public void clearReproductionEvents() {
         reproductionEvents.clear();
     }
 
@@ -97,7 +107,7 @@ public class SimulationEventRegistry {
      * Añade una alarma de población al registro.
      * @param event La alarma de población a registrar
      */
-    public static void addPopulationAlarmEvent(PopulationAlarmEvent event) {
+    public void addPopulationAlarmEvent(PopulationAlarmEvent event) {
         populationAlarmEvents.add(event);
     }
 
@@ -105,14 +115,14 @@ public class SimulationEventRegistry {
      * Obtiene una copia de todas las alarmas de población registradas.
      * @return Lista de alarmas de población
      */
-    public static List<PopulationAlarmEvent> getPopulationAlarmEvents() {
+    public List<PopulationAlarmEvent> getPopulationAlarmEvents() {
         return new ArrayList<>(populationAlarmEvents);
     }
 
     /**
      * Limpia todas las alarmas de población del registro.
      */
-    public static void clearPopulationAlarmEvents() {
+    public void clearPopulationAlarmEvents() {
         populationAlarmEvents.clear();
     }
 }
\ No newline at end of file
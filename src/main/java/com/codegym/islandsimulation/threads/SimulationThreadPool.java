@@ -1,8 +1,10 @@
 package com.codegym.islandsimulation.threads;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Pool de hilos personalizado optimizado para la simulación de la isla.
@@ -14,9 +16,6 @@ public class SimulationThreadPool {
     // Pool principal para tareas de simulación
     private final ExecutorService simulationExecutor;
     
-    // Pool separado para tareas de I/O (generación de HTML)
-    private final ExecutorService ioExecutor;
-    
     // Contador atómico para nombrar hilos
     private final AtomicInteger threadCounter = new AtomicInteger(1);
     
@@ -24,14 +23,30 @@ public class SimulationThreadPool {
     private final AtomicInteger completedTasks = new AtomicInteger(0);
     private final AtomicInteger failedTasks = new AtomicInteger(0);
 
+    // Estadísticas sin bloqueos por pool, para exportarlas como métricas
+    private final TaskStats simulationStats = new TaskStats();
+
     /**
-     * Constructor que inicializa los pools de hilos con configuración optimizada.
+     * Constructor que inicializa el pool de hilos con configuración optimizada. Las salidas
+     * (HTML, PNG, series temporales) tienen sus propios hilos en
+     * {@link com.codegym.islandsimulation.output.OutputPipeline}.
      */
     public SimulationThreadPool() {
         // Pool principal: número de hilos basado en CPU cores
-        int corePoolSize = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
-        int maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
-        
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() - 1),
+                Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Constructor de un pool con un número fijo de hilos, por ejemplo para comparar los
+     * resultados de una fase con distinto grado de paralelismo.
+     * @param threads Número de hilos (al menos uno)
+     */
+    public SimulationThreadPool(int threads) {
+        this(threads, threads);
+    }
+
+    private SimulationThreadPool(int corePoolSize, int maxPoolSize) {
         this.simulationExecutor = new ThreadPoolExecutor(
             corePoolSize,
             maxPoolSize,
@@ -40,10 +55,6 @@ public class SimulationThreadPool {
             new SimulationThreadFactory("SimulationWorker"),
             new ThreadPoolExecutor.CallerRunsPolicy()
         );
-        
-        // Pool de I/O: hilos dedicados para operaciones de archivo
-        this.ioExecutor = Executors.newFixedThreadPool(2, 
-            new SimulationThreadFactory("IOWorker"));
     }
 
     /**
@@ -52,48 +63,57 @@ public class SimulationThreadPool {
      * @return Future que representa el resultado de la tarea
      */
     public <T> Future<T> submitSimulationTask(Callable<T> task) {
-        return simulationExecutor.submit(() -> {
-            try {
-                T result = task.call();
-                completedTasks.incrementAndGet();
-                return result;
-            } catch (Exception e) {
-                failedTasks.incrementAndGet();
-                throw e;
-            }
-        });
+        return simulationExecutor.submit(track(task, simulationStats));
     }
 
     /**
-     * Ejecuta una tarea de I/O en el pool dedicado.
-     * @param task La tarea de I/O a ejecutar
-     * @return Future que representa el resultado de la tarea
+     * Ejecuta múltiples tareas de simulación concurrentemente.
+     * @param tasks Lista de tareas a ejecutar
+     * @return Lista de Futures con los resultados
      */
-    public <T> Future<T> submitIOTask(Callable<T> task) {
-        return ioExecutor.submit(() -> {
+    public <T> List<Future<T>> submitAllSimulationTasks(List<Callable<T>> tasks) {
+        List<Callable<T>> trackedTasks = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            trackedTasks.add(track(task, simulationStats));
+        }
+        try {
+            return simulationExecutor.invokeAll(trackedTasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupción durante la ejecución de tareas", e);
+        }
+    }
+
+    /**
+     * Envuelve una tarea para contabilizarla: en cola desde el envío, activa mientras
+     * se ejecuta y completada o fallida al terminar.
+     */
+    private <T> Callable<T> track(Callable<T> task, TaskStats stats) {
+        stats.queued.increment();
+        return () -> {
+            stats.queued.decrement();
+            stats.active.increment();
             try {
                 T result = task.call();
                 completedTasks.incrementAndGet();
+                stats.completed.increment();
                 return result;
             } catch (Exception e) {
                 failedTasks.incrementAndGet();
+                stats.failed.increment();
                 throw e;
+            } finally {
+                stats.active.decrement();
             }
-        });
+        };
     }
 
     /**
-     * Ejecuta múltiples tareas de simulación concurrentemente.
-     * @param tasks Lista de tareas a ejecutar
-     * @return Lista de Futures con los resultados
+     * Obtiene las estadísticas sin bloqueos del pool principal.
+     * @return Estadísticas de las tareas de simulación
      */
-    public <T> List<Future<T>> submitAllSimulationTasks(List<Callable<T>> tasks) {
-        try {
-            return simulationExecutor.invokeAll(tasks);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupción durante la ejecución de tareas", e);
-        }
+    public TaskStats getSimulationStats() {
+        return simulationStats;
     }
 
     /**
@@ -116,35 +136,57 @@ public class SimulationThreadPool {
     }
 
     /**
-     * Cierra los pools de hilos de forma ordenada.
+     * Cierra el pool de hilos de forma ordenada.
      */
     public void shutdown() {
         simulationExecutor.shutdown();
-        ioExecutor.shutdown();
         
         try {
             if (!simulationExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
                 simulationExecutor.shutdownNow();
             }
-            if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                ioExecutor.shutdownNow();
-            }
         } catch (InterruptedException e) {
             simulationExecutor.shutdownNow();
-            ioExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Contadores de tareas de un pool. Se actualizan con LongAdder, por lo que leerlos
+     * nunca toma el lock interno del ThreadPoolExecutor.
+     */
+    public static class TaskStats {
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder active = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        public long getQueued() {
+            return queued.sum();
+        }
+
+        public long getActive() {
+            return active.sum();
+        }
+
+        public long getCompleted() {
+            return completed.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+    }
+
     /**
      * ThreadFactory personalizada para crear hilos con nombres descriptivos
      * y configuración optimizada.
      */
-    private static class SimulationThreadFactory implements ThreadFactory {
+    static class SimulationThreadFactory implements ThreadFactory {
         private final String namePrefix;
         private final AtomicInteger threadNumber = new AtomicInteger(1);
 
-        public SimulationThreadFactory(String namePrefix) {
+        SimulationThreadFactory(String namePrefix) {
             this.namePrefix = namePrefix;
         }
 
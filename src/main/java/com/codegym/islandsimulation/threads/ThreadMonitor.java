@@ -1,126 +1,213 @@
 package com.codegym.islandsimulation.threads;
 
+import com.codegym.islandsimulation.metrics.Counter;
+import com.codegym.islandsimulation.metrics.Gauge;
+import com.codegym.islandsimulation.metrics.Histogram;
+import com.codegym.islandsimulation.metrics.MetricsRegistry;
+
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Monitor de hilos que proporciona información detallada sobre el estado
- * de los hilos en tiempo real. Utiliza ThreadMXBean para obtener métricas
- * del sistema de hilos.
+ * Monitor de hilos por muestreo y de bajo coste. Publica sus resultados como métricas
+ * en un {@link MetricsRegistry} en lugar de imprimir reportes.
+ *
+ * Cada muestra solo lee el tiempo de CPU de los hilos de los pools registrados, cuyos
+ * identificadores se guardan en caché y se recalculan únicamente cuando cambia el
+ * número de hilos de la JVM o muere un hilo conocido. Ninguna muestra vuelca las pilas
+ * de los hilos; los nombres se obtienen con {@code getThreadInfo} de profundidad cero,
+ * que no necesita detener la JVM. La detección de deadlocks, que sí requiere un
+ * safepoint, se hace con un intervalo propio mucho mayor o bajo demanda.
+ *
+ * El monitor mide su propio coste: duración de cada muestra y tiempo de CPU de su hilo.
  */
 public class ThreadMonitor {
-    
+
+    // Intervalos por defecto
+    public static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 1_000;
+    public static final long DEFAULT_DEADLOCK_CHECK_INTERVAL_MILLIS = 60_000;
+
     // Bean para obtener información del sistema de hilos
     private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
-    
-    // Scheduler para ejecutar el monitoreo periódicamente
-    private final ScheduledExecutorService monitorScheduler = Executors.newSingleThreadScheduledExecutor();
-    
-    // Contadores atómicos para estadísticas
-    private final AtomicLong totalCpuTime = new AtomicLong(0);
-    private final AtomicLong totalUserTime = new AtomicLong(0);
-    private final AtomicLong deadlockCount = new AtomicLong(0);
-    
+
+    private final MetricsRegistry registry;
+
+    // Pools registrados, identificados por el prefijo del nombre de sus hilos
+    private final List<PoolSample> pools = new CopyOnWriteArrayList<>();
+
+    // Scheduler para ejecutar el muestreo periódicamente (se crea al iniciar)
+    private ScheduledExecutorService monitorScheduler;
+
+    // Número de hilos de la JVM en la última actualización de la caché de identificadores
+    private volatile int cachedThreadCount = -1;
+
+    // Métricas globales y de coste del propio monitor
+    private final Gauge liveThreads;
+    private final Counter deadlockChecks;
+    private final Histogram deadlockCheckDuration;
+    private final Gauge deadlockedThreads;
+    private final Counter samples;
+    private final Histogram sampleDuration;
+    private final Counter monitorCpuNanos;
+
+    // Resultado de la última muestra, para el resumen textual
+    private volatile long lastSampleNanos = 0;
+    private volatile long lastDeadlockedCount = 0;
+
     // Flag para controlar el monitoreo
     private volatile boolean isMonitoring = false;
 
     /**
-     * Inicia el monitoreo de hilos en tiempo real.
+     * Constructor del monitor.
+     * @param registry Registro donde se publican las métricas de hilos
+     */
+    public ThreadMonitor(MetricsRegistry registry) {
+        this.registry = registry;
+        this.liveThreads = registry.gauge("island_jvm_threads", "Hilos vivos en la JVM.");
+        this.deadlockChecks = registry.counter("island_deadlock_checks_total", "Comprobaciones de deadlock realizadas.");
+        this.deadlockCheckDuration = registry.histogram("island_deadlock_check_duration_seconds",
+                "Duración de cada comprobación de deadlock.");
+        this.deadlockedThreads = registry.gauge("island_deadlocked_threads",
+                "Hilos en deadlock en la última comprobación.");
+        this.samples = registry.counter("island_thread_monitor_samples_total", "Muestras tomadas por el monitor de hilos.");
+        this.sampleDuration = registry.histogram("island_thread_monitor_sample_duration_seconds",
+                "Duración de cada muestra del monitor de hilos.");
+        this.monitorCpuNanos = registry.counter("island_thread_monitor_cpu_nanoseconds_total",
+                "Tiempo de CPU consumido por el propio monitor de hilos.");
+    }
+
+    /**
+     * Registra un pool cuyos hilos se muestrean. Sus hilos se reconocen por el prefijo del nombre.
+     * @param pool Nombre del pool (etiqueta pool)
+     * @param threadNamePrefix Prefijo del nombre de los hilos del pool
+     */
+    public void registerPool(String pool, String threadNamePrefix) {
+        PoolSample sample = new PoolSample(threadNamePrefix,
+                registry.counter("island_pool_cpu_nanoseconds_total", "Tiempo de CPU consumido por los hilos de cada pool.",
+                        "pool", pool),
+                registry.gauge("island_pool_threads", "Hilos vivos por pool.", "pool", pool));
+        pools.add(sample);
+        // Fuerza la actualización de la caché en la siguiente muestra
+        cachedThreadCount = -1;
+    }
+
+    /**
+     * Inicia el muestreo con los intervalos por defecto.
      */
     public void startMonitoring() {
+        startMonitoring(DEFAULT_SAMPLE_INTERVAL_MILLIS, DEFAULT_DEADLOCK_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Inicia el muestreo de hilos.
+     * @param sampleIntervalMillis Intervalo entre muestras de CPU
+     * @param deadlockCheckIntervalMillis Intervalo entre comprobaciones de deadlock (0 para solo bajo demanda)
+     */
+    public synchronized void startMonitoring(long sampleIntervalMillis, long deadlockCheckIntervalMillis) {
         if (isMonitoring) {
             return;
         }
-        
+        if (sampleIntervalMillis <= 0 || deadlockCheckIntervalMillis < 0) {
+            throw new IllegalArgumentException("Intervalos de monitoreo no válidos");
+        }
+
         isMonitoring = true;
-        System.out.println("🔍 Iniciando monitoreo de hilos...");
-        
-        // Ejecuta el monitoreo cada 5 segundos
-        monitorScheduler.scheduleAtFixedRate(this::performMonitoring, 0, 5, TimeUnit.SECONDS);
+        monitorScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ThreadMonitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitorScheduler.scheduleAtFixedRate(this::sample, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+        if (deadlockCheckIntervalMillis > 0) {
+            monitorScheduler.scheduleWithFixedDelay(this::checkDeadlocks,
+                    deadlockCheckIntervalMillis, deadlockCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
-     * Detiene el monitoreo de hilos.
+     * Detiene el muestreo de hilos.
      */
-    public void stopMonitoring() {
+    public synchronized void stopMonitoring() {
         if (!isMonitoring) {
             return;
         }
-        
+
         isMonitoring = false;
         monitorScheduler.shutdown();
-        System.out.println("🛑 Monitoreo de hilos detenido.");
     }
 
     /**
-     * Realiza el monitoreo actual de los hilos.
+     * Toma una muestra: tiempo de CPU acumulado y número de hilos de cada pool.
      */
-    private void performMonitoring() {
+    private void sample() {
+        long start = System.nanoTime();
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
         try {
-            // Obtiene información de todos los hilos
-            ThreadInfo[] threadInfos = threadBean.dumpAllThreads(false, false);
-            
-            // Analiza deadlocks
-            long[] deadlockedThreads = threadBean.findDeadlockedThreads();
-            if (deadlockedThreads != null) {
-                deadlockCount.incrementAndGet();
-                System.err.println("🚨 ¡DEADLOCK DETECTADO! Threads involucrados: " + deadlockedThreads.length);
+            int threadCount = threadBean.getThreadCount();
+            liveThreads.set(threadCount);
+
+            if (threadCount != cachedThreadCount) {
+                cachedThreadCount = threadCount;
+                refreshThreadIds();
             }
-            
-            // Calcula estadísticas
-            int activeThreads = 0;
-            int blockedThreads = 0;
-            int waitingThreads = 0;
-            
-            for (ThreadInfo info : threadInfos) {
-                if (info.getThreadState() == Thread.State.RUNNABLE) {
-                    activeThreads++;
-                } else if (info.getThreadState() == Thread.State.BLOCKED) {
-                    blockedThreads++;
-                } else if (info.getThreadState() == Thread.State.WAITING || 
-                          info.getThreadState() == Thread.State.TIMED_WAITING) {
-                    waitingThreads++;
-                }
+
+            boolean stale = false;
+            for (PoolSample pool : pools) {
+                stale |= pool.sample(threadBean);
             }
-            
-            // Actualiza tiempos de CPU
-            long[] threadIds = threadBean.getAllThreadIds();
-            long cpuTime = 0;
-            long userTime = 0;
-            
-            for (long threadId : threadIds) {
-                cpuTime += threadBean.getThreadCpuTime(threadId);
-                userTime += threadBean.getThreadUserTime(threadId);
+            if (stale) {
+                cachedThreadCount = -1;
             }
-            
-            totalCpuTime.set(cpuTime);
-            totalUserTime.set(userTime);
-            
-            // Imprime reporte
-            printMonitoringReport(threadInfos.length, activeThreads, blockedThreads, waitingThreads);
-            
         } catch (Exception e) {
             System.err.println("Error durante el monitoreo: " + e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastSampleNanos = elapsed;
+            samples.increment();
+            sampleDuration.observeNanos(elapsed);
+            monitorCpuNanos.add(Math.max(0, threadBean.getCurrentThreadCpuTime() - cpuStart));
+        }
+    }
+
+    /**
+     * Recalcula los identificadores de hilo de cada pool a partir de sus nombres.
+     */
+    private void refreshThreadIds() {
+        ThreadInfo[] infos = threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0);
+        for (PoolSample pool : pools) {
+            List<Long> ids = new ArrayList<>();
+            for (ThreadInfo info : infos) {
+                if (info != null && info.getThreadName().startsWith(pool.threadNamePrefix)) {
+                    ids.add(info.getThreadId());
+                }
+            }
+            pool.setThreadIds(ids);
         }
     }
 
     /**
-     * Imprime el reporte de monitoreo.
+     * Comprueba si hay deadlocks y publica el resultado y su duración. Requiere un
+     * safepoint, por eso se ejecuta con un intervalo propio y no en cada muestra.
+     * @return Identificadores de los hilos en deadlock, o null si no hay
      */
-    private void printMonitoringReport(int totalThreads, int activeThreads, 
-                                     int blockedThreads, int waitingThreads) {
-        System.out.println("📊 === REPORTE DE HILOS ===");
-        System.out.printf("Total de hilos: %d | Activos: %d | Bloqueados: %d | Esperando: %d%n",
-                         totalThreads, activeThreads, blockedThreads, waitingThreads);
-        System.out.printf("Tiempo total CPU: %.2f ms | Tiempo usuario: %.2f ms%n",
-                         totalCpuTime.get() / 1_000_000.0, totalUserTime.get() / 1_000_000.0);
-        System.out.printf("Deadlocks detectados: %d%n", deadlockCount.get());
-        System.out.println("==========================");
+    private long[] checkDeadlocks() {
+        long start = System.nanoTime();
+        long[] deadlocked = threadBean.findDeadlockedThreads();
+        deadlockCheckDuration.observeNanos(System.nanoTime() - start);
+        deadlockChecks.increment();
+        lastDeadlockedCount = deadlocked == null ? 0 : deadlocked.length;
+        deadlockedThreads.set(lastDeadlockedCount);
+        if (deadlocked != null) {
+            System.err.println("🚨 ¡DEADLOCK DETECTADO! Threads involucrados: " + deadlocked.length);
+        }
+        return deadlocked;
     }
 
     /**
@@ -129,10 +216,10 @@ public class ThreadMonitor {
      * @return Información detallada del hilo
      */
     public String getThreadDetails(String threadName) {
-        ThreadInfo[] threadInfos = threadBean.dumpAllThreads(false, false);
-        
+        ThreadInfo[] threadInfos = threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0);
+
         for (ThreadInfo info : threadInfos) {
-            if (info.getThreadName().contains(threadName)) {
+            if (info != null && info.getThreadName().contains(threadName)) {
                 return String.format(
                     "Hilo: %s | Estado: %s | CPU Time: %.2f ms | Bloqueado por: %s",
                     info.getThreadName(),
@@ -146,51 +233,43 @@ public class ThreadMonitor {
     }
 
     /**
-     * Obtiene un resumen de estadísticas del sistema de hilos.
+     * Obtiene un resumen de la última muestra. No consulta la JVM: solo lee
+     * los valores ya publicados, por lo que puede llamarse en cada ciclo.
      * @return String con estadísticas resumidas
      */
     public String getThreadSummary() {
-        ThreadInfo[] threadInfos = threadBean.dumpAllThreads(false, false);
-        int totalThreads = threadInfos.length;
-        int activeThreads = 0;
-        int blockedThreads = 0;
-        
-        for (ThreadInfo info : threadInfos) {
-            if (info.getThreadState() == Thread.State.RUNNABLE) {
-                activeThreads++;
-            } else if (info.getThreadState() == Thread.State.BLOCKED) {
-                blockedThreads++;
-            }
+        StringBuilder summary = new StringBuilder("Thread Summary - Total: ").append(liveThreads.get());
+        for (PoolSample pool : pools) {
+            summary.append(String.format(", %s: %d (CPU %.2f ms)",
+                    pool.threadNamePrefix, pool.threads.get(), pool.cpuNanos.get() / 1_000_000.0));
         }
-        
-        return String.format(
-            "Thread Summary - Total: %d, Active: %d, Blocked: %d, CPU Time: %.2f ms",
-            totalThreads, activeThreads, blockedThreads, 
-            totalCpuTime.get() / 1_000_000.0
-        );
+        long sampleCount = samples.get();
+        summary.append(String.format(", Deadlocks: %d, Monitor: %d muestras, última %.3f ms, CPU %.2f ms",
+                lastDeadlockedCount, sampleCount, lastSampleNanos / 1_000_000.0, monitorCpuNanos.get() / 1_000_000.0));
+        return summary.toString();
     }
 
     /**
-     * Verifica si hay deadlocks en el sistema.
+     * Verifica bajo demanda si hay deadlocks en el sistema.
      * @return true si hay deadlocks, false en caso contrario
      */
     public boolean hasDeadlocks() {
-        long[] deadlockedThreads = threadBean.findDeadlockedThreads();
-        return deadlockedThreads != null && deadlockedThreads.length > 0;
+        long[] deadlocked = checkDeadlocks();
+        return deadlocked != null && deadlocked.length > 0;
     }
 
     /**
-     * Obtiene información de deadlocks si existen.
+     * Obtiene bajo demanda información de deadlocks si existen.
      * @return String con información de deadlocks
      */
     public String getDeadlockInfo() {
-        long[] deadlockedThreads = threadBean.findDeadlockedThreads();
-        if (deadlockedThreads == null) {
+        long[] deadlocked = checkDeadlocks();
+        if (deadlocked == null) {
             return "No hay deadlocks detectados";
         }
-        
+
         StringBuilder info = new StringBuilder("Deadlocks detectados:\n");
-        for (long threadId : deadlockedThreads) {
+        for (long threadId : deadlocked) {
             ThreadInfo threadInfo = threadBean.getThreadInfo(threadId);
             if (threadInfo != null) {
                 info.append(String.format("  - Hilo: %s (ID: %d) | Estado: %s\n",
@@ -199,4 +278,64 @@ public class ThreadMonitor {
         }
         return info.toString();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Estado de muestreo de un pool: identificadores de hilo en caché y tiempo de CPU
+     * acumulado por hilos que ya terminaron, para que el contador nunca decrezca.
+     */
+    private static class PoolSample {
+        final String threadNamePrefix;
+        final Counter cpuNanos;
+        final Gauge threads;
+
+        // Solo se modifican desde el hilo del monitor
+        private long[] threadIds = new long[0];
+        private long[] lastCpuNanos = new long[0];
+
+        PoolSample(String threadNamePrefix, Counter cpuNanos, Gauge threads) {
+            this.threadNamePrefix = threadNamePrefix;
+            this.cpuNanos = cpuNanos;
+            this.threads = threads;
+        }
+
+        void setThreadIds(List<Long> ids) {
+            long[] newIds = new long[ids.size()];
+            long[] newCpu = new long[ids.size()];
+            for (int i = 0; i < newIds.length; i++) {
+                newIds[i] = ids.get(i);
+                // Conserva la última lectura de los hilos que siguen en el pool
+                for (int j = 0; j < threadIds.length; j++) {
+                    if (threadIds[j] == newIds[i]) {
+                        newCpu[i] = lastCpuNanos[j];
+                        break;
+                    }
+                }
+            }
+            threadIds = newIds;
+            lastCpuNanos = newCpu;
+        }
+
+        /**
+         * Lee el tiempo de CPU de los hilos en caché y publica el incremento.
+         * @return true si algún hilo en caché ha terminado y la caché debe recalcularse
+         */
+        boolean sample(ThreadMXBean threadBean) {
+            boolean stale = false;
+            int alive = 0;
+            long delta = 0;
+            for (int i = 0; i < threadIds.length; i++) {
+                long cpu = threadBean.getThreadCpuTime(threadIds[i]);
+                if (cpu < 0) {
+                    stale = true;
+                    continue;
+                }
+                alive++;
+                delta += Math.max(0, cpu - lastCpuNanos[i]);
+                lastCpuNanos[i] = cpu;
+            }
+            cpuNanos.add(delta);
+            threads.set(alive);
+            return stale;
+        }
+    }
+}
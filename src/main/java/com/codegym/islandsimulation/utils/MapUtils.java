@@ -13,7 +13,7 @@ import java.util.Map;
 
 /**
  * Clase utilitaria que proporciona métodos para trabajar con el mapa de la isla.
- * Incluye funciones para buscar organismos, encontrar posiciones adyacentes y mapear emojis.
+ * Incluye funciones para encontrar posiciones adyacentes y mapear emojis.
  */
 public class MapUtils {
 
@@ -42,6 +42,8 @@ public class MapUtils {
         EMOJI_MAP.put(ConiferousTree.class, "🌲");
         EMOJI_MAP.put(Tree.class, "🌳");
         EMOJI_MAP.put(Rock.class, "🪨");
+        EMOJI_MAP.put(Mushroom.class, "🍄");
+        EMOJI_MAP.put(MushroomGrass.class, "🍄‍🟫");
         EMOJI_MAP.put(Plant.class, "🌿");
     }
 
@@ -51,27 +53,6 @@ public class MapUtils {
             {-1, -1}, {-1, 1}, {1, -1}, {1, 1}
     };
 
-    /**
-     * Encuentra la posición de un organismo específico en el mapa.
-     * @param map El mapa donde buscar
-     * @param target El organismo a buscar
-     * @return Array con [fila, columna] de la posición, o null si no se encuentra
-     */
-    public static int[] findOrganismPosition(IslandMap map, Organism target) {
-        if (target == null) return null;
-
-        // Busca en el mapa
-        for (int row = 0; row < map.getRows(); row++) {
-            for (int col = 0; col < map.getCols(); col++) {
-                Organism organism = map.getOrganismAt(row, col);
-                if (organism != null && organism.getId().equals(target.getId())) {
-                    return new int[]{row, col};
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * Obtiene todos los organismos adyacentes a una posición específica.
      * @param map El mapa donde buscar
@@ -99,25 +80,37 @@ public class MapUtils {
     }
 
     /**
-     * Encuentra una posición vacía adyacente a una posición específica.
+     * Encuentra la primera posición adyacente cuyo organismo cumple una condición,
+     * en el mismo orden que {@link #getAdjacentOrganisms}.
      * @param map El mapa donde buscar
      * @param row Fila de la posición central
      * @param col Columna de la posición central
-     * @return Array con [fila, columna] de la posición vacía, o null si no hay ninguna
+     * @param filter Condición que recibe el organismo y su fila y columna
+     * @return Array con [fila, columna] de la posición, o null si no hay ninguna
      */
-    public static int[] findEmptyAdjacentPosition(IslandMap map, int row, int col) {
-        // Revisa todas las direcciones adyacentes
+    public static int[] findAdjacentPosition(IslandMap map, int row, int col, AdjacentFilter filter) {
         for (int[] dir : ADJACENT_DIRECTIONS) {
             int newRow = row + dir[0];
             int newCol = col + dir[1];
 
-            if (map.isValidPosition(newRow, newCol) && map.getOrganismAt(newRow, newCol) == null) {
-                return new int[]{newRow, newCol};
+            if (map.isValidPosition(newRow, newCol)) {
+                Organism organism = map.getOrganismAt(newRow, newCol);
+                if (organism != null && filter.test(organism, newRow, newCol)) {
+                    return new int[]{newRow, newCol};
+                }
             }
         }
         return null;
     }
 
+    /**
+     * Condición sobre un organismo adyacente y su posición.
+     */
+    @FunctionalInterface
+    public interface AdjacentFilter {
+        boolean test(Organism organism, int row, int col);
+    }
+
     /**
      * Obtiene el emoji asociado a una clase de organismo.
      * @param species La clase del organismo
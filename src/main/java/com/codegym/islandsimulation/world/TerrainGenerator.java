@@ -0,0 +1,302 @@
+package com.codegym.islandsimulation.world;
+
+import com.codegym.islandsimulation.entities.terrain.*;
+import com.codegym.islandsimulation.map.CellMemory;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.map.TerrainLayer;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Generador de terreno basado en ruido coherente con semilla.
+ *
+ * Cada celda tiene una altura y una humedad obtenidas de dos campos de ruido de valor
+ * fractal (varias octavas de una retícula de valores pseudoaleatorios interpolados).
+ * El tipo de terreno se decide con umbrales:
+ * <ul>
+ *   <li>altura por debajo del nivel del agua: {@link Water}</li>
+ *   <li>altura por encima del nivel de roca: {@link Rock}</li>
+ *   <li>humedad por encima del nivel de bosque: {@link PalmTree} en la costa,
+ *       {@link ConiferousTree} en las tierras altas y {@link Tree} en el resto</li>
+ * </ul>
+ * En la tierra despejada se dispersan además {@link Mushroom} y {@link MushroomGrass}.
+ * El resultado es una {@link TerrainLayer} inmutable, separada de los organismos.
+ *
+ * Los valores de la retícula dependen solo de la semilla y de sus coordenadas, así que
+ * cada tesela se evalúa en paralelo de forma independiente y el resultado no depende
+ * del número de hilos. Como el tamaño de los accidentes es fijo en celdas, la cantidad
+ * de terreno crece de forma natural con el tamaño de la isla.
+ */
+public class TerrainGenerator {
+    // Lado aproximado, en celdas, de los accidentes del terreno en la octava más grande
+    public static final int DEFAULT_FEATURE_SIZE = 16;
+
+    // Número de octavas del ruido fractal; cada una tiene la mitad de escala y de peso
+    private static final int OCTAVES = 3;
+
+    // Constantes que separan los campos de humedad y de hongos del de altura
+    private static final long MOISTURE_SALT = 0x5DEECE66DL;
+    private static final long MUSHROOM_SALT = 0x2545F4914F6CDD1DL;
+
+    // Códigos de los tipos de terreno en la capa
+    private static final byte WATER = TerrainLayer.Builder.codeOf(Water.class);
+    private static final byte ROCK = TerrainLayer.Builder.codeOf(Rock.class);
+    private static final byte TREE = TerrainLayer.Builder.codeOf(Tree.class);
+    private static final byte PALM_TREE = TerrainLayer.Builder.codeOf(PalmTree.class);
+    private static final byte CONIFEROUS_TREE = TerrainLayer.Builder.codeOf(ConiferousTree.class);
+    private static final byte MUSHROOM = TerrainLayer.Builder.codeOf(Mushroom.class);
+    private static final byte MUSHROOM_GRASS = TerrainLayer.Builder.codeOf(MushroomGrass.class);
+
+    private final SimulationThreadPool threadPool;
+    private final int tileSize;
+    private final int featureSize;
+
+    // Umbrales sobre la altura y la humedad, en [0, 1)
+    // Con los valores por defecto el terreno cubre en torno al 14 % de la isla
+    private double waterLevel = 0.25;
+    private double rockLevel = 0.75;
+    private double forestLevel = 0.71;
+    private double coastLevel = 0.42;
+    private double highlandLevel = 0.58;
+
+    // Fracción de la tierra despejada con cada tipo de hongo
+    private double mushroomDensity = 0.025;
+
+    /**
+     * Constructor del generador con el tamaño de tesela y de accidentes por defecto.
+     * @param threadPool Pool cuyo ejecutor de simulación evalúa las teselas
+     */
+    public TerrainGenerator(SimulationThreadPool threadPool) {
+        this(threadPool, WorldGenerator.DEFAULT_TILE_SIZE, DEFAULT_FEATURE_SIZE);
+    }
+
+    /**
+     * Constructor del generador.
+     * @param threadPool Pool cuyo ejecutor de simulación evalúa las teselas
+     * @param tileSize Lado de las teselas en celdas
+     * @param featureSize Lado aproximado de los accidentes del terreno en celdas
+     */
+    public TerrainGenerator(SimulationThreadPool threadPool, int tileSize, int featureSize) {
+        if (tileSize < 1 || featureSize < 1) {
+            throw new IllegalArgumentException("El tamaño de tesela y de accidentes debe ser positivo");
+        }
+        this.threadPool = threadPool;
+        this.tileSize = tileSize;
+        this.featureSize = featureSize;
+    }
+
+    /**
+     * Cambia los umbrales de altura del agua y de la roca.
+     * @param waterLevel Altura por debajo de la cual hay agua
+     * @param rockLevel Altura por encima de la cual hay roca
+     */
+    public void setElevationLevels(double waterLevel, double rockLevel) {
+        if (waterLevel > rockLevel) {
+            throw new IllegalArgumentException("El nivel del agua no puede superar al de la roca");
+        }
+        this.waterLevel = waterLevel;
+        this.rockLevel = rockLevel;
+    }
+
+    /**
+     * Cambia los umbrales de los bosques.
+     * @param forestLevel Humedad por encima de la cual hay árboles
+     * @param coastLevel Altura por debajo de la cual los árboles son palmeras
+     * @param highlandLevel Altura por encima de la cual los árboles son coníferas
+     */
+    public void setForestLevels(double forestLevel, double coastLevel, double highlandLevel) {
+        if (coastLevel > highlandLevel) {
+            throw new IllegalArgumentException("El nivel de costa no puede superar al de tierras altas");
+        }
+        this.forestLevel = forestLevel;
+        this.coastLevel = coastLevel;
+        this.highlandLevel = highlandLevel;
+    }
+
+    /**
+     * Cambia la densidad de hongos.
+     * @param mushroomDensity Fracción de la tierra despejada con {@link Mushroom}; otra
+     *                        fracción igual lleva {@link MushroomGrass}
+     */
+    public void setMushroomDensity(double mushroomDensity) {
+        if (mushroomDensity < 0 || mushroomDensity > 0.5) {
+            throw new IllegalArgumentException("La densidad de hongos debe estar entre 0 y 0.5");
+        }
+        this.mushroomDensity = mushroomDensity;
+    }
+
+    /**
+     * Genera la capa de terreno de una isla.
+     * @param rows Número de filas
+     * @param cols Número de columnas
+     * @param seed Semilla del terreno
+     * @return La capa de terreno inmutable
+     */
+    public TerrainLayer generate(int rows, int cols, long seed) {
+        return generateBand(rows, cols, seed, 0);
+    }
+
+    /**
+     * Genera la capa de terreno de una banda horizontal de una isla mayor. Como el ruido solo
+     * depende de las coordenadas, la banda coincide celda a celda con la misma zona de la isla
+     * completa y dos bandas vecinas encajan sin costuras.
+     * @param rows Número de filas de la banda
+     * @param cols Número de columnas
+     * @param seed Semilla del terreno de la isla completa
+     * @param firstRow Fila de la isla en la que empieza la banda
+     * @return La capa de terreno de la banda, con sus filas numeradas desde 0
+     */
+    public TerrainLayer generateBand(int rows, int cols, long seed, int firstRow) {
+        return generateBand(rows, cols, seed, firstRow, CellMemory.heap());
+    }
+
+    /**
+     * Genera la capa de terreno de una banda con sus planos en una memoria dada, normalmente
+     * la del mapa que la va a usar (ver {@link IslandMap#getCellMemory()}).
+     * @param rows Número de filas de la banda
+     * @param cols Número de columnas
+     * @param seed Semilla del terreno de la isla completa
+     * @param firstRow Fila de la isla en la que empieza la banda
+     * @param memory Memoria de los planos de la capa
+     * @return La capa de terreno de la banda, con sus filas numeradas desde 0
+     */
+    public TerrainLayer generateBand(int rows, int cols, long seed, int firstRow, CellMemory memory) {
+        TerrainLayer.Builder builder = new TerrainLayer.Builder(rows, cols, memory);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Tile tile : Tile.split(rows, cols, tileSize)) {
+            // Las teselas se evalúan en las coordenadas de la isla completa
+            Tile islandTile = new Tile(tile.startRow() + firstRow, tile.startCol(), tile.endRow() + firstRow, tile.endCol());
+            tasks.add(() -> {
+                fill(islandTile, builder, seed, firstRow);
+                return null;
+            });
+        }
+        Tile.invokeAll(threadPool, tasks);
+        return builder.build();
+    }
+
+    /**
+     * Evalúa los campos de ruido sobre la tesela y escribe su terreno en la fila
+     * {@code row - rowOffset} de la capa.
+     */
+    private void fill(Tile tile, TerrainLayer.Builder builder, long seed, int rowOffset) {
+        float[] elevation = new float[tile.height() * tile.width()];
+        float[] moisture = new float[elevation.length];
+        noise(tile, seed, elevation);
+        noise(tile, seed ^ MOISTURE_SALT, moisture);
+        long mushroomSeed = seed ^ MUSHROOM_SALT;
+
+        int index = 0;
+        for (int row = tile.startRow(); row < tile.endRow(); row++) {
+            for (int col = tile.startCol(); col < tile.endCol(); col++, index++) {
+                byte code = classify(elevation[index], moisture[index]);
+                if (code == SpeciesCodes.EMPTY && mushroomDensity > 0) {
+                    // Hongos dispersos: cada celda decide con su propio valor pseudoaleatorio
+                    float chance = latticeValue(mushroomSeed, row, col);
+                    if (chance < mushroomDensity) {
+                        code = MUSHROOM;
+                    } else if (chance < 2 * mushroomDensity) {
+                        code = MUSHROOM_GRASS;
+                    }
+                }
+                if (code != SpeciesCodes.EMPTY) {
+                    builder.set(row - rowOffset, col, code);
+                }
+            }
+        }
+    }
+
+    /**
+     * Terreno para una altura y humedad dadas.
+     * @return Código del terreno, o {@link SpeciesCodes#EMPTY} si la tierra queda despejada
+     */
+    private byte classify(float elevation, float moisture) {
+        if (elevation < waterLevel) {
+            return WATER;
+        }
+        if (elevation > rockLevel) {
+            return ROCK;
+        }
+        if (moisture > forestLevel) {
+            if (elevation < coastLevel) {
+                return PALM_TREE;
+            }
+            return elevation > highlandLevel ? CONIFEROUS_TREE : TREE;
+        }
+        return SpeciesCodes.EMPTY;
+    }
+
+    /**
+     * Rellena {@code out} (fila a fila) con ruido de valor fractal en [0, 1) sobre la tesela.
+     * Los valores de la retícula de cada octava se calculan una sola vez por tesela y
+     * después cada celda solo interpola entre cuatro de ellos.
+     */
+    private void noise(Tile tile, long seed, float[] out) {
+        int width = tile.width();
+        float totalAmplitude = 0;
+        float amplitude = 1;
+        for (int octave = 0; octave < OCTAVES; octave++) {
+            int spacing = Math.max(1, featureSize >> octave);
+            long octaveSeed = WorldGenerator.tileSeed(seed, octave);
+
+            // Retícula que cubre la tesela, con un punto más en cada eje para interpolar
+            int latticeRow0 = tile.startRow() / spacing;
+            int latticeCol0 = tile.startCol() / spacing;
+            int latticeRows = (tile.endRow() - 1) / spacing - latticeRow0 + 2;
+            int latticeCols = (tile.endCol() - 1) / spacing - latticeCol0 + 2;
+            float[] lattice = new float[latticeRows * latticeCols];
+            for (int r = 0; r < latticeRows; r++) {
+                for (int c = 0; c < latticeCols; c++) {
+                    lattice[r * latticeCols + c] = latticeValue(octaveSeed, latticeRow0 + r, latticeCol0 + c);
+                }
+            }
+
+            // Pesos de interpolación por columna, comunes a todas las filas de la tesela
+            int[] colCell = new int[width];
+            float[] colWeight = new float[width];
+            for (int x = 0; x < width; x++) {
+                int col = tile.startCol() + x;
+                colCell[x] = col / spacing - latticeCol0;
+                colWeight[x] = smooth((col % spacing) / (float) spacing);
+            }
+
+            int index = 0;
+            for (int row = tile.startRow(); row < tile.endRow(); row++) {
+                int top = (row / spacing - latticeRow0) * latticeCols;
+                int bottom = top + latticeCols;
+                float wy = smooth((row % spacing) / (float) spacing);
+                for (int x = 0; x < width; x++, index++) {
+                    int c = colCell[x];
+                    float wx = colWeight[x];
+                    float upper = lattice[top + c] + (lattice[top + c + 1] - lattice[top + c]) * wx;
+                    float lower = lattice[bottom + c] + (lattice[bottom + c + 1] - lattice[bottom + c]) * wx;
+                    out[index] += amplitude * (upper + (lower - upper) * wy);
+                }
+            }
+            totalAmplitude += amplitude;
+            amplitude *= 0.5f;
+        }
+        for (int i = 0; i < out.length; i++) {
+            out[i] /= totalAmplitude;
+        }
+    }
+
+    /**
+     * Valor pseudoaleatorio en [0, 1) de un punto de la retícula.
+     */
+    private static float latticeValue(long seed, int row, int col) {
+        long hash = WorldGenerator.tileSeed(seed, ((long) row << 32) ^ (col & 0xFFFFFFFFL));
+        return (hash >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Suavizado cúbico de la interpolación (3t² - 2t³).
+     */
+    private static float smooth(float t) {
+        return t * t * (3 - 2 * t);
+    }
+}
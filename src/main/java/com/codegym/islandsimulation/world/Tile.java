@@ -0,0 +1,72 @@
+package com.codegym.islandsimulation.world;
+
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Región rectangular del mapa [startRow, endRow) x [startCol, endCol) que los
+ * generadores del mundo procesan como una unidad de trabajo independiente.
+ */
+record Tile(int startRow, int startCol, int endRow, int endCol) {
+
+    /**
+     * Divide un mapa en teselas cuadradas, fila a fila; las del borde pueden ser menores.
+     * El índice de cada tesela en la lista es estable para un tamaño de mapa y de tesela.
+     */
+    static List<Tile> split(int rows, int cols, int tileSize) {
+        List<Tile> tiles = new ArrayList<>();
+        for (int row = 0; row < rows; row += tileSize) {
+            for (int col = 0; col < cols; col += tileSize) {
+                tiles.add(new Tile(row, col, Math.min(row + tileSize, rows), Math.min(col + tileSize, cols)));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Ejecuta las tareas en el pool de simulación y espera sus resultados, en orden.
+     */
+    static <T> List<T> invokeAll(SimulationThreadPool threadPool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : threadPool.submitAllSimulationTasks(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del mundo interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error generando el mundo", e.getCause());
+        }
+        return results;
+    }
+
+    int width() {
+        return endCol - startCol;
+    }
+
+    int height() {
+        return endRow - startRow;
+    }
+
+    /**
+     * Cuenta las celdas vacías de la tesela.
+     */
+    int countFree(IslandMap map) {
+        int free = 0;
+        for (int row = startRow; row < endRow; row++) {
+            for (int col = startCol; col < endCol; col++) {
+                if (map.isFree(row, col)) {
+                    free++;
+                }
+            }
+        }
+        return free;
+    }
+}
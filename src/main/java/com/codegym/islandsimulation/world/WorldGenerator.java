@@ -0,0 +1,272 @@
+package com.codegym.islandsimulation.world;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.entities.animals.*;
+import com.codegym.islandsimulation.entities.plants.Vegetation;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.factory.SpeciesInfo;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * Generador del mundo inicial por teselas, en paralelo y a partir de una semilla.
+ *
+ * El mapa se divide en teselas cuadradas. Primero se cuentan en paralelo las celdas
+ * libres de cada tesela; después se reparte, de forma secuencial y determinista, el
+ * número exacto de organismos de cada especie entre las teselas en proporción a su
+ * espacio libre (método del mayor resto). Por último cada tesela se rellena en paralelo
+ * con un generador aleatorio propio, derivado solo de la semilla y del índice de la
+ * tesela, eligiendo sus celdas con un barajado parcial de Fisher-Yates.
+ *
+ * Como ningún valor aleatorio depende del orden de ejecución, el resultado es el mismo
+ * con cualquier número de hilos, y las densidades se cumplen exactamente: no hay
+ * reintentos ni colisiones descartadas.
+ */
+public class WorldGenerator {
+    // Lado por defecto de las teselas
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    // Densidades por defecto, equivalentes a la población aleatoria de un mapa de 20x50;
+    // el terreno lo genera TerrainGenerator en su propia capa
+    private static final Map<Class<? extends Organism>, Double> DEFAULT_DENSITIES = createDefaultDensities();
+
+    private final SimulationThreadPool threadPool;
+    private final int tileSize;
+
+    /**
+     * Constructor del generador con el tamaño de tesela por defecto.
+     * @param threadPool Pool cuyo ejecutor de simulación rellena las teselas
+     */
+    public WorldGenerator(SimulationThreadPool threadPool) {
+        this(threadPool, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructor del generador.
+     * @param threadPool Pool cuyo ejecutor de simulación rellena las teselas
+     * @param tileSize Lado de las teselas en celdas
+     */
+    public WorldGenerator(SimulationThreadPool threadPool, int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("El tamaño de tesela debe ser positivo");
+        }
+        this.threadPool = threadPool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Densidades por defecto: fracción de las celdas del mapa que ocupa cada especie.
+     * @return Mapa inmutable de densidades, en orden de colocación
+     */
+    public static Map<Class<? extends Organism>, Double> getDefaultDensities() {
+        return DEFAULT_DENSITIES;
+    }
+
+    /**
+     * Coloca organismos en las celdas libres del mapa con las densidades indicadas.
+     * @param map Mapa a poblar (las celdas ocupadas o bloqueadas por el terreno se respetan)
+     * @param seed Semilla del mundo
+     * @param densities Fracción de las celdas del mapa para cada especie, en orden de colocación
+     * @param ids Generador de identificadores con el que se crean los organismos
+     * @return Número de organismos colocados por especie
+     */
+    public Map<Class<? extends Organism>, Long> populate(IslandMap map, long seed,
+                                                         Map<Class<? extends Organism>, Double> densities,
+                                                         OrganismIds ids) {
+        return populate(map, seed, densities, ids, 0, map.getRows());
+    }
+
+    /**
+     * Coloca organismos solo en las filas [firstRow, endRow) del mapa; las densidades se
+     * refieren a las celdas de esas filas. Sirve para poblar la banda propia de un mapa
+     * repartido sin tocar las filas de borde que copian las de otra banda.
+     * @param map Mapa a poblar
+     * @param seed Semilla de la banda
+     * @param densities Fracción de las celdas de la banda para cada especie, en orden de colocación
+     * @param ids Generador de identificadores con el que se crean los organismos
+     * @param firstRow Primera fila a poblar
+     * @param endRow Fila siguiente a la última a poblar
+     * @return Número de organismos colocados por especie
+     */
+    public Map<Class<? extends Organism>, Long> populate(IslandMap map, long seed,
+                                                         Map<Class<? extends Organism>, Double> densities,
+                                                         OrganismIds ids, int firstRow, int endRow) {
+        if (firstRow < 0 || endRow > map.getRows() || firstRow >= endRow) {
+            throw new IllegalArgumentException("Filas fuera del mapa: [" + firstRow + ", " + endRow + ")");
+        }
+        List<SpeciesInfo> species = new ArrayList<>(densities.size());
+        double totalDensity = 0;
+        for (Map.Entry<Class<? extends Organism>, Double> entry : densities.entrySet()) {
+            SpeciesInfo info = OrganismRegistry.getInfo(entry.getKey());
+            if (info == null) {
+                throw new IllegalArgumentException("Tipo de organismo no registrado: " + entry.getKey().getSimpleName());
+            }
+            if (info.kind() == OrganismKind.TERRAIN) {
+                throw new IllegalArgumentException("El terreno forma parte de la capa de terreno: " + entry.getKey().getSimpleName());
+            }
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Densidad negativa para " + entry.getKey().getSimpleName());
+            }
+            species.add(info);
+            totalDensity += entry.getValue();
+        }
+        if (totalDensity > 1.0) {
+            throw new IllegalArgumentException("La suma de densidades no puede superar 1");
+        }
+
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : Tile.split(endRow - firstRow, map.getCols(), tileSize)) {
+            tiles.add(new Tile(tile.startRow() + firstRow, tile.startCol(), tile.endRow() + firstRow, tile.endCol()));
+        }
+
+        // 1. Celdas libres por tesela, en paralelo
+        List<Callable<Integer>> countTasks = new ArrayList<>(tiles.size());
+        for (Tile tile : tiles) {
+            countTasks.add(() -> tile.countFree(map));
+        }
+        int[] free = new int[tiles.size()];
+        List<Integer> counts = Tile.invokeAll(threadPool, countTasks);
+        long totalFree = 0;
+        for (int t = 0; t < free.length; t++) {
+            free[t] = counts.get(t);
+            totalFree += free[t];
+        }
+
+        // 2. Reparto exacto de cada especie entre las teselas, secuencial y determinista
+        long totalCells = (long) (endRow - firstRow) * map.getCols();
+        int[][] quotas = new int[tiles.size()][species.size()];
+        int[] capacity = free.clone();
+        long remainingCapacity = totalFree;
+        Map<Class<? extends Organism>, Long> placed = new LinkedHashMap<>();
+        int speciesIndex = 0;
+        for (Map.Entry<Class<? extends Organism>, Double> entry : densities.entrySet()) {
+            long target = Math.min(Math.round(entry.getValue() * totalCells), remainingCapacity);
+            distribute(target, capacity, remainingCapacity, quotas, speciesIndex);
+            for (int t = 0; t < capacity.length; t++) {
+                capacity[t] -= quotas[t][speciesIndex];
+            }
+            remainingCapacity -= target;
+            placed.put(entry.getKey(), target);
+            speciesIndex++;
+        }
+
+        // 3. Relleno de las teselas en paralelo, cada una con su propio generador aleatorio
+        List<Callable<Integer>> fillTasks = new ArrayList<>(tiles.size());
+        for (int t = 0; t < tiles.size(); t++) {
+            Tile tile = tiles.get(t);
+            int[] tileQuotas = quotas[t];
+            SplittableRandom tileRandom = new SplittableRandom(tileSeed(seed, t));
+            fillTasks.add(() -> ids.call(() -> fill(tile, map, tileRandom, species, tileQuotas)));
+        }
+        Tile.invokeAll(threadPool, fillTasks);
+        return placed;
+    }
+
+    /**
+     * Reparte {@code target} organismos entre las teselas en proporción a su capacidad
+     * libre, usando el método del mayor resto (desempates por índice de tesela).
+     */
+    private static void distribute(long target, int[] capacity, long totalCapacity, int[][] quotas, int speciesIndex) {
+        if (target == 0 || totalCapacity == 0) {
+            return;
+        }
+        long assigned = 0;
+        double[] remainders = new double[capacity.length];
+        for (int t = 0; t < capacity.length; t++) {
+            double share = (double) target * capacity[t] / totalCapacity;
+            int base = (int) Math.min(Math.floor(share), capacity[t]);
+            quotas[t][speciesIndex] = base;
+            remainders[t] = share - base;
+            assigned += base;
+        }
+        // Asigna las unidades restantes a las teselas con mayor resto
+        List<Integer> order = new ArrayList<>(capacity.length);
+        for (int t = 0; t < capacity.length; t++) {
+            order.add(t);
+        }
+        order.sort((a, b) -> remainders[a] != remainders[b] ? Double.compare(remainders[b], remainders[a]) : Integer.compare(a, b));
+        for (int i = 0; assigned < target; i = (i + 1) % order.size()) {
+            int t = order.get(i);
+            if (quotas[t][speciesIndex] < capacity[t]) {
+                quotas[t][speciesIndex]++;
+                assigned++;
+            }
+        }
+    }
+
+    /**
+     * Semilla de una tesela: mezcla de la semilla del mundo y el índice de la tesela.
+     */
+    static long tileSeed(long seed, long tileIndex) {
+        long z = seed + (tileIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Map<Class<? extends Organism>, Double> createDefaultDensities() {
+        Map<Class<? extends Organism>, Double> densities = new LinkedHashMap<>();
+        densities.put(Vegetation.class, 0.125);
+        // Animales: unos 7 por especie en 1000 celdas
+        for (Class<? extends Organism> animal : List.of(Wolf.class, Boa.class, Fox.class, Bear.class, Eagle.class,
+                Horse.class, Deer.class, Rabbit.class, Mouse.class, Goat.class, Sheep.class, Boar.class,
+                Buffalo.class, Duck.class, Caterpillar.class)) {
+            densities.put(animal, 0.007);
+        }
+        return Collections.unmodifiableMap(densities);
+    }
+
+    /**
+     * Coloca en celdas libres de la tesela el número de organismos de cada especie indicado.
+     * @return Número de organismos colocados
+     */
+    private static int fill(Tile tile, IslandMap map, SplittableRandom random, List<SpeciesInfo> species, int[] quotas) {
+        int total = 0;
+        for (int quota : quotas) {
+            total += quota;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        // Celdas libres de la tesela, como índices locales
+        int width = tile.width();
+        int[] cells = new int[tile.height() * width];
+        int free = 0;
+        for (int row = tile.startRow(); row < tile.endRow(); row++) {
+            for (int col = tile.startCol(); col < tile.endCol(); col++) {
+                if (map.isFree(row, col)) {
+                    cells[free++] = (row - tile.startRow()) * width + (col - tile.startCol());
+                }
+            }
+        }
+
+        // Barajado parcial: solo se eligen las celdas que se van a ocupar
+        for (int i = 0; i < total; i++) {
+            int j = i + random.nextInt(free - i);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+
+        int next = 0;
+        for (int s = 0; s < quotas.length; s++) {
+            SpeciesInfo info = species.get(s);
+            for (int n = 0; n < quotas[s]; n++) {
+                int cell = cells[next++];
+                map.setOrganismAt(tile.startRow() + cell / width, tile.startCol() + cell % width, info.create());
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,118 @@
+package com.codegym.islandsimulation.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpirySchedulerTest {
+
+    @Test
+    void entregaCadaEntradaEnSuCiclo() {
+        ExpiryScheduler<String, Integer> scheduler = new ExpiryScheduler<>(8);
+        scheduler.schedule("a", 1, 2);
+        scheduler.schedule("b", 2, 2);
+        scheduler.schedule("c", 3, 5);
+
+        assertEquals(List.of(), advance(scheduler, 1));
+        assertEquals(List.of("a=1", "b=2"), advance(scheduler, 2));
+        assertEquals(1, scheduler.size());
+        assertEquals(List.of(), advance(scheduler, 3));
+        assertEquals(List.of(), advance(scheduler, 4));
+        assertEquals(List.of("c=3"), advance(scheduler, 5));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void cancelarRetiraLaEntrada() {
+        ExpiryScheduler<String, Integer> scheduler = new ExpiryScheduler<>(8);
+        scheduler.schedule("a", 1, 3);
+        scheduler.schedule("b", 2, 3);
+
+        assertTrue(scheduler.cancel("a"));
+        assertFalse(scheduler.cancel("a"));
+        assertFalse(scheduler.contains("a"));
+        assertFalse(scheduler.cancel("x"));
+
+        for (int cycle = 1; cycle < 3; cycle++) {
+            assertEquals(List.of(), advance(scheduler, cycle));
+        }
+        assertEquals(List.of("b=2"), advance(scheduler, 3));
+    }
+
+    @Test
+    void reprogramarSustituyeLaCaducidadAnterior() {
+        ExpiryScheduler<String, Integer> scheduler = new ExpiryScheduler<>(8);
+        scheduler.schedule("a", 1, 3);
+        scheduler.schedule("a", 2, 6);
+        assertEquals(1, scheduler.size());
+
+        List<String> fired = new ArrayList<>();
+        for (int cycle = 1; cycle <= 12; cycle++) {
+            for (String entry : advance(scheduler, cycle)) {
+                fired.add(cycle + ":" + entry);
+            }
+        }
+        assertEquals(List.of("6:a=2"), fired);
+
+        // Reprogramar a un ciclo anterior también gana a la entrada antigua
+        scheduler.schedule("b", 1, 20);
+        scheduler.schedule("b", 2, 15);
+        fired.clear();
+        for (int cycle = 13; cycle <= 24; cycle++) {
+            for (String entry : advance(scheduler, cycle)) {
+                fired.add(cycle + ":" + entry);
+            }
+        }
+        assertEquals(List.of("15:b=2"), fired);
+    }
+
+    @Test
+    void conservaLasEntradasDeVueltasPosteriores() {
+        ExpiryScheduler<String, Integer> scheduler = new ExpiryScheduler<>(4);
+        // Mismo cubo (ciclo % 4), distinta vuelta
+        scheduler.schedule("a", 1, 1);
+        scheduler.schedule("b", 2, 5);
+        scheduler.schedule("c", 3, 13);
+        scheduler.cancel("b");
+
+        List<String> fired = new ArrayList<>();
+        for (int cycle = 1; cycle <= 16; cycle++) {
+            for (String entry : advance(scheduler, cycle)) {
+                fired.add(cycle + ":" + entry);
+            }
+        }
+        assertEquals(List.of("1:a=1", "13:c=3"), fired);
+    }
+
+    @Test
+    void laAccionPuedeProgramarNuevasEntradas() {
+        ExpiryScheduler<String, Integer> scheduler = new ExpiryScheduler<>(4);
+        scheduler.schedule("a", 0, 1);
+
+        // Cada caducidad se reprograma cuatro ciclos después, en el mismo cubo
+        List<String> fired = new ArrayList<>();
+        for (int cycle = 1; cycle <= 12; cycle++) {
+            int current = cycle;
+            scheduler.advance(cycle, (key, value) -> {
+                fired.add(current + ":" + key + "=" + value);
+                if (value < 2) {
+                    scheduler.schedule(key, value + 1, current + 4);
+                }
+            });
+        }
+        assertEquals(List.of("1:a=0", "5:a=1", "9:a=2"), fired);
+        assertEquals(0, scheduler.size());
+    }
+
+    private static List<String> advance(ExpiryScheduler<String, Integer> scheduler, int cycle) {
+        List<String> entries = new ArrayList<>();
+        scheduler.advance(cycle, (key, value) -> entries.add(key + "=" + value));
+        entries.sort(null);
+        return entries;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codegym.islandsimulation.engine;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlantRegrowthWheelTest {
+
+    @Test
+    void entregaCadaCeldaEnSuCiclo() {
+        PlantRegrowthWheel wheel = new PlantRegrowthWheel(100, 8);
+        assertTrue(wheel.schedule(5, 3));
+        assertTrue(wheel.schedule(7, 3));
+        assertTrue(wheel.schedule(9, 4));
+
+        assertEquals(List.of(), advance(wheel, 1));
+        assertEquals(List.of(), advance(wheel, 2));
+        assertEquals(List.of(5, 7), advance(wheel, 3));
+        assertEquals(List.of(9), advance(wheel, 4));
+        assertEquals(0, wheel.getPending());
+    }
+
+    @Test
+    void descartaLaProgramacionRepetidaDeUnaCelda() {
+        PlantRegrowthWheel wheel = new PlantRegrowthWheel(100, 8);
+        assertTrue(wheel.schedule(5, 3));
+        assertFalse(wheel.schedule(5, 6));
+        assertTrue(wheel.isScheduled(5));
+        assertEquals(1, wheel.getPending());
+
+        for (int cycle = 1; cycle < 3; cycle++) {
+            assertEquals(List.of(), advance(wheel, cycle));
+        }
+        assertEquals(List.of(5), advance(wheel, 3));
+        assertFalse(wheel.isScheduled(5));
+
+        // Tras rebrotar, la celda puede volver a programarse
+        assertTrue(wheel.schedule(5, 6));
+        for (int cycle = 4; cycle < 6; cycle++) {
+            assertEquals(List.of(), advance(wheel, cycle));
+        }
+        assertEquals(List.of(5), advance(wheel, 6));
+    }
+
+    @Test
+    void conservaLasEntradasDeVueltasPosteriores() {
+        PlantRegrowthWheel wheel = new PlantRegrowthWheel(100, 4);
+        // Misma ranura (ciclo % 4), distinta vuelta
+        assertTrue(wheel.schedule(1, 2));
+        assertTrue(wheel.schedule(2, 6));
+        assertTrue(wheel.schedule(3, 14));
+
+        List<int[]> fired = new ArrayList<>();
+        for (int cycle = 1; cycle <= 16; cycle++) {
+            for (int cell : advance(wheel, cycle)) {
+                fired.add(new int[]{cell, cycle});
+            }
+        }
+        assertEquals(3, fired.size());
+        assertEquals(List.of(1, 2, 3), fired.stream().map(entry -> entry[0]).toList());
+        assertEquals(List.of(2, 6, 14), fired.stream().map(entry -> entry[1]).toList());
+    }
+
+    @Test
+    void funcionaIgualConLaMascaraFueraDelHeap() {
+        PlantRegrowthWheel heap = new PlantRegrowthWheel(10_000, 16, CellMemory.heap());
+        PlantRegrowthWheel direct = new PlantRegrowthWheel(10_000, 16, CellMemory.direct());
+        for (int cell = 0; cell < 10_000; cell += 7) {
+            int cycle = 1 + cell % 40;
+            assertEquals(heap.schedule(cell, cycle), direct.schedule(cell, cycle));
+            assertEquals(heap.schedule(cell, cycle + 1), direct.schedule(cell, cycle + 1));
+        }
+        assertEquals(heap.getPending(), direct.getPending());
+        for (int cycle = 1; cycle <= 41; cycle++) {
+            assertEquals(advance(heap, cycle), advance(direct, cycle));
+        }
+        assertEquals(0, direct.getPending());
+    }
+
+    private static List<Integer> advance(PlantRegrowthWheel wheel, int cycle) {
+        List<Integer> cells = new ArrayList<>();
+        wheel.advance(cycle, cells::add);
+        cells.sort(null);
+        return cells;
+    }
+}
@@ -0,0 +1,151 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Corpse;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.entities.plants.Plant;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IslandMapStorageTest {
+    private static final int ROWS = 37;
+    private static final int COLS = 29;
+    private static final int EDITS = 20_000;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "offHeap", "mapped"})
+    void todosLosAlmacenamientosSeComportanIgual(String storage) throws IOException {
+        IslandMap map = create(storage, ROWS, COLS);
+        List<Class<? extends Organism>> animals = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL);
+        List<Class<? extends Organism>> plants = OrganismRegistry.getOrganismTypes(OrganismKind.PLANT);
+        assertFalse(animals.isEmpty());
+        assertFalse(plants.isEmpty());
+
+        // Modelo de referencia: lo colocado en cada celda y si la planta está comida
+        Organism[] placed = new Organism[ROWS * COLS];
+        boolean[] eaten = new boolean[ROWS * COLS];
+        // La misma semilla da las mismas ediciones en los tres almacenamientos
+        Random random = new Random(48);
+
+        for (int edit = 0; edit < EDITS; edit++) {
+            int row = random.nextInt(ROWS);
+            int col = random.nextInt(COLS);
+            int cell = row * COLS + col;
+            switch (random.nextInt(6)) {
+                case 0 -> place(map, placed, eaten, row, col,
+                        OrganismFactory.createOrganism(animals.get(random.nextInt(animals.size()))));
+                case 1 -> place(map, placed, eaten, row, col,
+                        OrganismFactory.createOrganism(plants.get(random.nextInt(plants.size()))));
+                case 2 -> place(map, placed, eaten, row, col, Corpse.INSTANCE);
+                case 3 -> place(map, placed, eaten, row, col, null);
+                case 4 -> {
+                    boolean expected = placed[cell] instanceof Plant && !eaten[cell];
+                    assertEquals(expected, map.eatPlantAt(row, col), "eatPlantAt en " + row + "," + col);
+                    eaten[cell] |= expected;
+                }
+                default -> {
+                    boolean expected = placed[cell] instanceof Plant && eaten[cell];
+                    assertEquals(expected, map.revivePlantAt(row, col), "revivePlantAt en " + row + "," + col);
+                    eaten[cell] &= !expected;
+                }
+            }
+            assertCell(map, placed, eaten, row, col);
+
+            if (edit % 5_000 == 4_999) {
+                assertWholeMap(map, placed, eaten);
+            }
+        }
+        assertWholeMap(map, placed, eaten);
+    }
+
+    @Test
+    void unMapaConDemasiadasCeldasSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> new IslandMap(50_000, 50_000));
+        assertThrows(IllegalArgumentException.class, () -> IslandMap.offHeap(50_000, 50_000));
+        assertThrows(IllegalArgumentException.class, () -> new IslandMap(-1, 10));
+
+        // Se rechaza antes de crear el archivo
+        Path file = directory.resolve("enorme.bin");
+        assertThrows(IllegalArgumentException.class, () -> IslandMap.mapped(Integer.MAX_VALUE, 2, file));
+        assertFalse(Files.exists(file));
+    }
+
+    private IslandMap create(String storage, int rows, int cols) throws IOException {
+        return switch (storage) {
+            case "heap" -> new IslandMap(rows, cols);
+            case "offHeap" -> IslandMap.offHeap(rows, cols);
+            case "mapped" -> IslandMap.mapped(rows, cols, directory.resolve("celdas.bin"));
+            default -> throw new IllegalArgumentException(storage);
+        };
+    }
+
+    private static void place(IslandMap map, Organism[] placed, boolean[] eaten, int row, int col, Organism organism) {
+        map.setOrganismAt(row, col, organism);
+        placed[row * COLS + col] = organism;
+        eaten[row * COLS + col] = false;
+    }
+
+    private static void assertCell(IslandMap map, Organism[] placed, boolean[] eaten, int row, int col) {
+        int cell = row * COLS + col;
+        Organism expected = placed[cell];
+        Organism actual = map.getOrganismAt(row, col);
+        String where = " en " + row + "," + col;
+        if (expected == null) {
+            assertNull(actual, "celda vacía" + where);
+        } else if (expected instanceof Animal) {
+            // Los animales conservan su identidad
+            assertSame(expected, actual, "animal" + where);
+        } else {
+            // Plantas y cadáveres pueden ser instancias compartidas
+            assertEquals(expected.getClass(), actual.getClass(), "especie" + where);
+            if (actual instanceof Plant plant) {
+                assertEquals(!eaten[cell], plant.isAlive(), "estado de la planta" + where);
+            }
+        }
+    }
+
+    private static void assertWholeMap(IslandMap map, Organism[] placed, boolean[] eaten) {
+        byte[] expected = new byte[ROWS * COLS];
+        long[] counts = new long[SpeciesCodes.codeCount()];
+        for (int cell = 0; cell < expected.length; cell++) {
+            Organism organism = placed[cell];
+            if (organism == null) {
+                expected[cell] = SpeciesCodes.EMPTY;
+            } else if (eaten[cell]) {
+                expected[cell] = SpeciesCodes.EATEN_PLANT;
+            } else {
+                expected[cell] = organism instanceof Corpse ? SpeciesCodes.CORPSE : SpeciesCodes.codeOf(organism.getClass());
+            }
+            counts[expected[cell]]++;
+            assertCell(map, placed, eaten, cell / COLS, cell % COLS);
+        }
+
+        assertArrayEquals(expected, map.encodeSpeciesCodes(null));
+        for (int code = 0; code < counts.length; code++) {
+            assertEquals(counts[code], map.countCells((byte) code), "celdas con código " + code);
+        }
+        assertTrue(counts[SpeciesCodes.EMPTY] > 0 && counts[SpeciesCodes.EATEN_PLANT] > 0 && counts[SpeciesCodes.CORPSE] > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PerceptionFieldTest {
+    private static final int ROWS = 70;
+    private static final int COLS = 45;
+    private static final int RADIUS = 3;
+
+    private static SimulationThreadPool threadPool;
+
+    @BeforeAll
+    static void startPool() {
+        threadPool = new SimulationThreadPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        threadPool.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void losRecuentosCoincidenConUnRecorridoDeLasCeldas(boolean offHeap) {
+        IslandMap map = offHeap ? IslandMap.offHeap(ROWS, COLS) : new IslandMap(ROWS, COLS);
+        Map<Class<? extends Organism>, Set<Class<? extends Organism>>> diets = OrganismRegistry.getDiets();
+        assertFalse(diets.isEmpty());
+        PerceptionField field = new PerceptionField(map, RADIUS, diets);
+        Random random = new Random(11);
+
+        for (int round = 0; round < 3; round++) {
+            // Cada ronda cambia el mapa y reconstruye las tablas
+            populate(map, random);
+            field.rebuild(threadPool);
+
+            for (Map.Entry<Class<? extends Organism>, Set<Class<? extends Organism>>> diet : diets.entrySet()) {
+                Set<Class<? extends Organism>> prey = diet.getValue();
+                int group = field.groupOf(OrganismFactory.createOrganism(diet.getKey()));
+                String name = diet.getKey().getSimpleName();
+
+                // Rectángulos al azar, también fuera de los límites del mapa
+                for (int i = 0; i < 200; i++) {
+                    int firstRow = random.nextInt(ROWS + 10) - 5;
+                    int firstCol = random.nextInt(COLS + 10) - 5;
+                    int lastRow = firstRow + random.nextInt(15) - 2;
+                    int lastCol = firstCol + random.nextInt(15) - 2;
+                    assertEquals(bruteCount(map, prey, firstRow, firstCol, lastRow, lastCol),
+                            field.count(group, firstRow, firstCol, lastRow, lastCol),
+                            name + " en [" + firstRow + ", " + firstCol + "] - [" + lastRow + ", " + lastCol + "]");
+                }
+
+                for (int row = 0; row < ROWS; row += 3) {
+                    for (int col = 0; col < COLS; col += 2) {
+                        assertEquals(bruteCount(map, prey, row - 1, col - 1, row + 1, col + 1) > 0,
+                                field.anyWithin(group, row, col, 1), name + " junto a " + row + ", " + col);
+                        assertArrayEquals(bruteDirection(map, prey, row, col),
+                                field.directionTo(group, row, col), name + " desde " + row + ", " + col);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Llena el mapa al azar con organismos de todas las especies registradas y celdas vacías.
+     */
+    private static void populate(IslandMap map, Random random) {
+        List<Class<? extends Organism>> types = OrganismRegistry.getAllOrganismTypes();
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                Organism organism = random.nextInt(3) == 0 ? null
+                        : OrganismFactory.createOrganism(types.get(random.nextInt(types.size())));
+                map.setOrganismAt(row, col, organism);
+            }
+        }
+    }
+
+    private static int bruteCount(IslandMap map, Set<Class<? extends Organism>> prey,
+                                  int firstRow, int firstCol, int lastRow, int lastCol) {
+        int count = 0;
+        for (int row = Math.max(0, firstRow); row <= Math.min(ROWS - 1, lastRow); row++) {
+            for (int col = Math.max(0, firstCol); col <= Math.min(COLS - 1, lastCol); col++) {
+                Organism organism = map.getOrganismAt(row, col);
+                if (organism != null && prey.contains(organism.getClass())) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int[] bruteDirection(IslandMap map, Set<Class<? extends Organism>> prey, int row, int col) {
+        int north = bruteCount(map, prey, row - RADIUS, col - RADIUS, row - 1, col + RADIUS);
+        int south = bruteCount(map, prey, row + 1, col - RADIUS, row + RADIUS, col + RADIUS);
+        int west = bruteCount(map, prey, row - RADIUS, col - RADIUS, row + RADIUS, col - 1);
+        int east = bruteCount(map, prey, row - RADIUS, col + 1, row + RADIUS, col + RADIUS);
+        if (north + south + west + east == 0) {
+            return null;
+        }
+        return new int[]{Integer.signum(south - north), Integer.signum(east - west)};
+    }
+}
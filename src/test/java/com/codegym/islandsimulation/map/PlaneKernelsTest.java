@@ -0,0 +1,120 @@
+package com.codegym.islandsimulation.map;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PlaneKernelsTest {
+    // Dos bloques fuera del heap, el segundo incompleto, y un resto que no llena un vector
+    private static final int LENGTH = CellMemory.BLOCK_SIZE + 12_345;
+
+    private static final int[][] RANGES = {
+            {0, LENGTH},
+            {3, LENGTH - 5},
+            {7, 70},
+            {CellMemory.BLOCK_SIZE - 100, CellMemory.BLOCK_SIZE + 100},
+            {CellMemory.BLOCK_SIZE, LENGTH},
+            {500, 500},
+    };
+
+    @Test
+    void elEscalarCoincideConUnRecorridoSimple() {
+        byte[] codes = randomCodes(1);
+        check(PlaneKernels.scalar(), codes);
+    }
+
+    @Test
+    void elVectorialCoincideConElEscalar() {
+        PlaneKernels vector = PlaneKernels.vector();
+        assumeTrue(vector != null, "Núcleos vectoriales no disponibles (mvn -Pvector test)");
+        for (long seed = 1; seed <= 3; seed++) {
+            check(vector, randomCodes(seed));
+        }
+    }
+
+    /**
+     * Compara los tres núcleos con un recorrido simple sobre un arreglo y sobre planos del
+     * heap y fuera de él con los mismos códigos.
+     */
+    private static void check(PlaneKernels kernels, byte[] codes) {
+        BytePlane heap = CellMemory.heap().allocateBytes(LENGTH);
+        BytePlane direct = CellMemory.direct().allocateBytes(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            heap.set(i, codes[i]);
+            direct.set(i, codes[i]);
+        }
+
+        int codeCount = SpeciesCodes.codeCount();
+        for (int[] range : RANGES) {
+            int from = range[0];
+            int to = range[1];
+            String name = kernels.getName() + " [" + from + ", " + to + ")";
+
+            long[] expected = new long[codeCount];
+            for (int i = from; i < to; i++) {
+                if ((codes[i] & 0xFF) < codeCount) {
+                    expected[codes[i] & 0xFF]++;
+                }
+            }
+            long[] counts = new long[codeCount];
+            kernels.histogram(codes, from, to, counts);
+            assertArrayEquals(expected, counts, name + " arreglo");
+            counts = new long[codeCount];
+            kernels.histogram(heap, from, to, counts);
+            assertArrayEquals(expected, counts, name + " heap");
+            counts = new long[codeCount];
+            kernels.histogram(direct, from, to, counts);
+            assertArrayEquals(expected, counts, name + " directo");
+
+            for (byte code : new byte[]{SpeciesCodes.EMPTY, SpeciesCodes.CORPSE, 1, (byte) 0xFF}) {
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    if (codes[i] == code) {
+                        count++;
+                    }
+                }
+                assertEquals(count, kernels.countEqual(codes, from, to, code), name + " código " + code);
+                assertEquals(count, kernels.countEqual(heap, from, to, code), name + " código " + code + " heap");
+                assertEquals(count, kernels.countEqual(direct, from, to, code), name + " código " + code + " directo");
+            }
+        }
+
+        // La superposición solo copia las celdas no vacías
+        byte[] below = randomCodes(99);
+        byte[] expected = below.clone();
+        for (int i = 0; i < LENGTH; i++) {
+            if (codes[i] != SpeciesCodes.EMPTY) {
+                expected[i] = codes[i];
+            }
+        }
+        byte[] target = below.clone();
+        kernels.overlay(codes, target);
+        assertArrayEquals(expected, target, kernels.getName() + " superposición");
+        target = below.clone();
+        kernels.overlay(heap, target);
+        assertArrayEquals(expected, target, kernels.getName() + " superposición heap");
+        target = below.clone();
+        kernels.overlay(direct, target);
+        assertArrayEquals(expected, target, kernels.getName() + " superposición directa");
+    }
+
+    /**
+     * Códigos al azar, con muchas celdas vacías y algunos códigos fuera de rango.
+     */
+    private static byte[] randomCodes(long seed) {
+        Random random = new Random(seed);
+        byte[] codes = new byte[LENGTH];
+        int codeCount = SpeciesCodes.codeCount();
+        for (int i = 0; i < LENGTH; i++) {
+            int draw = random.nextInt(100);
+            codes[i] = draw < 40 ? SpeciesCodes.EMPTY
+                    : draw < 98 ? (byte) random.nextInt(codeCount)
+                    : (byte) (codeCount + random.nextInt(256 - codeCount));
+        }
+        return codes;
+    }
+}
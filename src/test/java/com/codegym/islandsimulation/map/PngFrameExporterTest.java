@@ -0,0 +1,172 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.output.DropPolicy;
+import com.codegym.islandsimulation.output.OutputPipeline;
+import com.codegym.islandsimulation.output.OutputSink;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PngFrameExporterTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Filas primas: ningún número de franjas las reparte en partes iguales, así que la última
+     * franja es más corta que las demás.
+     */
+    @ParameterizedTest
+    @CsvSource({"1009, 7, 1", "503, 11, 2", "1, 3, 3"})
+    void elFotogramaSeDecodificaConLosColoresDeLaPaleta(int rows, int cols, int blockSize) throws Exception {
+        IslandMap map = new IslandMap(rows, cols);
+        List<Class<? extends Organism>> types = OrganismRegistry.getAllOrganismTypes();
+        Random random = new Random(rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (random.nextInt(4) != 0) {
+                    map.setOrganismAt(row, col, OrganismFactory.createOrganism(types.get(random.nextInt(types.size()))));
+                }
+            }
+        }
+        byte[] codes = map.encodeSpeciesCodes(null);
+
+        SimulationThreadPool threadPool = new SimulationThreadPool(4);
+        OutputPipeline pipeline = new OutputPipeline(false);
+        try {
+            OutputSink sink = pipeline.addSink("png", 4, DropPolicy.DROP_NEWEST);
+            PngFrameExporter exporter = new PngFrameExporter(threadPool, sink, directory, 1, blockSize);
+            exporter.onCycleCompleted(7, map);
+            assertTrue(pipeline.close(Duration.ofSeconds(30)));
+            assertEquals(1, exporter.getFramesWritten());
+        } finally {
+            threadPool.shutdown();
+        }
+
+        Path file = directory.resolve("frame_00000007.png");
+        // El flujo zlib de todas las franjas se descomprime entero y su Adler-32 es correcto
+        byte[] raw = inflate(concatenatedIdat(Files.readAllBytes(file)));
+        assertEquals(rows * blockSize * (cols * blockSize + 1), raw.length);
+
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertNotNull(image);
+        assertEquals(cols * blockSize, image.getWidth());
+        assertEquals(rows * blockSize, image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int code = codes[(y / blockSize) * cols + x / blockSize];
+                assertEquals(code, image.getRaster().getSample(x, y, 0), "índice en " + x + ", " + y);
+                assertEquals(SpeciesCodes.colorOf(code), image.getRGB(x, y) & 0xFFFFFF, "color en " + x + ", " + y);
+            }
+        }
+    }
+
+    /**
+     * Une los datos de los bloques IDAT de un PNG.
+     */
+    private static byte[] concatenatedIdat(byte[] png) {
+        ByteBuffer buffer = ByteBuffer.wrap(png);
+        buffer.position(8);
+        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        while (buffer.remaining() >= 12) {
+            int length = buffer.getInt();
+            byte[] type = new byte[4];
+            buffer.get(type);
+            if (new String(type, StandardCharsets.US_ASCII).equals("IDAT")) {
+                idat.write(png, buffer.position(), length);
+            }
+            buffer.position(buffer.position() + length + 4);
+        }
+        return idat.toByteArray();
+    }
+
+    /**
+     * Descomprime un flujo zlib completo; el Inflater rechaza un Adler-32 incorrecto.
+     */
+    private static byte[] inflate(byte[] zlib) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(zlib);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[64 * 1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new AssertionError("Flujo zlib incompleto");
+                }
+                out.write(chunk, 0, n);
+            }
+            assertEquals(0, inflater.getRemaining());
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    void combinarAdler32EquivaleACalcularloSobreLosDatosConcatenados() {
+        Random random = new Random(5);
+        // Longitudes vacías, pequeñas y mayores que el módulo de Adler-32
+        int[] lengths = {0, 1, 2, 100, 65520, 65521, 65522, 200_000};
+        for (int length1 : lengths) {
+            for (int length2 : lengths) {
+                byte[] data = new byte[length1 + length2];
+                random.nextBytes(data);
+                // Bytes altos para que las sumas parciales lleguen cerca del módulo
+                for (int i = 0; i < data.length; i += 3) {
+                    data[i] = (byte) 0xFF;
+                }
+
+                Adler32 whole = new Adler32();
+                whole.update(data, 0, data.length);
+                Adler32 first = new Adler32();
+                first.update(data, 0, length1);
+                Adler32 second = new Adler32();
+                second.update(data, length1, length2);
+
+                assertEquals(whole.getValue(), PngFrameExporter.combineAdler32(first.getValue(), second.getValue(), length2),
+                        length1 + " + " + length2);
+            }
+        }
+    }
+
+    @Test
+    void combinarVariasPartesEnOrden() {
+        byte[] data = new byte[300_000];
+        new Random(9).nextBytes(data);
+        Adler32 whole = new Adler32();
+        whole.update(data, 0, data.length);
+
+        long combined = 1L;
+        int[] cuts = {0, 17, 65_521, 65_600, 131_042, 299_999, data.length};
+        for (int i = 0; i + 1 < cuts.length; i++) {
+            Adler32 part = new Adler32();
+            part.update(data, cuts[i], cuts[i + 1] - cuts[i]);
+            combined = PngFrameExporter.combineAdler32(combined, part.getValue(), cuts[i + 1] - cuts[i]);
+        }
+        assertEquals(whole.getValue(), combined);
+    }
+}
@@ -0,0 +1,136 @@
+package com.codegym.islandsimulation.map;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Rabbit;
+import com.codegym.islandsimulation.entities.animals.Wolf;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedGridExporterTest {
+    private static final int ROWS = 20;
+    private static final int COLS = 30;
+    private static final List<String> COUNTERS = List.of("ciclo", "animales");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void elLectorVeElUltimoFotogramaPublicado() throws Exception {
+        Path file = directory.resolve("grid.bin");
+        IslandMap map = new IslandMap(ROWS, COLS);
+        try (SharedGridExporter exporter = new SharedGridExporter(file, ROWS, COLS, COUNTERS, 4);
+             SharedGridReader reader = SharedGridReader.open(file)) {
+            assertEquals(ROWS, reader.getRows());
+            assertEquals(COLS, reader.getCols());
+            assertEquals(COUNTERS, reader.getCounterNames());
+            assertNull(reader.latest());
+
+            for (int cycle = 1; cycle <= 6; cycle++) {
+                map.setOrganismAt(cycle, cycle, OrganismFactory.createOrganism(cycle % 2 == 0 ? Rabbit.class : Wolf.class));
+                exporter.publish(new long[]{cycle, cycle * 10L}, map);
+
+                SharedGridReader.Frame frame = reader.latest();
+                assertNotNull(frame);
+                assertEquals(cycle - 1, frame.getNumber());
+                assertEquals(cycle, frame.counter(0));
+                assertEquals(cycle * 10L, frame.counter(1));
+                byte[] codes = new byte[ROWS * COLS];
+                frame.copyCodes(codes);
+                assertArrayEquals(map.encodeSpeciesCodes(null), codes);
+                assertEquals(SpeciesCodes.codeOf(map.getOrganismAt(cycle, cycle)), frame.code(cycle, cycle));
+                assertTrue(frame.isValid());
+            }
+            assertEquals(6, reader.getPublishedFrames());
+        }
+    }
+
+    @Test
+    void unFotogramaSobrescritoDejaDeSerValido() throws Exception {
+        Path file = directory.resolve("grid.bin");
+        IslandMap map = new IslandMap(ROWS, COLS);
+        try (SharedGridExporter exporter = new SharedGridExporter(file, ROWS, COLS, COUNTERS, 3);
+             SharedGridReader reader = SharedGridReader.open(file)) {
+            exporter.publish(new long[]{1, 0}, map);
+            SharedGridReader.Frame frame = reader.latest();
+            assertNotNull(frame);
+
+            // Los dos huecos siguientes no tocan el del fotograma leído
+            exporter.publish(new long[]{2, 0}, map);
+            exporter.publish(new long[]{3, 0}, map);
+            assertTrue(frame.isValid());
+
+            // El cuarto reutiliza su hueco
+            exporter.publish(new long[]{4, 0}, map);
+            assertFalse(frame.isValid());
+            assertEquals(4, reader.latest().counter(0));
+        }
+    }
+
+    @Test
+    void losFotogramasValidosNuncaMezclanCiclos() throws Exception {
+        Path file = directory.resolve("grid.bin");
+        IslandMap map = new IslandMap(ROWS, COLS);
+        Organism rabbit = OrganismFactory.createOrganism(Rabbit.class);
+        Organism wolf = OrganismFactory.createOrganism(Wolf.class);
+        byte[] expected = {SpeciesCodes.codeOf(Rabbit.class), SpeciesCodes.codeOf(Wolf.class)};
+
+        try (SharedGridExporter exporter = new SharedGridExporter(file, ROWS, COLS, COUNTERS, 2);
+             SharedGridReader reader = SharedGridReader.open(file)) {
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicLong validFrames = new AtomicLong();
+            AtomicReference<String> failure = new AtomicReference<>();
+            Thread readerThread = new Thread(() -> {
+                byte[] codes = new byte[ROWS * COLS];
+                while (!done.get() && failure.get() == null) {
+                    SharedGridReader.Frame frame = reader.latest();
+                    if (frame == null) {
+                        continue;
+                    }
+                    long cycle = frame.counter(0);
+                    frame.copyCodes(codes);
+                    if (!frame.isValid()) {
+                        continue;
+                    }
+                    validFrames.incrementAndGet();
+                    // Un fotograma válido es de un solo ciclo: todas sus celdas de la misma especie
+                    for (byte code : codes) {
+                        if (code != expected[(int) (cycle % 2)]) {
+                            failure.set("Fotograma " + frame.getNumber() + " mezcla ciclos");
+                            break;
+                        }
+                    }
+                }
+            });
+            readerThread.start();
+
+            for (int cycle = 0; cycle < 5000; cycle++) {
+                Organism organism = cycle % 2 == 0 ? rabbit : wolf;
+                for (int row = 0; row < ROWS; row++) {
+                    for (int col = 0; col < COLS; col++) {
+                        map.setOrganismAt(row, col, organism);
+                    }
+                }
+                exporter.publish(new long[]{cycle, ROWS * COLS}, map);
+            }
+            done.set(true);
+            readerThread.join();
+
+            assertNull(failure.get(), failure.get());
+            assertTrue(validFrames.get() > 0);
+        }
+    }
+}
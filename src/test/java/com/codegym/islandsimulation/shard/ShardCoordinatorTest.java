@@ -0,0 +1,58 @@
+package com.codegym.islandsimulation.shard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ShardCoordinatorTest {
+    private static final int CYCLES = 3;
+
+    // Línea de progreso de un ciclo: "🔄 Ciclo N (... ms la banda más lenta): M animales [...]"
+    private static final Pattern CYCLE_LINE = Pattern.compile("Ciclo (\\d+) \\(\\d+ ms la banda más lenta\\): (\\d+) animales");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void dosBandasEnProcesosPropios() throws Exception {
+        Path bandOutput = directory.resolve("bandas.log");
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        ShardCoordinator coordinator = new ShardCoordinator(80, 40, 2, 1,
+                new PrintStream(log, true, StandardCharsets.UTF_8), ProcessBuilder.Redirect.appendTo(bandOutput.toFile()));
+        try {
+            coordinator.run(CYCLES);
+        } catch (IOException e) {
+            fail("Falló el modo repartido. Salida de las bandas:\n" + readIfExists(bandOutput), e);
+        }
+
+        List<String> lines = log.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.stream().anyMatch(line -> line.contains("2 bandas de 40x40")), () -> String.join("\n", lines));
+        assertTrue(lines.stream().anyMatch(line -> line.contains(CYCLES + " ciclos en")), () -> String.join("\n", lines));
+
+        // Los procesos informan del primer y el último ciclo, con animales en la isla
+        long reported = lines.stream().map(CYCLE_LINE::matcher).filter(Matcher::find).peek(matcher -> {
+            assertTrue(Long.parseLong(matcher.group(2)) > 0, matcher.group());
+        }).map(matcher -> Integer.parseInt(matcher.group(1))).filter(cycle -> cycle == 1 || cycle == CYCLES).count();
+        assertEquals(2, reported, () -> String.join("\n", lines));
+    }
+
+    private static String readIfExists(Path file) throws IOException {
+        return Files.exists(file) ? Files.readString(file) : "(sin salida)";
+    }
+}
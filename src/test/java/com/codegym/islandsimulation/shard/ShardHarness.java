@@ -0,0 +1,292 @@
+package com.codegym.islandsimulation.shard;
+
+import com.codegym.islandsimulation.engine.IslandEngine;
+import com.codegym.islandsimulation.engine.SimulationParameters;
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Animal;
+import com.codegym.islandsimulation.factory.OrganismKind;
+import com.codegym.islandsimulation.factory.OrganismRegistry;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.MapBand;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Banco de pruebas del modo repartido en una sola máquina. Ejecuta la isla en bandas que se
+ * comunican por sockets locales, con el mismo {@link ShardCoordinator} y el mismo
+ * {@link ShardWorker} que en el modo de varios procesos, pero cada banda en un hilo de esta JVM,
+ * de modo que entre ciclos puede inspeccionar sus motores. Tras cada intercambio comprueba:
+ * <ul>
+ *     <li>Halos: cada celda del halo de una banda tiene el código de la celda de la vecina que
+ *     copia. Solo se admiten diferencias donde la vecina acaba de colocar un inmigrante, porque
+ *     el borde se envía antes de aplicar los mensajes recibidos.</li>
+ *     <li>Población: los recuentos de cada banda coinciden con sus filas propias, el informe del
+ *     coordinador con la suma de las bandas, y cada emigrante llega a su destino o consta como
+ *     rechazado.</li>
+ * </ul>
+ * Además ejecuta la misma isla en un solo motor y compara con ella el terreno (idéntico fila a
+ * fila), la población inicial de cada especie (igual salvo el redondeo de cada banda) y la
+ * población total de cada ciclo, que solo se informa: la simulación no es determinista.
+ * Nada se escribe en la consola: los fallos, las poblaciones y el progreso del coordinador
+ * van en el {@link Result}.
+ */
+final class ShardHarness {
+    // Diferencias que se enumeran como mucho por comprobación
+    private static final int MAX_REPORTED_FAILURES = 20;
+
+    private final ShardCoordinator coordinator;
+
+    // Progreso del coordinador
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+    private final List<MapBand> bands;
+    private final List<Class<? extends Organism>> species;
+    private final AtomicReferenceArray<ShardWorker> workers;
+
+    // Errores de las bandas y fallos de las comprobaciones
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    // Población total de cada ciclo en bandas y en un solo motor
+    private final List<long[]> totals = new ArrayList<>();
+
+    // Inmigrantes colocados por cada banda hasta el ciclo anterior
+    private final long[] previousImmigrants;
+
+    private ShardHarness(int rows, int cols, int shards, long seed) {
+        this.coordinator = new ShardCoordinator(rows, cols, shards, seed,
+                new PrintStream(log, true, StandardCharsets.UTF_8), ProcessBuilder.Redirect.DISCARD);
+        this.bands = MapBand.split(rows, shards, coordinator.getHalo());
+        this.species = OrganismRegistry.getOrganismTypes(OrganismKind.ANIMAL);
+        this.workers = new AtomicReferenceArray<>(shards);
+        this.previousImmigrants = new long[shards];
+    }
+
+    /**
+     * Ejecuta la isla en bandas y en un solo motor y compara ambas ejecuciones.
+     * @param rows Filas de la isla
+     * @param cols Columnas de la isla
+     * @param shards Número de bandas
+     * @param cycles Número de ciclos
+     * @param seed Semilla de la isla
+     * @return Los fallos encontrados, la población total de cada ciclo y el progreso
+     */
+    static Result run(int rows, int cols, int shards, int cycles, long seed) throws IOException, InterruptedException {
+        ShardHarness harness = new ShardHarness(rows, cols, shards, seed);
+        SimulationThreadPool threadPool = new SimulationThreadPool();
+        IslandEngine single = new IslandEngine(rows, cols, seed, threadPool, SimulationParameters.defaults());
+        single.setHtmlOutputEnabled(false);
+        single.setConsoleStatisticsEnabled(false);
+        try {
+            harness.coordinator.run(cycles, harness::launch, (cycle, populations) -> {
+                if (cycle > 0) {
+                    single.updateSimulationCycle();
+                }
+                harness.check(cycle, populations, single);
+            });
+        } finally {
+            single.shutdown();
+            threadPool.shutdown();
+        }
+        return new Result(List.copyOf(harness.failures), List.copyOf(harness.totals),
+                harness.log.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    /**
+     * Arranca una banda en un hilo de esta JVM.
+     */
+    private ShardCoordinator.RunningBand launch(Path socketDirectory, int index) {
+        Thread thread = new Thread(() -> {
+            try {
+                ShardWorker.runBand(socketDirectory, index, coordinator.getShards(), coordinator.getRows(),
+                        coordinator.getCols(), coordinator.getSeed(), coordinator.getHalo(),
+                        worker -> workers.set(index, worker));
+            } catch (IOException | RuntimeException e) {
+                failures.add("La banda " + index + " ha fallado: " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "ShardBand-" + index);
+        thread.start();
+        return new ShardCoordinator.RunningBand() {
+            @Override
+            public void kill() {
+                thread.interrupt();
+            }
+
+            @Override
+            public void await() throws InterruptedException {
+                thread.join();
+            }
+        };
+    }
+
+    /**
+     * Comprueba el estado de las bandas tras el intercambio de un ciclo.
+     */
+    private void check(int cycle, long[] populations, IslandEngine single) {
+        for (int i = 0; i < bands.size(); i++) {
+            // La lectura volátil hace visible el estado que la banda dejó antes de informar
+            if (workers.get(i).getExchangedCycle() != cycle) {
+                fail(cycle, "la banda " + i + " no ha terminado el intercambio");
+                return;
+            }
+        }
+        if (cycle == 0) {
+            checkAgainstSingleEngine(populations, single);
+        }
+        for (int i = 0; i + 1 < bands.size(); i++) {
+            checkHalo(cycle, i, i + 1);
+        }
+        checkPopulations(cycle, populations);
+
+        long sharded = 0;
+        for (long population : populations) {
+            sharded += population;
+        }
+        long alone = 0;
+        for (long population : single.getPopulationCounts().values()) {
+            alone += population;
+        }
+        totals.add(new long[] {sharded, alone});
+        for (int i = 0; i < bands.size(); i++) {
+            previousImmigrants[i] = workers.get(i).getExchange().getImmigrants();
+        }
+    }
+
+    /**
+     * Compara el halo inferior de una banda con las primeras filas propias de la de abajo,
+     * y el halo superior de esta con las últimas filas propias de la de arriba.
+     */
+    private void checkHalo(int cycle, int upperIndex, int lowerIndex) {
+        MapBand upperBand = bands.get(upperIndex);
+        MapBand lowerBand = bands.get(lowerIndex);
+        IslandMap upper = workers.get(upperIndex).getEngine().getIslandMap();
+        IslandMap lower = workers.get(lowerIndex).getEngine().getIslandMap();
+        checkHaloSide(cycle, "inferior de la banda " + upperIndex, upper, upperBand.endOwnedRow(),
+                lower, lowerBand.firstOwnedRow(), upperBand.haloBottom(), lowerIndex);
+        checkHaloSide(cycle, "superior de la banda " + lowerIndex, lower, 0,
+                upper, upperBand.endOwnedRow() - lowerBand.haloTop(), lowerBand.haloTop(), upperIndex);
+    }
+
+    private void checkHaloSide(int cycle, String halo, IslandMap haloMap, int haloStart,
+                               IslandMap ownerMap, int ownerStart, int haloRows, int owner) {
+        int cols = haloMap.getCols();
+        long immigrantCells = 0;
+        int reported = 0;
+        for (int r = 0; r < haloRows; r++) {
+            for (int col = 0; col < cols; col++) {
+                byte copy = SpeciesCodes.codeOf(haloMap.getOrganismAt(haloStart + r, col));
+                Organism original = ownerMap.getOrganismAt(ownerStart + r, col);
+                if (copy == SpeciesCodes.codeOf(original)) {
+                    continue;
+                }
+                if (copy == SpeciesCodes.EMPTY && original instanceof Animal) {
+                    immigrantCells++;
+                } else if (reported++ < MAX_REPORTED_FAILURES) {
+                    fail(cycle, "halo " + halo + ", fila " + r + " columna " + col + ": código " + copy
+                            + " en lugar de " + SpeciesCodes.codeOf(original));
+                }
+            }
+        }
+        long placed = workers.get(owner).getExchange().getImmigrants() - (cycle == 0 ? 0 : previousImmigrants[owner]);
+        if (immigrantCells > placed) {
+            fail(cycle, "halo " + halo + ": " + immigrantCells + " animales que no están en el halo, pero la banda "
+                    + owner + " solo ha recibido " + placed + " inmigrantes");
+        }
+    }
+
+    /**
+     * Comprueba los recuentos de cada banda, la suma del coordinador y los migrantes.
+     */
+    private void checkPopulations(int cycle, long[] populations) {
+        long[] summed = new long[species.size()];
+        long emigrants = 0;
+        long arrived = 0;
+        for (int i = 0; i < bands.size(); i++) {
+            ShardWorker worker = workers.get(i);
+            IslandEngine engine = worker.getEngine();
+            MapBand band = bands.get(i);
+            Map<Class<? extends Organism>, Long> scanned = new HashMap<>();
+            IslandMap map = engine.getIslandMap();
+            for (int row = band.firstOwnedRow(); row < band.endOwnedRow(); row++) {
+                for (int col = 0; col < map.getCols(); col++) {
+                    if (map.getOrganismAt(row, col) instanceof Animal animal) {
+                        scanned.merge(animal.getClass(), 1L, Long::sum);
+                    }
+                }
+            }
+            for (int s = 0; s < species.size(); s++) {
+                long counted = engine.getPopulationCounts().getOrDefault(species.get(s), 0L);
+                long onMap = scanned.getOrDefault(species.get(s), 0L);
+                if (counted != onMap) {
+                    fail(cycle, "la banda " + i + " cuenta " + counted + " " + species.get(s).getSimpleName()
+                            + " pero tiene " + onMap + " en sus filas");
+                }
+                summed[s] += counted;
+            }
+            emigrants += worker.getExchange().getEmigrants();
+            arrived += worker.getExchange().getImmigrants() + worker.getExchange().getRejectedImmigrants();
+        }
+        for (int s = 0; s < species.size(); s++) {
+            if (summed[s] != populations[s]) {
+                fail(cycle, "el coordinador suma " + populations[s] + " " + species.get(s).getSimpleName()
+                        + " y las bandas " + summed[s]);
+            }
+        }
+        if (emigrants != arrived) {
+            fail(cycle, emigrants + " emigrantes enviados, pero " + arrived + " recibidos o rechazados");
+        }
+    }
+
+    /**
+     * Compara el mundo inicial con el de un solo motor: el terreno de cada fila propia y la
+     * población de cada especie, que solo puede diferir en el redondeo de cada banda.
+     */
+    private void checkAgainstSingleEngine(long[] populations, IslandEngine single) {
+        IslandMap whole = single.getIslandMap();
+        int reported = 0;
+        for (int i = 0; i < bands.size(); i++) {
+            MapBand band = bands.get(i);
+            IslandMap map = workers.get(i).getEngine().getIslandMap();
+            for (int row = 0; row < band.localRows(); row++) {
+                for (int col = 0; col < map.getCols(); col++) {
+                    int islandRow = band.toIslandRow(row);
+                    if (map.getTerrain().getCode(row, col) != whole.getTerrain().getCode(islandRow, col)
+                            && reported++ < MAX_REPORTED_FAILURES) {
+                        fail(0, "terreno distinto en la fila " + islandRow + " columna " + col + " de la banda " + i);
+                    }
+                }
+            }
+        }
+        for (int s = 0; s < species.size(); s++) {
+            long alone = single.getPopulationCounts().getOrDefault(species.get(s), 0L);
+            if (Math.abs(populations[s] - alone) > bands.size()) {
+                fail(0, populations[s] + " " + species.get(s).getSimpleName() + " en bandas y " + alone + " en un solo motor");
+            }
+        }
+    }
+
+    private void fail(int cycle, String message) {
+        failures.add("Ciclo " + cycle + ": " + message);
+    }
+
+    /**
+     * Resultado de una ejecución del banco de pruebas.
+     * @param failures Fallos encontrados, vacío si todo coincide
+     * @param totals Población total de cada ciclo: {en bandas, en un solo motor}
+     * @param log Líneas de progreso del coordinador
+     */
+    record Result(List<String> failures, List<long[]> totals, List<String> log) {
+    }
+}
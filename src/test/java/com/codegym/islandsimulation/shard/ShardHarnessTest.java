@@ -0,0 +1,18 @@
+package com.codegym.islandsimulation.shard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardHarnessTest {
+
+    @Test
+    void dosBandasCoincidenConElMapaEntero() throws Exception {
+        ShardHarness.Result result = ShardHarness.run(80, 40, 2, 5, 1);
+        assertTrue(result.failures().isEmpty(), () -> String.join("\n", result.failures()));
+        // El ciclo inicial y los cinco ejecutados
+        assertEquals(6, result.totals().size());
+        assertTrue(result.log().stream().anyMatch(line -> line.contains("5 ciclos en")), () -> String.join("\n", result.log()));
+    }
+}
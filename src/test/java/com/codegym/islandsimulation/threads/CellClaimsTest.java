@@ -0,0 +1,111 @@
+package com.codegym.islandsimulation.threads;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellClaimsTest {
+    private static final int ROWS = 40;
+    private static final int COLS = 50;
+    private static final int THREADS = 8;
+
+    static Stream<CellMemory> memories() {
+        return Stream.of(CellMemory.heap(), CellMemory.direct());
+    }
+
+    @ParameterizedTest
+    @MethodSource("memories")
+    void unSoloGanadorPorCeldaYCiclo(CellMemory memory) throws Exception {
+        CellClaims claims = new CellClaims(ROWS, COLS, memory);
+        for (int cycle = 1; cycle <= 3; cycle++) {
+            claims.beginCycle(cycle);
+            AtomicIntegerArray winners = new AtomicIntegerArray(ROWS * COLS);
+            runConcurrently(thread -> {
+                // Cada hilo recorre las celdas desde un punto distinto para que compitan
+                for (int i = 0; i < ROWS * COLS; i++) {
+                    int cell = (i + thread * 97) % (ROWS * COLS);
+                    if (claims.tryClaim(cell / COLS, cell % COLS)) {
+                        winners.incrementAndGet(cell);
+                    }
+                }
+            });
+            for (int cell = 0; cell < ROWS * COLS; cell++) {
+                assertEquals(1, winners.get(cell), "celda " + cell + " en el ciclo " + cycle);
+                assertTrue(claims.isClaimed(cell / COLS, cell % COLS));
+            }
+            long attempts = (long) cycle * THREADS * ROWS * COLS;
+            assertEquals((long) cycle * ROWS * COLS, claims.getClaimed());
+            assertEquals(attempts - claims.getClaimed(), claims.getConflicts());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("memories")
+    void unCicloNuevoLiberaLasCeldas(CellMemory memory) {
+        CellClaims claims = new CellClaims(ROWS, COLS, memory);
+        claims.beginCycle(1);
+        assertTrue(claims.tryClaim(3, 4));
+        assertFalse(claims.tryClaim(3, 4));
+        assertFalse(claims.isClaimed(4, 3));
+
+        claims.beginCycle(2);
+        assertFalse(claims.isClaimed(3, 4));
+        assertTrue(claims.tryClaim(3, 4));
+        assertTrue(claims.isClaimed(3, 4));
+        assertEquals(2, claims.getClaimed());
+        assertEquals(1, claims.getConflicts());
+    }
+
+    @Test
+    void rechazaCiclosNoPositivos() {
+        CellClaims claims = new CellClaims(ROWS, COLS);
+        assertThrows(IllegalArgumentException.class, () -> claims.beginCycle(0));
+    }
+
+    /**
+     * Lanza la tarea en {@link #THREADS} hilos que arrancan a la vez y espera a que terminen.
+     */
+    static void runConcurrently(ThreadTask task) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(index);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.get(0));
+        }
+    }
+
+    @FunctionalInterface
+    interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,74 @@
+package com.codegym.islandsimulation.threads;
+
+import com.codegym.islandsimulation.map.CellMemory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellReservationsTest {
+    private static final int CELLS = 1000;
+    private static final int OFFERS_PER_CELL = 16;
+
+    static Stream<CellMemory> memories() {
+        return Stream.of(CellMemory.heap(), CellMemory.direct());
+    }
+
+    @ParameterizedTest
+    @MethodSource("memories")
+    void laMenorClaveGanaSinImportarElOrden(CellMemory memory) throws Exception {
+        // Claves distintas por celda, repartidas entre los hilos en un orden mezclado
+        long[][] keys = new long[CELLS][OFFERS_PER_CELL];
+        long[] minimum = new long[CELLS];
+        Random random = new Random(42);
+        for (int cell = 0; cell < CELLS; cell++) {
+            minimum[cell] = Long.MAX_VALUE;
+            for (int k = 0; k < OFFERS_PER_CELL; k++) {
+                keys[cell][k] = ((long) random.nextInt(1 << 24) << 16) | k;
+                minimum[cell] = Math.min(minimum[cell], keys[cell][k]);
+            }
+        }
+
+        CellReservations reservations = new CellReservations(CELLS, memory);
+        for (int round = 0; round < 3; round++) {
+            reservations.beginRound();
+            int shift = round;
+            CellClaimsTest.runConcurrently(thread -> {
+                for (int cell = 0; cell < CELLS; cell++) {
+                    for (int k = thread; k < OFFERS_PER_CELL; k += 8) {
+                        reservations.offer(cell, keys[cell][(k + shift) % OFFERS_PER_CELL]);
+                    }
+                }
+            });
+            for (int cell = 0; cell < CELLS; cell++) {
+                for (long key : keys[cell]) {
+                    assertEquals(key == minimum[cell], reservations.holds(cell, key), "celda " + cell);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("memories")
+    void unaRondaNuevaLiberaLasCeldas(CellMemory memory) {
+        CellReservations reservations = new CellReservations(CELLS, memory);
+        reservations.beginRound();
+        reservations.offer(7, 5);
+        reservations.offer(7, 3);
+        reservations.offer(7, 9);
+        assertTrue(reservations.holds(7, 3));
+        assertFalse(reservations.holds(7, 5));
+
+        // En la ronda siguiente gana la nueva oferta aunque su clave sea mayor
+        reservations.beginRound();
+        assertFalse(reservations.holds(7, 3));
+        reservations.offer(7, 9);
+        assertTrue(reservations.holds(7, 9));
+        assertFalse(reservations.holds(8, 0));
+    }
+}
@@ -0,0 +1,109 @@
+package com.codegym.islandsimulation.threads;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.animals.Deer;
+import com.codegym.islandsimulation.entities.animals.Duck;
+import com.codegym.islandsimulation.entities.animals.Rabbit;
+import com.codegym.islandsimulation.entities.animals.Wolf;
+import com.codegym.islandsimulation.factory.OrganismFactory;
+import com.codegym.islandsimulation.map.IslandMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReproductionExecutorTest {
+    // Varios bloques de animales, para que la fase se reparta entre los hilos
+    private static final int ROWS = 120;
+    private static final int COLS = 100;
+    private static final int CYCLES = 3;
+
+    private static final List<Class<? extends Organism>> SPECIES = List.of(Rabbit.class, Wolf.class, Deer.class, Duck.class);
+
+    @Test
+    void losEventosNoDependenDelNumeroDeHilos() {
+        List<List<String>> reference = run(1);
+        assertFalse(reference.get(0).isEmpty());
+        for (int threads : new int[]{2, 4, 8}) {
+            assertEquals(reference, run(threads), "con " + threads + " hilos");
+        }
+    }
+
+    @Test
+    void cadaCriaTieneUnaCeldaLibreYCadaAnimalUnaSolaPareja() {
+        IslandMap map = populate();
+        SimulationThreadPool threadPool = new SimulationThreadPool(4);
+        SimulationEventRegistry events = new SimulationEventRegistry();
+        try {
+            ReproductionExecutor executor = new ReproductionExecutor(map, threadPool, events);
+            executor.processAnimalReproduction(1);
+        } finally {
+            threadPool.shutdown();
+        }
+
+        Set<Integer> parents = new HashSet<>();
+        Set<Integer> offspring = new HashSet<>();
+        for (ReproductionEvent event : events.getReproductionEvents()) {
+            assertEquals(event.parent1().getClass(), event.parent2().getClass());
+            assertEquals(1, Math.max(Math.abs(event.parent1Row() - event.parent2Row()), Math.abs(event.parent1Col() - event.parent2Col())),
+                    "los padres son vecinos");
+            assertTrue(parents.add(event.parent1Row() * COLS + event.parent1Col()));
+            assertTrue(parents.add(event.parent2Row() * COLS + event.parent2Col()));
+            assertNull(map.getOrganismAt(event.offspringRow(), event.offspringCol()));
+            assertTrue(offspring.add(event.offspringRow() * COLS + event.offspringCol()));
+        }
+    }
+
+    /**
+     * Ejecuta varias fases de reproducción sobre el mismo mapa inicial con un pool de los
+     * hilos indicados y describe los eventos de cada ciclo por especie y celdas.
+     */
+    private static List<List<String>> run(int threads) {
+        IslandMap map = populate();
+        SimulationThreadPool threadPool = new SimulationThreadPool(threads);
+        SimulationEventRegistry events = new SimulationEventRegistry();
+        List<List<String>> cycles = new ArrayList<>();
+        try {
+            ReproductionExecutor executor = new ReproductionExecutor(map, threadPool, events);
+            for (int cycle = 1; cycle <= CYCLES; cycle++) {
+                events.clearReproductionEvents();
+                executor.processAnimalReproduction(cycle);
+                List<String> described = new ArrayList<>();
+                for (ReproductionEvent event : events.getReproductionEvents()) {
+                    described.add(event.parent1().getClass().getSimpleName()
+                            + " " + event.parent1Row() + "," + event.parent1Col()
+                            + " " + event.parent2Row() + "," + event.parent2Col()
+                            + " -> " + event.offspringRow() + "," + event.offspringCol());
+                }
+                cycles.add(described);
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+        return cycles;
+    }
+
+    /**
+     * Mapa con animales de varias especies en un 60 % de las celdas, siempre el mismo.
+     */
+    private static IslandMap populate() {
+        IslandMap map = new IslandMap(ROWS, COLS);
+        Random random = new Random(2024);
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                if (random.nextInt(10) < 6) {
+                    map.setOrganismAt(row, col, OrganismFactory.createOrganism(SPECIES.get(random.nextInt(SPECIES.size()))));
+                }
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,71 @@
+package com.codegym.islandsimulation.world;
+
+import com.codegym.islandsimulation.entities.Organism;
+import com.codegym.islandsimulation.entities.OrganismIds;
+import com.codegym.islandsimulation.map.IslandMap;
+import com.codegym.islandsimulation.map.SpeciesCodes;
+import com.codegym.islandsimulation.threads.SimulationThreadPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorldGeneratorTest {
+    // Teselas pequeñas y un mapa que no es múltiplo de ellas, para tener muchas y de varios tamaños
+    private static final int ROWS = 333;
+    private static final int COLS = 250;
+    private static final int TILE_SIZE = 64;
+    private static final long SEED = 42L;
+
+    @Test
+    void elMundoNoDependeDelNumeroDeHilos() {
+        World single = generate(1);
+        World parallel = generate(8);
+        assertArrayEquals(single.codes(), parallel.codes());
+        assertEquals(single.placed(), parallel.placed());
+    }
+
+    @Test
+    void seColocanExactamenteLasCuotasDeCadaEspecie() {
+        World world = generate(3);
+        Map<Class<? extends Organism>, Double> densities = WorldGenerator.getDefaultDensities();
+        assertEquals(densities.keySet(), world.placed().keySet());
+
+        long cells = (long) ROWS * COLS;
+        for (Map.Entry<Class<? extends Organism>, Double> density : densities.entrySet()) {
+            Class<? extends Organism> species = density.getKey();
+            long expected = Math.round(density.getValue() * cells);
+            assertEquals(expected, world.placed().get(species), species.getSimpleName());
+
+            byte code = SpeciesCodes.codeOf(species);
+            long onMap = 0;
+            for (byte cellCode : world.codes()) {
+                if (cellCode == code) {
+                    onMap++;
+                }
+            }
+            assertEquals(expected, onMap, species.getSimpleName() + " en el mapa");
+        }
+    }
+
+    /**
+     * Genera terreno y organismos con la misma semilla en un pool de los hilos indicados.
+     */
+    private static World generate(int threads) {
+        SimulationThreadPool threadPool = new SimulationThreadPool(threads);
+        try {
+            IslandMap map = new IslandMap(ROWS, COLS);
+            map.setTerrain(new TerrainGenerator(threadPool).generate(ROWS, COLS, SEED));
+            Map<Class<? extends Organism>, Long> placed = new WorldGenerator(threadPool, TILE_SIZE)
+                    .populate(map, SEED, WorldGenerator.getDefaultDensities(), new OrganismIds());
+            return new World(map.encodeSpeciesCodes(null), placed);
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    private record World(byte[] codes, Map<Class<? extends Organism>, Long> placed) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.codegym.islandsimulation.map;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implementación de {@link PlaneKernels} con la Vector API (módulo {@code jdk.incubator.vector}).
+ * Solo se instancia desde {@link PlaneKernels#vector()}, que comprueba antes que el módulo está cargado.
+ *
+ * Los recuentos se acumulan en vectores de bytes, un carril por posición: cada carril suma
+ * como mucho {@link #MAX_STEPS} antes de volcarse a los contadores, para no desbordarse.
+ * El histograma recorre el plano por trozos que caben en la caché L1 y repasa cada trozo una vez
+ * por cada grupo de cuatro códigos, de forma que los acumuladores se quedan en registros.
+ * Los bloques de los planos fuera del heap se recorren con los mismos bucles, cargando los
+ * vectores del búfer en lugar de un arreglo.
+ */
+final class VectorPlaneKernels extends PlaneKernels {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    // Vectores que suma un acumulador entre dos volcados (un byte sin signo por carril)
+    private static final int MAX_STEPS = 255;
+
+    // Celdas de cada trozo del histograma
+    private static final int CHUNK = SPECIES.length() * MAX_STEPS;
+
+    // Orden de los bloques fuera del heap (indiferente para bytes, pero la API lo pide)
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    @Override
+    public void histogram(byte[] plane, int from, int to, long[] counts) {
+        int codes = Math.min(counts.length, 256);
+        byte[] lanes = new byte[SPECIES.length()];
+        for (int start = from; start < to; start += CHUNK) {
+            int end = Math.min(to, start + CHUNK);
+            int vectorEnd = start + SPECIES.loopBound(end - start);
+            // Cuatro códigos por pasada: cada carga se compara cuatro veces
+            int code = 0;
+            for (; code + 3 < codes; code += 4) {
+                byte c0 = (byte) code;
+                byte c1 = (byte) (code + 1);
+                byte c2 = (byte) (code + 2);
+                byte c3 = (byte) (code + 3);
+                ByteVector acc0 = ByteVector.zero(SPECIES);
+                ByteVector acc1 = acc0;
+                ByteVector acc2 = acc0;
+                ByteVector acc3 = acc0;
+                for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+                    ByteVector cells = ByteVector.fromArray(SPECIES, plane, i);
+                    acc0 = acc0.add((byte) 1, cells.eq(c0));
+                    acc1 = acc1.add((byte) 1, cells.eq(c1));
+                    acc2 = acc2.add((byte) 1, cells.eq(c2));
+                    acc3 = acc3.add((byte) 1, cells.eq(c3));
+                }
+                counts[code] += sumUnsigned(acc0, lanes);
+                counts[code + 1] += sumUnsigned(acc1, lanes);
+                counts[code + 2] += sumUnsigned(acc2, lanes);
+                counts[code + 3] += sumUnsigned(acc3, lanes);
+            }
+            for (; code < codes; code++) {
+                byte value = (byte) code;
+                ByteVector acc = ByteVector.zero(SPECIES);
+                for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+                    acc = acc.add((byte) 1, ByteVector.fromArray(SPECIES, plane, i).eq(value));
+                }
+                counts[code] += sumUnsigned(acc, lanes);
+            }
+            for (int i = vectorEnd; i < end; i++) {
+                int value = plane[i] & 0xFF;
+                if (value < codes) {
+                    counts[value]++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long countEqual(byte[] plane, int from, int to, byte code) {
+        byte[] lanes = new byte[SPECIES.length()];
+        long count = 0;
+        int vectorEnd = from + SPECIES.loopBound(to - from);
+        int i = from;
+        while (i < vectorEnd) {
+            int blockEnd = Math.min(vectorEnd, i + CHUNK);
+            ByteVector acc = ByteVector.zero(SPECIES);
+            for (; i < blockEnd; i += SPECIES.length()) {
+                acc = acc.add((byte) 1, ByteVector.fromArray(SPECIES, plane, i).eq(code));
+            }
+            count += sumUnsigned(acc, lanes);
+        }
+        for (; i < to; i++) {
+            if (plane[i] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void overlay(byte[] plane, byte[] target) {
+        int vectorEnd = SPECIES.loopBound(plane.length);
+        int i = 0;
+        for (; i < vectorEnd; i += SPECIES.length()) {
+            ByteVector top = ByteVector.fromArray(SPECIES, plane, i);
+            VectorMask<Byte> occupied = top.compare(VectorOperators.NE, SpeciesCodes.EMPTY);
+            ByteVector.fromArray(SPECIES, target, i).blend(top, occupied).intoArray(target, i);
+        }
+        for (; i < plane.length; i++) {
+            if (plane[i] != SpeciesCodes.EMPTY) {
+                target[i] = plane[i];
+            }
+        }
+    }
+
+    @Override
+    void histogram(ByteBuffer plane, int from, int to, long[] counts) {
+        int codes = Math.min(counts.length, 256);
+        byte[] lanes = new byte[SPECIES.length()];
+        for (int start = from; start < to; start += CHUNK) {
+            int end = Math.min(to, start + CHUNK);
+            int vectorEnd = start + SPECIES.loopBound(end - start);
+            // Cuatro códigos por pasada: cada carga se compara cuatro veces
+            int code = 0;
+            for (; code + 3 < codes; code += 4) {
+                byte c0 = (byte) code;
+                byte c1 = (byte) (code + 1);
+                byte c2 = (byte) (code + 2);
+                byte c3 = (byte) (code + 3);
+                ByteVector acc0 = ByteVector.zero(SPECIES);
+                ByteVector acc1 = acc0;
+                ByteVector acc2 = acc0;
+                ByteVector acc3 = acc0;
+                for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+                    ByteVector cells = ByteVector.fromByteBuffer(SPECIES, plane, i, ORDER);
+                    acc0 = acc0.add((byte) 1, cells.eq(c0));
+                    acc1 = acc1.add((byte) 1, cells.eq(c1));
+                    acc2 = acc2.add((byte) 1, cells.eq(c2));
+                    acc3 = acc3.add((byte) 1, cells.eq(c3));
+                }
+                counts[code] += sumUnsigned(acc0, lanes);
+                counts[code + 1] += sumUnsigned(acc1, lanes);
+                counts[code + 2] += sumUnsigned(acc2, lanes);
+                counts[code + 3] += sumUnsigned(acc3, lanes);
+            }
+            for (; code < codes; code++) {
+                byte value = (byte) code;
+                ByteVector acc = ByteVector.zero(SPECIES);
+                for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+                    acc = acc.add((byte) 1, ByteVector.fromByteBuffer(SPECIES, plane, i, ORDER).eq(value));
+                }
+                counts[code] += sumUnsigned(acc, lanes);
+            }
+            for (int i = vectorEnd; i < end; i++) {
+                int value = plane.get(i) & 0xFF;
+                if (value < codes) {
+                    counts[value]++;
+                }
+            }
+        }
+    }
+
+    @Override
+    long countEqual(ByteBuffer plane, int from, int to, byte code) {
+        byte[] lanes = new byte[SPECIES.length()];
+        long count = 0;
+        int vectorEnd = from + SPECIES.loopBound(to - from);
+        int i = from;
+        while (i < vectorEnd) {
+            int blockEnd = Math.min(vectorEnd, i + CHUNK);
+            ByteVector acc = ByteVector.zero(SPECIES);
+            for (; i < blockEnd; i += SPECIES.length()) {
+                acc = acc.add((byte) 1, ByteVector.fromByteBuffer(SPECIES, plane, i, ORDER).eq(code));
+            }
+            count += sumUnsigned(acc, lanes);
+        }
+        for (; i < to; i++) {
+            if (plane.get(i) == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    void overlay(ByteBuffer plane, byte[] target, int targetOffset) {
+        int length = plane.capacity();
+        int vectorEnd = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < vectorEnd; i += SPECIES.length()) {
+            ByteVector top = ByteVector.fromByteBuffer(SPECIES, plane, i, ORDER);
+            VectorMask<Byte> occupied = top.compare(VectorOperators.NE, SpeciesCodes.EMPTY);
+            int t = targetOffset + i;
+            ByteVector.fromArray(SPECIES, target, t).blend(top, occupied).intoArray(target, t);
+        }
+        for (; i < length; i++) {
+            byte code = plane.get(i);
+            if (code != SpeciesCodes.EMPTY) {
+                target[targetOffset + i] = code;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vectorial (" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+    /**
+     * Suma los carriles de un acumulador como bytes sin signo.
+     */
+    private static long sumUnsigned(ByteVector acc, byte[] lanes) {
+        acc.intoArray(lanes, 0);
+        long sum = 0;
+        for (byte lane : lanes) {
+            sum += lane & 0xFF;
+        }
+        return sum;
+    }
+}